@@ -0,0 +1,149 @@
+package com.users.management.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserDTOSerializationBenchmark {
+
+    @Param({"100"})
+    private int listSize;
+
+    private ObjectWriter userWriter;
+
+    private ObjectWriter userListWriter;
+
+    private ObjectReader userReader;
+
+    private ObjectWriter smileUserListWriter;
+
+    private ObjectWriter cborUserListWriter;
+
+    private ObjectReader userListReader;
+
+    private ObjectReader smileUserListReader;
+
+    private ObjectReader cborUserListReader;
+
+    private UserDTO userDTO;
+
+    private List<UserDTO> userDTOList;
+
+    private List<UserDTO> projectedUserDTOList;
+
+    private byte[] userJson;
+
+    private byte[] userListJson;
+
+    private byte[] userListSmile;
+
+    private byte[] userListCbor;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        userWriter = objectMapper.writerFor(UserDTO.class);
+        userListWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, UserDTO.class));
+        userReader = objectMapper.readerFor(UserDTO.class);
+
+        ObjectMapper smileObjectMapper = Jackson2ObjectMapperBuilder.smile().build();
+        ObjectMapper cborObjectMapper = Jackson2ObjectMapperBuilder.cbor().build();
+
+        smileUserListWriter = smileObjectMapper.writerFor(smileObjectMapper.getTypeFactory().constructCollectionType(List.class, UserDTO.class));
+        cborUserListWriter = cborObjectMapper.writerFor(cborObjectMapper.getTypeFactory().constructCollectionType(List.class, UserDTO.class));
+        userListReader = objectMapper.readerFor(UserDTO[].class);
+        smileUserListReader = smileObjectMapper.readerFor(UserDTO[].class);
+        cborUserListReader = cborObjectMapper.readerFor(UserDTO[].class);
+
+        userDTO = new UserDTO();
+        userDTO.setId("5cb4a8a1e4b0f1a2b3c4d5e6");
+        userDTO.setFirstName("firstName");
+        userDTO.setLastName("lastName");
+        userDTO.setEmailAddress("valid@email.address");
+        userDTO.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        userDTOList = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            userDTOList.add(userDTO);
+        }
+
+        UserDTO projectedUserDTO = new UserDTO();
+        projectedUserDTO.setId(userDTO.getId());
+        projectedUserDTO.setEmailAddress(userDTO.getEmailAddress());
+
+        projectedUserDTOList = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            projectedUserDTOList.add(projectedUserDTO);
+        }
+
+        userJson = userWriter.writeValueAsBytes(userDTO);
+
+        userListJson = userListWriter.writeValueAsBytes(userDTOList);
+        userListSmile = smileUserListWriter.writeValueAsBytes(userDTOList);
+        userListCbor = cborUserListWriter.writeValueAsBytes(userDTOList);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws IOException {
+        return userWriter.writeValueAsBytes(userDTO);
+    }
+
+    @Benchmark
+    public byte[] serializeUserList() throws IOException {
+        return userListWriter.writeValueAsBytes(userDTOList);
+    }
+
+    @Benchmark
+    public byte[] serializeProjectedUserList() throws IOException {
+        return userListWriter.writeValueAsBytes(projectedUserDTOList);
+    }
+
+    @Benchmark
+    public byte[] serializeUserListSmile() throws IOException {
+        return smileUserListWriter.writeValueAsBytes(userDTOList);
+    }
+
+    @Benchmark
+    public byte[] serializeUserListCbor() throws IOException {
+        return cborUserListWriter.writeValueAsBytes(userDTOList);
+    }
+
+    @Benchmark
+    public UserDTO deserializeUser() throws IOException {
+        return userReader.readValue(userJson);
+    }
+
+    @Benchmark
+    public UserDTO[] deserializeUserList() throws IOException {
+        return userListReader.readValue(userListJson);
+    }
+
+    @Benchmark
+    public UserDTO[] deserializeUserListSmile() throws IOException {
+        return smileUserListReader.readValue(userListSmile);
+    }
+
+    @Benchmark
+    public UserDTO[] deserializeUserListCbor() throws IOException {
+        return cborUserListReader.readValue(userListCbor);
+    }
+}
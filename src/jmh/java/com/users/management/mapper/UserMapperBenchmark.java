@@ -0,0 +1,91 @@
+package com.users.management.mapper;
+
+import com.users.management.dto.UserDTO;
+import com.users.management.model.User;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserMapperBenchmark {
+
+    @Param({"100"})
+    private int listSize;
+
+    private ModelMapper modelMapper;
+
+    private UserMapper userMapper;
+
+    private User user;
+
+    private UserDTO userDTO;
+
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapper();
+        userMapper = new UserMapper();
+
+        user = new User();
+        user.setId("5cb4a8a1e4b0f1a2b3c4d5e6");
+        user.setFirstName("firstName");
+        user.setLastName("lastName");
+        user.setEmailAddress("valid@email.address");
+        user.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        userDTO = userMapper.toDTO(user);
+
+        users = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            users.add(user);
+        }
+    }
+
+    @Benchmark
+    public UserDTO modelMapperToDTO() {
+        return modelMapper.map(user, UserDTO.class);
+    }
+
+    @Benchmark
+    public UserDTO userMapperToDTO() {
+        return userMapper.toDTO(user);
+    }
+
+    @Benchmark
+    public User modelMapperToEntity() {
+        return modelMapper.map(userDTO, User.class);
+    }
+
+    @Benchmark
+    public User userMapperToEntity() {
+        return userMapper.toEntity(userDTO);
+    }
+
+    @Benchmark
+    public List<UserDTO> modelMapperToDTOList() {
+        List<UserDTO> userDTOList = new ArrayList<>();
+
+        users.forEach(user -> userDTOList.add(modelMapper.map(user, UserDTO.class)));
+
+        return userDTOList;
+    }
+
+    @Benchmark
+    public List<UserDTO> userMapperToDTOList() {
+        return userMapper.toDTOList(users);
+    }
+}
@@ -0,0 +1,209 @@
+package com.users.management.repository;
+
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import com.users.management.util.EmailAddresses;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class InMemoryUserRepository implements UserRepository {
+
+    private final ConcurrentSkipListMap<String, User> users = new ConcurrentSkipListMap<>();
+
+    // Stands in for the unique emailAddress index, so email lookups cost what they would in Mongo rather than a scan.
+    private final ConcurrentHashMap<String, User> usersByEmailAddress = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<User> findOneByNormalizedEmailAddress(String normalizedEmailAddress) {
+        return Optional.ofNullable(usersByEmailAddress.get(normalizedEmailAddress));
+    }
+
+    @Override
+    public List<User> findByNormalizedEmailAddresses(Collection<String> normalizedEmailAddresses) {
+        return normalizedEmailAddresses.stream()
+                .map(usersByEmailAddress::get)
+                .filter(user -> user != null)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<User> findProjectedById(String id, Set<String> fields) {
+        return findById(id);
+    }
+
+    @Override
+    public List<User> findUsers(UserQuery query) {
+        try (Stream<User> users = streamUsers(query)) {
+            return users.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Stream<User> streamUsers(UserQuery query) {
+        UserQuery.SortField sortField = query.getSortField();
+
+        if (sortField == UserQuery.SortField.ID && query.getDirection() == Sort.Direction.ASC) {
+            Stream<User> matching = (query.getAfterId() == null ? users : users.tailMap(query.getAfterId(), false))
+                    .values().stream()
+                    .filter(user -> UserQueries.matches(query, user));
+
+            return query.getLimit() > 0 ? matching.limit(query.getLimit()) : matching;
+        }
+
+        Stream<User> matching = users.values().stream()
+                .filter(user -> UserQueries.matches(query, user))
+                .sorted(UserQueries.comparatorOf(query));
+
+        return query.getLimit() > 0 ? matching.limit(query.getLimit()) : matching;
+    }
+
+    @Override
+    public Stream<User> streamAllByOrderByIdAsc() {
+        return users.values().stream();
+    }
+
+    @Override
+    public long removeById(String id) {
+        return unindex(users.remove(id)) == null ? 0 : 1;
+    }
+
+    @Override
+    public long backfillNormalizedEmailAddresses() {
+        return 0;
+    }
+
+    @Override
+    public Stream<String> streamEmailAddresses() {
+        return users.values().stream().map(User::getEmailAddress);
+    }
+
+    @Override
+    public Set<String> findExistingEmailAddresses(Collection<String> emailAddresses) {
+        return emailAddresses.stream()
+                .map(EmailAddresses::normalize)
+                .filter(usersByEmailAddress::containsKey)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Optional<User> updateById(String id, Long expectedVersion, User user) {
+        User existing = users.get(id);
+
+        if (existing == null || (expectedVersion != null && !expectedVersion.equals(existing.getVersion()))) {
+            return Optional.empty();
+        }
+
+        user.setId(id);
+        user.setVersion(existing.getVersion() + 1);
+
+        if (!users.replace(id, existing, user)) {
+            return Optional.empty();
+        }
+
+        unindex(existing);
+        usersByEmailAddress.put(user.getNormalizedEmailAddress(), user);
+
+        return Optional.of(user);
+    }
+
+    @Override
+    public List<BulkItemResult> bulkInsert(List<User> users) {
+        return users.stream()
+                .map(user -> new BulkItemResult(save(user).getId(), BulkItemResult.Status.CREATED, null))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BulkItemResult> bulkUpdate(List<User> users) {
+        return users.stream()
+                .map(user -> updateById(user.getId(), null, user).isPresent()
+                        ? new BulkItemResult(user.getId(), BulkItemResult.Status.UPDATED, null)
+                        : new BulkItemResult(user.getId(), BulkItemResult.Status.NOT_FOUND, null))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BulkItemResult> bulkDelete(List<String> ids) {
+        return ids.stream()
+                .map(id -> removeById(id) == 1
+                        ? new BulkItemResult(id, BulkItemResult.Status.DELETED, null)
+                        : new BulkItemResult(id, BulkItemResult.Status.NOT_FOUND, null))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean storeCopy(User user) {
+        User existing = users.get(user.getId());
+
+        if (existing != null && existing.getVersion() >= user.getVersion()) {
+            return false;
+        }
+
+        save(user);
+
+        return true;
+    }
+
+    @Override
+    public long removeByIdAndVersion(String id, Long version) {
+        User existing = users.get(id);
+
+        if (existing == null || (version != null && !version.equals(existing.getVersion())) || !users.remove(id, existing)) {
+            return 0;
+        }
+
+        unindex(existing);
+
+        return 1;
+    }
+
+    @Override
+    public <S extends User> S save(S entity) {
+        if (entity.getId() == null) {
+            entity.setId(ObjectId.get().toHexString());
+        }
+
+        if (entity.getVersion() == null) {
+            entity.setVersion(0L);
+        }
+
+        unindex(users.put(entity.getId(), entity));
+        usersByEmailAddress.put(entity.getNormalizedEmailAddress(), entity);
+
+        return entity;
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        return Optional.ofNullable(users.get(id));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return users.containsKey(id);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return new ArrayList<>(users.values());
+    }
+
+    private User unindex(User user) {
+        if (user != null) {
+            usersByEmailAddress.remove(user.getNormalizedEmailAddress(), user);
+        }
+
+        return user;
+    }
+}
@@ -0,0 +1,133 @@
+package com.users.management.service;
+
+import com.users.management.exception.DuplicateEmailException;
+import com.users.management.exception.UserDoesNotExistException;
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import com.users.management.repository.InMemoryUserRepository;
+import com.users.management.repository.OffHeapUserRepository;
+import com.users.management.repository.UserRepository;
+import com.users.management.storage.OffHeapUserStore;
+import com.users.management.util.EmailBloomFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserServiceBenchmark {
+
+    @Param({"10000"})
+    private int userCount;
+
+    @Param({"100"})
+    private int pageSize;
+
+    @Param({"memory", "offheap"})
+    private String store;
+
+    private OffHeapUserStore offHeapUserStore;
+
+    private Path offHeapDirectory;
+
+    private UserService userService;
+
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() throws DuplicateEmailException, IOException {
+        UserRepository userRepository;
+
+        if ("offheap".equals(store)) {
+            offHeapDirectory = Files.createTempDirectory("users-offheap");
+            offHeapUserStore = new OffHeapUserStore(offHeapDirectory, 16 * 1024 * 1024, 64 * 1024 * 1024, 256L * 1024 * 1024, false);
+            userRepository = new OffHeapUserRepository(offHeapUserStore);
+        } else {
+            userRepository = new InMemoryUserRepository();
+        }
+
+        UserEmailRegistry userEmailRegistry = new UserEmailRegistry(userRepository, new EmailBloomFilter(userCount * 10L, 0.01));
+
+        userEmailRegistry.warmUp();
+        userService = new UserService(userRepository, userEmailRegistry);
+        ids = new String[userCount];
+
+        for (int i = 0; i < userCount; i++) {
+            ids[i] = userService.createUser(newUser(i)).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (offHeapUserStore != null) {
+            offHeapUserStore.close();
+
+            try (Stream<Path> files = Files.walk(offHeapDirectory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public User createAndDeleteUser() throws UserDoesNotExistException, DuplicateEmailException {
+        User user = userService.createUser(newUser(-1));
+
+        userService.deleteUser(user.getId());
+
+        return user;
+    }
+
+    @Benchmark
+    public User fetchUserById() throws UserDoesNotExistException {
+        return userService.fetchUserById(randomId());
+    }
+
+    @Benchmark
+    public List<User> fetchUsersPage() {
+        UserQuery query = new UserQuery();
+        query.setAfterId(randomId());
+        query.setLimit(pageSize);
+
+        return userService.fetchUsers(query);
+    }
+
+    @Benchmark
+    public User editUser() throws UserDoesNotExistException {
+        String id = randomId();
+
+        return userService.editUser(id, newUser(id.hashCode()));
+    }
+
+    private String randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private static User newUser(int index) {
+        User user = new User();
+
+        user.setFirstName("firstName" + index);
+        user.setLastName("lastName" + index);
+        user.setEmailAddress("user" + index + "@email.address");
+        user.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        return user;
+    }
+}
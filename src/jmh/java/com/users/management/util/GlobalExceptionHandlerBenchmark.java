@@ -0,0 +1,80 @@
+package com.users.management.util;
+
+import com.users.management.controller.UserController;
+import com.users.management.dto.ErrorDTO;
+import com.users.management.dto.UserDTO;
+import com.users.management.exception.DuplicateEmailException;
+import com.users.management.exception.UserDoesNotExistException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.MethodParameter;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GlobalExceptionHandlerBenchmark {
+
+    private static final String DUPLICATE_KEY_MESSAGE = "E11000 duplicate key error collection: userManagement.user "
+            + "index: emailAddress dup key: { : \"valid@email.address\" }";
+
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    private DuplicateKeyException duplicateKeyException;
+
+    private MethodArgumentNotValidException methodArgumentNotValidException;
+
+    private WebRequest webRequest;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        globalExceptionHandler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+        duplicateKeyException = new DuplicateKeyException(DUPLICATE_KEY_MESSAGE);
+        webRequest = new ServletWebRequest(new MockHttpServletRequest());
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new UserDTO(), "userDTO");
+        bindingResult.rejectValue("firstName", "NotBlank", "must not be blank");
+        bindingResult.rejectValue("emailAddress", "Email", "must be a well-formed email address");
+        bindingResult.rejectValue("dateOfBirth", "Past", "must be a date in the past");
+
+        MethodParameter parameter = new MethodParameter(UserController.class.getMethod("createUser", UserDTO.class), 0);
+        methodArgumentNotValidException = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public ErrorDTO userDoesNotExist() {
+        return globalExceptionHandler.userDoesNotExist(new UserDoesNotExistException("The user with id 'userId' does not exist"));
+    }
+
+    @Benchmark
+    public ErrorDTO duplicateKey() {
+        return globalExceptionHandler.duplicateKey(duplicateKeyException);
+    }
+
+    @Benchmark
+    public ErrorDTO duplicateEmail() {
+        return globalExceptionHandler.duplicateEmail(new DuplicateEmailException("emailAddress must be unique"));
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> methodArgumentNotValid() {
+        return globalExceptionHandler.handleMethodArgumentNotValid(methodArgumentNotValidException,
+                new HttpHeaders(), HttpStatus.BAD_REQUEST, webRequest);
+    }
+}
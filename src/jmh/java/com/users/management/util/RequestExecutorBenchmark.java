@@ -0,0 +1,91 @@
+package com.users.management.util;
+
+import com.users.management.dto.UserDTO;
+import com.users.management.mapper.UserMapper;
+import com.users.management.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// One operation is a burst of concurrent requests that each map a user and then block as if waiting on Mongo.
+// VIRTUAL needs a Java 21 JVM, e.g. -PjmhInclude=RequestExecutorBenchmark with JAVA_HOME pointing at one.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RequestExecutorBenchmark {
+
+    @Param({"BOUNDED", "VIRTUAL"})
+    private String mode;
+
+    @Param({"1000"})
+    private int concurrentRequests;
+
+    @Param({"200"})
+    private int maxThreads;
+
+    @Param({"2"})
+    private long mongoMillis;
+
+    private ExecutorService executor;
+
+    private List<Callable<User>> requests;
+
+    @Setup
+    public void setup() {
+        executor = "VIRTUAL".equals(mode)
+                ? RequestExecutors.virtual()
+                : RequestExecutors.bounded(maxThreads, concurrentRequests, Duration.ofMinutes(1));
+
+        UserMapper userMapper = new UserMapper();
+        UserDTO userDTO = new UserDTO();
+        userDTO.setFirstName("firstName");
+        userDTO.setLastName("lastName");
+        userDTO.setEmailAddress("valid@email.address");
+        userDTO.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        requests = new ArrayList<>(concurrentRequests);
+
+        for (int i = 0; i < concurrentRequests; i++) {
+            requests.add(() -> {
+                User user = userMapper.toEntity(userDTO);
+                Thread.sleep(mongoMillis);
+
+                return user;
+            });
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    @Benchmark
+    public int handleBurst() throws Exception {
+        int handled = 0;
+
+        for (Future<User> response : executor.invokeAll(requests)) {
+            if (response.get() != null) {
+                handled++;
+            }
+        }
+
+        return handled;
+    }
+}
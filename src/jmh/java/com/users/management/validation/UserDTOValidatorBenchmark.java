@@ -0,0 +1,122 @@
+package com.users.management.validation;
+
+import com.users.management.dto.ErrorDTO;
+import com.users.management.dto.UserDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserDTOValidatorBenchmark {
+
+    private LocalValidatorFactoryBean beanValidator;
+
+    private UserDTOValidator userDTOValidator;
+
+    private UserDTO validUserDTO;
+
+    private UserDTO invalidUserDTO;
+
+    private UserDTO malformedEmailUserDTO;
+
+    @Setup
+    public void setup() {
+        beanValidator = new LocalValidatorFactoryBean();
+        beanValidator.afterPropertiesSet();
+        userDTOValidator = new UserDTOValidator();
+
+        validUserDTO = new UserDTO();
+        validUserDTO.setFirstName("firstName");
+        validUserDTO.setLastName("lastName");
+        validUserDTO.setEmailAddress("valid@email.address");
+        validUserDTO.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        invalidUserDTO = new UserDTO();
+        invalidUserDTO.setFirstName(" ");
+        invalidUserDTO.setLastName("lastName");
+        invalidUserDTO.setEmailAddress("invalidemailaddress");
+        invalidUserDTO.setDateOfBirth(LocalDate.now().plusDays(1));
+
+        malformedEmailUserDTO = new UserDTO();
+        malformedEmailUserDTO.setFirstName("firstName");
+        malformedEmailUserDTO.setLastName("lastName");
+        malformedEmailUserDTO.setEmailAddress("dots..in@email.address");
+        malformedEmailUserDTO.setDateOfBirth(LocalDate.of(2000, 1, 1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        beanValidator.close();
+    }
+
+    @Benchmark
+    public List<ErrorDTO> beanValidationRejected() {
+        return formatted(validate(beanValidator, invalidUserDTO));
+    }
+
+    @Benchmark
+    public List<ErrorDTO> precompiledRejected() {
+        return ValidationErrors.toErrors(validate(userDTOValidator, invalidUserDTO));
+    }
+
+    @Benchmark
+    public List<ErrorDTO> precompiledBulkRejected() {
+        return userDTOValidator.validate(invalidUserDTO);
+    }
+
+    // Only the email address is wrong, so this is the cost of the format check itself.
+    @Benchmark
+    public List<ErrorDTO> beanValidationMalformedEmail() {
+        return formatted(validate(beanValidator, malformedEmailUserDTO));
+    }
+
+    @Benchmark
+    public List<ErrorDTO> precompiledMalformedEmail() {
+        return ValidationErrors.toErrors(validate(userDTOValidator, malformedEmailUserDTO));
+    }
+
+    @Benchmark
+    public BeanPropertyBindingResult beanValidationAccepted() {
+        return validate(beanValidator, validUserDTO);
+    }
+
+    @Benchmark
+    public BeanPropertyBindingResult precompiledAccepted() {
+        return validate(userDTOValidator, validUserDTO);
+    }
+
+    private static BeanPropertyBindingResult validate(Validator validator, UserDTO userDTO) {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(userDTO, "userDTO");
+
+        validator.validate(userDTO, bindingResult);
+
+        return bindingResult;
+    }
+
+    // How GlobalExceptionHandler used to format every field error.
+    private static List<ErrorDTO> formatted(BeanPropertyBindingResult bindingResult) {
+        List<ErrorDTO> errors = new ArrayList<>();
+
+        for (FieldError error : bindingResult.getFieldErrors()) {
+            errors.add(new ErrorDTO(String.format("%s, %s", error.getField(), error.getDefaultMessage())));
+        }
+
+        return errors;
+    }
+}
@@ -0,0 +1,67 @@
+package com.users.management.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+// Prints a latency table per operation and writes each histogram as <scenario>-<operation>.hgrm,
+// the percentile distribution format HdrHistogram's plotter reads.
+public class LoadReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private Scenario scenario;
+
+    private Map<Operation, OperationStats> stats;
+
+    public LoadReport(Scenario scenario, Map<Operation, OperationStats> stats) {
+        this.scenario = scenario;
+        this.stats = stats;
+    }
+
+    public void write(Duration measured, PrintStream out, Path reportDirectory) throws IOException {
+        Files.createDirectories(reportDirectory);
+
+        out.println(scenario);
+        out.printf("%-8s %9s %9s %9s %9s %9s %9s %9s %9s %9s%n",
+                "", "requests", "req/s", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "mean ms");
+
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().intervalHistogram();
+
+            if (histogram.getTotalCount() == 0 && entry.getValue().dropped() == 0) {
+                continue;
+            }
+
+            out.printf("%-8s %9d %9.1f %9d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().key(),
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() * 1000.0 / measured.toMillis(),
+                    entry.getValue().dropped(),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    histogram.getMean() / MICROS_PER_MILLI);
+            out.printf("%-8s %s%n", "", entry.getValue().outcomes());
+
+            Path file = reportDirectory.resolve(String.format("%s-%s.hgrm", scenario.getName(), entry.getKey().key()));
+
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(hgrm, MICROS_PER_MILLI);
+            }
+        }
+
+        out.printf("Histograms in milliseconds written to %s%n", reportDirectory.toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+}
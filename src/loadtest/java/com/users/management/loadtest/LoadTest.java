@@ -0,0 +1,125 @@
+package com.users.management.loadtest;
+
+import com.users.management.ManagementApplication;
+import com.users.management.dto.UserDTO;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// Runs a scenario against --target, or against an in-process server with the offheap profile when no target is given.
+// Every other --key=value overrides the scenario, e.g. --scenario=read-heavy --rate=2000 --duration=5m.
+public class LoadTest {
+
+    private static final int SEED_CONCURRENCY = 32;
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parse(args);
+        Scenario scenario = Scenario.load(options.getOrDefault("scenario", "mixed"), options);
+        String runId = options.getOrDefault("run-id", Long.toString(System.currentTimeMillis(), 36));
+        Path reportDirectory = Paths.get(options.getOrDefault("report-dir", "build/loadtest"));
+
+        if (options.containsKey("target")) {
+            run(scenario, options.get("target"), runId, reportDirectory);
+            return;
+        }
+
+        Path dataDirectory = Files.createTempDirectory("users-loadtest");
+
+        // Client and server share the machine, so absolute numbers only compare with runs on the same machine.
+        try (ConfigurableApplicationContext server = new SpringApplicationBuilder(ManagementApplication.class)
+                .profiles("offheap")
+                .properties("server.port=0",
+                        "users.offheap.directory=" + dataDirectory,
+                        "users.rate-limit.enabled=false")
+                .run()) {
+            int port = ((WebServerApplicationContext) server).getWebServer().getPort();
+
+            run(scenario, "http://localhost:" + port, runId, reportDirectory);
+        } finally {
+            try (Stream<Path> files = Files.walk(dataDirectory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    private static void run(Scenario scenario, String target, String runId, Path reportDirectory) throws IOException {
+        Random random = new Random(scenario.getRandomSeed());
+        UserDTOGenerator userDTOGenerator = new UserDTOGenerator(random, runId);
+        UserIdPool userIdPool = new UserIdPool();
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+
+        try (UserClient userClient = new UserClient(target, scenario.getMaxInFlight())) {
+            seed(scenario, userClient, userDTOGenerator, userIdPool);
+            System.out.printf("Seeded %d users at %s%n", userIdPool.size(), target);
+
+            OpenLoopDriver driver = new OpenLoopDriver(scenario, userClient, userDTOGenerator, userIdPool, stats, random);
+
+            driver.run(scenario.getWarmup());
+            stats.values().forEach(OperationStats::reset);
+
+            long start = System.nanoTime();
+
+            driver.run(scenario.getDuration());
+
+            Duration measured = Duration.ofNanos(System.nanoTime() - start);
+            int unanswered = driver.awaitInFlight(DRAIN_TIMEOUT);
+
+            new LoadReport(scenario, stats).write(measured, System.out, reportDirectory);
+
+            if (unanswered > 0) {
+                System.out.printf("%d requests were still unanswered after %s and are not counted%n", unanswered, DRAIN_TIMEOUT);
+            }
+        }
+    }
+
+    // Seed users are created before anything is measured, so reads have something to find from the first request.
+    private static void seed(Scenario scenario, UserClient userClient, UserDTOGenerator userDTOGenerator, UserIdPool userIdPool) {
+        List<UserDTO> users = new ArrayList<>(scenario.getSeedUsers());
+
+        for (int i = 0; i < scenario.getSeedUsers(); i++) {
+            users.add(userDTOGenerator.next());
+        }
+
+        Flux.fromIterable(users)
+                .flatMap(userClient::create, SEED_CONCURRENCY)
+                .doOnNext(response -> response.getCreatedId().ifPresent(userIdPool::add))
+                .blockLast();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException(String.format("Expected --key=value but got '%s'", arg));
+            }
+
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        return options;
+    }
+}
@@ -0,0 +1,140 @@
+package com.users.management.loadtest;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Sends requests at the scenario's arrival rate no matter how fast the server answers, the way independent
+// clients would. A closed loop that waits for each response before sending the next one slows down with the
+// server and hides exactly the latency a capacity test is after.
+public class OpenLoopDriver {
+
+    private Scenario scenario;
+
+    private UserClient userClient;
+
+    private UserDTOGenerator userDTOGenerator;
+
+    private UserIdPool userIdPool;
+
+    private Map<Operation, OperationStats> stats;
+
+    // Only used by the scheduling thread, which keeps the operation sequence reproducible.
+    private Random random;
+
+    private AtomicInteger inFlight = new AtomicInteger();
+
+    public OpenLoopDriver(Scenario scenario, UserClient userClient, UserDTOGenerator userDTOGenerator,
+                          UserIdPool userIdPool, Map<Operation, OperationStats> stats, Random random) {
+        this.scenario = scenario;
+        this.userClient = userClient;
+        this.userDTOGenerator = userDTOGenerator;
+        this.userIdPool = userIdPool;
+        this.stats = stats;
+        this.random = random;
+    }
+
+    // Returns once the last request has been sent, responses may still be arriving.
+    public void run(Duration duration) {
+        long intendedStart = System.nanoTime();
+        long end = intendedStart + duration.toNanos();
+
+        while (intendedStart < end) {
+            waitUntil(intendedStart);
+            send(intendedStart);
+            intendedStart += nextGapNanos();
+        }
+    }
+
+    // Waits up to timeout for the requests still in flight and returns how many are left.
+    public int awaitInFlight(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        return inFlight.get();
+    }
+
+    private void send(long intendedStart) {
+        Operation picked = scenario.operationAt(random.nextInt(scenario.getTotalWeight()));
+        Optional<String> id = Optional.empty();
+
+        if (picked.needsUser()) {
+            id = picked == Operation.DELETE ? userIdPool.take(random) : userIdPool.pick(random);
+        }
+
+        // Nothing to read, edit or delete yet, so the arrival creates a user instead.
+        Operation operation = picked.needsUser() && !id.isPresent() ? Operation.CREATE : picked;
+        OperationStats operationStats = stats.get(operation);
+
+        if (inFlight.get() >= scenario.getMaxInFlight()) {
+            operationStats.drop();
+
+            if (operation == Operation.DELETE) {
+                id.ifPresent(userIdPool::add);
+            }
+
+            return;
+        }
+
+        Mono<UserClient.Response> request = request(operation, id.orElse(null));
+
+        inFlight.incrementAndGet();
+
+        request.timeout(scenario.getRequestTimeout())
+                .doFinally(signal -> inFlight.decrementAndGet())
+                .subscribe(
+                        response -> {
+                            operationStats.record(Integer.toString(response.getStatus()), System.nanoTime() - intendedStart);
+
+                            if (operation == Operation.CREATE && response.getStatus() == 201) {
+                                response.getCreatedId().ifPresent(userIdPool::add);
+                            }
+                        },
+                        error -> operationStats.record(error.getClass().getSimpleName(), System.nanoTime() - intendedStart));
+    }
+
+    private Mono<UserClient.Response> request(Operation operation, String id) {
+        switch (operation) {
+            case CREATE:
+                return userClient.create(userDTOGenerator.next());
+            case FETCH:
+                return userClient.fetch(id);
+            case LIST:
+                return userClient.list(scenario.getPageSize());
+            case EDIT:
+                return userClient.edit(id, userDTOGenerator.next());
+            case DELETE:
+                return userClient.delete(id);
+            default:
+                throw new IllegalArgumentException(String.format("Unknown operation %s", operation));
+        }
+    }
+
+    private long nextGapNanos() {
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / scenario.getRate();
+
+        if (scenario.getArrivals() == Scenario.Arrivals.UNIFORM) {
+            return (long) meanGapNanos;
+        }
+
+        return (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+
+        // A late arrival is sent right away and its latency still counts from when it was due.
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.users.management.loadtest;
+
+import java.util.Locale;
+
+public enum Operation {
+    CREATE,
+    FETCH,
+    LIST,
+    EDIT,
+    DELETE;
+
+    // Name used in scenario files and reports, e.g. mix.fetch=60.
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    // Everything but create needs the id of an existing user.
+    public boolean needsUser() {
+        return this != CREATE && this != LIST;
+    }
+}
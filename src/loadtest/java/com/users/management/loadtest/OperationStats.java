@@ -0,0 +1,59 @@
+package com.users.management.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencies and outcomes of one operation, recorded from response threads.
+// Latency runs from when a request was scheduled to go out, not when it did, so a slow server cannot hide queueing.
+public class OperationStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private ConcurrentMap<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    private LongAdder dropped = new LongAdder();
+
+    // outcome is the HTTP status, or the name of the exception when no response came back.
+    public void record(String outcome, long latencyNanos) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    // Not sent because max-in-flight requests were still waiting for a response.
+    public void drop() {
+        dropped.increment();
+    }
+
+    // Forgets everything recorded so far, e.g. during warm-up.
+    public void reset() {
+        recorder.getIntervalHistogram();
+        outcomes.clear();
+        dropped.reset();
+    }
+
+    // Latencies in microseconds since the last call or reset.
+    public Histogram intervalHistogram() {
+        return recorder.getIntervalHistogram();
+    }
+
+    public Map<String, Long> outcomes() {
+        Map<String, Long> counts = new TreeMap<>();
+
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+
+        return counts;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,178 @@
+package com.users.management.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+// A load test run, read from scenarios/<name>.properties on the classpath or from a properties file,
+// with any key overridden from the command line. The same scenario and random-seed send the same
+// sequence of operations and payloads.
+public class Scenario {
+
+    public enum Arrivals {
+        // Exponential gaps between requests, as independent clients would send them.
+        POISSON,
+        // One request every 1/rate seconds.
+        UNIFORM
+    }
+
+    private String name;
+
+    private double rate;
+
+    private Duration duration;
+
+    private Duration warmup;
+
+    private Arrivals arrivals;
+
+    private int seedUsers;
+
+    private int pageSize;
+
+    private int maxInFlight;
+
+    private Duration requestTimeout;
+
+    private long randomSeed;
+
+    private Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+
+    private int totalWeight;
+
+    private Scenario() {
+    }
+
+    public static Scenario load(String name, Map<String, String> overrides) throws IOException {
+        Properties properties = new Properties();
+        Path file = Paths.get(name);
+
+        if (Files.isRegularFile(file)) {
+            try (InputStream input = Files.newInputStream(file)) {
+                properties.load(input);
+            }
+        } else {
+            try (InputStream input = Scenario.class.getResourceAsStream(String.format("/scenarios/%s.properties", name))) {
+                if (input == null) {
+                    throw new IllegalArgumentException(String.format("Unknown scenario '%s'", name));
+                }
+
+                properties.load(input);
+            }
+        }
+
+        properties.putAll(overrides);
+
+        return of(file.getFileName().toString().replaceFirst("\\.properties$", ""), properties);
+    }
+
+    static Scenario of(String name, Properties properties) {
+        Scenario scenario = new Scenario();
+
+        scenario.name = name;
+        scenario.rate = Double.parseDouble(properties.getProperty("rate", "100"));
+        scenario.duration = DurationStyle.detectAndParse(properties.getProperty("duration", "60s"));
+        scenario.warmup = DurationStyle.detectAndParse(properties.getProperty("warmup", "10s"));
+        scenario.arrivals = Arrivals.valueOf(properties.getProperty("arrivals", "poisson").toUpperCase(Locale.ROOT));
+        scenario.seedUsers = Integer.parseInt(properties.getProperty("seed-users", "1000"));
+        scenario.pageSize = Integer.parseInt(properties.getProperty("page-size", "50"));
+        scenario.maxInFlight = Integer.parseInt(properties.getProperty("max-in-flight", "1000"));
+        scenario.requestTimeout = DurationStyle.detectAndParse(properties.getProperty("request-timeout", "10s"));
+        scenario.randomSeed = Long.parseLong(properties.getProperty("random-seed", "42"));
+
+        for (Operation operation : Operation.values()) {
+            int weight = Integer.parseInt(properties.getProperty("mix." + operation.key(), "0"));
+
+            if (weight < 0) {
+                throw new IllegalArgumentException(String.format("mix.%s must not be negative", operation.key()));
+            }
+
+            scenario.mix.put(operation, weight);
+            scenario.totalWeight += weight;
+        }
+
+        if (scenario.rate <= 0) {
+            throw new IllegalArgumentException(String.format("rate must be positive, was %s", scenario.rate));
+        }
+
+        if (scenario.totalWeight == 0) {
+            throw new IllegalArgumentException(String.format("Scenario '%s' has no mix.<operation> weights", name));
+        }
+
+        return scenario;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Arrivals getArrivals() {
+        return arrivals;
+    }
+
+    public int getSeedUsers() {
+        return seedUsers;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    // Maps a number in [0, total weight) to the operation owning that share of the mix.
+    public Operation operationAt(int point) {
+        int bound = 0;
+
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            bound += entry.getValue();
+
+            if (point < bound) {
+                return entry.getKey();
+            }
+        }
+
+        throw new IllegalArgumentException(String.format("%d is outside of the mix", point));
+    }
+
+    public int getTotalWeight() {
+        return totalWeight;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %.0f req/s for %s after %s warm-up, %s arrivals, %d seed users, mix %s",
+                name, rate, duration, warmup, arrivals.name().toLowerCase(Locale.ROOT), seedUsers, mix);
+    }
+}
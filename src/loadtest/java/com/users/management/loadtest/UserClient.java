@@ -0,0 +1,92 @@
+package com.users.management.loadtest;
+
+import com.users.management.dto.UserDTO;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.util.Optional;
+
+// Non-blocking calls to UserController, so thousands of requests can be in flight without a thread each.
+// Every response body is read to the end, a request only counts as done once the client has all of it.
+public class UserClient implements AutoCloseable {
+
+    public static class Response {
+
+        private int status;
+
+        private URI location;
+
+        Response(int status, URI location) {
+            this.status = status;
+            this.location = location;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        // Last path segment of Location, the id of a created user.
+        public Optional<String> getCreatedId() {
+            if (location == null) {
+                return Optional.empty();
+            }
+
+            String path = location.getPath();
+
+            return Optional.of(path.substring(path.lastIndexOf('/') + 1));
+        }
+    }
+
+    private ConnectionProvider connectionProvider;
+
+    private WebClient webClient;
+
+    public UserClient(String baseUrl, int maxConnections) {
+        this.connectionProvider = ConnectionProvider.fixed("loadtest", maxConnections);
+        this.webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+    }
+
+    public Mono<Response> create(UserDTO userDTO) {
+        return send(webClient.post().uri("/user").contentType(MediaType.APPLICATION_JSON).syncBody(userDTO));
+    }
+
+    public Mono<Response> fetch(String id) {
+        return send(webClient.get().uri("/user/{id}", id).accept(MediaType.APPLICATION_JSON));
+    }
+
+    public Mono<Response> list(int pageSize) {
+        return send(webClient.get().uri("/user?limit={limit}", pageSize).accept(MediaType.APPLICATION_JSON));
+    }
+
+    public Mono<Response> edit(String id, UserDTO userDTO) {
+        return send(webClient.put().uri("/user/{id}", id).contentType(MediaType.APPLICATION_JSON).syncBody(userDTO));
+    }
+
+    public Mono<Response> delete(String id) {
+        return send(webClient.delete().uri("/user/{id}", id));
+    }
+
+    private static Mono<Response> send(WebClient.RequestHeadersSpec<?> request) {
+        return request.exchange().flatMap(UserClient::drain);
+    }
+
+    private static Mono<Response> drain(ClientResponse response) {
+        Response result = new Response(response.rawStatusCode(), response.headers().asHttpHeaders().getLocation());
+
+        return response.bodyToMono(Void.class).thenReturn(result);
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.dispose();
+    }
+}
@@ -0,0 +1,47 @@
+package com.users.management.loadtest;
+
+import com.users.management.dto.UserDTO;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+
+// Synthetic users that pass UserDTOValidator. Names and dates of birth follow the random seed, while the run id
+// keeps email addresses unique across runs against the same server. Not thread-safe.
+public class UserDTOGenerator {
+
+    private static final String[] FIRST_NAMES = {"Ada", "Alan", "Barbara", "Claude", "Dennis", "Edsger", "Frances",
+            "Grace", "John", "Ken", "Leslie", "Margaret", "Niklaus", "Radia", "Tony", "Whitfield"};
+
+    private static final String[] LAST_NAMES = {"Allen", "Backus", "Dijkstra", "Hamilton", "Hoare", "Hopper",
+            "Kernighan", "Lamport", "Liskov", "Lovelace", "Perlman", "Ritchie", "Shannon", "Thompson", "Turing", "Wirth"};
+
+    private static final LocalDate OLDEST_DATE_OF_BIRTH = LocalDate.of(1940, 1, 1);
+
+    private static final int DATE_OF_BIRTH_RANGE_DAYS = 365 * 60;
+
+    private Random random;
+
+    private String runId;
+
+    private long sequence;
+
+    public UserDTOGenerator(Random random, String runId) {
+        this.random = random;
+        this.runId = runId;
+    }
+
+    public UserDTO next() {
+        UserDTO userDTO = new UserDTO();
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+
+        userDTO.setFirstName(firstName);
+        userDTO.setLastName(lastName);
+        userDTO.setEmailAddress(String.format("%s.%s.%s.%d@loadtest.example", firstName, lastName, runId, ++sequence)
+                .toLowerCase(Locale.ROOT));
+        userDTO.setDateOfBirth(OLDEST_DATE_OF_BIRTH.plusDays(random.nextInt(DATE_OF_BIRTH_RANGE_DAYS)));
+
+        return userDTO;
+    }
+}
@@ -0,0 +1,39 @@
+package com.users.management.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+// Ids of users known to exist. Creates add to it from response threads while the scheduler picks from it.
+public class UserIdPool {
+
+    private List<String> ids = new ArrayList<>();
+
+    public synchronized void add(String id) {
+        ids.add(id);
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    public synchronized Optional<String> pick(Random random) {
+        return ids.isEmpty() ? Optional.empty() : Optional.of(ids.get(random.nextInt(ids.size())));
+    }
+
+    // Removed up front, so two deletes never race for the same user.
+    public synchronized Optional<String> take(Random random) {
+        if (ids.isEmpty()) {
+            return Optional.empty();
+        }
+
+        int index = random.nextInt(ids.size());
+        String id = ids.get(index);
+
+        ids.set(index, ids.get(ids.size() - 1));
+        ids.remove(ids.size() - 1);
+
+        return Optional.of(id);
+    }
+}
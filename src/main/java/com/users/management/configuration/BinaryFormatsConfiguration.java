@@ -0,0 +1,33 @@
+package com.users.management.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+@Configuration
+@Profile("!reactive")
+public class BinaryFormatsConfiguration {
+
+    // Configured by the same builder as the JSON ObjectMapper, so all three formats map UserDTO the same way.
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+        ObjectMapper objectMapper = new ObjectMapper(new SmileFactory());
+        jackson2ObjectMapperBuilder.configure(objectMapper);
+
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper);
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+        ObjectMapper objectMapper = new ObjectMapper(new CBORFactory());
+        jackson2ObjectMapperBuilder.configure(objectMapper);
+
+        return new MappingJackson2CborHttpMessageConverter(objectMapper);
+    }
+}
@@ -0,0 +1,29 @@
+package com.users.management.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+
+@Configuration
+@EnableConfigurationProperties(ChangeFeedProperties.class)
+public class ChangeFeedConfiguration {
+
+    @Bean(destroyMethod = "stop")
+    @Profile("!reactive")
+    @ConditionalOnProperty(prefix = "users.changes", name = "enabled", havingValue = "true")
+    public MessageListenerContainer userChangeListenerContainer(MongoTemplate mongoTemplate) {
+        // Every subscription holds a tailing cursor on its own thread, UserChangeController caps how many clients open.
+        DefaultMessageListenerContainer container =
+                new DefaultMessageListenerContainer(mongoTemplate, new SimpleAsyncTaskExecutor("user-changes-"));
+
+        container.start();
+
+        return container;
+    }
+}
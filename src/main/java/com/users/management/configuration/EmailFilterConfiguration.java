@@ -0,0 +1,18 @@
+package com.users.management.configuration;
+
+import com.users.management.util.EmailBloomFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties(EmailFilterProperties.class)
+public class EmailFilterConfiguration {
+
+    @Bean
+    public EmailBloomFilter emailBloomFilter(EmailFilterProperties emailFilterProperties) {
+        return new EmailBloomFilter(emailFilterProperties.getExpectedInsertions(), emailFilterProperties.getFalsePositiveRate());
+    }
+}
@@ -0,0 +1,9 @@
+package com.users.management.configuration;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(IndexProperties.class)
+public class IndexConfiguration {
+}
@@ -0,0 +1,33 @@
+package com.users.management.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "users.indexes")
+public class IndexProperties {
+
+    private Mode mode = Mode.BACKGROUND;
+
+    private Duration retryInterval = Duration.ofSeconds(10);
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Duration getRetryInterval() {
+        return retryInterval;
+    }
+
+    public void setRetryInterval(Duration retryInterval) {
+        this.retryInterval = retryInterval;
+    }
+
+    public enum Mode {
+        BACKGROUND, BLOCKING, VERIFY_ONLY
+    }
+}
@@ -1,14 +1,14 @@
 package com.users.management.configuration;
 
-import org.modelmapper.ModelMapper;
+import com.users.management.mapper.UserMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
-public class ModelMapperConfiguration {
+public class MapperConfiguration {
 
     @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
+    public UserMapper userMapper() {
+        return new UserMapper();
     }
 }
@@ -0,0 +1,28 @@
+package com.users.management.configuration;
+
+import com.users.management.metrics.MongoMetricsListener;
+import com.users.management.metrics.RepositoryMetricsPostProcessor;
+import com.users.management.metrics.StartupReport;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RepositoryMetricsPostProcessor(meterRegistry);
+    }
+
+    @Bean
+    public static StartupReport startupReport() {
+        return new StartupReport();
+    }
+
+    @Bean
+    public MongoMetricsListener mongoMetricsListener(MeterRegistry meterRegistry) {
+        return new MongoMetricsListener(meterRegistry);
+    }
+}
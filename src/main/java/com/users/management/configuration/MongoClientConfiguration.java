@@ -0,0 +1,115 @@
+package com.users.management.configuration;
+
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.WriteConcern;
+import com.users.management.metrics.MongoMetricsListener;
+import com.users.management.repository.UserWriteConcernResolver;
+import com.users.management.util.MongoSettings;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoDbFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+// The blocking client and templates, the "reactive" profile only has the reactive client of ReactiveMongoClientConfiguration.
+@Configuration
+@Profile("!offheap & !reactive")
+@EnableConfigurationProperties(MongoClientProperties.class)
+public class MongoClientConfiguration {
+
+    @Bean
+    public MongoClientOptions mongoClientOptions(MongoMetricsListener mongoMetricsListener, MongoClientProperties mongoClientProperties) {
+        return MongoClientOptions.builder()
+                .minConnectionsPerHost(mongoClientProperties.getMinPoolSize())
+                .connectionsPerHost(mongoClientProperties.getMaxPoolSize())
+                .threadsAllowedToBlockForConnectionMultiplier(waitQueueMultiplier(mongoClientProperties))
+                .maxWaitTime(MongoSettings.millis(mongoClientProperties.getMaxWaitTime()))
+                .maxConnectionIdleTime(MongoSettings.millis(mongoClientProperties.getMaxConnectionIdleTime()))
+                .connectTimeout(MongoSettings.millis(mongoClientProperties.getConnectTimeout()))
+                .socketTimeout(MongoSettings.millis(mongoClientProperties.getSocketTimeout()))
+                .compressorList(MongoSettings.compressors(mongoClientProperties.getCompressors()))
+                .writeConcern(writeConcern(mongoClientProperties, null))
+                .addCommandListener(mongoMetricsListener)
+                .addConnectionPoolListener(mongoMetricsListener)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public MongoTemplate mongoTemplate(MongoDbFactory mongoDbFactory, MongoConverter mongoConverter, MongoClientProperties mongoClientProperties) {
+        return primaryMongoTemplate(mongoDbFactory, mongoConverter, mongoClientProperties);
+    }
+
+    @Bean
+    public MongoTemplate readMongoTemplate(MongoDbFactory mongoDbFactory, MongoConverter mongoConverter, MongoClientProperties mongoClientProperties) {
+        return secondaryMongoTemplate(mongoDbFactory, mongoConverter, mongoClientProperties);
+    }
+
+    @Bean
+    public MongoTemplate editMongoTemplate(MongoClient mongoClient, MongoDbFactory mongoDbFactory, MongoConverter mongoConverter,
+                                           MongoClientProperties mongoClientProperties) {
+        return writeMongoTemplate(mongoClient, mongoDbFactory, mongoConverter,
+                writeConcern(mongoClientProperties, mongoClientProperties.getWriteConcern().getEdit()));
+    }
+
+    @Bean
+    public MongoTemplate bulkMongoTemplate(MongoClient mongoClient, MongoDbFactory mongoDbFactory, MongoConverter mongoConverter,
+                                           MongoClientProperties mongoClientProperties) {
+        return writeMongoTemplate(mongoClient, mongoDbFactory, mongoConverter,
+                writeConcern(mongoClientProperties, mongoClientProperties.getWriteConcern().getBulk()));
+    }
+
+    // The templates are built by these for every shard of the "sharded" profile too.
+    static MongoTemplate primaryMongoTemplate(MongoDbFactory mongoDbFactory, MongoConverter mongoConverter,
+                                              MongoClientProperties mongoClientProperties) {
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoDbFactory, mongoConverter);
+
+        mongoTemplate.setWriteConcernResolver(new UserWriteConcernResolver(
+                writeConcern(mongoClientProperties, mongoClientProperties.getWriteConcern().getCreate()),
+                writeConcern(mongoClientProperties, mongoClientProperties.getWriteConcern().getEdit()),
+                writeConcern(mongoClientProperties, mongoClientProperties.getWriteConcern().getDelete()),
+                writeConcern(mongoClientProperties, mongoClientProperties.getWriteConcern().getBulk())));
+
+        return mongoTemplate;
+    }
+
+    static MongoTemplate secondaryMongoTemplate(MongoDbFactory mongoDbFactory, MongoConverter mongoConverter,
+                                                MongoClientProperties mongoClientProperties) {
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoDbFactory, mongoConverter);
+
+        mongoTemplate.setReadPreference(MongoSettings.readPreference(mongoClientProperties.getReadPreference(),
+                mongoClientProperties.getMaxStaleness()));
+
+        return mongoTemplate;
+    }
+
+    static MongoTemplate writeMongoTemplate(MongoClient mongoClient, MongoDbFactory mongoDbFactory, MongoConverter mongoConverter,
+                                            WriteConcern writeConcern) {
+        // findAndModify and bulk writes skip the WriteConcernResolver and use the database's write concern instead.
+        SimpleMongoDbFactory writeDbFactory = new SimpleMongoDbFactory(mongoClient, mongoDbFactory.getDb().getName());
+        writeDbFactory.setWriteConcern(writeConcern);
+
+        MongoTemplate mongoTemplate = new MongoTemplate(writeDbFactory, mongoConverter);
+        mongoTemplate.setWriteConcern(writeConcern);
+
+        return mongoTemplate;
+    }
+
+    static WriteConcern writeConcern(MongoClientProperties mongoClientProperties, String name) {
+        MongoClientProperties.WriteConcerns writeConcerns = mongoClientProperties.getWriteConcern();
+
+        return MongoSettings.writeConcern(name == null ? writeConcerns.getDefault() : name, writeConcerns.getTimeout());
+    }
+
+    private static int waitQueueMultiplier(MongoClientProperties mongoClientProperties) {
+        // The blocking driver sizes the wait queue as a multiple of the pool size.
+        int poolSize = Math.max(1, mongoClientProperties.getMaxPoolSize());
+
+        return Math.max(1, (mongoClientProperties.getMaxWaitQueueSize() + poolSize - 1) / poolSize);
+    }
+}
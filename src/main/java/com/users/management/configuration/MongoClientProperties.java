@@ -0,0 +1,184 @@
+package com.users.management.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "users.mongo")
+public class MongoClientProperties {
+
+    private int minPoolSize = 0;
+
+    private int maxPoolSize = 100;
+
+    private int maxWaitQueueSize = 500;
+
+    private Duration maxWaitTime = Duration.ofMinutes(2);
+
+    private Duration maxConnectionIdleTime = Duration.ZERO;
+
+    private Duration connectTimeout = Duration.ofSeconds(10);
+
+    private Duration socketTimeout = Duration.ZERO;
+
+    private List<String> compressors = new ArrayList<>();
+
+    private String readPreference = "primary";
+
+    private Duration maxStaleness;
+
+    private WriteConcerns writeConcern = new WriteConcerns();
+
+    public int getMinPoolSize() {
+        return minPoolSize;
+    }
+
+    public void setMinPoolSize(int minPoolSize) {
+        this.minPoolSize = minPoolSize;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public int getMaxWaitQueueSize() {
+        return maxWaitQueueSize;
+    }
+
+    public void setMaxWaitQueueSize(int maxWaitQueueSize) {
+        this.maxWaitQueueSize = maxWaitQueueSize;
+    }
+
+    public Duration getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    public void setMaxWaitTime(Duration maxWaitTime) {
+        this.maxWaitTime = maxWaitTime;
+    }
+
+    public Duration getMaxConnectionIdleTime() {
+        return maxConnectionIdleTime;
+    }
+
+    public void setMaxConnectionIdleTime(Duration maxConnectionIdleTime) {
+        this.maxConnectionIdleTime = maxConnectionIdleTime;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public void setSocketTimeout(Duration socketTimeout) {
+        this.socketTimeout = socketTimeout;
+    }
+
+    public List<String> getCompressors() {
+        return compressors;
+    }
+
+    public void setCompressors(List<String> compressors) {
+        this.compressors = compressors;
+    }
+
+    public String getReadPreference() {
+        return readPreference;
+    }
+
+    public void setReadPreference(String readPreference) {
+        this.readPreference = readPreference;
+    }
+
+    public Duration getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    public void setMaxStaleness(Duration maxStaleness) {
+        this.maxStaleness = maxStaleness;
+    }
+
+    public WriteConcerns getWriteConcern() {
+        return writeConcern;
+    }
+
+    public void setWriteConcern(WriteConcerns writeConcern) {
+        this.writeConcern = writeConcern;
+    }
+
+    public static class WriteConcerns {
+
+        private String defaultConcern = "acknowledged";
+
+        private String create;
+
+        private String edit;
+
+        private String delete;
+
+        private String bulk;
+
+        private Duration timeout;
+
+        public String getDefault() {
+            return defaultConcern;
+        }
+
+        public void setDefault(String defaultConcern) {
+            this.defaultConcern = defaultConcern;
+        }
+
+        public String getCreate() {
+            return create;
+        }
+
+        public void setCreate(String create) {
+            this.create = create;
+        }
+
+        public String getEdit() {
+            return edit;
+        }
+
+        public void setEdit(String edit) {
+            this.edit = edit;
+        }
+
+        public String getDelete() {
+            return delete;
+        }
+
+        public void setDelete(String delete) {
+            this.delete = delete;
+        }
+
+        public String getBulk() {
+            return bulk;
+        }
+
+        public void setBulk(String bulk) {
+            this.bulk = bulk;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.users.management.configuration;
+
+import com.users.management.storage.OffHeapUserStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+@Configuration
+@Profile("offheap")
+@EnableConfigurationProperties(OffHeapStoreProperties.class)
+public class OffHeapStoreConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public OffHeapUserStore offHeapUserStore(OffHeapStoreProperties offHeapStoreProperties, MeterRegistry meterRegistry) throws IOException {
+        OffHeapUserStore store = new OffHeapUserStore(Paths.get(offHeapStoreProperties.getDirectory()),
+                Math.toIntExact(offHeapStoreProperties.getSlabSize().toBytes()),
+                offHeapStoreProperties.getLogSegmentSize().toBytes(),
+                offHeapStoreProperties.getSnapshotThreshold().toBytes(),
+                offHeapStoreProperties.isSyncWrites());
+
+        Gauge.builder("users.offheap.records", store, OffHeapUserStore::size).register(meterRegistry);
+        Gauge.builder("users.offheap.memory", store, OffHeapUserStore::liveBytes).tag("state", "live").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("users.offheap.memory", store, OffHeapUserStore::garbageBytes).tag("state", "garbage").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("users.offheap.log", store, OffHeapUserStore::logBytes).baseUnit("bytes").register(meterRegistry);
+
+        return store;
+    }
+}
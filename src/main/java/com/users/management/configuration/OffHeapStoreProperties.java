@@ -0,0 +1,58 @@
+package com.users.management.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "users.offheap")
+public class OffHeapStoreProperties {
+
+    private String directory = "data/users";
+
+    private DataSize slabSize = DataSize.ofMegabytes(16);
+
+    private DataSize logSegmentSize = DataSize.ofMegabytes(64);
+
+    private DataSize snapshotThreshold = DataSize.ofMegabytes(256);
+
+    private boolean syncWrites = false;
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public DataSize getSlabSize() {
+        return slabSize;
+    }
+
+    public void setSlabSize(DataSize slabSize) {
+        this.slabSize = slabSize;
+    }
+
+    public DataSize getLogSegmentSize() {
+        return logSegmentSize;
+    }
+
+    public void setLogSegmentSize(DataSize logSegmentSize) {
+        this.logSegmentSize = logSegmentSize;
+    }
+
+    public DataSize getSnapshotThreshold() {
+        return snapshotThreshold;
+    }
+
+    public void setSnapshotThreshold(DataSize snapshotThreshold) {
+        this.snapshotThreshold = snapshotThreshold;
+    }
+
+    public boolean isSyncWrites() {
+        return syncWrites;
+    }
+
+    public void setSyncWrites(boolean syncWrites) {
+        this.syncWrites = syncWrites;
+    }
+}
@@ -0,0 +1,28 @@
+package com.users.management.configuration;
+
+import com.users.management.filter.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfiguration {
+
+    @Bean
+    @Profile("!reactive")
+    @ConditionalOnProperty(prefix = "users.rate-limit", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties rateLimitProperties, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(rateLimitProperties, meterRegistry));
+
+        // Only the user endpoints are limited, actuator and Swagger stay reachable while a client is throttled.
+        registration.addUrlPatterns("/user", "/user/*");
+
+        return registration;
+    }
+}
@@ -0,0 +1,122 @@
+package com.users.management.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "users.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = false;
+
+    // Clients choose their own header values, so it is only trusted when a proxy in front sets it after authentication.
+    private String trustedClientHeader;
+
+    private long maxClients = 100_000;
+
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private int maxConcurrentExpensive = 8;
+
+    private Budget cheap = new Budget(200, 100, 50);
+
+    private Budget expensive = new Budget(5, 1, 2);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getTrustedClientHeader() {
+        return trustedClientHeader;
+    }
+
+    public void setTrustedClientHeader(String trustedClientHeader) {
+        this.trustedClientHeader = trustedClientHeader;
+    }
+
+    public long getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(long maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public int getMaxConcurrentExpensive() {
+        return maxConcurrentExpensive;
+    }
+
+    public void setMaxConcurrentExpensive(int maxConcurrentExpensive) {
+        this.maxConcurrentExpensive = maxConcurrentExpensive;
+    }
+
+    public Budget getCheap() {
+        return cheap;
+    }
+
+    public void setCheap(Budget cheap) {
+        this.cheap = cheap;
+    }
+
+    public Budget getExpensive() {
+        return expensive;
+    }
+
+    public void setExpensive(Budget expensive) {
+        this.expensive = expensive;
+    }
+
+    public static class Budget {
+
+        private long capacity;
+
+        private double refillPerSecond;
+
+        private int maxConcurrent;
+
+        public Budget() {
+        }
+
+        public Budget(long capacity, double refillPerSecond, int maxConcurrent) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+    }
+}
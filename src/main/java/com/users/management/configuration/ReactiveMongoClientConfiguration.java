@@ -0,0 +1,36 @@
+package com.users.management.configuration;
+
+import com.users.management.metrics.MongoMetricsListener;
+import com.users.management.util.MongoSettings;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(MongoClientProperties.class)
+public class ReactiveMongoClientConfiguration {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer reactiveMongoClientSettings(MongoMetricsListener mongoMetricsListener,
+                                                                            MongoClientProperties mongoClientProperties) {
+        return builder -> builder
+                .compressorList(MongoSettings.compressors(mongoClientProperties.getCompressors()))
+                .writeConcern(MongoClientConfiguration.writeConcern(mongoClientProperties, null))
+                .addCommandListener(mongoMetricsListener)
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(MongoSettings.millis(mongoClientProperties.getConnectTimeout()), TimeUnit.MILLISECONDS)
+                        .readTimeout(MongoSettings.millis(mongoClientProperties.getSocketTimeout()), TimeUnit.MILLISECONDS))
+                .applyToConnectionPoolSettings(pool -> pool
+                        .minSize(mongoClientProperties.getMinPoolSize())
+                        .maxSize(mongoClientProperties.getMaxPoolSize())
+                        .maxWaitQueueSize(mongoClientProperties.getMaxWaitQueueSize())
+                        .maxWaitTime(mongoClientProperties.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(mongoClientProperties.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(mongoMetricsListener));
+    }
+}
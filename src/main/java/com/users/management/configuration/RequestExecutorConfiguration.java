@@ -0,0 +1,45 @@
+package com.users.management.configuration;
+
+import com.users.management.util.RequestExecutors;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.concurrent.ExecutorService;
+
+@Configuration
+@EnableConfigurationProperties(RequestExecutorProperties.class)
+public class RequestExecutorConfiguration {
+
+    @Bean
+    @Profile("!reactive")
+    @ConditionalOnProperty(prefix = "users.request-executor", name = "enabled", havingValue = "true")
+    public RequestExecutorCustomizer requestExecutorCustomizer(RequestExecutorProperties requestExecutorProperties,
+                                                               MeterRegistry meterRegistry) {
+        // Not a bean of its own, an Executor bean would replace the task executor Spring Boot sets up for async requests.
+        ExecutorService executor = useVirtualThreads(requestExecutorProperties.getMode())
+                ? RequestExecutors.virtual()
+                : RequestExecutors.bounded(requestExecutorProperties.getMaxThreads(), requestExecutorProperties.getQueueCapacity(),
+                        requestExecutorProperties.getKeepAlive());
+
+        new ExecutorServiceMetrics(executor, "requestExecutor", Tags.empty()).bindTo(meterRegistry);
+
+        return new RequestExecutorCustomizer(executor);
+    }
+
+    private static boolean useVirtualThreads(RequestExecutorProperties.Mode mode) {
+        switch (mode) {
+            case VIRTUAL:
+                return true;
+            case BOUNDED:
+                return false;
+            default:
+                return RequestExecutors.virtualThreadsAvailable();
+        }
+    }
+}
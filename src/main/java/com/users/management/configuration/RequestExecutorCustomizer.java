@@ -0,0 +1,28 @@
+package com.users.management.configuration;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+
+import java.util.concurrent.ExecutorService;
+
+public class RequestExecutorCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory>, DisposableBean {
+
+    private ExecutorService executor;
+
+    public RequestExecutorCustomizer(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        // Tomcat runs every request, and so every controller call, on this executor instead of its own worker pool.
+        factory.addConnectorCustomizers(connector -> connector.getProtocolHandler().setExecutor(executor));
+    }
+
+    @Override
+    public void destroy() {
+        // Tomcat does not shut down an executor it was given.
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,90 @@
+package com.users.management.configuration;
+
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoClientURI;
+import com.users.management.repository.MongoUserEmailClaims;
+import com.users.management.repository.MongoUserRepository;
+import com.users.management.repository.MongoUserRepositoryImpl;
+import com.users.management.repository.ShardedUserRepository;
+import com.users.management.repository.UserIndexManager;
+import com.users.management.repository.UserRepository;
+import com.users.management.repository.UserShard;
+import com.users.management.repository.UserShardRebalancer;
+import com.users.management.repository.UserShards;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoDbFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Every shard gets its own client with the users.mongo settings and its own set of templates, like the single database
+// of the other profiles. The database the spring.data.mongodb settings point to holds no users with this profile.
+@Configuration
+@Profile("sharded")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public UserShards userShards(MongoClientOptions mongoClientOptions, MongoConverter mongoConverter, MongoClientProperties mongoClientProperties,
+                                 IndexProperties indexProperties, ShardingProperties shardingProperties) {
+        List<UserShard> shards = new ArrayList<>();
+
+        for (ShardingProperties.Shard shard : shardingProperties.getShards()) {
+            shards.add(userShard(shard, mongoClientOptions, mongoConverter, mongoClientProperties, indexProperties));
+        }
+
+        Integer previousShardCount = shardingProperties.getPreviousShardCount();
+
+        return new UserShards(shards, previousShardCount == null ? shards.size() : previousShardCount, shardingProperties.getScatterThreads());
+    }
+
+    @Bean
+    @Primary
+    public UserRepository shardedUserRepository(UserShards userShards, ShardingProperties shardingProperties) {
+        return new ShardedUserRepository(userShards, shardingProperties.getClaimTimeout());
+    }
+
+    @Bean
+    public UserShardRebalancer userShardRebalancer(UserShards userShards) {
+        return new UserShardRebalancer(userShards);
+    }
+
+    private static UserShard userShard(ShardingProperties.Shard shard, MongoClientOptions mongoClientOptions, MongoConverter mongoConverter,
+                                       MongoClientProperties mongoClientProperties, IndexProperties indexProperties) {
+        MongoClientURI uri = new MongoClientURI(shard.getUri(), MongoClientOptions.builder(mongoClientOptions));
+
+        if (uri.getDatabase() == null) {
+            throw new IllegalStateException(String.format("The uri of shard '%s' names no database", shard.getName()));
+        }
+
+        MongoClient mongoClient = new MongoClient(uri);
+        MongoDbFactory mongoDbFactory = new SimpleMongoDbFactory(mongoClient, uri.getDatabase());
+        MongoTemplate mongoTemplate = MongoClientConfiguration.primaryMongoTemplate(mongoDbFactory, mongoConverter, mongoClientProperties);
+
+        MongoUserRepositoryImpl fragment = new MongoUserRepositoryImpl(mongoTemplate,
+                MongoClientConfiguration.secondaryMongoTemplate(mongoDbFactory, mongoConverter, mongoClientProperties),
+                MongoClientConfiguration.writeMongoTemplate(mongoClient, mongoDbFactory, mongoConverter,
+                        MongoClientConfiguration.writeConcern(mongoClientProperties, mongoClientProperties.getWriteConcern().getEdit())),
+                MongoClientConfiguration.writeMongoTemplate(mongoClient, mongoDbFactory, mongoConverter,
+                        MongoClientConfiguration.writeConcern(mongoClientProperties, mongoClientProperties.getWriteConcern().getBulk())));
+
+        // The same repository Spring Data builds for the single database, only on this shard's templates.
+        MongoUserRepository userRepository = new MongoRepositoryFactory(mongoTemplate)
+                .getRepository(MongoUserRepository.class, RepositoryComposition.RepositoryFragments.just(fragment));
+
+        UserIndexManager userIndexManager = new UserIndexManager(mongoTemplate, indexProperties);
+        userIndexManager.start();
+
+        return new UserShard(shard.getName(), userRepository, new MongoUserEmailClaims(mongoTemplate), userIndexManager, mongoClient::close);
+    }
+}
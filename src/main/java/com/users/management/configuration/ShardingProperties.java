@@ -0,0 +1,74 @@
+package com.users.management.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "users.sharding")
+public class ShardingProperties {
+
+    private List<Shard> shards = new ArrayList<>();
+
+    private Integer previousShardCount;
+
+    private Duration claimTimeout = Duration.ofMinutes(1);
+
+    private int scatterThreads = 64;
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    public Integer getPreviousShardCount() {
+        return previousShardCount;
+    }
+
+    public void setPreviousShardCount(Integer previousShardCount) {
+        this.previousShardCount = previousShardCount;
+    }
+
+    public Duration getClaimTimeout() {
+        return claimTimeout;
+    }
+
+    public void setClaimTimeout(Duration claimTimeout) {
+        this.claimTimeout = claimTimeout;
+    }
+
+    public int getScatterThreads() {
+        return scatterThreads;
+    }
+
+    public void setScatterThreads(int scatterThreads) {
+        this.scatterThreads = scatterThreads;
+    }
+
+    public static class Shard {
+
+        private String name;
+
+        private String uri;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+
+        public void setUri(String uri) {
+            this.uri = uri;
+        }
+    }
+}
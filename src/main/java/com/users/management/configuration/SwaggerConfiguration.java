@@ -1,15 +1,20 @@
 package com.users.management.configuration;
 
+import com.users.management.filter.SwaggerStartupFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.spi.DocumentationType;
+import springfox.documentation.spring.web.plugins.DocumentationPluginsBootstrapper;
 import springfox.documentation.spring.web.plugins.Docket;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 @Configuration
 @EnableSwagger2
+@Profile("!reactive")
 public class SwaggerConfiguration {
 
     @Bean
@@ -19,4 +24,15 @@ public class SwaggerConfiguration {
                 .apis(RequestHandlerSelectors.basePackage("com.users.management.controller"))
                 .build();
     }
+
+    @Bean
+    public FilterRegistrationBean<SwaggerStartupFilter> swaggerStartupFilter(DocumentationPluginsBootstrapper documentationPluginsBootstrapper) {
+        FilterRegistrationBean<SwaggerStartupFilter> registration =
+                new FilterRegistrationBean<>(new SwaggerStartupFilter(documentationPluginsBootstrapper));
+
+        // Swagger UI lists the documentation groups first, both need the scan to have run.
+        registration.addUrlPatterns("/v2/api-docs", "/swagger-resources", "/swagger-resources/*");
+
+        return registration;
+    }
 }
@@ -0,0 +1,14 @@
+package com.users.management.configuration;
+
+import com.users.management.validation.UserDTOValidator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ValidationConfiguration {
+
+    @Bean
+    public UserDTOValidator userDTOValidator() {
+        return new UserDTOValidator();
+    }
+}
@@ -0,0 +1,69 @@
+package com.users.management.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "users.write-behind")
+public class WriteBehindProperties {
+
+    private boolean enabled = false;
+
+    private int queueCapacity = 10_000;
+
+    private int batchSize = 500;
+
+    private Duration maxBatchDelay = Duration.ofMillis(20);
+
+    private Duration ackTimeout = Duration.ofSeconds(5);
+
+    private Duration resultRetention = Duration.ofMinutes(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getMaxBatchDelay() {
+        return maxBatchDelay;
+    }
+
+    public void setMaxBatchDelay(Duration maxBatchDelay) {
+        this.maxBatchDelay = maxBatchDelay;
+    }
+
+    public Duration getAckTimeout() {
+        return ackTimeout;
+    }
+
+    public void setAckTimeout(Duration ackTimeout) {
+        this.ackTimeout = ackTimeout;
+    }
+
+    public Duration getResultRetention() {
+        return resultRetention;
+    }
+
+    public void setResultRetention(Duration resultRetention) {
+        this.resultRetention = resultRetention;
+    }
+}
@@ -0,0 +1,41 @@
+package com.users.management.controller;
+
+import com.users.management.dto.BulkItemResultDTO;
+import com.users.management.dto.ErrorDTO;
+import com.users.management.model.BulkItemResult;
+import org.springframework.http.HttpStatus;
+
+import java.util.Collections;
+import java.util.List;
+
+final class BulkItems {
+
+    private BulkItems() {
+    }
+
+    static BulkItemResultDTO toDTO(int index, BulkItemResult itemResult) {
+        List<ErrorDTO> errors = itemResult.getMessage() == null
+                ? null
+                : Collections.singletonList(new ErrorDTO(itemResult.getMessage()));
+
+        return new BulkItemResultDTO(index, itemResult.getId(), httpStatusOf(itemResult.getStatus()).value(), errors);
+    }
+
+    static HttpStatus httpStatusOf(BulkItemResult.Status status) {
+        switch (status) {
+            case CREATED:
+                return HttpStatus.CREATED;
+            case UPDATED:
+                return HttpStatus.OK;
+            case DELETED:
+                return HttpStatus.NO_CONTENT;
+            case INVALID:
+            case DUPLICATE:
+                return HttpStatus.BAD_REQUEST;
+            case NOT_FOUND:
+                return HttpStatus.NOT_FOUND;
+            default:
+                return HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+    }
+}
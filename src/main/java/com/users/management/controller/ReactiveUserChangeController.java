@@ -0,0 +1,48 @@
+package com.users.management.controller;
+
+import com.users.management.configuration.ChangeFeedProperties;
+import com.users.management.dto.UserDTO;
+import com.users.management.exception.InvalidQueryParameterException;
+import com.users.management.mapper.UserMapper;
+import com.users.management.service.ReactiveUserChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@Profile("reactive")
+@ConditionalOnProperty(prefix = "users.changes", name = "enabled", havingValue = "true")
+public class ReactiveUserChangeController {
+
+    private ReactiveUserChangeFeed reactiveUserChangeFeed;
+
+    private UserMapper userMapper;
+
+    private ChangeFeedProperties changeFeedProperties;
+
+    @Autowired
+    public ReactiveUserChangeController(ReactiveUserChangeFeed reactiveUserChangeFeed, UserMapper userMapper,
+                                        ChangeFeedProperties changeFeedProperties) {
+        this.reactiveUserChangeFeed = reactiveUserChangeFeed;
+        this.userMapper = userMapper;
+        this.changeFeedProperties = changeFeedProperties;
+    }
+
+    @GetMapping(value = "/user/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<UserDTO>> streamChanges(@RequestParam(required = false) String after,
+                                                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) throws InvalidQueryParameterException {
+        return reactiveUserChangeFeed.changes(lastEventId != null ? lastEventId : after)
+                .map(event -> ServerSentEvent.builder(userMapper.toDTO(event))
+                        .id(event.getResumeToken())
+                        .event(event.getOperation().name().toLowerCase())
+                        .build())
+                .take(changeFeedProperties.getSseTimeout());
+    }
+}
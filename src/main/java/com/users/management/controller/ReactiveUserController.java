@@ -0,0 +1,195 @@
+package com.users.management.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.users.management.dto.UserDTO;
+import com.users.management.dto.UserFilterDTO;
+import com.users.management.exception.InvalidQueryParameterException;
+import com.users.management.mapper.UserMapper;
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import com.users.management.service.ReactiveUserService;
+import com.users.management.util.Cursors;
+import com.users.management.util.ETags;
+import com.users.management.validation.UserDTOValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@Profile("reactive")
+public class ReactiveUserController {
+
+    private ReactiveUserService reactiveUserService;
+
+    private UserMapper userMapper;
+
+    private ObjectMapper objectMapper;
+
+    private UserDTOValidator userDTOValidator;
+
+    @Autowired
+    public ReactiveUserController(ReactiveUserService reactiveUserService, UserMapper userMapper, ObjectMapper objectMapper,
+                                  UserDTOValidator userDTOValidator) {
+        this.reactiveUserService = reactiveUserService;
+        this.userMapper = userMapper;
+        this.objectMapper = objectMapper;
+        this.userDTOValidator = userDTOValidator;
+    }
+
+    @InitBinder("userDTO")
+    public void initUserDTOBinder(WebDataBinder binder) {
+        binder.setValidator(userDTOValidator);
+    }
+
+    @PostMapping(value = "/user", consumes = "application/json", produces = "application/json")
+    public Mono<ResponseEntity<UserDTO>> createUser(@RequestBody @Valid UserDTO userDTO, ServerHttpRequest request) {
+        return reactiveUserService.createUser(userMapper.toEntity(userDTO))
+                .map(createdUser -> {
+                    URI uri = UriComponentsBuilder.fromHttpRequest(request)
+                            .path("/{id}")
+                            .buildAndExpand(createdUser.getId())
+                            .toUri();
+
+                    return ResponseEntity.created(uri).build();
+                });
+    }
+
+    @GetMapping(value = "/user/{id}", produces = "application/json")
+    public Mono<ResponseEntity<UserDTO>> fetchUser(@PathVariable String id,
+                                                   @RequestParam(required = false) Set<String> fields,
+                                                   ServerWebExchange exchange) throws InvalidQueryParameterException {
+        Set<String> projection = UserQueryParameters.toFields(fields);
+        Mono<User> user = projection == null
+                ? reactiveUserService.fetchUserById(id)
+                : reactiveUserService.fetchUserById(id, projection);
+
+        return user.map(found -> {
+            String eTag = ETags.of(found);
+
+            if (exchange.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+
+            return ResponseEntity.ok().eTag(eTag).body(userMapper.toDTO(found, projection));
+        });
+    }
+
+    @GetMapping(value = "/user/by-email/{emailAddress:.+}", produces = "application/json")
+    public Mono<ResponseEntity<UserDTO>> fetchUserByEmailAddress(@PathVariable String emailAddress, ServerWebExchange exchange) {
+        return reactiveUserService.fetchUserByEmailAddress(emailAddress).map(found -> {
+            String eTag = ETags.of(found);
+
+            if (exchange.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+
+            return ResponseEntity.ok().eTag(eTag).body(userMapper.toDTO(found));
+        });
+    }
+
+    @GetMapping(value = "/user", params = "limit", produces = "application/json")
+    public Mono<ResponseEntity<List<UserDTO>>> fetchUsersPage(UserFilterDTO filter,
+                                                              @RequestParam(required = false) Set<String> fields,
+                                                              @RequestParam int limit,
+                                                              @RequestParam(required = false) String after,
+                                                              ServerWebExchange exchange) throws InvalidQueryParameterException {
+        UserQuery query = UserQueryParameters.toUserQuery(filter, fields, limit, after);
+
+        return reactiveUserService.fetchUsers(query)
+                .collectList()
+                .map(userList -> {
+                    String eTag = ETags.of(userList);
+
+                    if (exchange.checkNotModified(eTag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<List<UserDTO>>build();
+                    }
+
+                    List<UserDTO> userDTOList = userMapper.toDTOList(userList, query.getFields());
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag);
+
+                    if (userList.size() < limit) {
+                        return response.body(userDTOList);
+                    }
+
+                    String nextCursor = Cursors.encode(query, userList.get(userList.size() - 1));
+                    String nextUri = UriComponentsBuilder.fromHttpRequest(exchange.getRequest())
+                            .replaceQueryParam("after", nextCursor)
+                            .toUriString();
+
+                    return response
+                            .header("X-Next-Cursor", nextCursor)
+                            .header(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", nextUri))
+                            .body(userDTOList);
+                });
+    }
+
+    @GetMapping(value = "/user", params = "!limit", produces = "application/json")
+    public Mono<Void> fetchAllUsers(UserFilterDTO filter,
+                                    @RequestParam(required = false) Set<String> fields,
+                                    ServerHttpResponse response) throws InvalidQueryParameterException {
+        UserQuery query = UserQueryParameters.toUserQuery(filter, fields);
+        DataBufferFactory bufferFactory = response.bufferFactory();
+
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON_UTF8);
+
+        Flux<DataBuffer> elements = reactiveUserService.fetchUsers(query)
+                .index()
+                .map(indexedUser -> {
+                    byte[] json = toJson(userMapper.toDTO(indexedUser.getT2(), query.getFields()));
+                    DataBuffer buffer = bufferFactory.allocateBuffer(json.length + 1);
+
+                    if (indexedUser.getT1() > 0) {
+                        buffer.write((byte) ',');
+                    }
+
+                    return buffer.write(json);
+                });
+
+        return response.writeWith(Flux.concat(
+                Mono.fromSupplier(() -> bufferFactory.wrap(new byte[]{'['})),
+                elements,
+                Mono.fromSupplier(() -> bufferFactory.wrap(new byte[]{']'}))));
+    }
+
+    @PutMapping(value = "/user/{id}", consumes = "application/json", produces = "application/json")
+    public Mono<ResponseEntity<UserDTO>> editUser(@PathVariable String id,
+                                                  @RequestBody @Valid UserDTO userDTO,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return reactiveUserService.editUser(id, ETags.parseVersion(ifMatch), userMapper.toEntity(userDTO))
+                .map(editedUser -> ResponseEntity.ok().eTag(ETags.of(editedUser)).body(userMapper.toDTO(editedUser)));
+    }
+
+    @DeleteMapping(value = "/user/{id}", produces = "application/json")
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable String id) {
+        return reactiveUserService.deleteUser(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    private byte[] toJson(UserDTO userDTO) {
+        try {
+            return objectMapper.writeValueAsBytes(userDTO);
+        } catch (JsonProcessingException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.users.management.controller;
+
+import com.users.management.dto.BulkItemResultDTO;
+import com.users.management.dto.ErrorDTO;
+import com.users.management.dto.UserDTO;
+import com.users.management.mapper.UserMapper;
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.User;
+import com.users.management.service.UserBulkService;
+import com.users.management.validation.UserDTOValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@Profile("!reactive")
+public class UserBulkController {
+
+    private UserBulkService userBulkService;
+
+    private UserMapper userMapper;
+
+    private UserDTOValidator userDTOValidator;
+
+    @Autowired
+    public UserBulkController(UserBulkService userBulkService, UserMapper userMapper, UserDTOValidator userDTOValidator) {
+        this.userBulkService = userBulkService;
+        this.userMapper = userMapper;
+        this.userDTOValidator = userDTOValidator;
+    }
+
+    // A lookup rather than a write, but a list of addresses does not fit into a GET.
+    @PostMapping(value = "/user/by-email", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<Map<String, UserDTO>> fetchUsersByEmailAddresses(@RequestBody List<String> emailAddresses) {
+        Map<String, UserDTO> userDTOs = new LinkedHashMap<>();
+
+        userBulkService.fetchUsersByEmailAddresses(emailAddresses)
+                .forEach((emailAddress, user) -> userDTOs.put(emailAddress, userMapper.toDTO(user)));
+
+        return ResponseEntity.ok(userDTOs);
+    }
+
+    @PostMapping(value = "/user/_bulk", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<List<BulkItemResultDTO>> createUsers(@RequestBody List<UserDTO> userDTOs) {
+        BulkItemResultDTO[] results = new BulkItemResultDTO[userDTOs.size()];
+        List<User> users = new ArrayList<>(userDTOs.size());
+        List<Integer> indexes = new ArrayList<>(userDTOs.size());
+
+        for (int index = 0; index < userDTOs.size(); index++) {
+            List<ErrorDTO> errors = userDTOValidator.validate(userDTOs.get(index));
+
+            if (errors.isEmpty()) {
+                users.add(userMapper.toEntity(userDTOs.get(index)));
+                indexes.add(index);
+            } else {
+                results[index] = new BulkItemResultDTO(index, null, HttpStatus.BAD_REQUEST.value(), errors);
+            }
+        }
+
+        merge(results, indexes, userBulkService.createUsers(users));
+
+        return ResponseEntity.ok(Arrays.asList(results));
+    }
+
+    @PutMapping(value = "/user/_bulk", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<List<BulkItemResultDTO>> editUsers(@RequestBody Map<String, UserDTO> userDTOs) {
+        BulkItemResultDTO[] results = new BulkItemResultDTO[userDTOs.size()];
+        List<User> users = new ArrayList<>(userDTOs.size());
+        List<Integer> indexes = new ArrayList<>(userDTOs.size());
+        int index = 0;
+
+        for (Map.Entry<String, UserDTO> entry : userDTOs.entrySet()) {
+            List<ErrorDTO> errors = userDTOValidator.validate(entry.getValue());
+
+            if (errors.isEmpty()) {
+                User user = userMapper.toEntity(entry.getValue());
+                user.setId(entry.getKey());
+                users.add(user);
+                indexes.add(index);
+            } else {
+                results[index] = new BulkItemResultDTO(index, entry.getKey(), HttpStatus.BAD_REQUEST.value(), errors);
+            }
+
+            index++;
+        }
+
+        merge(results, indexes, userBulkService.editUsers(users));
+
+        return ResponseEntity.ok(Arrays.asList(results));
+    }
+
+    @DeleteMapping(value = "/user/_bulk", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<List<BulkItemResultDTO>> deleteUsers(@RequestBody List<String> ids) {
+        BulkItemResultDTO[] results = new BulkItemResultDTO[ids.size()];
+        List<Integer> indexes = new ArrayList<>(ids.size());
+
+        for (int index = 0; index < ids.size(); index++) {
+            indexes.add(index);
+        }
+
+        merge(results, indexes, userBulkService.deleteUsers(ids));
+
+        return ResponseEntity.ok(Arrays.asList(results));
+    }
+
+    private static void merge(BulkItemResultDTO[] results, List<Integer> indexes, List<BulkItemResult> itemResults) {
+        for (int i = 0; i < itemResults.size(); i++) {
+            int index = indexes.get(i);
+
+            results[index] = BulkItems.toDTO(index, itemResults.get(i));
+        }
+    }
+}
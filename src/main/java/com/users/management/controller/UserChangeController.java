@@ -0,0 +1,103 @@
+package com.users.management.controller;
+
+import com.users.management.configuration.ChangeFeedProperties;
+import com.users.management.exception.InvalidQueryParameterException;
+import com.users.management.exception.TooManySubscriptionsException;
+import com.users.management.mapper.UserMapper;
+import com.users.management.model.UserChangeEvent;
+import com.users.management.service.UserChangeFeed;
+import com.users.management.service.UserChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RestController
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "users.changes", name = "enabled", havingValue = "true")
+public class UserChangeController {
+
+    private UserChangeFeed userChangeFeed;
+
+    private UserMapper userMapper;
+
+    private ChangeFeedProperties changeFeedProperties;
+
+    // The handler returns before the stream ends, so the rate limiter cannot count open streams and this does.
+    private AtomicInteger subscriptions = new AtomicInteger();
+
+    @Autowired
+    public UserChangeController(UserChangeFeed userChangeFeed, UserMapper userMapper, ChangeFeedProperties changeFeedProperties) {
+        this.userChangeFeed = userChangeFeed;
+        this.userMapper = userMapper;
+        this.changeFeedProperties = changeFeedProperties;
+    }
+
+    @GetMapping(value = "/user/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) String after,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId)
+            throws InvalidQueryParameterException, TooManySubscriptionsException {
+        if (subscriptions.incrementAndGet() > changeFeedProperties.getMaxSubscriptions()) {
+            subscriptions.decrementAndGet();
+            throw new TooManySubscriptionsException(String.format("The change feed is at its limit of %d subscriptions, retry later",
+                    changeFeedProperties.getMaxSubscriptions()));
+        }
+
+        SseEmitter emitter = new SseEmitter(changeFeedProperties.getSseTimeout().toMillis());
+        Subscription subscription;
+
+        try {
+            subscription = userChangeFeed.subscribe(lastEventId != null ? lastEventId : after, new UserChangeListener() {
+
+                @Override
+                public void onChange(UserChangeEvent event) {
+                    try {
+                        emitter.send(SseEmitter.event()
+                                .id(event.getResumeToken())
+                                .name(event.getOperation().name().toLowerCase())
+                                .data(userMapper.toDTO(event), MediaType.APPLICATION_JSON));
+                    } catch (IOException | IllegalStateException e) {
+                        emitter.completeWithError(e);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    emitter.completeWithError(error);
+                }
+            });
+        } catch (InvalidQueryParameterException | RuntimeException e) {
+            subscriptions.decrementAndGet();
+            throw e;
+        }
+
+        // Timeouts and dropped connections do not always complete the emitter, so each end cancels on its own.
+        AtomicBoolean ended = new AtomicBoolean();
+        Runnable end = () -> {
+            if (ended.compareAndSet(false, true)) {
+                subscription.cancel();
+                subscriptions.decrementAndGet();
+            }
+        };
+
+        emitter.onCompletion(end);
+        emitter.onTimeout(end);
+        emitter.onError(error -> end.run());
+
+        return emitter;
+    }
+
+    int getSubscriptions() {
+        return subscriptions.get();
+    }
+}
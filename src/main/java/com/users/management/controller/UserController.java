@@ -1,71 +1,227 @@
 package com.users.management.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.users.management.dto.BulkItemResultDTO;
 import com.users.management.dto.UserDTO;
+import com.users.management.dto.UserFilterDTO;
+import com.users.management.exception.DuplicateEmailException;
+import com.users.management.exception.InvalidQueryParameterException;
 import com.users.management.exception.UserDoesNotExistException;
+import com.users.management.exception.UserVersionMismatchException;
+import com.users.management.exception.WriteQueueFullException;
+import com.users.management.mapper.UserMapper;
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.PendingUser;
 import com.users.management.model.User;
+import com.users.management.model.UserQuery;
 import com.users.management.service.UserService;
-import org.modelmapper.ModelMapper;
+import com.users.management.service.UserWriteBehindQueue;
+import com.users.management.util.Cursors;
+import com.users.management.util.ETags;
+import com.users.management.validation.UserDTOValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.net.URI;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @RestController
+@Profile("!reactive")
 public class UserController {
 
+    static final String SMILE = "application/x-jackson-smile";
+
+    static final String CBOR = "application/cbor";
+
+    static final String WRITE_ACK = "X-Write-Ack";
+
+    static final String WRITE_ACK_COMMIT = "commit";
+
+    private static final List<MediaType> LIST_MEDIA_TYPES =
+            Arrays.asList(MediaType.APPLICATION_JSON, MediaType.valueOf(SMILE), MediaType.valueOf(CBOR));
+
     private UserService userService;
 
-    private ModelMapper modelMapper;
+    private UserMapper userMapper;
+
+    private ObjectMapper objectMapper;
+
+    private UserDTOValidator userDTOValidator;
+
+    private HttpMessageConverters httpMessageConverters;
+
+    private UserWriteBehindQueue userWriteBehindQueue;
 
     @Autowired
-    public UserController(UserService userService, ModelMapper modelMapper) {
+    public UserController(UserService userService, UserMapper userMapper, ObjectMapper objectMapper,
+                          UserDTOValidator userDTOValidator, HttpMessageConverters httpMessageConverters,
+                          UserWriteBehindQueue userWriteBehindQueue) {
         this.userService = userService;
-        this.modelMapper = modelMapper;
+        this.userMapper = userMapper;
+        this.objectMapper = objectMapper;
+        this.userDTOValidator = userDTOValidator;
+        this.httpMessageConverters = httpMessageConverters;
+        this.userWriteBehindQueue = userWriteBehindQueue;
+    }
+
+    @InitBinder("userDTO")
+    public void initUserDTOBinder(WebDataBinder binder) {
+        binder.setValidator(userDTOValidator);
     }
 
     @PostMapping(value = "/user", consumes = "application/json", produces = "application/json")
-    public ResponseEntity<UserDTO> createUser(@RequestBody @Valid UserDTO userDTO) {
-        User user = modelMapper.map(userDTO, User.class);
+    public ResponseEntity<UserDTO> createUser(@RequestBody @Valid UserDTO userDTO,
+                                              @RequestHeader(value = WRITE_ACK, required = false) String writeAck) throws DuplicateEmailException, WriteQueueFullException {
+        User user = userMapper.toEntity(userDTO);
+
+        if (userWriteBehindQueue.isEnabled()) {
+            return enqueueUser(user, WRITE_ACK_COMMIT.equals(writeAck));
+        }
+
         User createdUser = userService.createUser(user);
 
         URI uri = ServletUriComponentsBuilder.fromCurrentRequest()
-                .path("user/{id}")
+                .path("/{id}")
                 .buildAndExpand(createdUser.getId())
                 .toUri();
 
         return ResponseEntity.created(uri).build();
     }
 
-    @GetMapping(value = "/user/{id}", produces = "application/json")
-    public ResponseEntity<UserDTO> fetchUser(@PathVariable String id) throws UserDoesNotExistException {
-        User user = userService.fetchUserById(id);
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
+    @GetMapping(value = "/user/_writes/{id}", produces = "application/json")
+    public ResponseEntity<BulkItemResultDTO> fetchUserWrite(@PathVariable String id) throws UserDoesNotExistException {
+        PendingUser pendingUser = userWriteBehindQueue.findPendingUser(id)
+                .orElseThrow(() -> new UserDoesNotExistException(String.format("There is no recent write of the user with id '%s'", id)));
+
+        if (!pendingUser.getResult().isDone()) {
+            return ResponseEntity.ok(new BulkItemResultDTO(0, id, HttpStatus.ACCEPTED.value(), null));
+        }
+
+        BulkItemResult result = pendingUser.getResult().join();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (result.getStatus() == BulkItemResult.Status.CREATED) {
+            response.location(ServletUriComponentsBuilder.fromCurrentContextPath().path("/user/{id}").buildAndExpand(id).toUri());
+        }
+
+        return response.body(BulkItems.toDTO(0, result));
+    }
+
+    @GetMapping(value = "/user/{id}", produces = {"application/json", SMILE, CBOR})
+    public ResponseEntity<UserDTO> fetchUser(@PathVariable String id,
+                                             @RequestParam(required = false) Set<String> fields,
+                                             WebRequest webRequest) throws InvalidQueryParameterException, UserDoesNotExistException {
+        Set<String> projection = UserQueryParameters.toFields(fields);
+        User user = projection == null ? userService.fetchUserById(id) : userService.fetchUserById(id, projection);
+        String eTag = ETags.of(user);
+
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        UserDTO userDTO = userMapper.toDTO(user, projection);
+
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(userDTO);
+    }
+
+    // The pattern keeps Spring from taking the top-level domain of the address for a file extension.
+    @GetMapping(value = "/user/by-email/{emailAddress:.+}", produces = {"application/json", SMILE, CBOR})
+    public ResponseEntity<UserDTO> fetchUserByEmailAddress(@PathVariable String emailAddress,
+                                                           WebRequest webRequest) throws UserDoesNotExistException {
+        User user = userService.fetchUserByEmailAddress(emailAddress);
+        String eTag = ETags.of(user);
+
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(userMapper.toDTO(user));
+    }
+
+    @GetMapping(value = "/user", params = "limit", produces = {"application/json", SMILE, CBOR})
+    public ResponseEntity<List<UserDTO>> fetchUsersPage(UserFilterDTO filter,
+                                                        @RequestParam(required = false) Set<String> fields,
+                                                        @RequestParam int limit,
+                                                        @RequestParam(required = false) String after,
+                                                        WebRequest webRequest) throws InvalidQueryParameterException {
+        UserQuery query = UserQueryParameters.toUserQuery(filter, fields, limit, after);
+        List<User> userList = userService.fetchUsers(query);
+        String eTag = ETags.of(userList);
+
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        List<UserDTO> userDTOList = userMapper.toDTOList(userList, query.getFields());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT);
 
-        return ResponseEntity.ok(userDTO);
+        if (userList.size() < limit) {
+            return response.body(userDTOList);
+        }
+
+        String nextCursor = Cursors.encode(query, userList.get(userList.size() - 1));
+        String nextUri = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", nextCursor)
+                .toUriString();
+
+        return response
+                .header("X-Next-Cursor", nextCursor)
+                .header(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", nextUri))
+                .body(userDTOList);
     }
 
-    @GetMapping(value = "/user", produces = "application/json")
-    public ResponseEntity<List<UserDTO>> fetchAllUsers() {
-        List<User> userList = userService.fetchAllUsers();
-        List<UserDTO> userDTOList = new ArrayList<>();
+    @GetMapping(value = "/user", params = "!limit", produces = {"application/json", SMILE, CBOR})
+    public void fetchAllUsers(UserFilterDTO filter,
+                              @RequestParam(required = false) Set<String> fields,
+                              @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                              HttpServletResponse response) throws InvalidQueryParameterException, IOException {
+        UserQuery query = UserQueryParameters.toUserQuery(filter, fields);
+        MediaType mediaType = negotiateListMediaType(accept);
+        ObjectMapper listObjectMapper = objectMapperFor(mediaType);
+
+        response.setContentType(MediaType.APPLICATION_JSON.equals(mediaType) ? MediaType.APPLICATION_JSON_UTF8_VALUE : mediaType.toString());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
 
-        userList.forEach(user -> userDTOList.add(modelMapper.map(user, UserDTO.class)));
+        try (Stream<User> users = userService.streamUsers(query);
+             JsonGenerator generator = listObjectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartArray();
 
-        return ResponseEntity.ok(userDTOList);
+            for (User user : (Iterable<User>) users::iterator) {
+                generator.writeObject(userMapper.toDTO(user, query.getFields()));
+            }
+
+            generator.writeEndArray();
+        }
     }
 
     @PutMapping(value = "/user/{id}", consumes = "application/json", produces = "application/json")
-    public ResponseEntity<UserDTO> editUser(@PathVariable String id, @RequestBody @Valid UserDTO userDTO) throws UserDoesNotExistException {
-        User user = modelMapper.map(userDTO, User.class);
-        User editedUser = userService.editUser(id, user);
-        UserDTO editedUserDTO = modelMapper.map(editedUser, UserDTO.class);
+    public ResponseEntity<UserDTO> editUser(@PathVariable String id,
+                                            @RequestBody @Valid UserDTO userDTO,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws UserDoesNotExistException, UserVersionMismatchException {
+        User user = userMapper.toEntity(userDTO);
+        User editedUser = userService.editUser(id, ETags.parseVersion(ifMatch), user);
+        UserDTO editedUserDTO = userMapper.toDTO(editedUser);
 
-        return ResponseEntity.ok(editedUserDTO);
+        return ResponseEntity.ok().eTag(ETags.of(editedUser)).body(editedUserDTO);
     }
 
     @DeleteMapping(value = "/user/{id}", produces = "application/json")
@@ -75,5 +231,67 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
+    private ResponseEntity<UserDTO> enqueueUser(User user, boolean awaitCommit) throws DuplicateEmailException, WriteQueueFullException {
+        PendingUser pendingUser = userWriteBehindQueue.enqueue(user);
+        String id = pendingUser.getUser().getId();
+
+        if (awaitCommit) {
+            Optional<BulkItemResult> result = userWriteBehindQueue.awaitResult(pendingUser);
+
+            if (result.isPresent() && result.get().getStatus() == BulkItemResult.Status.CREATED) {
+                return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(id).toUri()).build();
+            }
+
+            if (result.isPresent() && result.get().getStatus() == BulkItemResult.Status.DUPLICATE) {
+                throw new DuplicateEmailException(result.get().getMessage());
+            }
+
+            if (result.isPresent()) {
+                return ResponseEntity.status(BulkItems.httpStatusOf(result.get().getStatus())).build();
+            }
+        }
+
+        // Not written yet, the caller polls the write until it is done.
+        URI uri = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/_writes/{id}")
+                .buildAndExpand(id)
+                .toUri();
+
+        return ResponseEntity.accepted().location(uri).build();
+    }
+
+    private static MediaType negotiateListMediaType(String accept) {
+        if (accept == null) {
+            return MediaType.APPLICATION_JSON;
+        }
+
+        List<MediaType> acceptedTypes = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(acceptedTypes);
+
+        for (MediaType acceptedType : acceptedTypes) {
+            for (MediaType listMediaType : LIST_MEDIA_TYPES) {
+                if (acceptedType.includes(listMediaType)) {
+                    return listMediaType;
+                }
+            }
+        }
+
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private ObjectMapper objectMapperFor(MediaType mediaType) {
+        if (MediaType.APPLICATION_JSON.equals(mediaType)) {
+            return objectMapper;
+        }
+
+        // The streamed list is written with the same Smile or CBOR mapper that the message converters use.
+        for (HttpMessageConverter<?> converter : httpMessageConverters) {
+            if (converter instanceof AbstractJackson2HttpMessageConverter && converter.getSupportedMediaTypes().contains(mediaType)) {
+                return ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper();
+            }
+        }
+
+        return objectMapper;
+    }
 
 }
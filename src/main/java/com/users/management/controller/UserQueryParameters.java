@@ -0,0 +1,82 @@
+package com.users.management.controller;
+
+import com.users.management.dto.UserFilterDTO;
+import com.users.management.exception.InvalidQueryParameterException;
+import com.users.management.model.UserQuery;
+import com.users.management.util.Cursors;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+final class UserQueryParameters {
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private static final Set<String> FIELDS = new HashSet<>(Arrays.asList("id", "firstName", "lastName", "emailAddress", "dateOfBirth"));
+
+    private UserQueryParameters() {
+    }
+
+    static Set<String> toFields(Set<String> fields) throws InvalidQueryParameterException {
+        if (fields == null) {
+            return null;
+        }
+
+        for (String field : fields) {
+            if (!FIELDS.contains(field)) {
+                throw new InvalidQueryParameterException(String.format(
+                        "The field '%s' is not valid, expected any of id, firstName, lastName, emailAddress, dateOfBirth", field));
+            }
+        }
+
+        return fields;
+    }
+
+    static UserQuery toUserQuery(UserFilterDTO filter, Set<String> fields) throws InvalidQueryParameterException {
+        UserQuery query = new UserQuery();
+
+        query.setFields(toFields(fields));
+
+        query.setFirstName(filter.getFirstName());
+        query.setLastName(filter.getLastName());
+        query.setEmailPrefix(filter.getEmailPrefix());
+        query.setBornFrom(filter.getBornFrom());
+        query.setBornTo(filter.getBornTo());
+
+        if (filter.getBornFrom() != null && filter.getBornTo() != null && filter.getBornFrom().isAfter(filter.getBornTo())) {
+            throw new InvalidQueryParameterException("bornFrom must not be after bornTo");
+        }
+
+        if (filter.getSort() != null) {
+            boolean descending = filter.getSort().startsWith("-");
+            UserQuery.SortField sortField = UserQuery.SortField.fromProperty(descending ? filter.getSort().substring(1) : filter.getSort());
+
+            if (sortField == null) {
+                throw new InvalidQueryParameterException(String.format(
+                        "The sort '%s' is not valid, expected one of id, firstName, lastName, emailAddress, dateOfBirth", filter.getSort()));
+            }
+
+            query.setSortField(sortField);
+            query.setDirection(descending ? Sort.Direction.DESC : Sort.Direction.ASC);
+        }
+
+        return query;
+    }
+
+    static UserQuery toUserQuery(UserFilterDTO filter, Set<String> fields, int limit, String after) throws InvalidQueryParameterException {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidQueryParameterException(String.format("limit must be between 1 and %d", MAX_PAGE_SIZE));
+        }
+
+        UserQuery query = toUserQuery(filter, fields);
+        query.setLimit(limit);
+
+        if (after != null) {
+            Cursors.decodeInto(after, query);
+        }
+
+        return query;
+    }
+}
@@ -0,0 +1,198 @@
+package com.users.management.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.users.management.configuration.BulkProperties;
+import com.users.management.dto.BulkItemResultDTO;
+import com.users.management.dto.ErrorDTO;
+import com.users.management.dto.ImportResultDTO;
+import com.users.management.dto.UserDTO;
+import com.users.management.exception.InvalidQueryParameterException;
+import com.users.management.mapper.UserMapper;
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.User;
+import com.users.management.service.UserBulkService;
+import com.users.management.service.UserService;
+import com.users.management.validation.UserDTOValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Import and export are rare admin calls, so the controller and its CSV mapper are only created for the first one.
+@RestController
+@Lazy
+@Profile("!reactive")
+public class UserTransferController {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    static final String CSV = "text/csv";
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private UserService userService;
+
+    private UserBulkService userBulkService;
+
+    private UserMapper userMapper;
+
+    private UserDTOValidator userDTOValidator;
+
+    private ObjectMapper objectMapper;
+
+    private BulkProperties bulkProperties;
+
+    private CsvMapper csvMapper;
+
+    private CsvSchema csvSchema;
+
+    @Autowired
+    public UserTransferController(UserService userService, UserBulkService userBulkService, UserMapper userMapper,
+                                  UserDTOValidator userDTOValidator, ObjectMapper objectMapper, BulkProperties bulkProperties) {
+        this.userService = userService;
+        this.userBulkService = userBulkService;
+        this.userMapper = userMapper;
+        this.userDTOValidator = userDTOValidator;
+        this.objectMapper = objectMapper;
+        this.bulkProperties = bulkProperties;
+        this.csvMapper = new CsvMapper();
+        this.csvMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.csvSchema = csvMapper.schemaFor(UserDTO.class).withHeader();
+    }
+
+    @GetMapping(value = "/user/export")
+    public void exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                            HttpServletResponse response) throws IOException, InvalidQueryParameterException {
+        switch (format) {
+            case "ndjson":
+                response.setContentType(NDJSON);
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"");
+                exportNdjson(response.getOutputStream());
+                break;
+            case "csv":
+                response.setContentType(CSV);
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\"");
+                exportCsv(response.getOutputStream());
+                break;
+            default:
+                throw new InvalidQueryParameterException(String.format("The export format '%s' is not supported", format));
+        }
+    }
+
+    @PostMapping(value = "/user/import", consumes = NDJSON, produces = "application/json")
+    public ResponseEntity<ImportResultDTO> importNdjson(InputStream body) throws IOException {
+        MappingIterator<UserDTO> userDTOs = objectMapper.readerFor(UserDTO.class).readValues(body);
+
+        return ResponseEntity.ok(importUsers(userDTOs));
+    }
+
+    @PostMapping(value = "/user/import", consumes = CSV, produces = "application/json")
+    public ResponseEntity<ImportResultDTO> importCsv(InputStream body) throws IOException {
+        MappingIterator<UserDTO> userDTOs = csvMapper.readerFor(UserDTO.class).with(csvSchema).readValues(body);
+
+        return ResponseEntity.ok(importUsers(userDTOs));
+    }
+
+    private void exportNdjson(OutputStream outputStream) throws IOException {
+        try (Stream<User> users = userService.streamAllUsers();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+
+            for (User user : (Iterable<User>) users::iterator) {
+                generator.writeObject(userMapper.toDTO(user));
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void exportCsv(OutputStream outputStream) throws IOException {
+        try (Stream<User> users = userService.streamAllUsers();
+             SequenceWriter writer = csvMapper.writer(csvSchema).writeValues(outputStream)) {
+            for (User user : (Iterable<User>) users::iterator) {
+                writer.write(userMapper.toDTO(user));
+            }
+        }
+    }
+
+    private ImportResultDTO importUsers(MappingIterator<UserDTO> userDTOs) throws IOException {
+        ImportResultDTO importResult = new ImportResultDTO();
+        List<User> batch = new ArrayList<>(bulkProperties.getChunkSize());
+        List<Integer> batchIndexes = new ArrayList<>(bulkProperties.getChunkSize());
+        int index = 0;
+
+        try {
+            while (userDTOs.hasNextValue()) {
+                UserDTO userDTO = userDTOs.nextValue();
+                List<ErrorDTO> errors = userDTOValidator.validate(userDTO);
+
+                if (errors.isEmpty()) {
+                    batch.add(userMapper.toEntity(userDTO));
+                    batchIndexes.add(index);
+                } else {
+                    recordFailure(importResult, new BulkItemResultDTO(index, null, HttpStatus.BAD_REQUEST.value(), errors));
+                }
+
+                if (batch.size() == bulkProperties.getChunkSize()) {
+                    flush(importResult, batch, batchIndexes);
+                }
+
+                index++;
+            }
+        } catch (JsonProcessingException exception) {
+            recordFailure(importResult, new BulkItemResultDTO(index, null, HttpStatus.BAD_REQUEST.value(),
+                    Collections.singletonList(new ErrorDTO(String.format("Malformed record, %s", exception.getOriginalMessage())))));
+        } finally {
+            userDTOs.close();
+        }
+
+        flush(importResult, batch, batchIndexes);
+
+        return importResult;
+    }
+
+    private void flush(ImportResultDTO importResult, List<User> batch, List<Integer> batchIndexes) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<BulkItemResult> itemResults = userBulkService.createUsers(batch);
+
+        for (int i = 0; i < itemResults.size(); i++) {
+            if (itemResults.get(i).getStatus() == BulkItemResult.Status.CREATED) {
+                importResult.setImported(importResult.getImported() + 1);
+            } else {
+                recordFailure(importResult, BulkItems.toDTO(batchIndexes.get(i), itemResults.get(i)));
+            }
+        }
+
+        batch.clear();
+        batchIndexes.clear();
+    }
+
+    private static void recordFailure(ImportResultDTO importResult, BulkItemResultDTO failure) {
+        importResult.setFailed(importResult.getFailed() + 1);
+
+        if (importResult.getErrors().size() < MAX_REPORTED_ERRORS) {
+            importResult.getErrors().add(failure);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.users.management.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Objects;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResultDTO {
+
+    private int index;
+
+    private String id;
+
+    private int status;
+
+    private List<ErrorDTO> errors;
+
+    public BulkItemResultDTO() {
+    }
+
+    public BulkItemResultDTO(int index, String id, int status, List<ErrorDTO> errors) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.errors = errors;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public List<ErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BulkItemResultDTO that = (BulkItemResultDTO) o;
+        return index == that.index &&
+                status == that.status &&
+                Objects.equals(id, that.id) &&
+                Objects.equals(errors, that.errors);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, id, status, errors);
+    }
+
+    @Override
+    public String toString() {
+        return "BulkItemResultDTO{" +
+                "index=" + index +
+                ", id='" + id + '\'' +
+                ", status=" + status +
+                ", errors=" + errors +
+                '}';
+    }
+}
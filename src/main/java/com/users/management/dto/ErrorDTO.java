@@ -1,9 +1,14 @@
 package com.users.management.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.Objects;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ErrorDTO {
 
+    private String code;
+
     private String message;
 
     public ErrorDTO() {
@@ -13,6 +18,19 @@ public class ErrorDTO {
         this.message = message;
     }
 
+    public ErrorDTO(String code, String message) {
+        this.code = code;
+        this.message = message;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
     public String getMessage() {
         return message;
     }
@@ -26,18 +44,20 @@ public class ErrorDTO {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ErrorDTO errorDTO = (ErrorDTO) o;
-        return Objects.equals(message, errorDTO.message);
+        return Objects.equals(code, errorDTO.code) &&
+                Objects.equals(message, errorDTO.message);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(message);
+        return Objects.hash(code, message);
     }
 
     @Override
     public String toString() {
         return "ErrorDTO{" +
-                "message='" + message + '\'' +
+                "code='" + code + '\'' +
+                ", message='" + message + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,62 @@
+package com.users.management.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public class ImportResultDTO {
+
+    private long imported;
+
+    private long failed;
+
+    private List<BulkItemResultDTO> errors = new ArrayList<>();
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<BulkItemResultDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BulkItemResultDTO> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ImportResultDTO that = (ImportResultDTO) o;
+        return imported == that.imported &&
+                failed == that.failed &&
+                Objects.equals(errors, that.errors);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(imported, failed, errors);
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResultDTO{" +
+                "imported=" + imported +
+                ", failed=" + failed +
+                ", errors=" + errors +
+                '}';
+    }
+}
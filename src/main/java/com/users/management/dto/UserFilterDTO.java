@@ -0,0 +1,77 @@
+package com.users.management.dto;
+
+import io.swagger.annotations.ApiParam;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+public class UserFilterDTO {
+
+    @ApiParam("Exact first name")
+    private String firstName;
+
+    @ApiParam("Exact last name")
+    private String lastName;
+
+    @ApiParam("Case-sensitive prefix of the email address")
+    private String emailPrefix;
+
+    @ApiParam("Earliest date of birth, inclusive (dd-MM-yyyy)")
+    @DateTimeFormat(pattern = "dd-MM-yyyy")
+    private LocalDate bornFrom;
+
+    @ApiParam("Latest date of birth, inclusive (dd-MM-yyyy)")
+    @DateTimeFormat(pattern = "dd-MM-yyyy")
+    private LocalDate bornTo;
+
+    @ApiParam("One of id, firstName, lastName, emailAddress, dateOfBirth; prefix with '-' for descending order")
+    private String sort;
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmailPrefix() {
+        return emailPrefix;
+    }
+
+    public void setEmailPrefix(String emailPrefix) {
+        this.emailPrefix = emailPrefix;
+    }
+
+    public LocalDate getBornFrom() {
+        return bornFrom;
+    }
+
+    public void setBornFrom(LocalDate bornFrom) {
+        this.bornFrom = bornFrom;
+    }
+
+    public LocalDate getBornTo() {
+        return bornTo;
+    }
+
+    public void setBornTo(LocalDate bornTo) {
+        this.bornTo = bornTo;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+}
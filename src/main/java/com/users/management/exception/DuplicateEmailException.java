@@ -0,0 +1,9 @@
+package com.users.management.exception;
+
+public class DuplicateEmailException extends Exception {
+
+    public DuplicateEmailException(String message) {
+        // Duplicates are expected during imports, so skip capturing a stack trace nobody reads.
+        super(message, null, false, false);
+    }
+}
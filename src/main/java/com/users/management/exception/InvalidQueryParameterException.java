@@ -0,0 +1,8 @@
+package com.users.management.exception;
+
+public class InvalidQueryParameterException extends Exception {
+
+    public InvalidQueryParameterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.users.management.exception;
+
+public class TooManySubscriptionsException extends Exception {
+
+    public TooManySubscriptionsException(String message) {
+        // Thrown on every rejected subscription while the feed is at its limit, so skip the stack trace.
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,8 @@
+package com.users.management.exception;
+
+public class UserVersionMismatchException extends Exception {
+
+    public UserVersionMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.users.management.exception;
+
+public class WriteQueueFullException extends Exception {
+
+    public WriteQueueFullException(String message) {
+        // Thrown on every rejected request while the queue is full, so skip the stack trace.
+        super(message, null, false, false);
+    }
+}
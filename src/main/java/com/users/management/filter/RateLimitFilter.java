@@ -0,0 +1,182 @@
+package com.users.management.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.users.management.configuration.RateLimitProperties;
+import com.users.management.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String RATE_LIMITED_CODE = "RATE_LIMITED";
+
+    public static final String CONCURRENCY_LIMITED_CODE = "CONCURRENCY_LIMITED";
+
+    // Rejections are written straight from the filter, so the bodies are encoded once up front.
+    private static final byte[] RATE_LIMITED_BODY = errorBody(RATE_LIMITED_CODE, "Too many requests, retry later");
+
+    private static final byte[] CONCURRENCY_LIMITED_BODY = errorBody(CONCURRENCY_LIMITED_CODE, "Too many concurrent requests, retry later");
+
+    enum Cost {
+        CHEAP, EXPENSIVE
+    }
+
+    private Cache<String, ClientLimits> clients;
+
+    private AtomicInteger expensiveInFlight = new AtomicInteger();
+
+    private RateLimitProperties rateLimitProperties;
+
+    private LongSupplier nanoClock;
+
+    private Counter[] rateRejected = new Counter[Cost.values().length];
+
+    private Counter[] concurrencyRejected = new Counter[Cost.values().length];
+
+    public RateLimitFilter(RateLimitProperties rateLimitProperties, MeterRegistry meterRegistry) {
+        this(rateLimitProperties, meterRegistry, System::nanoTime);
+    }
+
+    public RateLimitFilter(RateLimitProperties rateLimitProperties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.nanoClock = nanoClock;
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(rateLimitProperties.getMaxClients())
+                .expireAfterAccess(rateLimitProperties.getIdleTimeout().toNanos(), TimeUnit.NANOSECONDS)
+                .build();
+
+        for (Cost cost : Cost.values()) {
+            rateRejected[cost.ordinal()] = rejectedCounter(meterRegistry, cost, "rate");
+            concurrencyRejected[cost.ordinal()] = rejectedCounter(meterRegistry, cost, "concurrency");
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Cost cost = cost(request);
+        ClientLimits limits = clients.get(clientId(request), clientId -> new ClientLimits(rateLimitProperties));
+        RateLimitProperties.Budget budget = cost == Cost.EXPENSIVE ? rateLimitProperties.getExpensive() : rateLimitProperties.getCheap();
+        TokenBucket bucket = cost == Cost.EXPENSIVE ? limits.expensiveBucket : limits.cheapBucket;
+        AtomicInteger inFlight = cost == Cost.EXPENSIVE ? limits.expensiveInFlight : limits.cheapInFlight;
+
+        long waitNanos = bucket.tryAcquire(nanoClock.getAsLong());
+
+        if (waitNanos > 0) {
+            rateRejected[cost.ordinal()].increment();
+            reject(response, RATE_LIMITED_BODY, TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1);
+            return;
+        }
+
+        if (!tryEnter(inFlight, budget.getMaxConcurrent())) {
+            concurrencyRejected[cost.ordinal()].increment();
+            reject(response, CONCURRENCY_LIMITED_BODY, 1);
+            return;
+        }
+
+        // Besides the per client limit, expensive requests share one limit so that many clients cannot add up to a full scan storm.
+        if (cost == Cost.EXPENSIVE && !tryEnter(expensiveInFlight, rateLimitProperties.getMaxConcurrentExpensive())) {
+            inFlight.decrementAndGet();
+            concurrencyRejected[cost.ordinal()].increment();
+            reject(response, CONCURRENCY_LIMITED_BODY, 1);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+
+            if (cost == Cost.EXPENSIVE) {
+                expensiveInFlight.decrementAndGet();
+            }
+        }
+    }
+
+    static Cost cost(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        // Without a limit GET /user streams the whole matching collection.
+        if (path.equals("/user") && "GET".equals(request.getMethod()) && request.getParameter("limit") == null) {
+            return Cost.EXPENSIVE;
+        }
+
+        // A change stream holds a cursor and a thread for as long as the client stays connected.
+        if (path.equals("/user/_bulk") || path.equals("/user/by-email") || path.equals("/user/export") || path.equals("/user/import")
+                || path.equals("/user/changes")) {
+            return Cost.EXPENSIVE;
+        }
+
+        return Cost.CHEAP;
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String trustedClientHeader = rateLimitProperties.getTrustedClientHeader();
+        String clientId = trustedClientHeader == null || trustedClientHeader.isEmpty() ? null : request.getHeader(trustedClientHeader);
+
+        return clientId == null || clientId.isEmpty() ? request.getRemoteAddr() : clientId;
+    }
+
+    private static boolean tryEnter(AtomicInteger inFlight, int max) {
+        if (inFlight.incrementAndGet() > max) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+
+        return true;
+    }
+
+    private static void reject(HttpServletResponse response, byte[] body, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static byte[] errorBody(String code, String message) {
+        return String.format("{\"code\":\"%s\",\"message\":\"%s\"}", code, message).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, Cost cost, String reason) {
+        return Counter.builder("users.rate-limit.rejected")
+                .description("Requests rejected by the rate limiter")
+                .tag("cost", cost.name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static class ClientLimits {
+
+        private TokenBucket cheapBucket;
+
+        private TokenBucket expensiveBucket;
+
+        private AtomicInteger cheapInFlight = new AtomicInteger();
+
+        private AtomicInteger expensiveInFlight = new AtomicInteger();
+
+        private ClientLimits(RateLimitProperties rateLimitProperties) {
+            RateLimitProperties.Budget cheap = rateLimitProperties.getCheap();
+            RateLimitProperties.Budget expensive = rateLimitProperties.getExpensive();
+
+            this.cheapBucket = new TokenBucket(cheap.getCapacity(), cheap.getRefillPerSecond());
+            this.expensiveBucket = new TokenBucket(expensive.getCapacity(), expensive.getRefillPerSecond());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.users.management.filter;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import springfox.documentation.spring.web.plugins.DocumentationPluginsBootstrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// Springfox scans every handler method when the context starts, unless springfox.documentation.auto-startup is false.
+// The scan then runs on the first request for the API documentation instead, and requests arriving meanwhile wait for it.
+public class SwaggerStartupFilter extends OncePerRequestFilter {
+
+    private DocumentationPluginsBootstrapper documentationPluginsBootstrapper;
+
+    private volatile boolean started;
+
+    public SwaggerStartupFilter(DocumentationPluginsBootstrapper documentationPluginsBootstrapper) {
+        this.documentationPluginsBootstrapper = documentationPluginsBootstrapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!started) {
+            start();
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private synchronized void start() {
+        if (!started) {
+            documentationPluginsBootstrapper.start();
+            started = true;
+        }
+    }
+}
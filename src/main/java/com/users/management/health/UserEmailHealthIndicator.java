@@ -0,0 +1,33 @@
+package com.users.management.health;
+
+import com.users.management.service.UserEmailRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+// Reported as userEmail by /actuator/health. Stays UP either way, since lookups fall back to Mongo, but users whose
+// address could not be backfilled are missed by the lookups by email address until the conflict is resolved by hand.
+@Component
+@Profile("!reactive")
+public class UserEmailHealthIndicator implements HealthIndicator {
+
+    private UserEmailRegistry userEmailRegistry;
+
+    @Autowired
+    public UserEmailHealthIndicator(UserEmailRegistry userEmailRegistry) {
+        this.userEmailRegistry = userEmailRegistry;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = Health.up().withDetail("filterWarm", userEmailRegistry.isWarm());
+
+        userEmailRegistry.getBackfillConflicts().ifPresent(conflicts -> health.withDetail("backfillConflicts", conflicts));
+        userEmailRegistry.getBackfillFailure().ifPresent(failure -> health.withDetail("backfillFailure", failure));
+        userEmailRegistry.getWarmUpFailure().ifPresent(failure -> health.withDetail("warmUpFailure", failure));
+
+        return health.build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.users.management.health;
+
+import com.users.management.repository.UserIndexManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+// Reported as userIndex by /actuator/health. OUT_OF_SERVICE answers 503, so a readiness probe on the health endpoint
+// keeps traffic away until the indexes are built, without holding up the start of the application itself.
+@Component
+@Profile("!offheap & !sharded & !reactive")
+public class UserIndexHealthIndicator implements HealthIndicator {
+
+    private UserIndexManager userIndexManager;
+
+    @Autowired
+    public UserIndexHealthIndicator(UserIndexManager userIndexManager) {
+        this.userIndexManager = userIndexManager;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = Health.status(statusOf(userIndexManager.getState()))
+                .withDetail("state", userIndexManager.getState())
+                .withDetail("indexes", userIndexManager.getOutcomes());
+
+        userIndexManager.getTook().ifPresent(took -> health.withDetail("took", took.toString()));
+
+        return health.build();
+    }
+
+    private static Status statusOf(UserIndexManager.State state) {
+        switch (state) {
+            case READY:
+                return Status.UP;
+            case FAILED:
+                return Status.DOWN;
+            default:
+                return Status.OUT_OF_SERVICE;
+        }
+    }
+}
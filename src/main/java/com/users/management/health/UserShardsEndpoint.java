@@ -0,0 +1,51 @@
+package com.users.management.health;
+
+import com.users.management.repository.UserShard;
+import com.users.management.repository.UserShardRebalancer;
+import com.users.management.repository.UserShards;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// GET /actuator/shards shows the shards and how the last rebalancing went, POST /actuator/shards starts one on this instance.
+@Component
+@Profile("sharded")
+@Endpoint(id = "shards")
+public class UserShardsEndpoint {
+
+    private UserShards userShards;
+
+    private UserShardRebalancer userShardRebalancer;
+
+    @Autowired
+    public UserShardsEndpoint(UserShards userShards, UserShardRebalancer userShardRebalancer) {
+        this.userShards = userShards;
+        this.userShardRebalancer = userShardRebalancer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        Map<String, Object> shards = new LinkedHashMap<>();
+
+        shards.put("shards", userShards.getShards().stream().map(UserShard::getName).collect(Collectors.toList()));
+        shards.put("previousShardCount", userShards.getPreviousShardCount());
+        shards.put("rebalancing", userShards.isRebalancing());
+        shards.put("rebalancer", userShardRebalancer.report());
+
+        return shards;
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebalance() {
+        userShardRebalancer.start();
+
+        return shards();
+    }
+}
@@ -0,0 +1,51 @@
+package com.users.management.health;
+
+import com.users.management.repository.UserIndexManager;
+import com.users.management.repository.UserShard;
+import com.users.management.repository.UserShards;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Reported as userShards by /actuator/health, with the index state of every shard. Like UserIndexHealthIndicator, it
+// answers OUT_OF_SERVICE until the indexes of all shards are built and DOWN once one of them failed.
+@Component
+@Profile("sharded")
+public class UserShardsHealthIndicator implements HealthIndicator {
+
+    private UserShards userShards;
+
+    @Autowired
+    public UserShardsHealthIndicator(UserShards userShards) {
+        this.userShards = userShards;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Object> indexes = new LinkedHashMap<>();
+        Status status = Status.UP;
+
+        for (UserShard shard : userShards.getShards()) {
+            UserIndexManager.State state = shard.getUserIndexManager().map(UserIndexManager::getState).orElse(UserIndexManager.State.READY);
+
+            indexes.put(shard.getName(), state);
+
+            if (state == UserIndexManager.State.FAILED) {
+                status = Status.DOWN;
+            } else if (state != UserIndexManager.State.READY && status == Status.UP) {
+                status = Status.OUT_OF_SERVICE;
+            }
+        }
+
+        return Health.status(status)
+                .withDetail("indexes", indexes)
+                .withDetail("rebalancing", userShards.isRebalancing())
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.users.management.mapper;
+
+import com.users.management.dto.UserDTO;
+import com.users.management.model.User;
+import com.users.management.model.UserChangeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class UserMapper {
+
+    public UserDTO toDTO(User user) {
+        UserDTO userDTO = new UserDTO();
+
+        userDTO.setId(user.getId());
+        userDTO.setFirstName(user.getFirstName());
+        userDTO.setLastName(user.getLastName());
+        userDTO.setEmailAddress(user.getEmailAddress());
+        userDTO.setDateOfBirth(user.getDateOfBirth());
+
+        return userDTO;
+    }
+
+    public UserDTO toDTO(User user, Set<String> fields) {
+        if (fields == null) {
+            return toDTO(user);
+        }
+
+        UserDTO userDTO = new UserDTO();
+
+        userDTO.setId(user.getId());
+
+        if (fields.contains("firstName")) {
+            userDTO.setFirstName(user.getFirstName());
+        }
+
+        if (fields.contains("lastName")) {
+            userDTO.setLastName(user.getLastName());
+        }
+
+        if (fields.contains("emailAddress")) {
+            userDTO.setEmailAddress(user.getEmailAddress());
+        }
+
+        if (fields.contains("dateOfBirth")) {
+            userDTO.setDateOfBirth(user.getDateOfBirth());
+        }
+
+        return userDTO;
+    }
+
+    public UserDTO toDTO(UserChangeEvent event) {
+        if (event.getUser() == null) {
+            UserDTO userDTO = new UserDTO();
+
+            userDTO.setId(event.getUserId());
+
+            return userDTO;
+        }
+
+        return toDTO(event.getUser());
+    }
+
+    public User toEntity(UserDTO userDTO) {
+        User user = new User();
+
+        user.setId(userDTO.getId());
+        user.setFirstName(userDTO.getFirstName());
+        user.setLastName(userDTO.getLastName());
+        user.setEmailAddress(userDTO.getEmailAddress());
+        user.setDateOfBirth(userDTO.getDateOfBirth());
+
+        return user;
+    }
+
+    public List<UserDTO> toDTOList(List<User> users) {
+        List<UserDTO> userDTOList = new ArrayList<>(users.size());
+
+        for (User user : users) {
+            userDTOList.add(toDTO(user));
+        }
+
+        return userDTOList;
+    }
+
+    public List<UserDTO> toDTOList(List<User> users, Set<String> fields) {
+        List<UserDTO> userDTOList = new ArrayList<>(users.size());
+
+        for (User user : users) {
+            userDTOList.add(toDTO(user, fields));
+        }
+
+        return userDTOList;
+    }
+}
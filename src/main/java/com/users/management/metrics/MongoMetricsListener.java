@@ -0,0 +1,147 @@
+package com.users.management.metrics;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionAddedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolListenerAdapter;
+import com.mongodb.event.ConnectionPoolOpenedEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueEnteredEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueExitedEvent;
+import com.mongodb.event.ConnectionRemovedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class MongoMetricsListener extends ConnectionPoolListenerAdapter implements CommandListener {
+
+    private final Map<ServerId, PoolGauges> pools = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> succeededCommands = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> failedCommands = new ConcurrentHashMap<>();
+
+    private MeterRegistry meterRegistry;
+
+    public MongoMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        succeededCommands.computeIfAbsent(event.getCommandName(), command -> commandTimer(command, "SUCCESS")).record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        failedCommands.computeIfAbsent(event.getCommandName(), command -> commandTimer(command, "FAILED")).record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionPoolOpened(ConnectionPoolOpenedEvent event) {
+        pools.put(event.getServerId(), new PoolGauges(event.getServerId()));
+    }
+
+    @Override
+    public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+        PoolGauges gauges = pools.remove(event.getServerId());
+
+        if (gauges != null) {
+            gauges.remove();
+        }
+    }
+
+    @Override
+    public void connectionAdded(ConnectionAddedEvent event) {
+        update(event.getConnectionId().getServerId(), gauges -> gauges.size, 1);
+    }
+
+    @Override
+    public void connectionRemoved(ConnectionRemovedEvent event) {
+        update(event.getConnectionId().getServerId(), gauges -> gauges.size, -1);
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        update(event.getConnectionId().getServerId(), gauges -> gauges.checkedOut, 1);
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        update(event.getConnectionId().getServerId(), gauges -> gauges.checkedOut, -1);
+    }
+
+    @Override
+    public void waitQueueEntered(ConnectionPoolWaitQueueEnteredEvent event) {
+        update(event.getServerId(), gauges -> gauges.waitQueueSize, 1);
+    }
+
+    @Override
+    public void waitQueueExited(ConnectionPoolWaitQueueExitedEvent event) {
+        update(event.getServerId(), gauges -> gauges.waitQueueSize, -1);
+    }
+
+    private Timer commandTimer(String command, String status) {
+        return Timer.builder("mongodb.driver.commands")
+                .description("Time spent executing Mongo commands, as measured by the driver")
+                .tags("command", command, "status", status)
+                .register(meterRegistry);
+    }
+
+    private void update(ServerId serverId, Function<PoolGauges, AtomicInteger> counter, int delta) {
+        PoolGauges gauges = pools.get(serverId);
+
+        if (gauges != null) {
+            counter.apply(gauges).addAndGet(delta);
+        }
+    }
+
+    private class PoolGauges {
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final AtomicInteger checkedOut = new AtomicInteger();
+
+        private final AtomicInteger waitQueueSize = new AtomicInteger();
+
+        private final List<Meter> meters = new ArrayList<>(3);
+
+        PoolGauges(ServerId serverId) {
+            Tags tags = Tags.of("server", serverId.getAddress().toString());
+
+            meters.add(gauge("mongodb.driver.pool.size", "Connections currently open in the pool", tags, size));
+            meters.add(gauge("mongodb.driver.pool.checkedout", "Connections currently in use", tags, checkedOut));
+            meters.add(gauge("mongodb.driver.pool.waitqueuesize", "Threads waiting for a connection", tags, waitQueueSize));
+        }
+
+        private Meter gauge(String name, String description, Tags tags, AtomicInteger value) {
+            return Gauge.builder(name, value, AtomicInteger::get)
+                    .description(description)
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+
+        void remove() {
+            meters.forEach(meterRegistry::remove);
+        }
+    }
+}
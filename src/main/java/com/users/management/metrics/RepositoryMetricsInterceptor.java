@@ -0,0 +1,101 @@
+package com.users.management.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    static final String METRIC_NAME = "users.repository";
+
+    private static final String NO_EXCEPTION = "none";
+
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private String repository;
+
+    private volatile MeterRegistry meterRegistry;
+
+    RepositoryMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistryProvider, String repository) {
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry registry = meterRegistry();
+
+        if (registry == null) {
+            return invocation.proceed();
+        }
+
+        Method method = invocation.getMethod();
+        Timer.Sample sample = Timer.start(registry);
+        Object result;
+
+        try {
+            result = invocation.proceed();
+        } catch (Throwable throwable) {
+            sample.stop(timer(registry, method, throwable));
+            throw throwable;
+        }
+
+        if (result instanceof Mono) {
+            return Mono.defer(() -> {
+                Timer.Sample subscription = Timer.start(registry);
+
+                return ((Mono<?>) result)
+                        .doOnSuccess(value -> subscription.stop(timer(registry, method, null)))
+                        .doOnError(throwable -> subscription.stop(timer(registry, method, throwable)));
+            });
+        }
+
+        if (result instanceof Flux) {
+            return Flux.defer(() -> {
+                Timer.Sample subscription = Timer.start(registry);
+
+                return ((Flux<?>) result)
+                        .doOnComplete(() -> subscription.stop(timer(registry, method, null)))
+                        .doOnError(throwable -> subscription.stop(timer(registry, method, throwable)));
+            });
+        }
+
+        sample.stop(timer(registry, method, null));
+
+        return result;
+    }
+
+    private MeterRegistry meterRegistry() {
+        if (meterRegistry == null) {
+            meterRegistry = meterRegistryProvider.getIfAvailable();
+        }
+
+        return meterRegistry;
+    }
+
+    private Timer timer(MeterRegistry registry, Method method, Throwable throwable) {
+        if (throwable == null) {
+            return successTimers.computeIfAbsent(method, key -> timerBuilder(key, NO_EXCEPTION).register(registry));
+        }
+
+        return timerBuilder(method, throwable.getClass().getSimpleName()).register(registry);
+    }
+
+    private Timer.Builder timerBuilder(Method method, String exception) {
+        return Timer.builder(METRIC_NAME)
+                .description("Time spent in repository calls")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .tag("exception", exception);
+    }
+}
@@ -0,0 +1,29 @@
+package com.users.management.metrics;
+
+import com.users.management.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof Repository) && !(bean instanceof UserRepository)) {
+            return bean;
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice(new RepositoryMetricsInterceptor(meterRegistry, beanName));
+
+        return proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,82 @@
+package com.users.management.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Times the creation of every bean and reports the slowest ones with the time from JVM start to ready
+// under "startup" in /actuator/info, plus a users.startup.ready gauge. A bean's time includes the beans it depends on.
+public class StartupReport implements InstantiationAwareBeanPostProcessor, ApplicationListener<ApplicationReadyEvent>, InfoContributor {
+
+    private static final int SLOWEST_BEANS = 10;
+
+    private Map<String, Long> creationStarts = new ConcurrentHashMap<>();
+
+    private Map<String, Long> creationNanos = new ConcurrentHashMap<>();
+
+    private volatile long readyMillis = -1;
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+        // Prototypes created while serving requests are not part of the startup.
+        if (readyMillis < 0) {
+            creationStarts.putIfAbsent(beanName, System.nanoTime());
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Long start = creationStarts.remove(beanName);
+
+        if (start != null) {
+            creationNanos.put(beanName, System.nanoTime() - start);
+        }
+
+        return bean;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        // The JVM start time covers class loading and everything Spring does before the first bean.
+        readyMillis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        creationStarts.clear();
+
+        event.getApplicationContext().getBeanProvider(MeterRegistry.class).ifAvailable(meterRegistry ->
+                TimeGauge.builder("users.startup.ready", this, TimeUnit.MILLISECONDS, report -> report.readyMillis)
+                        .description("Time from JVM start until the application was ready to serve requests")
+                        .register(meterRegistry));
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        if (readyMillis < 0) {
+            return;
+        }
+
+        Map<String, Object> startup = new LinkedHashMap<>();
+        Map<String, Long> slowestBeans = new LinkedHashMap<>();
+
+        creationNanos.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(SLOWEST_BEANS)
+                .forEach(bean -> slowestBeans.put(bean.getKey(), TimeUnit.NANOSECONDS.toMillis(bean.getValue())));
+
+        startup.put("readyMillis", readyMillis);
+        startup.put("slowestBeansMillis", slowestBeans);
+
+        builder.withDetail("startup", startup);
+    }
+}
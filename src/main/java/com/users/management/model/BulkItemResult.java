@@ -0,0 +1,79 @@
+package com.users.management.model;
+
+import java.util.Objects;
+
+public class BulkItemResult {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        INVALID,
+        DUPLICATE,
+        NOT_FOUND,
+        FAILED
+    }
+
+    private String id;
+
+    private Status status;
+
+    private String message;
+
+    public BulkItemResult() {
+    }
+
+    public BulkItemResult(String id, Status status, String message) {
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BulkItemResult that = (BulkItemResult) o;
+        return Objects.equals(id, that.id) &&
+                status == that.status &&
+                Objects.equals(message, that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, status, message);
+    }
+
+    @Override
+    public String toString() {
+        return "BulkItemResult{" +
+                "id='" + id + '\'' +
+                ", status=" + status +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
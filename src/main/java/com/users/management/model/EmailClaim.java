@@ -0,0 +1,76 @@
+package com.users.management.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Objects;
+
+// Holds a normalized email address for one user across all shards, see ShardedUserRepository.
+@Document(collection = "userEmails")
+public class EmailClaim {
+
+    @Id
+    private String emailAddress;
+
+    private String userId;
+
+    private Instant claimedAt;
+
+    public EmailClaim() {
+    }
+
+    public EmailClaim(String emailAddress, String userId, Instant claimedAt) {
+        this.emailAddress = emailAddress;
+        this.userId = userId;
+        this.claimedAt = claimedAt;
+    }
+
+    public String getEmailAddress() {
+        return emailAddress;
+    }
+
+    public void setEmailAddress(String emailAddress) {
+        this.emailAddress = emailAddress;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Instant getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(Instant claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EmailClaim that = (EmailClaim) o;
+        return Objects.equals(emailAddress, that.emailAddress) &&
+                Objects.equals(userId, that.userId) &&
+                Objects.equals(claimedAt, that.claimedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(emailAddress, userId, claimedAt);
+    }
+
+    @Override
+    public String toString() {
+        return "EmailClaim{" +
+                "emailAddress='" + emailAddress + '\'' +
+                ", userId='" + userId + '\'' +
+                ", claimedAt=" + claimedAt +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package com.users.management.model;
+
+import java.util.concurrent.CompletableFuture;
+
+public class PendingUser {
+
+    private User user;
+
+    private CompletableFuture<BulkItemResult> result = new CompletableFuture<>();
+
+    public PendingUser(User user) {
+        this.user = user;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public CompletableFuture<BulkItemResult> getResult() {
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PendingUser{" +
+                "user=" + user +
+                ", result=" + result +
+                '}';
+    }
+}
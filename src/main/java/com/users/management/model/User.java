@@ -1,12 +1,14 @@
 package com.users.management.model;
 
+import com.users.management.util.EmailAddresses;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
 import java.util.Objects;
 
+// Indexes are declared in UserIndexManager, which builds them in the background instead of Spring Data at startup.
 @Document
 public class User {
 
@@ -17,11 +19,16 @@ public class User {
 
     private String lastName;
 
-    @Indexed(unique=true)
     private String emailAddress;
 
+    // Kept in step with emailAddress by its setter. Documents written before it existed have none until backfilled.
+    private String normalizedEmailAddress;
+
     private LocalDate dateOfBirth;
 
+    @Version
+    private Long version;
+
     public String getId() {
         return id;
     }
@@ -52,6 +59,11 @@ public class User {
 
     public void setEmailAddress(String emailAddress) {
         this.emailAddress = emailAddress;
+        this.normalizedEmailAddress = EmailAddresses.normalize(emailAddress);
+    }
+
+    public String getNormalizedEmailAddress() {
+        return normalizedEmailAddress != null ? normalizedEmailAddress : EmailAddresses.normalize(emailAddress);
     }
 
     public LocalDate getDateOfBirth() {
@@ -62,6 +74,14 @@ public class User {
         this.dateOfBirth = dateOfBirth;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -71,12 +91,13 @@ public class User {
                 Objects.equals(firstName, user.firstName) &&
                 Objects.equals(lastName, user.lastName) &&
                 Objects.equals(emailAddress, user.emailAddress) &&
-                Objects.equals(dateOfBirth, user.dateOfBirth);
+                Objects.equals(dateOfBirth, user.dateOfBirth) &&
+                Objects.equals(version, user.version);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, firstName, lastName, emailAddress, dateOfBirth);
+        return Objects.hash(id, firstName, lastName, emailAddress, dateOfBirth, version);
     }
 
     @Override
@@ -87,6 +108,7 @@ public class User {
                 ", lastName='" + lastName + '\'' +
                 ", emailAddress='" + emailAddress + '\'' +
                 ", dateOfBirth=" + dateOfBirth +
+                ", version=" + version +
                 '}';
     }
 }
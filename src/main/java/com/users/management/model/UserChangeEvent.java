@@ -0,0 +1,67 @@
+package com.users.management.model;
+
+import java.util.Objects;
+
+public class UserChangeEvent {
+
+    public enum Operation {
+        CREATE, UPDATE, DELETE
+    }
+
+    private Operation operation;
+
+    private String userId;
+
+    private User user;
+
+    private String resumeToken;
+
+    public UserChangeEvent(Operation operation, String userId, User user, String resumeToken) {
+        this.operation = operation;
+        this.userId = userId;
+        this.user = user;
+        this.resumeToken = resumeToken;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getResumeToken() {
+        return resumeToken;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UserChangeEvent that = (UserChangeEvent) o;
+        return operation == that.operation &&
+                Objects.equals(userId, that.userId) &&
+                Objects.equals(user, that.user) &&
+                Objects.equals(resumeToken, that.resumeToken);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(operation, userId, user, resumeToken);
+    }
+
+    @Override
+    public String toString() {
+        return "UserChangeEvent{" +
+                "operation=" + operation +
+                ", userId='" + userId + '\'' +
+                ", user=" + user +
+                ", resumeToken='" + resumeToken + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,203 @@
+package com.users.management.model;
+
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+public class UserQuery {
+
+    public enum SortField {
+        ID("id", User::getId, value -> value),
+        FIRST_NAME("firstName", User::getFirstName, value -> value),
+        LAST_NAME("lastName", User::getLastName, value -> value),
+        EMAIL_ADDRESS("emailAddress", User::getEmailAddress, value -> value),
+        DATE_OF_BIRTH("dateOfBirth", user -> String.valueOf(user.getDateOfBirth()), LocalDate::parse);
+
+        private final String property;
+
+        private final Function<User, String> formatter;
+
+        private final Function<String, Object> parser;
+
+        SortField(String property, Function<User, String> formatter, Function<String, Object> parser) {
+            this.property = property;
+            this.formatter = formatter;
+            this.parser = parser;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public String format(User user) {
+            return formatter.apply(user);
+        }
+
+        public Object parse(String value) {
+            return parser.apply(value);
+        }
+
+        public static SortField fromProperty(String property) {
+            for (SortField sortField : values()) {
+                if (sortField.property.equals(property)) {
+                    return sortField;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    private String firstName;
+
+    private String lastName;
+
+    private String emailPrefix;
+
+    private LocalDate bornFrom;
+
+    private LocalDate bornTo;
+
+    private SortField sortField = SortField.ID;
+
+    private Sort.Direction direction = Sort.Direction.ASC;
+
+    private Object afterValue;
+
+    private String afterId;
+
+    private int limit;
+
+    private Set<String> fields;
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmailPrefix() {
+        return emailPrefix;
+    }
+
+    public void setEmailPrefix(String emailPrefix) {
+        this.emailPrefix = emailPrefix;
+    }
+
+    public LocalDate getBornFrom() {
+        return bornFrom;
+    }
+
+    public void setBornFrom(LocalDate bornFrom) {
+        this.bornFrom = bornFrom;
+    }
+
+    public LocalDate getBornTo() {
+        return bornTo;
+    }
+
+    public void setBornTo(LocalDate bornTo) {
+        this.bornTo = bornTo;
+    }
+
+    public SortField getSortField() {
+        return sortField;
+    }
+
+    public void setSortField(SortField sortField) {
+        this.sortField = sortField;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public void setDirection(Sort.Direction direction) {
+        this.direction = direction;
+    }
+
+    public Object getAfterValue() {
+        return afterValue;
+    }
+
+    public void setAfterValue(Object afterValue) {
+        this.afterValue = afterValue;
+    }
+
+    public String getAfterId() {
+        return afterId;
+    }
+
+    public void setAfterId(String afterId) {
+        this.afterId = afterId;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UserQuery userQuery = (UserQuery) o;
+        return limit == userQuery.limit &&
+                Objects.equals(firstName, userQuery.firstName) &&
+                Objects.equals(lastName, userQuery.lastName) &&
+                Objects.equals(emailPrefix, userQuery.emailPrefix) &&
+                Objects.equals(bornFrom, userQuery.bornFrom) &&
+                Objects.equals(bornTo, userQuery.bornTo) &&
+                sortField == userQuery.sortField &&
+                direction == userQuery.direction &&
+                Objects.equals(afterValue, userQuery.afterValue) &&
+                Objects.equals(afterId, userQuery.afterId) &&
+                Objects.equals(fields, userQuery.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(firstName, lastName, emailPrefix, bornFrom, bornTo, sortField, direction, afterValue, afterId, limit, fields);
+    }
+
+    @Override
+    public String toString() {
+        return "UserQuery{" +
+                "firstName='" + firstName + '\'' +
+                ", lastName='" + lastName + '\'' +
+                ", emailPrefix='" + emailPrefix + '\'' +
+                ", bornFrom=" + bornFrom +
+                ", bornTo=" + bornTo +
+                ", sortField=" + sortField +
+                ", direction=" + direction +
+                ", afterValue=" + afterValue +
+                ", afterId='" + afterId + '\'' +
+                ", limit=" + limit +
+                ", fields=" + fields +
+                '}';
+    }
+}
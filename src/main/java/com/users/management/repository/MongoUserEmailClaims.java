@@ -0,0 +1,108 @@
+package com.users.management.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.users.management.model.EmailClaim;
+import com.users.management.util.DuplicateKeys;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.StreamUtils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Claims are documents keyed by the address, so the _id index is what makes them unique. All reads go to the primary.
+public class MongoUserEmailClaims implements UserEmailClaims {
+
+    private MongoTemplate mongoTemplate;
+
+    public MongoUserEmailClaims(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<EmailClaim> claim(EmailClaim claim) {
+        while (true) {
+            try {
+                mongoTemplate.insert(claim);
+
+                return Optional.empty();
+            } catch (DuplicateKeyException e) {
+                Optional<EmailClaim> current = findClaim(claim.getEmailAddress());
+
+                // Released in between, so the address is free again.
+                if (current.isPresent()) {
+                    return current;
+                }
+            }
+        }
+    }
+
+    @Override
+    public Set<Integer> claimAll(List<EmailClaim> claims) {
+        Set<Integer> claimed = new HashSet<>();
+
+        if (claims.isEmpty()) {
+            return claimed;
+        }
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EmailClaim.class);
+
+        claims.forEach(bulkOperations::insert);
+
+        try {
+            bulkOperations.execute();
+        } catch (DataIntegrityViolationException exception) {
+            if (!(exception.getCause() instanceof MongoBulkWriteException)) {
+                throw exception;
+            }
+
+            for (BulkWriteError error : ((MongoBulkWriteException) exception.getCause()).getWriteErrors()) {
+                if (error.getCode() != DuplicateKeys.DUPLICATE_KEY_ERROR_CODE) {
+                    throw exception;
+                }
+
+                claimed.add(error.getIndex());
+            }
+        }
+
+        return claimed;
+    }
+
+    @Override
+    public Optional<EmailClaim> findClaim(String normalizedEmailAddress) {
+        return Optional.ofNullable(mongoTemplate.findById(normalizedEmailAddress, EmailClaim.class));
+    }
+
+    @Override
+    public boolean takeOver(EmailClaim current, EmailClaim claim) {
+        Query query = Query.query(Criteria.where("emailAddress").is(current.getEmailAddress())
+                .and("userId").is(current.getUserId())
+                .and("claimedAt").is(current.getClaimedAt()));
+        Update update = Update.update("userId", claim.getUserId()).set("claimedAt", claim.getClaimedAt());
+
+        return mongoTemplate.updateFirst(query, update, EmailClaim.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public boolean release(String normalizedEmailAddress, String userId) {
+        Query query = Query.query(Criteria.where("emailAddress").is(normalizedEmailAddress).and("userId").is(userId));
+
+        return mongoTemplate.remove(query, EmailClaim.class).getDeletedCount() > 0;
+    }
+
+    @Override
+    public Stream<EmailClaim> streamClaims() {
+        Query query = new Query().cursorBatchSize(UserQueries.STREAM_BATCH_SIZE);
+
+        return StreamUtils.createStreamFromIterator(mongoTemplate.stream(query, EmailClaim.class));
+    }
+}
@@ -0,0 +1,21 @@
+package com.users.management.repository;
+
+import com.users.management.model.User;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Profile("!offheap & !reactive")
+public interface MongoUserRepository extends MongoRepository<User, String>, UserRepository {
+
+    // Redeclared so that calls resolve to the MongoUserRepositoryImpl versions, which read with the configured read preference.
+    @Override
+    Optional<User> findById(String id);
+
+    @Override
+    List<User> findAll();
+}
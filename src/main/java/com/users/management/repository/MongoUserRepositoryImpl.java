@@ -0,0 +1,323 @@
+package com.users.management.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import com.users.management.util.DuplicateKeys;
+import com.users.management.util.EmailAddresses;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.StreamUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class MongoUserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String ID_INDEX = "_id_";
+
+    private MongoTemplate mongoTemplate;
+
+    private MongoTemplate readMongoTemplate;
+
+    private MongoTemplate editMongoTemplate;
+
+    private MongoTemplate bulkMongoTemplate;
+
+    // Reads that back list and stream endpoints go through readMongoTemplate. Single users are read from the primary,
+    // since they are cached and their version is handed out as the ETag that guards the next edit.
+    @Autowired
+    public MongoUserRepositoryImpl(MongoTemplate mongoTemplate,
+                              @Qualifier("readMongoTemplate") MongoTemplate readMongoTemplate,
+                              @Qualifier("editMongoTemplate") MongoTemplate editMongoTemplate,
+                              @Qualifier("bulkMongoTemplate") MongoTemplate bulkMongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.readMongoTemplate = readMongoTemplate;
+        this.editMongoTemplate = editMongoTemplate;
+        this.bulkMongoTemplate = bulkMongoTemplate;
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, User.class));
+    }
+
+    @Override
+    public List<User> findAll() {
+        return readMongoTemplate.findAll(User.class);
+    }
+
+    @Override
+    public Stream<User> streamAllByOrderByIdAsc() {
+        Query query = new Query().with(Sort.by("id")).cursorBatchSize(UserQueries.STREAM_BATCH_SIZE);
+
+        return StreamUtils.createStreamFromIterator(readMongoTemplate.stream(query, User.class));
+    }
+
+    @Override
+    public Optional<User> findProjectedById(String id, Set<String> fields) {
+        return Optional.ofNullable(mongoTemplate.findOne(UserQueries.byId(id, fields), User.class));
+    }
+
+    @Override
+    public List<User> findUsers(UserQuery query) {
+        return readMongoTemplate.find(UserQueries.toMongoQuery(query), User.class);
+    }
+
+    @Override
+    public Stream<User> streamUsers(UserQuery query) {
+        Query mongoQuery = UserQueries.toMongoQuery(query).cursorBatchSize(UserQueries.STREAM_BATCH_SIZE);
+
+        return StreamUtils.createStreamFromIterator(readMongoTemplate.stream(mongoQuery, User.class));
+    }
+
+    @Override
+    public List<User> findByNormalizedEmailAddresses(Collection<String> normalizedEmailAddresses) {
+        return readMongoTemplate.find(Query.query(Criteria.where("normalizedEmailAddress").in(normalizedEmailAddresses)), User.class);
+    }
+
+    @Override
+    public Stream<String> streamEmailAddresses() {
+        Query query = emailAddressesOnly(new Query()).cursorBatchSize(UserQueries.STREAM_BATCH_SIZE);
+
+        return StreamUtils.createStreamFromIterator(mongoTemplate.stream(query, User.class)).map(User::getEmailAddress);
+    }
+
+    @Override
+    public Set<String> findExistingEmailAddresses(Collection<String> emailAddresses) {
+        Set<String> normalizedEmailAddresses = new HashSet<>();
+
+        emailAddresses.forEach(emailAddress -> normalizedEmailAddresses.add(EmailAddresses.normalize(emailAddress)));
+
+        Query query = Query.query(Criteria.where("normalizedEmailAddress").in(normalizedEmailAddresses));
+        query.fields().include("normalizedEmailAddress").exclude("_id");
+
+        Set<String> existingEmailAddresses = new HashSet<>();
+
+        mongoTemplate.find(query, User.class).forEach(user -> existingEmailAddresses.add(user.getNormalizedEmailAddress()));
+
+        return existingEmailAddresses;
+    }
+
+    @Override
+    public long backfillNormalizedEmailAddresses() {
+        Query query = Query.query(Criteria.where("normalizedEmailAddress").exists(false).and("emailAddress").exists(true))
+                .cursorBatchSize(UserQueries.STREAM_BATCH_SIZE);
+        query.fields().include("emailAddress");
+
+        long conflicts = 0;
+        List<User> batch = new ArrayList<>(UserQueries.STREAM_BATCH_SIZE);
+
+        try (Stream<User> users = StreamUtils.createStreamFromIterator(mongoTemplate.stream(query, User.class))) {
+            for (User user : (Iterable<User>) users::iterator) {
+                batch.add(user);
+
+                if (batch.size() == UserQueries.STREAM_BATCH_SIZE) {
+                    conflicts += backfill(batch);
+                    batch.clear();
+                }
+            }
+        }
+
+        return conflicts + backfill(batch);
+    }
+
+    @Override
+    public Optional<User> updateById(String id, Long expectedVersion, User user) {
+        return Optional.ofNullable(editMongoTemplate.findAndModify(UserQueries.byIdAndVersion(id, expectedVersion), UserQueries.updateOf(user),
+                FindAndModifyOptions.options().returnNew(true).upsert(false), User.class));
+    }
+
+    @Override
+    public List<BulkItemResult> bulkInsert(List<User> users) {
+        List<BulkItemResult> results = new ArrayList<>(users.size());
+        BulkOperations bulkOperations = bulkMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+
+        for (User user : users) {
+            if (user.getId() == null) {
+                user.setId(ObjectId.get().toHexString());
+            }
+
+            if (user.getVersion() == null) {
+                user.setVersion(0L);
+            }
+
+            bulkOperations.insert(user);
+            results.add(new BulkItemResult(user.getId(), BulkItemResult.Status.CREATED, null));
+        }
+
+        executeAndCollectErrors(bulkOperations, results);
+
+        for (BulkItemResult result : results) {
+            if (result.getStatus() != BulkItemResult.Status.CREATED) {
+                result.setId(null);
+            }
+        }
+
+        return results;
+    }
+
+    @Override
+    public List<BulkItemResult> bulkUpdate(List<User> users) {
+        List<BulkItemResult> results = new ArrayList<>(users.size());
+        List<String> ids = new ArrayList<>(users.size());
+        BulkOperations bulkOperations = bulkMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+
+        for (User user : users) {
+            bulkOperations.updateOne(UserQueries.byIdAndVersion(user.getId(), null), UserQueries.updateOf(user));
+            results.add(new BulkItemResult(user.getId(), BulkItemResult.Status.UPDATED, null));
+            ids.add(user.getId());
+        }
+
+        BulkWriteResult writeResult = executeAndCollectErrors(bulkOperations, results);
+        long updated = results.stream().filter(result -> result.getStatus() == BulkItemResult.Status.UPDATED).count();
+
+        // When every write that did not fail matched a user, all of them were updated and nothing needs to be read back.
+        // Otherwise Mongo does not say which missed, so the ids are looked up, and a user deleted in between counts as not found.
+        if (writeResult.getMatchedCount() < updated) {
+            Set<String> existingIds = findExistingIds(ids);
+
+            for (BulkItemResult result : results) {
+                if (result.getStatus() == BulkItemResult.Status.UPDATED && !existingIds.contains(result.getId())) {
+                    result.setStatus(BulkItemResult.Status.NOT_FOUND);
+                }
+            }
+        }
+
+        return results;
+    }
+
+    @Override
+    public List<BulkItemResult> bulkDelete(List<String> ids) {
+        List<BulkItemResult> results = new ArrayList<>(ids.size());
+
+        // A bulk write only reports how many users it deleted in total, not which. Removing each id on its own costs a
+        // round trip per id, but its status comes from its own deleted count, so a user deleted concurrently is not
+        // reported as deleted by this request as well.
+        for (String id : ids) {
+            long deleted = bulkMongoTemplate.remove(UserQueries.byIdAndVersion(id, null), User.class).getDeletedCount();
+            BulkItemResult.Status status = deleted > 0 ? BulkItemResult.Status.DELETED : BulkItemResult.Status.NOT_FOUND;
+
+            results.add(new BulkItemResult(id, status, null));
+        }
+
+        return results;
+    }
+
+    @Override
+    public boolean storeCopy(User user) {
+        long version = user.getVersion() == null ? 0L : user.getVersion();
+        Criteria olderCopy = Criteria.where("id").is(user.getId())
+                .orOperator(Criteria.where("version").lt(version), Criteria.where("version").exists(false));
+
+        // Setting the version keeps the template from incrementing it. When a copy at this or a newer version exists,
+        // the upsert fails to insert a second document with its id.
+        Update update = new Update()
+                .set("firstName", user.getFirstName())
+                .set("lastName", user.getLastName())
+                .set("emailAddress", user.getEmailAddress())
+                .set("normalizedEmailAddress", user.getNormalizedEmailAddress())
+                .set("dateOfBirth", user.getDateOfBirth())
+                .set("version", version);
+
+        try {
+            mongoTemplate.upsert(Query.query(olderCopy), update, User.class);
+
+            return true;
+        } catch (DuplicateKeyException e) {
+            if (!ID_INDEX.equals(DuplicateKeys.indexName(e.getMessage()))) {
+                throw e;
+            }
+
+            return false;
+        }
+    }
+
+    @Override
+    public long removeByIdAndVersion(String id, Long version) {
+        return mongoTemplate.remove(UserQueries.byIdAndVersion(id, version), User.class).getDeletedCount();
+    }
+
+    private long backfill(List<User> users) {
+        List<BulkItemResult> results = new ArrayList<>(users.size());
+        BulkOperations bulkOperations = bulkMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+
+        for (User user : users) {
+            bulkOperations.updateOne(Query.query(Criteria.where("id").is(user.getId()).and("normalizedEmailAddress").exists(false)),
+                    Update.update("normalizedEmailAddress", user.getNormalizedEmailAddress()));
+            results.add(new BulkItemResult(user.getId(), BulkItemResult.Status.UPDATED, null));
+        }
+
+        executeAndCollectErrors(bulkOperations, results);
+
+        return results.stream().filter(result -> result.getStatus() != BulkItemResult.Status.UPDATED).count();
+    }
+
+    private Set<String> findExistingIds(Collection<String> ids) {
+        Query query = Query.query(Criteria.where("id").in(ids));
+        query.fields().include("id");
+
+        Set<String> existingIds = new HashSet<>();
+
+        mongoTemplate.find(query, User.class).forEach(user -> existingIds.add(user.getId()));
+
+        return existingIds;
+    }
+
+    private static Query emailAddressesOnly(Query query) {
+        // Leaving out _id lets Mongo answer from the unique emailAddress index alone.
+        query.fields().include("emailAddress").exclude("_id");
+
+        return query;
+    }
+
+    // Returns the counts of the writes that succeeded.
+    private static BulkWriteResult executeAndCollectErrors(BulkOperations bulkOperations, List<BulkItemResult> results) {
+        if (results.isEmpty()) {
+            return BulkWriteResult.acknowledged(0, 0, 0, 0, Collections.emptyList());
+        }
+
+        try {
+            return bulkOperations.execute();
+        } catch (DataIntegrityViolationException exception) {
+            if (!(exception.getCause() instanceof MongoBulkWriteException)) {
+                throw exception;
+            }
+
+            MongoBulkWriteException bulkWriteException = (MongoBulkWriteException) exception.getCause();
+
+            for (BulkWriteError error : bulkWriteException.getWriteErrors()) {
+                BulkItemResult result = results.get(error.getIndex());
+
+                if (error.getCode() == DuplicateKeys.DUPLICATE_KEY_ERROR_CODE) {
+                    result.setStatus(BulkItemResult.Status.DUPLICATE);
+                    result.setMessage(DuplicateKeys.uniqueViolationMessage(DuplicateKeys.indexName(error.getMessage())));
+                } else {
+                    result.setStatus(BulkItemResult.Status.FAILED);
+                    result.setMessage(error.getMessage());
+                }
+            }
+
+            return bulkWriteException.getWriteResult();
+        }
+    }
+}
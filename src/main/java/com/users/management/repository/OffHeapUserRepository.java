@@ -0,0 +1,270 @@
+package com.users.management.repository;
+
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import com.users.management.storage.OffHeapUserStore;
+import com.users.management.util.DuplicateKeys;
+import com.users.management.util.EmailAddresses;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Keeps users in OffHeapUserStore instead of Mongo, with the same results and errors as MongoUserRepository.
+// Lookups by id and email address use the store's indexes, filtered and sorted queries scan every user.
+@Repository
+@Profile("offheap")
+public class OffHeapUserRepository implements UserRepository {
+
+    private static final String ID_INDEX = "_id_";
+
+    private OffHeapUserStore offHeapUserStore;
+
+    @Autowired
+    public OffHeapUserRepository(OffHeapUserStore offHeapUserStore) {
+        this.offHeapUserStore = offHeapUserStore;
+    }
+
+    // Same rules as Spring Data's save of a versioned document: no version inserts, a version must match and is incremented.
+    @Override
+    public <S extends User> S save(S user) {
+        if (user.getId() == null) {
+            user.setId(ObjectId.get().toHexString());
+        }
+
+        Long expectedVersion = user.getVersion();
+
+        offHeapUserStore.compute(user.getId(), existing -> {
+            if (expectedVersion == null && existing != null) {
+                throw new DuplicateKeyException(DuplicateKeys.duplicateKeyMessage(ID_INDEX));
+            }
+
+            if (expectedVersion != null && (existing == null || !expectedVersion.equals(versionOf(existing)))) {
+                throw new OptimisticLockingFailureException(String.format("The user with id '%s' is not at version %d",
+                        user.getId(), expectedVersion));
+            }
+
+            user.setVersion(expectedVersion == null ? 0L : expectedVersion + 1);
+
+            return user;
+        });
+
+        return user;
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        return offHeapUserStore.findById(id);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return offHeapUserStore.existsById(id);
+    }
+
+    @Override
+    public List<User> findAll() {
+        try (Stream<User> users = offHeapUserStore.streamOrderedById()) {
+            return users.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Optional<User> findOneByNormalizedEmailAddress(String normalizedEmailAddress) {
+        return offHeapUserStore.findByEmailAddress(normalizedEmailAddress);
+    }
+
+    @Override
+    public List<User> findByNormalizedEmailAddresses(Collection<String> normalizedEmailAddresses) {
+        List<User> users = new ArrayList<>(normalizedEmailAddresses.size());
+
+        normalizedEmailAddresses.forEach(emailAddress -> offHeapUserStore.findByEmailAddress(emailAddress).ifPresent(users::add));
+
+        return users;
+    }
+
+    @Override
+    public long removeById(String id) {
+        return offHeapUserStore.remove(id) ? 1 : 0;
+    }
+
+    @Override
+    public Stream<User> streamAllByOrderByIdAsc() {
+        return offHeapUserStore.streamOrderedById();
+    }
+
+    @Override
+    public Optional<User> findProjectedById(String id, Set<String> fields) {
+        return offHeapUserStore.findById(id).map(user -> fields == null ? user : UserQueries.project(user, fields));
+    }
+
+    @Override
+    public List<User> findUsers(UserQuery query) {
+        try (Stream<User> users = streamUsers(query)) {
+            return users.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Stream<User> streamUsers(UserQuery query) {
+        if (query.getFields() == null) {
+            return sortedUsers(query);
+        }
+
+        Set<String> fields = new HashSet<>(query.getFields());
+        fields.add(query.getSortField().getProperty());
+
+        return sortedUsers(query).map(user -> UserQueries.project(user, fields));
+    }
+
+    private Stream<User> sortedUsers(UserQuery query) {
+        if (query.getSortField() == UserQuery.SortField.ID) {
+            // The store hands out users in id order, so a page stops decoding once it is full.
+            Stream<User> matching = offHeapUserStore.streamOrderedById(query.getAfterId(), query.getDirection().isAscending())
+                    .filter(user -> UserQueries.matches(query, user));
+
+            return query.getLimit() > 0 ? matching.limit(query.getLimit()) : matching;
+        }
+
+        Comparator<User> order = UserQueries.comparatorOf(query);
+        Stream<User> matching = offHeapUserStore.stream().filter(user -> UserQueries.matches(query, user));
+
+        if (query.getLimit() <= 0) {
+            return matching.sorted(order);
+        }
+
+        // A page only needs its first users, so only that many are kept while scanning.
+        PriorityQueue<User> page = new PriorityQueue<>(query.getLimit(), order.reversed());
+
+        matching.forEach(user -> {
+            if (page.size() < query.getLimit()) {
+                page.add(user);
+            } else if (order.compare(user, page.peek()) < 0) {
+                page.poll();
+                page.add(user);
+            }
+        });
+
+        return page.stream().sorted(order);
+    }
+
+    @Override
+    public Stream<String> streamEmailAddresses() {
+        return offHeapUserStore.stream().map(User::getEmailAddress);
+    }
+
+    @Override
+    public Set<String> findExistingEmailAddresses(Collection<String> emailAddresses) {
+        return emailAddresses.stream()
+                .filter(offHeapUserStore::containsEmailAddress)
+                .map(EmailAddresses::normalize)
+                .collect(Collectors.toSet());
+    }
+
+    // The store indexes normalized addresses from the start, there is nothing to backfill.
+    @Override
+    public long backfillNormalizedEmailAddresses() {
+        return 0;
+    }
+
+    @Override
+    public Optional<User> updateById(String id, Long expectedVersion, User user) {
+        return Optional.ofNullable(offHeapUserStore.compute(id, existing -> {
+            if (existing == null || (expectedVersion != null && !expectedVersion.equals(versionOf(existing)))) {
+                return null;
+            }
+
+            User updated = new User();
+            updated.setId(id);
+            updated.setFirstName(user.getFirstName());
+            updated.setLastName(user.getLastName());
+            updated.setEmailAddress(user.getEmailAddress());
+            updated.setDateOfBirth(user.getDateOfBirth());
+            updated.setVersion(versionOf(existing) + 1);
+
+            return updated;
+        }));
+    }
+
+    @Override
+    public List<BulkItemResult> bulkInsert(List<User> users) {
+        List<BulkItemResult> results = new ArrayList<>(users.size());
+
+        for (User user : users) {
+            try {
+                results.add(new BulkItemResult(save(user).getId(), BulkItemResult.Status.CREATED, null));
+            } catch (DuplicateKeyException e) {
+                results.add(duplicate(null, e));
+            }
+        }
+
+        return results;
+    }
+
+    @Override
+    public List<BulkItemResult> bulkUpdate(List<User> users) {
+        List<BulkItemResult> results = new ArrayList<>(users.size());
+
+        for (User user : users) {
+            try {
+                BulkItemResult.Status status = updateById(user.getId(), null, user).isPresent()
+                        ? BulkItemResult.Status.UPDATED
+                        : BulkItemResult.Status.NOT_FOUND;
+
+                results.add(new BulkItemResult(user.getId(), status, null));
+            } catch (DuplicateKeyException e) {
+                results.add(duplicate(user.getId(), e));
+            }
+        }
+
+        return results;
+    }
+
+    @Override
+    public List<BulkItemResult> bulkDelete(List<String> ids) {
+        List<BulkItemResult> results = new ArrayList<>(ids.size());
+
+        for (String id : ids) {
+            BulkItemResult.Status status = offHeapUserStore.remove(id) ? BulkItemResult.Status.DELETED : BulkItemResult.Status.NOT_FOUND;
+
+            results.add(new BulkItemResult(id, status, null));
+        }
+
+        return results;
+    }
+
+    @Override
+    public boolean storeCopy(User user) {
+        return offHeapUserStore.compute(user.getId(),
+                existing -> existing == null || versionOf(existing) < versionOf(user) ? user : null) != null;
+    }
+
+    @Override
+    public long removeByIdAndVersion(String id, Long version) {
+        return offHeapUserStore.remove(id, existing -> version == null || version == versionOf(existing)) ? 1 : 0;
+    }
+
+    private static BulkItemResult duplicate(String id, DuplicateKeyException exception) {
+        return new BulkItemResult(id, BulkItemResult.Status.DUPLICATE,
+                DuplicateKeys.uniqueViolationMessage(DuplicateKeys.indexName(exception.getMessage())));
+    }
+
+    // Documents written before versioning have no version and count as version 0, as in UserQueries.byIdAndVersion.
+    private static long versionOf(User user) {
+        return user.getVersion() == null ? 0L : user.getVersion();
+    }
+}
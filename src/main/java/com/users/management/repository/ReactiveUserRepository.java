@@ -0,0 +1,14 @@
+package com.users.management.repository;
+
+import com.users.management.model.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String>, ReactiveUserRepositoryCustom {
+
+    Mono<Long> removeById(String id);
+
+    Mono<User> findOneByNormalizedEmailAddress(String normalizedEmailAddress);
+}
@@ -0,0 +1,17 @@
+package com.users.management.repository;
+
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+public interface ReactiveUserRepositoryCustom {
+
+    Mono<User> findProjectedById(String id, Set<String> fields);
+
+    Flux<User> findUsers(UserQuery query);
+
+    Mono<User> updateById(String id, Long expectedVersion, User user);
+}
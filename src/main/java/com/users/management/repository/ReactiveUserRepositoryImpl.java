@@ -0,0 +1,37 @@
+package com.users.management.repository;
+
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+public class ReactiveUserRepositoryImpl implements ReactiveUserRepositoryCustom {
+
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    public ReactiveUserRepositoryImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Mono<User> findProjectedById(String id, Set<String> fields) {
+        return reactiveMongoTemplate.findOne(UserQueries.byId(id, fields), User.class);
+    }
+
+    @Override
+    public Flux<User> findUsers(UserQuery query) {
+        return reactiveMongoTemplate.find(UserQueries.toMongoQuery(query).cursorBatchSize(UserQueries.STREAM_BATCH_SIZE), User.class);
+    }
+
+    @Override
+    public Mono<User> updateById(String id, Long expectedVersion, User user) {
+        return reactiveMongoTemplate.findAndModify(UserQueries.byIdAndVersion(id, expectedVersion), UserQueries.updateOf(user),
+                FindAndModifyOptions.options().returnNew(true).upsert(false), User.class);
+    }
+}
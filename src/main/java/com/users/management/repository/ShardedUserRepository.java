@@ -0,0 +1,579 @@
+package com.users.management.repository;
+
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.EmailClaim;
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import com.users.management.util.DuplicateKeys;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Spreads users over UserShards by a hash of their id, so that each shard takes its share of the writes. A user is
+// read and written on its own shard, while queries go to every shard and their results are merged in the query's order.
+// The shards' unique indexes cannot see each other, so every email address is also claimed on the shard its hash picks
+// before a user is written with it. Claims are not released when a user is deleted or changes its address. Instead, a
+// claim whose user does not have the address is taken over once it is older than claimTimeout, which only has to
+// outlast the time between claiming an address and writing the user.
+public class ShardedUserRepository implements UserRepository {
+
+    private UserShards userShards;
+
+    private Duration claimTimeout;
+
+    public ShardedUserRepository(UserShards userShards, Duration claimTimeout) {
+        this.userShards = userShards;
+        this.claimTimeout = claimTimeout;
+    }
+
+    @Override
+    public <S extends User> S save(S user) {
+        if (user.getId() == null) {
+            user.setId(ObjectId.get().toHexString());
+        }
+
+        UserRepository owner = user.getVersion() == null ? userShards.ownerOf(user.getId()).getUserRepository() : writeOwnerOf(user.getId());
+        boolean claimed = claim(user.getNormalizedEmailAddress(), user.getId());
+
+        try {
+            return owner.save(user);
+        } catch (RuntimeException e) {
+            if (claimed) {
+                release(user.getNormalizedEmailAddress(), user.getId());
+            }
+
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        for (UserShard shard : userShards.candidatesOf(id)) {
+            Optional<User> user = shard.getUserRepository().findById(id);
+
+            if (user.isPresent()) {
+                return user;
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return userShards.candidatesOf(id).stream().anyMatch(shard -> shard.getUserRepository().existsById(id));
+    }
+
+    @Override
+    public List<User> findAll() {
+        try (Stream<User> users = streamAllByOrderByIdAsc()) {
+            return users.collect(Collectors.toList());
+        }
+    }
+
+    // The claim leads to the one shard that can hold the user.
+    @Override
+    public Optional<User> findOneByNormalizedEmailAddress(String normalizedEmailAddress) {
+        for (UserShard claimsShard : userShards.claimCandidatesOf(normalizedEmailAddress)) {
+            Optional<EmailClaim> claim = claimsShard.getUserEmailClaims().findClaim(normalizedEmailAddress);
+
+            if (!claim.isPresent()) {
+                continue;
+            }
+
+            for (UserShard shard : userShards.candidatesOf(claim.get().getUserId())) {
+                Optional<User> user = shard.getUserRepository().findOneByNormalizedEmailAddress(normalizedEmailAddress);
+
+                if (user.isPresent()) {
+                    return user;
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public long removeById(String id) {
+        long removed = 0;
+
+        // While a user is moved, a copy of it may exist on both shards.
+        for (UserShard shard : userShards.candidatesOf(id)) {
+            removed += shard.getUserRepository().removeById(id);
+        }
+
+        return Math.min(removed, 1);
+    }
+
+    @Override
+    public Stream<User> streamAllByOrderByIdAsc() {
+        return merge(UserRepository::streamAllByOrderByIdAsc, Comparator.comparing(User::getId));
+    }
+
+    @Override
+    public Optional<User> findProjectedById(String id, Set<String> fields) {
+        for (UserShard shard : userShards.candidatesOf(id)) {
+            Optional<User> user = shard.getUserRepository().findProjectedById(id, fields);
+
+            if (user.isPresent()) {
+                return user;
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public List<User> findUsers(UserQuery query) {
+        try (Stream<User> users = streamUsers(query)) {
+            return users.collect(Collectors.toList());
+        }
+    }
+
+    // Each shard returns at most a page, of which the merge keeps the first users. While users are moved, copies that
+    // are not authoritative take up places in a shard's page, so shards are then read without a limit, as far as needed.
+    @Override
+    public Stream<User> streamUsers(UserQuery query) {
+        UserQuery shardQuery = userShards.isRebalancing() && query.getLimit() > 0 ? withoutLimit(query) : query;
+        Stream<User> users = merge(repository -> repository.streamUsers(shardQuery), UserQueries.comparatorOf(query));
+
+        return query.getLimit() > 0 ? users.limit(query.getLimit()) : users;
+    }
+
+    @Override
+    public List<User> findByNormalizedEmailAddresses(Collection<String> normalizedEmailAddresses) {
+        List<User> users = new ArrayList<>(normalizedEmailAddresses.size());
+        List<UserShard> shards = userShards.getShards();
+        List<List<User>> shardUsers = userShards.onEach(shards,
+                shard -> shard.getUserRepository().findByNormalizedEmailAddresses(normalizedEmailAddresses));
+
+        for (int i = 0; i < shards.size(); i++) {
+            UserShard shard = shards.get(i);
+
+            shardUsers.get(i).stream().filter(user -> isAuthoritative(shard, user.getId())).forEach(users::add);
+        }
+
+        return users;
+    }
+
+    @Override
+    public Stream<String> streamEmailAddresses() {
+        return userShards.getShards().stream().flatMap(shard -> shard.getUserRepository().streamEmailAddresses());
+    }
+
+    @Override
+    public Set<String> findExistingEmailAddresses(Collection<String> emailAddresses) {
+        Set<String> existingEmailAddresses = new HashSet<>();
+
+        userShards.onEach(userShards.getShards(), shard -> shard.getUserRepository().findExistingEmailAddresses(emailAddresses))
+                .forEach(existingEmailAddresses::addAll);
+
+        return existingEmailAddresses;
+    }
+
+    @Override
+    public long backfillNormalizedEmailAddresses() {
+        return userShards.onEach(userShards.getShards(), shard -> shard.getUserRepository().backfillNormalizedEmailAddresses()).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    @Override
+    public Optional<User> updateById(String id, Long expectedVersion, User user) {
+        String normalizedEmailAddress = user.getNormalizedEmailAddress();
+        boolean claimed = claim(normalizedEmailAddress, id);
+        Optional<User> updatedUser;
+
+        try {
+            updatedUser = updateOnOwner(id, expectedVersion, user);
+        } catch (RuntimeException e) {
+            if (claimed) {
+                release(normalizedEmailAddress, id);
+            }
+
+            throw e;
+        }
+
+        if (!updatedUser.isPresent() && claimed) {
+            release(normalizedEmailAddress, id);
+        }
+
+        return updatedUser;
+    }
+
+    @Override
+    public List<BulkItemResult> bulkInsert(List<User> users) {
+        List<BulkItemResult> results = new ArrayList<>(Collections.nCopies(users.size(), null));
+
+        for (User user : users) {
+            if (user.getId() == null) {
+                user.setId(ObjectId.get().toHexString());
+            }
+        }
+
+        Set<Integer> claimed = claimAll(users, results, false);
+
+        writeByShard(pending(results), position -> userShards.ownerOf(users.get(position).getId()), results,
+                (repository, positions) -> repository.bulkInsert(select(users, positions)));
+
+        releaseFailed(users, results, claimed, BulkItemResult.Status.CREATED);
+
+        return results;
+    }
+
+    @Override
+    public List<BulkItemResult> bulkUpdate(List<User> users) {
+        List<BulkItemResult> results = new ArrayList<>(Collections.nCopies(users.size(), null));
+        Set<Integer> claimed = claimAll(users, results, true);
+        List<Integer> pending = pending(results);
+
+        writeByShard(pending, position -> userShards.candidatesOf(users.get(position).getId()).get(0), results,
+                (repository, positions) -> repository.bulkUpdate(select(users, positions)));
+
+        // Users that were not found on their previous owner have been moved to their new one.
+        List<Integer> moved = pending.stream()
+                .filter(position -> results.get(position).getStatus() == BulkItemResult.Status.NOT_FOUND)
+                .filter(position -> userShards.candidatesOf(users.get(position).getId()).size() > 1)
+                .collect(Collectors.toList());
+
+        writeByShard(moved, position -> userShards.ownerOf(users.get(position).getId()), results,
+                (repository, positions) -> repository.bulkUpdate(select(users, positions)));
+
+        releaseFailed(users, results, claimed, BulkItemResult.Status.UPDATED);
+
+        return results;
+    }
+
+    @Override
+    public List<BulkItemResult> bulkDelete(List<String> ids) {
+        List<BulkItemResult> results = new ArrayList<>(Collections.nCopies(ids.size(), null));
+        List<BulkItemResult> movedResults = new ArrayList<>(Collections.nCopies(ids.size(), null));
+        List<Integer> positions = pending(results);
+
+        writeByShard(positions, position -> userShards.candidatesOf(ids.get(position)).get(0), results,
+                (repository, shardPositions) -> repository.bulkDelete(select(ids, shardPositions)));
+
+        // While a user is moved, a copy of it may exist on both shards.
+        List<Integer> moving = positions.stream()
+                .filter(position -> userShards.candidatesOf(ids.get(position)).size() > 1)
+                .collect(Collectors.toList());
+
+        writeByShard(moving, position -> userShards.ownerOf(ids.get(position)), movedResults,
+                (repository, shardPositions) -> repository.bulkDelete(select(ids, shardPositions)));
+
+        for (int position : moving) {
+            if (movedResults.get(position).getStatus() == BulkItemResult.Status.DELETED) {
+                results.get(position).setStatus(BulkItemResult.Status.DELETED);
+            }
+        }
+
+        return results;
+    }
+
+    @Override
+    public boolean storeCopy(User user) {
+        return userShards.ownerOf(user.getId()).getUserRepository().storeCopy(user);
+    }
+
+    @Override
+    public long removeByIdAndVersion(String id, Long version) {
+        long removed = 0;
+
+        for (UserShard shard : userShards.candidatesOf(id)) {
+            removed += shard.getUserRepository().removeByIdAndVersion(id, version);
+        }
+
+        return Math.min(removed, 1);
+    }
+
+    // Returns whether the address was claimed for the user now, as opposed to being claimed for it already.
+    private boolean claim(String normalizedEmailAddress, String userId) {
+        if (normalizedEmailAddress == null) {
+            return false;
+        }
+
+        List<UserShard> claimsShards = userShards.claimCandidatesOf(normalizedEmailAddress);
+
+        if (claimsShards.size() > 1) {
+            // The claim has not been moved to the shard that keeps it now, but it counts all the same.
+            UserEmailClaims previousClaims = claimsShards.get(0).getUserEmailClaims();
+            Optional<EmailClaim> previousClaim = previousClaims.findClaim(normalizedEmailAddress);
+
+            if (previousClaim.isPresent() && !previousClaim.get().getUserId().equals(userId)) {
+                if (!isStale(previousClaim.get())) {
+                    throw duplicateEmailAddress();
+                }
+
+                previousClaims.release(normalizedEmailAddress, previousClaim.get().getUserId());
+            }
+        }
+
+        UserEmailClaims claims = userShards.claimsOwnerOf(normalizedEmailAddress).getUserEmailClaims();
+        EmailClaim claim = userShards.newClaim(normalizedEmailAddress, userId);
+
+        while (true) {
+            Optional<EmailClaim> currentClaim = claims.claim(claim);
+
+            if (!currentClaim.isPresent()) {
+                return true;
+            }
+
+            boolean own = currentClaim.get().getUserId().equals(userId);
+
+            if (!own && !isStale(currentClaim.get())) {
+                throw duplicateEmailAddress();
+            }
+
+            // Renewing an own claim keeps it from looking stale while the user is written with the address again.
+            if (claims.takeOver(currentClaim.get(), claim)) {
+                return !own;
+            }
+        }
+    }
+
+    // Claims the addresses of all users, a batch per shard, and marks those whose address is taken as duplicates.
+    // Returns the positions of the users whose address was claimed for them now.
+    private Set<Integer> claimAll(List<User> users, List<BulkItemResult> results, boolean existingUsers) {
+        Set<Integer> claimed = new HashSet<>();
+        List<Integer> contested = new ArrayList<>();
+        Map<UserShard, List<Integer>> positionsByShard = new LinkedHashMap<>();
+
+        for (int position = 0; position < users.size(); position++) {
+            String normalizedEmailAddress = users.get(position).getNormalizedEmailAddress();
+
+            if (normalizedEmailAddress == null) {
+                continue;
+            }
+
+            // Claims that may still be kept on their previous shard need the careful way.
+            if (userShards.claimCandidatesOf(normalizedEmailAddress).size() > 1) {
+                contested.add(position);
+            } else {
+                positionsByShard.computeIfAbsent(userShards.claimsOwnerOf(normalizedEmailAddress), shard -> new ArrayList<>()).add(position);
+            }
+        }
+
+        List<UserShard> shards = new ArrayList<>(positionsByShard.keySet());
+        List<Set<Integer>> taken = userShards.onEach(shards, shard -> shard.getUserEmailClaims().claimAll(positionsByShard.get(shard).stream()
+                .map(position -> userShards.newClaim(users.get(position).getNormalizedEmailAddress(), users.get(position).getId()))
+                .collect(Collectors.toList())));
+
+        for (int i = 0; i < shards.size(); i++) {
+            List<Integer> positions = positionsByShard.get(shards.get(i));
+
+            for (int j = 0; j < positions.size(); j++) {
+                if (taken.get(i).contains(j)) {
+                    contested.add(positions.get(j));
+                } else {
+                    claimed.add(positions.get(j));
+                }
+            }
+        }
+
+        // Taken addresses may be claimed for the same user or by a stale claim.
+        for (int position : contested) {
+            User user = users.get(position);
+
+            try {
+                if (claim(user.getNormalizedEmailAddress(), user.getId())) {
+                    claimed.add(position);
+                }
+            } catch (DuplicateKeyException e) {
+                results.set(position, new BulkItemResult(existingUsers ? user.getId() : null, BulkItemResult.Status.DUPLICATE,
+                        DuplicateKeys.uniqueViolationMessage(DuplicateKeys.EMAIL_ADDRESS_INDEX)));
+            }
+        }
+
+        return claimed;
+    }
+
+    private void releaseFailed(List<User> users, List<BulkItemResult> results, Set<Integer> claimed, BulkItemResult.Status success) {
+        for (int position : claimed) {
+            if (results.get(position).getStatus() != success) {
+                release(users.get(position).getNormalizedEmailAddress(), users.get(position).getId());
+            }
+        }
+    }
+
+    private void release(String normalizedEmailAddress, String userId) {
+        for (UserShard shard : userShards.claimCandidatesOf(normalizedEmailAddress)) {
+            shard.getUserEmailClaims().release(normalizedEmailAddress, userId);
+        }
+    }
+
+    private boolean isStale(EmailClaim claim) {
+        return !claim.getClaimedAt().plus(claimTimeout).isAfter(Instant.now()) && !userShards.isHeld(claim);
+    }
+
+    // The previous owner stays authoritative for a user until it has been moved.
+    private UserRepository writeOwnerOf(String id) {
+        List<UserShard> candidates = userShards.candidatesOf(id);
+
+        if (candidates.size() > 1 && candidates.get(0).getUserRepository().existsById(id)) {
+            return candidates.get(0).getUserRepository();
+        }
+
+        return userShards.ownerOf(id).getUserRepository();
+    }
+
+    private Optional<User> updateOnOwner(String id, Long expectedVersion, User user) {
+        List<UserShard> candidates = userShards.candidatesOf(id);
+        UserRepository first = candidates.get(0).getUserRepository();
+        Optional<User> updatedUser = first.updateById(id, expectedVersion, user);
+
+        if (updatedUser.isPresent() || candidates.size() == 1 || first.existsById(id)) {
+            return updatedUser;
+        }
+
+        // Moved to its new owner in the meantime.
+        return candidates.get(1).getUserRepository().updateById(id, expectedVersion, user);
+    }
+
+    private boolean isAuthoritative(UserShard shard, String id) {
+        List<UserShard> candidates = userShards.candidatesOf(id);
+
+        if (candidates.size() == 1 || shard == candidates.get(0)) {
+            return true;
+        }
+
+        // A copy on the new owner counts once the previous owner no longer has the user.
+        return shard == candidates.get(1) && !candidates.get(0).getUserRepository().existsById(id);
+    }
+
+    // Queries every shard at once and merges their results, which each come in the given order, reading each only as
+    // far as the merged stream is consumed.
+    private Stream<User> merge(Function<UserRepository, Stream<User>> query, Comparator<User> order) {
+        List<UserShard> shards = userShards.getShards();
+        boolean rebalancing = userShards.isRebalancing();
+        List<Stream<User>> streams = userShards.onEach(shards, shard -> query.apply(shard.getUserRepository()));
+        List<Iterator<User>> iterators = new ArrayList<>(streams.size());
+
+        for (int i = 0; i < shards.size(); i++) {
+            UserShard shard = shards.get(i);
+            Stream<User> users = streams.get(i);
+
+            iterators.add((rebalancing ? users.filter(user -> isAuthoritative(shard, user.getId())) : users).iterator());
+        }
+
+        Iterator<User> merged = new Iterator<User>() {
+
+            private PriorityQueue<Map.Entry<User, Iterator<User>>> heads;
+
+            @Override
+            public boolean hasNext() {
+                return !heads().isEmpty();
+            }
+
+            @Override
+            public User next() {
+                Map.Entry<User, Iterator<User>> head = heads().poll();
+
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+
+                if (head.getValue().hasNext()) {
+                    heads.add(new AbstractMap.SimpleImmutableEntry<>(head.getValue().next(), head.getValue()));
+                }
+
+                return head.getKey();
+            }
+
+            private PriorityQueue<Map.Entry<User, Iterator<User>>> heads() {
+                if (heads == null) {
+                    heads = new PriorityQueue<>(Math.max(1, iterators.size()), Map.Entry.comparingByKey(order));
+
+                    for (Iterator<User> iterator : iterators) {
+                        if (iterator.hasNext()) {
+                            heads.add(new AbstractMap.SimpleImmutableEntry<>(iterator.next(), iterator));
+                        }
+                    }
+                }
+
+                return heads;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> streams.forEach(Stream::close));
+    }
+
+    private void writeByShard(List<Integer> positions, Function<Integer, UserShard> shardOf, List<BulkItemResult> results,
+                              BiFunction<UserRepository, List<Integer>, List<BulkItemResult>> write) {
+        Map<UserShard, List<Integer>> positionsByShard = new LinkedHashMap<>();
+
+        positions.forEach(position -> positionsByShard.computeIfAbsent(shardOf.apply(position), shard -> new ArrayList<>()).add(position));
+
+        List<UserShard> shards = new ArrayList<>(positionsByShard.keySet());
+        List<List<BulkItemResult>> shardResults = userShards.onEach(shards,
+                shard -> write.apply(shard.getUserRepository(), positionsByShard.get(shard)));
+
+        for (int i = 0; i < shards.size(); i++) {
+            List<Integer> shardPositions = positionsByShard.get(shards.get(i));
+
+            for (int j = 0; j < shardPositions.size(); j++) {
+                results.set(shardPositions.get(j), shardResults.get(i).get(j));
+            }
+        }
+    }
+
+    private static List<Integer> pending(List<BulkItemResult> results) {
+        List<Integer> positions = new ArrayList<>(results.size());
+
+        for (int position = 0; position < results.size(); position++) {
+            if (results.get(position) == null) {
+                positions.add(position);
+            }
+        }
+
+        return positions;
+    }
+
+    private static <T> List<T> select(List<T> items, List<Integer> positions) {
+        return positions.stream().map(items::get).collect(Collectors.toList());
+    }
+
+    private static UserQuery withoutLimit(UserQuery query) {
+        UserQuery unlimited = new UserQuery();
+
+        unlimited.setFirstName(query.getFirstName());
+        unlimited.setLastName(query.getLastName());
+        unlimited.setEmailPrefix(query.getEmailPrefix());
+        unlimited.setBornFrom(query.getBornFrom());
+        unlimited.setBornTo(query.getBornTo());
+        unlimited.setSortField(query.getSortField());
+        unlimited.setDirection(query.getDirection());
+        unlimited.setAfterValue(query.getAfterValue());
+        unlimited.setAfterId(query.getAfterId());
+        unlimited.setFields(query.getFields());
+
+        return unlimited;
+    }
+
+    private static DuplicateKeyException duplicateEmailAddress() {
+        return new DuplicateKeyException(DuplicateKeys.duplicateKeyMessage(DuplicateKeys.NORMALIZED_EMAIL_ADDRESS_INDEX));
+    }
+}
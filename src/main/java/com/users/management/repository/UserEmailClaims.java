@@ -0,0 +1,27 @@
+package com.users.management.repository;
+
+import com.users.management.model.EmailClaim;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// The email address claims kept on one shard. Each address can be claimed once, a claim is taken over or released
+// only while it still holds what the caller last read.
+public interface UserEmailClaims {
+
+    // Returns the claim that already holds the address, or nothing when this one was stored.
+    Optional<EmailClaim> claim(EmailClaim claim);
+
+    // Stores every claim whose address is free and returns the positions of those whose address is claimed already.
+    Set<Integer> claimAll(List<EmailClaim> claims);
+
+    Optional<EmailClaim> findClaim(String normalizedEmailAddress);
+
+    boolean takeOver(EmailClaim current, EmailClaim claim);
+
+    boolean release(String normalizedEmailAddress, String userId);
+
+    Stream<EmailClaim> streamClaims();
+}
@@ -0,0 +1,203 @@
+package com.users.management.repository;
+
+import com.users.management.configuration.IndexProperties;
+import com.users.management.model.User;
+import com.users.management.util.DuplicateKeys;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Spring Data's auto index creation builds every @Indexed index in the foreground, once per MongoTemplate, before the
+// application can start. Instead, existing indexes are only compared with their definitions here and missing ones are
+// built on a background thread with background builds, while UserIndexHealthIndicator keeps the instance out of service.
+// With the "sharded" profile every shard has its own, reported by UserShardsHealthIndicator instead.
+@Component
+@Profile("!offheap & !sharded & !reactive")
+public class UserIndexManager {
+
+    public enum State {
+        PENDING, BUILDING, READY, FAILED
+    }
+
+    // The unique indexes keep their Spring Data names, DuplicateKeys maps duplicate key errors by them.
+    static List<Index> userIndexes() {
+        return Arrays.asList(
+                new Index().on("firstName", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named("firstName_id"),
+                new Index().on("lastName", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named("lastName_id"),
+                new Index().on("lastName", Sort.Direction.ASC).on("firstName", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                        .named("lastName_firstName_id"),
+                new Index().on("dateOfBirth", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named("dateOfBirth_id"),
+                new Index().on("emailAddress", Sort.Direction.ASC).named(DuplicateKeys.EMAIL_ADDRESS_INDEX).unique(),
+                // Sparse, because documents written before normalizedEmailAddress existed have none until backfilled.
+                new Index().on("normalizedEmailAddress", Sort.Direction.ASC).named(DuplicateKeys.NORMALIZED_EMAIL_ADDRESS_INDEX)
+                        .unique().sparse());
+    }
+
+    private MongoTemplate mongoTemplate;
+
+    private IndexProperties indexProperties;
+
+    private volatile State state = State.PENDING;
+
+    // Outcome per index name, e.g. "exists", "created" or why it could not be created.
+    private Map<String, String> outcomes = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private volatile Duration took;
+
+    private Thread builder;
+
+    @Autowired
+    public UserIndexManager(MongoTemplate mongoTemplate, IndexProperties indexProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.indexProperties = indexProperties;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (indexProperties.getMode() == IndexProperties.Mode.BLOCKING) {
+            ensureIndexes();
+            return;
+        }
+
+        builder = new Thread(this::ensureIndexes, "user-indexes");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (builder != null) {
+            builder.interrupt();
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Map<String, String> getOutcomes() {
+        synchronized (outcomes) {
+            return new LinkedHashMap<>(outcomes);
+        }
+    }
+
+    public Optional<Duration> getTook() {
+        return Optional.ofNullable(took);
+    }
+
+    void ensureIndexes() {
+        long start = System.nanoTime();
+
+        state = State.BUILDING;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                state = ensureIndexes(mongoTemplate.indexOps(User.class)) ? State.READY : State.FAILED;
+                took = Duration.ofNanos(System.nanoTime() - start);
+                return;
+            } catch (DataAccessResourceFailureException e) {
+                // Mongo is not reachable yet, which is no reason to give up on the indexes for good.
+                if (indexProperties.getMode() == IndexProperties.Mode.BLOCKING || !sleep(indexProperties.getRetryInterval())) {
+                    state = State.FAILED;
+                    return;
+                }
+            } catch (DataAccessException e) {
+                outcomes.put(User.class.getSimpleName(), String.format("failed: %s", e.getMostSpecificCause().getMessage()));
+                state = State.FAILED;
+                return;
+            }
+        }
+    }
+
+    // Returns whether every index exists as defined.
+    private boolean ensureIndexes(IndexOperations indexOperations) {
+        List<IndexInfo> existingIndexes = indexOperations.getIndexInfo();
+        boolean complete = true;
+
+        outcomes.clear();
+
+        for (Index index : userIndexes()) {
+            String name = index.getIndexOptions().getString("name");
+            Optional<IndexInfo> existing = existingIndexes.stream().filter(info -> info.getName().equals(name)).findFirst();
+
+            if (existing.isPresent()) {
+                boolean matches = matches(index, existing.get());
+
+                outcomes.put(name, matches ? "exists" : "exists with different keys or options, drop it to have it rebuilt");
+                complete &= matches;
+            } else if (indexProperties.getMode() == IndexProperties.Mode.VERIFY_ONLY) {
+                outcomes.put(name, "missing");
+                complete = false;
+            } else {
+                complete &= create(indexOperations, name, index);
+            }
+        }
+
+        return complete;
+    }
+
+    private boolean create(IndexOperations indexOperations, String name, Index index) {
+        outcomes.put(name, "building");
+
+        try {
+            // A background build does not lock the collection, reads and writes go on while it runs.
+            indexOperations.ensureIndex(index.background());
+            outcomes.put(name, "created");
+
+            return true;
+        } catch (DataAccessResourceFailureException e) {
+            throw e;
+        } catch (DataAccessException e) {
+            // E.g. existing duplicates that a unique index cannot be built over.
+            outcomes.put(name, String.format("failed: %s", e.getMostSpecificCause().getMessage()));
+
+            return false;
+        }
+    }
+
+    private static boolean matches(Index index, IndexInfo existing) {
+        Document options = index.getIndexOptions();
+        List<String> keys = new ArrayList<>();
+        List<String> existingKeys = new ArrayList<>();
+
+        index.getIndexKeys().forEach((key, direction) -> keys.add(key + ":" + direction));
+
+        for (IndexField field : existing.getIndexFields()) {
+            existingKeys.add(field.getKey() + ":" + (field.getDirection() == Sort.Direction.DESC ? -1 : 1));
+        }
+
+        return keys.equals(existingKeys)
+                && existing.isUnique() == options.getBoolean("unique", false)
+                && existing.isSparse() == options.getBoolean("sparse", false);
+    }
+
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.users.management.repository;
+
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import com.users.management.util.EmailAddresses;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+public final class UserQueries {
+
+    public static final int STREAM_BATCH_SIZE = 500;
+
+    private UserQueries() {
+    }
+
+    public static Query toMongoQuery(UserQuery userQuery) {
+        List<Criteria> criteria = new ArrayList<>();
+
+        if (userQuery.getFirstName() != null) {
+            criteria.add(Criteria.where("firstName").is(userQuery.getFirstName()));
+        }
+
+        if (userQuery.getLastName() != null) {
+            criteria.add(Criteria.where("lastName").is(userQuery.getLastName()));
+        }
+
+        if (userQuery.getEmailPrefix() != null) {
+            // On the normalized address, so that case variants match, and an anchored prefix is a range scan of its index.
+            criteria.add(Criteria.where("normalizedEmailAddress").regex("^" + escapeRegex(EmailAddresses.normalize(userQuery.getEmailPrefix()))));
+        }
+
+        if (userQuery.getBornFrom() != null || userQuery.getBornTo() != null) {
+            Criteria dateOfBirth = Criteria.where("dateOfBirth");
+
+            if (userQuery.getBornFrom() != null) {
+                dateOfBirth.gte(userQuery.getBornFrom());
+            }
+
+            if (userQuery.getBornTo() != null) {
+                dateOfBirth.lte(userQuery.getBornTo());
+            }
+
+            criteria.add(dateOfBirth);
+        }
+
+        if (userQuery.getAfterId() != null) {
+            criteria.add(after(userQuery));
+        }
+
+        Query query = criteria.isEmpty()
+                ? new Query()
+                : new Query(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+
+        query.with(sortOf(userQuery));
+
+        if (userQuery.getFields() != null) {
+            includeFields(query, userQuery.getFields());
+            query.fields().include(userQuery.getSortField().getProperty());
+        }
+
+        if (userQuery.getLimit() > 0) {
+            query.limit(userQuery.getLimit());
+        }
+
+        return query;
+    }
+
+    // The in-memory equivalents of toMongoQuery, for stores that filter and sort users themselves.
+    public static boolean matches(UserQuery query, User user) {
+        return (query.getFirstName() == null || query.getFirstName().equals(user.getFirstName()))
+                && (query.getLastName() == null || query.getLastName().equals(user.getLastName()))
+                && (query.getEmailPrefix() == null || (user.getEmailAddress() != null
+                        && user.getNormalizedEmailAddress().startsWith(EmailAddresses.normalize(query.getEmailPrefix()))))
+                && (query.getBornFrom() == null || (user.getDateOfBirth() != null && !user.getDateOfBirth().isBefore(query.getBornFrom())))
+                && (query.getBornTo() == null || (user.getDateOfBirth() != null && !user.getDateOfBirth().isAfter(query.getBornTo())))
+                && (query.getAfterId() == null || isAfter(query, user));
+    }
+
+    public static Comparator<User> comparatorOf(UserQuery query) {
+        UserQuery.SortField sortField = query.getSortField();
+        Comparator<User> order = Comparator.comparing(sortField::format, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                .thenComparing(User::getId);
+
+        return query.getDirection().isAscending() ? order : order.reversed();
+    }
+
+    // Keeps only the given fields, like includeFields does for a Mongo query.
+    public static User project(User user, Collection<String> fields) {
+        User projected = new User();
+
+        projected.setId(user.getId());
+        projected.setVersion(user.getVersion());
+        projected.setFirstName(fields.contains("firstName") ? user.getFirstName() : null);
+        projected.setLastName(fields.contains("lastName") ? user.getLastName() : null);
+        projected.setEmailAddress(fields.contains("emailAddress") ? user.getEmailAddress() : null);
+        projected.setDateOfBirth(fields.contains("dateOfBirth") ? user.getDateOfBirth() : null);
+
+        return projected;
+    }
+
+    public static Query byIdAndVersion(String id, Long expectedVersion) {
+        Criteria criteria = Criteria.where("id").is(id);
+
+        if (expectedVersion != null) {
+            // Documents written before versioning have no version field and count as version 0.
+            criteria = expectedVersion == 0L
+                    ? criteria.and("version").in(0L, null)
+                    : criteria.and("version").is(expectedVersion);
+        }
+
+        return Query.query(criteria);
+    }
+
+    public static Update updateOf(User user) {
+        return new Update()
+                .set("firstName", user.getFirstName())
+                .set("lastName", user.getLastName())
+                .set("emailAddress", user.getEmailAddress())
+                .set("normalizedEmailAddress", user.getNormalizedEmailAddress())
+                .set("dateOfBirth", user.getDateOfBirth())
+                .inc("version", 1);
+    }
+
+    public static Query byId(String id, Collection<String> fields) {
+        Query query = Query.query(Criteria.where("id").is(id));
+
+        if (fields != null) {
+            includeFields(query, fields);
+        }
+
+        return query;
+    }
+
+    private static void includeFields(Query query, Collection<String> fields) {
+        for (String field : fields) {
+            query.fields().include(field);
+        }
+
+        query.fields().include("version");
+    }
+
+    private static boolean isAfter(UserQuery query, User user) {
+        String afterValue = query.getSortField() == UserQuery.SortField.ID ? query.getAfterId() : String.valueOf(query.getAfterValue());
+        String value = query.getSortField().format(user);
+        int comparison = value == null ? -1 : value.compareTo(afterValue);
+
+        if (comparison == 0) {
+            comparison = user.getId().compareTo(query.getAfterId());
+        }
+
+        return query.getDirection().isAscending() ? comparison > 0 : comparison < 0;
+    }
+
+    private static Criteria after(UserQuery userQuery) {
+        boolean ascending = userQuery.getDirection().isAscending();
+
+        if (userQuery.getSortField() == UserQuery.SortField.ID) {
+            return greaterOrLess(Criteria.where("id"), ascending, userQuery.getAfterId());
+        }
+
+        if (isUnique(userQuery.getSortField())) {
+            return greaterOrLess(Criteria.where(userQuery.getSortField().getProperty()), ascending, userQuery.getAfterValue());
+        }
+
+        String property = userQuery.getSortField().getProperty();
+
+        return new Criteria().orOperator(
+                greaterOrLess(Criteria.where(property), ascending, userQuery.getAfterValue()),
+                new Criteria().andOperator(
+                        Criteria.where(property).is(userQuery.getAfterValue()),
+                        greaterOrLess(Criteria.where("id"), ascending, userQuery.getAfterId())));
+    }
+
+    private static Criteria greaterOrLess(Criteria criteria, boolean ascending, Object value) {
+        return ascending ? criteria.gt(value) : criteria.lt(value);
+    }
+
+    private static Sort sortOf(UserQuery userQuery) {
+        Sort sort = Sort.by(userQuery.getDirection(), userQuery.getSortField().getProperty());
+
+        if (!isUnique(userQuery.getSortField())) {
+            sort = sort.and(Sort.by(userQuery.getDirection(), "id"));
+        }
+
+        return sort;
+    }
+
+    // Sorting by a unique field needs no id tiebreaker, so the sort and the cursor can use that field's own index
+    // instead of an extra compound index.
+    private static boolean isUnique(UserQuery.SortField sortField) {
+        return sortField == UserQuery.SortField.ID || sortField == UserQuery.SortField.EMAIL_ADDRESS;
+    }
+
+    private static String escapeRegex(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (!Character.isLetterOrDigit(c)) {
+                escaped.append('\\');
+            }
+
+            escaped.append(c);
+        }
+
+        return escaped.toString();
+    }
+}
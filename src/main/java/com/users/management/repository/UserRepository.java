@@ -1,13 +1,25 @@
 package com.users.management.repository;
 
 import com.users.management.model.User;
-import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
-@Repository
-public interface UserRepository extends MongoRepository<User, String> {
+// The storage UserService and UserBulkService work against, backed by Mongo or, with the "offheap" profile, by local memory.
+public interface UserRepository extends UserRepositoryCustom {
 
-    Optional<User> findOneByEmailAddress(String emailAddress);
+    <S extends User> S save(S user);
+
+    @Override
+    Optional<User> findById(String id);
+
+    boolean existsById(String id);
+
+    @Override
+    List<User> findAll();
+
+    // Reads from the primary, it guards writes against duplicate email addresses.
+    Optional<User> findOneByNormalizedEmailAddress(String normalizedEmailAddress);
+
+    long removeById(String id);
 }
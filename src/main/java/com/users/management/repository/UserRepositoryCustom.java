@@ -0,0 +1,51 @@
+package com.users.management.repository;
+
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface UserRepositoryCustom {
+
+    Optional<User> findById(String id);
+
+    List<User> findAll();
+
+    Stream<User> streamAllByOrderByIdAsc();
+
+    Optional<User> findProjectedById(String id, Set<String> fields);
+
+    List<User> findUsers(UserQuery query);
+
+    Stream<User> streamUsers(UserQuery query);
+
+    List<User> findByNormalizedEmailAddresses(Collection<String> normalizedEmailAddresses);
+
+    Stream<String> streamEmailAddresses();
+
+    // Returns the normalized form of those addresses that are taken.
+    Set<String> findExistingEmailAddresses(Collection<String> emailAddresses);
+
+    // Sets normalizedEmailAddress on users stored without it and returns how many could not be, because a case
+    // variant of their address is already taken.
+    long backfillNormalizedEmailAddresses();
+
+    Optional<User> updateById(String id, Long expectedVersion, User user);
+
+    List<BulkItemResult> bulkInsert(List<User> users);
+
+    List<BulkItemResult> bulkUpdate(List<User> users);
+
+    List<BulkItemResult> bulkDelete(List<String> ids);
+
+    // Stores the user with its id and version as they are, unless the same or a newer version is stored already.
+    // Returns whether it was stored. Moving users between shards copies them with this.
+    boolean storeCopy(User user);
+
+    long removeByIdAndVersion(String id, Long version);
+}
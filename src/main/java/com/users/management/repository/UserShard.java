@@ -0,0 +1,64 @@
+package com.users.management.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Optional;
+
+// One of the databases users are spread over, with the users it owns and the email address claims it keeps.
+public class UserShard implements Closeable {
+
+    private String name;
+
+    private UserRepository userRepository;
+
+    private UserEmailClaims userEmailClaims;
+
+    private UserIndexManager userIndexManager;
+
+    private Closeable connection;
+
+    public UserShard(String name, UserRepository userRepository, UserEmailClaims userEmailClaims) {
+        this(name, userRepository, userEmailClaims, null, null);
+    }
+
+    public UserShard(String name, UserRepository userRepository, UserEmailClaims userEmailClaims,
+                     UserIndexManager userIndexManager, Closeable connection) {
+        this.name = name;
+        this.userRepository = userRepository;
+        this.userEmailClaims = userEmailClaims;
+        this.userIndexManager = userIndexManager;
+        this.connection = connection;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public UserRepository getUserRepository() {
+        return userRepository;
+    }
+
+    public UserEmailClaims getUserEmailClaims() {
+        return userEmailClaims;
+    }
+
+    public Optional<UserIndexManager> getUserIndexManager() {
+        return Optional.ofNullable(userIndexManager);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (userIndexManager != null) {
+            userIndexManager.stop();
+        }
+
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
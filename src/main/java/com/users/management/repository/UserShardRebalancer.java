@@ -0,0 +1,247 @@
+package com.users.management.repository;
+
+import com.users.management.model.EmailClaim;
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Moves users and email address claims onto the shard UserShards picks for them now, while they keep being served.
+// A user is copied and then removed from its previous shard only if it is still at the copied version, otherwise the
+// copy is redone, so that writes that reach the previous shard in the meantime are carried over. Users without a claim
+// of their address, such as those written before sharding, get one on the way. Run it on one instance at a time.
+public class UserShardRebalancer {
+
+    public enum State {
+        IDLE, RUNNING, DONE, FAILED
+    }
+
+    private static final int PAGE_SIZE = UserQueries.STREAM_BATCH_SIZE;
+
+    private static final int MAX_MOVE_ATTEMPTS = 5;
+
+    private UserShards userShards;
+
+    private volatile State state = State.IDLE;
+
+    private AtomicLong scannedUsers = new AtomicLong();
+
+    private AtomicLong movedUsers = new AtomicLong();
+
+    // Left on their previous shard because they kept changing or their address is taken on the new one.
+    private AtomicLong skippedUsers = new AtomicLong();
+
+    private AtomicLong createdClaims = new AtomicLong();
+
+    private AtomicLong movedClaims = new AtomicLong();
+
+    // Addresses claimed for another user who has them as well, which only shards filled before sharding can lead to.
+    private AtomicLong conflictingClaims = new AtomicLong();
+
+    private volatile Duration took;
+
+    private volatile String failure;
+
+    public UserShardRebalancer(UserShards userShards) {
+        this.userShards = userShards;
+    }
+
+    // Returns false when a rebalancing is running already.
+    public synchronized boolean start() {
+        if (state == State.RUNNING) {
+            return false;
+        }
+
+        state = State.RUNNING;
+
+        Thread worker = new Thread(this::rebalance, "user-shards-rebalancer");
+        worker.setDaemon(true);
+        worker.start();
+
+        return true;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+
+        report.put("state", state);
+        report.put("scannedUsers", scannedUsers.get());
+        report.put("movedUsers", movedUsers.get());
+        report.put("skippedUsers", skippedUsers.get());
+        report.put("createdClaims", createdClaims.get());
+        report.put("movedClaims", movedClaims.get());
+        report.put("conflictingClaims", conflictingClaims.get());
+
+        if (took != null) {
+            report.put("took", took.toString());
+        }
+
+        if (failure != null) {
+            report.put("failure", failure);
+        }
+
+        return report;
+    }
+
+    void rebalance() {
+        long start = System.nanoTime();
+
+        state = State.RUNNING;
+        took = null;
+        failure = null;
+
+        for (AtomicLong counter : new AtomicLong[]{scannedUsers, movedUsers, skippedUsers, createdClaims, movedClaims, conflictingClaims}) {
+            counter.set(0);
+        }
+
+        try {
+            for (UserShard shard : userShards.getShards()) {
+                rebalanceUsers(shard);
+            }
+
+            for (UserShard shard : userShards.getShards()) {
+                rebalanceClaims(shard);
+            }
+
+            // Skipped users are still found on their previous shard, a later run moves them.
+            if (skippedUsers.get() == 0) {
+                userShards.finishRebalancing();
+            }
+
+            state = State.DONE;
+        } catch (DataAccessException e) {
+            failure = e.getMostSpecificCause().getMessage();
+            state = State.FAILED;
+        } catch (RuntimeException e) {
+            failure = e.toString();
+            state = State.FAILED;
+        } finally {
+            took = Duration.ofNanos(System.nanoTime() - start);
+        }
+    }
+
+    private void rebalanceUsers(UserShard shard) {
+        UserQuery page = new UserQuery();
+        page.setLimit(PAGE_SIZE);
+
+        List<User> users;
+
+        // Pages rather than one stream, so that no cursor stays open on a shard that users are removed from.
+        do {
+            users = shard.getUserRepository().findUsers(page);
+
+            claimAddresses(users);
+
+            for (User user : users) {
+                UserShard owner = userShards.ownerOf(user.getId());
+
+                if (owner != shard) {
+                    (move(user, shard, owner) ? movedUsers : skippedUsers).incrementAndGet();
+                }
+            }
+
+            scannedUsers.addAndGet(users.size());
+
+            if (!users.isEmpty()) {
+                page.setAfterId(users.get(users.size() - 1).getId());
+            }
+        } while (users.size() == PAGE_SIZE);
+    }
+
+    private void claimAddresses(List<User> users) {
+        Map<UserShard, List<EmailClaim>> claimsByShard = new LinkedHashMap<>();
+
+        for (User user : users) {
+            if (user.getNormalizedEmailAddress() != null) {
+                claimsByShard.computeIfAbsent(userShards.claimsOwnerOf(user.getNormalizedEmailAddress()), shard -> new ArrayList<>())
+                        .add(userShards.newClaim(user.getNormalizedEmailAddress(), user.getId()));
+            }
+        }
+
+        claimsByShard.forEach((shard, claims) -> {
+            Set<Integer> taken = shard.getUserEmailClaims().claimAll(claims);
+
+            createdClaims.addAndGet(claims.size() - taken.size());
+
+            for (int position : taken) {
+                EmailClaim claim = claims.get(position);
+                Optional<EmailClaim> currentClaim = shard.getUserEmailClaims().findClaim(claim.getEmailAddress());
+
+                if (!currentClaim.isPresent() || currentClaim.get().getUserId().equals(claim.getUserId())) {
+                    continue;
+                }
+
+                // The user has the address, so a claim for someone who does not is left over and can go.
+                if (userShards.isHeld(currentClaim.get())) {
+                    conflictingClaims.incrementAndGet();
+                } else if (shard.getUserEmailClaims().takeOver(currentClaim.get(), claim)) {
+                    createdClaims.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    private boolean move(User user, UserShard from, UserShard to) {
+        User copy = user;
+
+        for (int attempt = 0; attempt < MAX_MOVE_ATTEMPTS; attempt++) {
+            long version = copy.getVersion() == null ? 0L : copy.getVersion();
+
+            try {
+                to.getUserRepository().storeCopy(copy);
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+
+            if (from.getUserRepository().removeByIdAndVersion(copy.getId(), version) > 0) {
+                return true;
+            }
+
+            if (!from.getUserRepository().existsById(copy.getId())) {
+                // Deleted in the meantime, which the copy must not undo.
+                to.getUserRepository().removeByIdAndVersion(copy.getId(), version);
+
+                return true;
+            }
+
+            Optional<User> current = from.getUserRepository().findById(copy.getId());
+
+            if (current.isPresent()) {
+                copy = current.get();
+            }
+        }
+
+        return false;
+    }
+
+    private void rebalanceClaims(UserShard shard) {
+        try (Stream<EmailClaim> claims = shard.getUserEmailClaims().streamClaims()) {
+            claims.forEach(claim -> {
+                UserShard owner = userShards.claimsOwnerOf(claim.getEmailAddress());
+
+                if (owner == shard) {
+                    return;
+                }
+
+                // A different claim found on the new shard was taken over from this one as stale.
+                owner.getUserEmailClaims().claim(claim);
+                shard.getUserEmailClaims().release(claim.getEmailAddress(), claim.getUserId());
+                movedClaims.incrementAndGet();
+            });
+        }
+    }
+}
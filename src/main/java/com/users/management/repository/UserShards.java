@@ -0,0 +1,164 @@
+package com.users.management.repository;
+
+import com.users.management.model.EmailClaim;
+import com.users.management.util.Hashing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Picks the shard of a user by a jump consistent hash of its id, and the shard that keeps the claim of an email address
+// by one of the address. Shards can only be added at the end. Until UserShardRebalancer has moved what the added shards
+// took over, the owner under the previous shard count stays authoritative for whatever it still holds.
+public class UserShards implements Closeable {
+
+    private List<UserShard> shards;
+
+    private volatile int previousShardCount;
+
+    private ExecutorService scatterExecutor;
+
+    public UserShards(List<UserShard> shards, int previousShardCount, int scatterThreads) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is needed");
+        }
+
+        if (previousShardCount < 1 || previousShardCount > shards.size()) {
+            throw new IllegalArgumentException(String.format("The previous shard count must be between 1 and %d, shards can only be added",
+                    shards.size()));
+        }
+
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+        this.previousShardCount = previousShardCount;
+
+        AtomicInteger threads = new AtomicInteger();
+
+        // When every thread is busy the caller queries the shard itself, which is slower but never queues up.
+        this.scatterExecutor = new ThreadPoolExecutor(0, Math.max(1, scatterThreads), 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-shards-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public List<UserShard> getShards() {
+        return shards;
+    }
+
+    public int getPreviousShardCount() {
+        return previousShardCount;
+    }
+
+    public boolean isRebalancing() {
+        return previousShardCount < shards.size();
+    }
+
+    // Once every user and claim is where the current shard count puts it, the previous owners need no more lookups.
+    public void finishRebalancing() {
+        previousShardCount = shards.size();
+    }
+
+    public UserShard ownerOf(String id) {
+        return shards.get(indexOf(id, shards.size()));
+    }
+
+    // Where the user may be stored, the previous owner first.
+    public List<UserShard> candidatesOf(String id) {
+        return candidates(id);
+    }
+
+    public UserShard claimsOwnerOf(String normalizedEmailAddress) {
+        return shards.get(indexOf(normalizedEmailAddress, shards.size()));
+    }
+
+    // Where the claim of the address may be kept, the previous owner first.
+    public List<UserShard> claimCandidatesOf(String normalizedEmailAddress) {
+        return candidates(normalizedEmailAddress);
+    }
+
+    // Claims are taken over only at the exact time they were read with, so it is kept at the millisecond precision Mongo stores.
+    public EmailClaim newClaim(String normalizedEmailAddress, String userId) {
+        return new EmailClaim(normalizedEmailAddress, userId, Instant.now().truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    // Whether the user a claim is for has the address, looked up on the primary like any other guard of a write.
+    public boolean isHeld(EmailClaim claim) {
+        for (UserShard shard : candidatesOf(claim.getUserId())) {
+            boolean held = shard.getUserRepository().findOneByNormalizedEmailAddress(claim.getEmailAddress())
+                    .filter(user -> user.getId().equals(claim.getUserId()))
+                    .isPresent();
+
+            if (held) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // Runs the operation on every given shard at once and returns the results in the same order.
+    public <T> List<T> onEach(Collection<UserShard> targets, Function<UserShard, T> operation) {
+        if (targets.size() == 1) {
+            return Collections.singletonList(operation.apply(targets.iterator().next()));
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(targets.size());
+
+        for (UserShard shard : targets) {
+            futures.add(CompletableFuture.supplyAsync(() -> operation.apply(shard), scatterExecutor));
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+
+        return results;
+    }
+
+    @Override
+    public void close() throws IOException {
+        scatterExecutor.shutdownNow();
+
+        for (UserShard shard : shards) {
+            shard.close();
+        }
+    }
+
+    private List<UserShard> candidates(String key) {
+        UserShard owner = shards.get(indexOf(key, shards.size()));
+        UserShard previousOwner = shards.get(indexOf(key, previousShardCount));
+
+        return owner == previousOwner ? Collections.singletonList(owner) : Arrays.asList(previousOwner, owner);
+    }
+
+    private static int indexOf(String key, int shardCount) {
+        return Hashing.jumpConsistentHash(Hashing.hash64(key), shardCount);
+    }
+}
@@ -0,0 +1,41 @@
+package com.users.management.repository;
+
+import com.mongodb.WriteConcern;
+import org.springframework.data.mongodb.core.MongoAction;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+
+public class UserWriteConcernResolver implements WriteConcernResolver {
+
+    private WriteConcern create;
+
+    private WriteConcern edit;
+
+    private WriteConcern delete;
+
+    private WriteConcern bulk;
+
+    public UserWriteConcernResolver(WriteConcern create, WriteConcern edit, WriteConcern delete, WriteConcern bulk) {
+        this.create = create;
+        this.edit = edit;
+        this.delete = delete;
+        this.bulk = bulk;
+    }
+
+    @Override
+    public WriteConcern resolve(MongoAction action) {
+        switch (action.getMongoActionOperation()) {
+            case INSERT:
+            case SAVE:
+                return create;
+            case UPDATE:
+                return edit;
+            case REMOVE:
+                return delete;
+            case INSERT_LIST:
+            case BULK:
+                return bulk;
+            default:
+                return action.getDefaultWriteConcern();
+        }
+    }
+}
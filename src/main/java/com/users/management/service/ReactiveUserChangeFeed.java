@@ -0,0 +1,50 @@
+package com.users.management.service;
+
+import com.users.management.exception.InvalidQueryParameterException;
+import com.users.management.model.User;
+import com.users.management.model.UserChangeEvent;
+import com.users.management.util.ChangeEvents;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+@Service
+@Profile("reactive")
+@ConditionalOnProperty(prefix = "users.changes", name = "enabled", havingValue = "true")
+public class ReactiveUserChangeFeed {
+
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private String collectionName;
+
+    @Autowired
+    public ReactiveUserChangeFeed(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.collectionName = reactiveMongoTemplate.getCollectionName(User.class);
+    }
+
+    public Flux<UserChangeEvent> changes(String resumeToken) throws InvalidQueryParameterException {
+        BsonValue token = ChangeEvents.decodeToken(resumeToken);
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+                .filter(ChangeEvents.USER_MUTATIONS)
+                .returnFullDocumentOnUpdate();
+
+        if (token != null) {
+            options.resumeToken(token);
+        }
+
+        return reactiveMongoTemplate.changeStream(collectionName, options.build(), User.class)
+                .handle((change, sink) -> {
+                    UserChangeEvent event = ChangeEvents.toEvent(change.getRaw(), change.getBody());
+
+                    if (event != null) {
+                        sink.next(event);
+                    }
+                });
+    }
+}
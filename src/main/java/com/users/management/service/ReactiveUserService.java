@@ -0,0 +1,83 @@
+package com.users.management.service;
+
+import com.users.management.exception.DuplicateEmailException;
+import com.users.management.exception.UserDoesNotExistException;
+import com.users.management.exception.UserVersionMismatchException;
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import com.users.management.repository.ReactiveUserRepository;
+import com.users.management.util.DuplicateKeys;
+import com.users.management.util.EmailAddresses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+@Service
+@Profile("reactive")
+public class ReactiveUserService {
+
+    private ReactiveUserRepository reactiveUserRepository;
+
+    @Autowired
+    public ReactiveUserService(ReactiveUserRepository reactiveUserRepository) {
+        this.reactiveUserRepository = reactiveUserRepository;
+    }
+
+    // The same pre-check as UserService, without the bloom filter of UserEmailRegistry, which is not warmed up in
+    // reactive mode. The unique index still rejects a duplicate written in between.
+    public Mono<User> createUser(User user) {
+        return reactiveUserRepository.findOneByNormalizedEmailAddress(user.getNormalizedEmailAddress())
+                .flatMap(existingUser -> Mono.<User>error(duplicateEmail()))
+                .switchIfEmpty(Mono.defer(() -> reactiveUserRepository.save(user)));
+    }
+
+    public Mono<User> fetchUserById(String id) {
+        return reactiveUserRepository.findById(id)
+                .switchIfEmpty(Mono.defer(() -> Mono.error(userDoesNotExist(id))));
+    }
+
+    public Mono<User> fetchUserById(String id, Set<String> fields) {
+        return reactiveUserRepository.findProjectedById(id, fields)
+                .switchIfEmpty(Mono.defer(() -> Mono.error(userDoesNotExist(id))));
+    }
+
+    public Mono<User> fetchUserByEmailAddress(String emailAddress) {
+        return reactiveUserRepository.findOneByNormalizedEmailAddress(EmailAddresses.normalize(emailAddress))
+                .switchIfEmpty(Mono.defer(() -> Mono.error(
+                        new UserDoesNotExistException(String.format("The user with email address '%s' does not exist", emailAddress)))));
+    }
+
+    public Flux<User> fetchUsers(UserQuery query) {
+        return reactiveUserRepository.findUsers(query);
+    }
+
+    public Mono<User> editUser(String id, User updatedUser) {
+        return editUser(id, null, updatedUser);
+    }
+
+    public Mono<User> editUser(String id, Long expectedVersion, User updatedUser) {
+        return reactiveUserRepository.updateById(id, expectedVersion, updatedUser)
+                .switchIfEmpty(Mono.defer(() -> expectedVersion == null
+                        ? Mono.error(userDoesNotExist(id))
+                        : reactiveUserRepository.existsById(id).flatMap(exists -> Mono.error(exists
+                                ? new UserVersionMismatchException(String.format("The user with id '%s' is not at version %d", id, expectedVersion))
+                                : userDoesNotExist(id)))));
+    }
+
+    public Mono<Void> deleteUser(String id) {
+        return reactiveUserRepository.removeById(id)
+                .flatMap(deletedCount -> deletedCount == 0 ? Mono.error(userDoesNotExist(id)) : Mono.empty());
+    }
+
+    private static DuplicateEmailException duplicateEmail() {
+        return new DuplicateEmailException(DuplicateKeys.uniqueViolationMessage(DuplicateKeys.EMAIL_ADDRESS_INDEX));
+    }
+
+    private static UserDoesNotExistException userDoesNotExist(String id) {
+        return new UserDoesNotExistException(String.format("The user with id '%s' does not exist", id));
+    }
+}
@@ -0,0 +1,166 @@
+package com.users.management.service;
+
+import com.users.management.configuration.BulkProperties;
+import com.users.management.configuration.CacheConfiguration;
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.User;
+import com.users.management.repository.UserRepository;
+import com.users.management.util.DuplicateKeys;
+import com.users.management.util.EmailAddresses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+@Service
+@Profile("!reactive")
+public class UserBulkService {
+
+    private UserRepository userRepository;
+
+    private CacheManager cacheManager;
+
+    private UserEmailRegistry userEmailRegistry;
+
+    private BulkProperties bulkProperties;
+
+    @Autowired
+    public UserBulkService(UserRepository userRepository, CacheManager cacheManager, UserEmailRegistry userEmailRegistry,
+                           BulkProperties bulkProperties) {
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.userEmailRegistry = userEmailRegistry;
+        this.bulkProperties = bulkProperties;
+    }
+
+    // Keyed by the addresses as given, in their order. Addresses without a user are left out.
+    public Map<String, User> fetchUsersByEmailAddresses(List<String> emailAddresses) {
+        Map<String, User> usersByNormalizedEmailAddress = new HashMap<>();
+        List<String> normalizedEmailAddresses = new ArrayList<>(emailAddresses.size());
+
+        for (String emailAddress : emailAddresses) {
+            normalizedEmailAddresses.add(EmailAddresses.normalize(emailAddress));
+        }
+
+        int chunkSize = bulkProperties.getChunkSize();
+
+        for (int from = 0; from < normalizedEmailAddresses.size(); from += chunkSize) {
+            List<String> chunk = normalizedEmailAddresses.subList(from, Math.min(from + chunkSize, normalizedEmailAddresses.size()));
+
+            for (User user : userRepository.findByNormalizedEmailAddresses(chunk)) {
+                usersByNormalizedEmailAddress.put(user.getNormalizedEmailAddress(), user);
+            }
+        }
+
+        Map<String, User> users = new LinkedHashMap<>();
+
+        for (int i = 0; i < emailAddresses.size(); i++) {
+            User user = usersByNormalizedEmailAddress.get(normalizedEmailAddresses.get(i));
+
+            if (user != null) {
+                users.put(emailAddresses.get(i), user);
+            }
+        }
+
+        return users;
+    }
+
+    public List<BulkItemResult> createUsers(List<User> users) {
+        return inChunks(users, this::insertNewEmails);
+    }
+
+    public List<BulkItemResult> editUsers(List<User> users) {
+        List<BulkItemResult> results = inChunks(users, userRepository::bulkUpdate);
+
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i).getStatus() == BulkItemResult.Status.UPDATED) {
+                userEmailRegistry.register(users.get(i).getEmailAddress());
+            }
+        }
+
+        evict(results);
+
+        return results;
+    }
+
+    public List<BulkItemResult> deleteUsers(List<String> ids) {
+        List<BulkItemResult> results = inChunks(ids, userRepository::bulkDelete);
+
+        evict(results);
+
+        return results;
+    }
+
+    private List<BulkItemResult> insertNewEmails(List<User> users) {
+        List<String> emailAddresses = new ArrayList<>(users.size());
+
+        for (User user : users) {
+            emailAddresses.add(user.getEmailAddress());
+        }
+
+        Set<String> takenEmailAddresses = userEmailRegistry.findTaken(emailAddresses);
+        List<User> newUsers = new ArrayList<>(users.size());
+
+        for (User user : users) {
+            if (!takenEmailAddresses.contains(user.getNormalizedEmailAddress())) {
+                newUsers.add(user);
+            }
+        }
+
+        Iterator<BulkItemResult> insertResults = userRepository.bulkInsert(newUsers).iterator();
+        List<BulkItemResult> results = new ArrayList<>(users.size());
+
+        for (User user : users) {
+            if (takenEmailAddresses.contains(user.getNormalizedEmailAddress())) {
+                results.add(new BulkItemResult(null, BulkItemResult.Status.DUPLICATE,
+                        DuplicateKeys.uniqueViolationMessage(DuplicateKeys.EMAIL_ADDRESS_INDEX)));
+                continue;
+            }
+
+            BulkItemResult result = insertResults.next();
+
+            if (result.getStatus() == BulkItemResult.Status.CREATED) {
+                userEmailRegistry.register(user.getEmailAddress());
+            }
+
+            results.add(result);
+        }
+
+        return results;
+    }
+
+    private <T> List<BulkItemResult> inChunks(List<T> items, Function<List<T>, List<BulkItemResult>> operation) {
+        List<BulkItemResult> results = new ArrayList<>(items.size());
+        int chunkSize = bulkProperties.getChunkSize();
+
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            results.addAll(operation.apply(items.subList(from, Math.min(from + chunkSize, items.size()))));
+        }
+
+        return results;
+    }
+
+    private void evict(List<BulkItemResult> results) {
+        Cache cache = cacheManager.getCache(CacheConfiguration.USERS_CACHE);
+
+        if (cache == null) {
+            return;
+        }
+
+        for (BulkItemResult result : results) {
+            if (result.getId() != null) {
+                cache.evict(result.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.users.management.service;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.users.management.exception.InvalidQueryParameterException;
+import com.users.management.model.User;
+import com.users.management.model.UserChangeEvent;
+import com.users.management.util.ChangeEvents;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.stereotype.Service;
+
+@Service
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "users.changes", name = "enabled", havingValue = "true")
+public class UserChangeFeed {
+
+    private MessageListenerContainer userChangeListenerContainer;
+
+    private String collectionName;
+
+    @Autowired
+    public UserChangeFeed(MessageListenerContainer userChangeListenerContainer, MongoTemplate mongoTemplate) {
+        this.userChangeListenerContainer = userChangeListenerContainer;
+        this.collectionName = mongoTemplate.getCollectionName(User.class);
+    }
+
+    public Subscription subscribe(UserChangeListener listener) {
+        return register(null, listener);
+    }
+
+    public Subscription subscribe(String resumeToken, UserChangeListener listener) throws InvalidQueryParameterException {
+        return register(ChangeEvents.decodeToken(resumeToken), listener);
+    }
+
+    private Subscription register(BsonValue resumeToken, UserChangeListener listener) {
+        ChangeStreamRequest.ChangeStreamRequestBuilder<User> request = ChangeStreamRequest
+                .builder((Message<ChangeStreamDocument<Document>, User> message) -> {
+                    UserChangeEvent event = ChangeEvents.toEvent(message.getRaw(), message.getBody());
+
+                    if (event != null) {
+                        listener.onChange(event);
+                    }
+                })
+                .collection(collectionName)
+                .filter(ChangeEvents.USER_MUTATIONS)
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP);
+
+        if (resumeToken != null) {
+            request.resumeToken(resumeToken);
+        }
+
+        return userChangeListenerContainer.register(request.build(), User.class, listener::onError);
+    }
+}
@@ -0,0 +1,11 @@
+package com.users.management.service;
+
+import com.users.management.model.UserChangeEvent;
+
+public interface UserChangeListener {
+
+    void onChange(UserChangeEvent event);
+
+    default void onError(Throwable error) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.users.management.service;
+
+import com.users.management.repository.UserRepository;
+import com.users.management.util.EmailAddresses;
+import com.users.management.util.EmailBloomFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Service
+@Profile("!reactive")
+public class UserEmailRegistry {
+
+    private UserRepository userRepository;
+
+    private EmailBloomFilter emailBloomFilter;
+
+    private volatile boolean warm;
+
+    // Users whose address could not be backfilled because a case variant of it is taken, reported by UserEmailHealthIndicator.
+    private volatile Long backfillConflicts;
+
+    private volatile String backfillFailure;
+
+    private volatile String warmUpFailure;
+
+    @Autowired
+    public UserEmailRegistry(UserRepository userRepository, EmailBloomFilter emailBloomFilter) {
+        this.userRepository = userRepository;
+        this.emailBloomFilter = emailBloomFilter;
+    }
+
+    // The backfill and the filter load read the whole collection, so they run in the background rather than hold up the
+    // ready event. Until the filter is warm every address is looked up in Mongo, which is correct, only slower.
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmUp() {
+        Thread warmer = new Thread(this::warmUp, "user-email-warm-up");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+
+    public void warmUp() {
+        try {
+            // Users stored before addresses were normalized are not covered by the normalized index until this runs.
+            backfillConflicts = userRepository.backfillNormalizedEmailAddresses();
+            backfillFailure = null;
+        } catch (DataAccessException e) {
+            // Retried at the next start, until then those users are only found by their exact address.
+            backfillFailure = e.getMostSpecificCause().getMessage();
+        }
+
+        try (Stream<String> emailAddresses = userRepository.streamEmailAddresses()) {
+            emailAddresses.forEach(this::register);
+            warm = true;
+            warmUpFailure = null;
+        } catch (DataAccessException e) {
+            // Until the filter is warm every email is looked up, so a failed warm-up only costs speed.
+            warmUpFailure = e.getMostSpecificCause().getMessage();
+        }
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    public Optional<Long> getBackfillConflicts() {
+        return Optional.ofNullable(backfillConflicts);
+    }
+
+    public Optional<String> getBackfillFailure() {
+        return Optional.ofNullable(backfillFailure);
+    }
+
+    public Optional<String> getWarmUpFailure() {
+        return Optional.ofNullable(warmUpFailure);
+    }
+
+    public void register(String emailAddress) {
+        if (emailAddress != null) {
+            emailBloomFilter.put(EmailAddresses.normalize(emailAddress));
+        }
+    }
+
+    public boolean isTaken(String emailAddress) {
+        return mightBeTaken(emailAddress) && userRepository.findOneByNormalizedEmailAddress(EmailAddresses.normalize(emailAddress)).isPresent();
+    }
+
+    // Returns the taken addresses in normalized form.
+    public Set<String> findTaken(Collection<String> emailAddresses) {
+        List<String> candidates = new ArrayList<>();
+
+        for (String emailAddress : emailAddresses) {
+            if (mightBeTaken(emailAddress)) {
+                candidates.add(emailAddress);
+            }
+        }
+
+        return candidates.isEmpty() ? Collections.emptySet() : userRepository.findExistingEmailAddresses(candidates);
+    }
+
+    private boolean mightBeTaken(String emailAddress) {
+        return emailAddress != null && (!warm || emailBloomFilter.mightContain(EmailAddresses.normalize(emailAddress)));
+    }
+}
@@ -1,48 +1,123 @@
 package com.users.management.service;
 
+import com.users.management.configuration.CacheConfiguration;
+import com.users.management.exception.DuplicateEmailException;
 import com.users.management.exception.UserDoesNotExistException;
+import com.users.management.exception.UserVersionMismatchException;
 import com.users.management.model.User;
+import com.users.management.model.UserQuery;
 import com.users.management.repository.UserRepository;
+import com.users.management.util.DuplicateKeys;
+import com.users.management.util.EmailAddresses;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
+@Profile("!reactive")
+@CacheConfig(cacheNames = CacheConfiguration.USERS_CACHE)
 public class UserService {
 
     private UserRepository userRepository;
 
+    private UserEmailRegistry userEmailRegistry;
+
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserEmailRegistry userEmailRegistry) {
         this.userRepository = userRepository;
+        this.userEmailRegistry = userEmailRegistry;
     }
 
-    public User createUser(User user) {
-        return userRepository.save(user);
+    @CachePut(key = "#result.id")
+    public User createUser(User user) throws DuplicateEmailException {
+        if (userEmailRegistry.isTaken(user.getEmailAddress())) {
+            throw duplicateEmail();
+        }
+
+        User createdUser = userRepository.save(user);
+
+        userEmailRegistry.register(createdUser.getEmailAddress());
+
+        return createdUser;
     }
 
+    @Cacheable(key = "#id")
     public User fetchUserById(String id) throws UserDoesNotExistException {
         return userRepository.findById(id)
-                .orElseThrow(() -> new UserDoesNotExistException(String.format("The user with id '%s' does not exist", id)));
+                .orElseThrow(() -> userDoesNotExist(id));
+    }
+
+    public User fetchUserById(String id, Set<String> fields) throws UserDoesNotExistException {
+        return userRepository.findProjectedById(id, fields)
+                .orElseThrow(() -> userDoesNotExist(id));
+    }
+
+    public User fetchUserByEmailAddress(String emailAddress) throws UserDoesNotExistException {
+        // Read from the primary like fetchUserById, since the version is handed out as the ETag for the next edit.
+        return userRepository.findOneByNormalizedEmailAddress(EmailAddresses.normalize(emailAddress))
+                .orElseThrow(() -> new UserDoesNotExistException(String.format("The user with email address '%s' does not exist", emailAddress)));
+    }
+
+    public List<User> fetchUsers(UserQuery query) {
+        return userRepository.findUsers(query);
     }
 
-    public List<User> fetchAllUsers() {
-        return userRepository.findAll();
+    public Stream<User> streamUsers(UserQuery query) {
+        return userRepository.streamUsers(query);
     }
 
+    public Stream<User> streamAllUsers() {
+        return userRepository.streamAllByOrderByIdAsc();
+    }
+
+    @CachePut(key = "#id")
     public User editUser(String id, User updatedUser) throws UserDoesNotExistException {
-        User existingUser = fetchUserById(id);
+        User editedUser = userRepository.updateById(id, null, updatedUser)
+                .orElseThrow(() -> userDoesNotExist(id));
+
+        userEmailRegistry.register(editedUser.getEmailAddress());
+
+        return editedUser;
+    }
 
-        updatedUser.setId(existingUser.getId());
+    @CachePut(key = "#id")
+    public User editUser(String id, Long expectedVersion, User updatedUser) throws UserDoesNotExistException, UserVersionMismatchException {
+        Optional<User> editedUser = userRepository.updateById(id, expectedVersion, updatedUser);
 
-        return userRepository.save(updatedUser);
+        if (editedUser.isPresent()) {
+            userEmailRegistry.register(editedUser.get().getEmailAddress());
+
+            return editedUser.get();
+        }
+
+        if (expectedVersion != null && userRepository.existsById(id)) {
+            throw new UserVersionMismatchException(String.format("The user with id '%s' is not at version %d", id, expectedVersion));
+        }
+
+        throw userDoesNotExist(id);
     }
 
+    @CacheEvict(key = "#id")
     public void deleteUser(String id) throws UserDoesNotExistException {
-        User user = fetchUserById(id);
+        if (userRepository.removeById(id) == 0) {
+            throw userDoesNotExist(id);
+        }
+    }
 
-        userRepository.delete(user);
+    private static DuplicateEmailException duplicateEmail() {
+        return new DuplicateEmailException(DuplicateKeys.uniqueViolationMessage(DuplicateKeys.EMAIL_ADDRESS_INDEX));
     }
 
+    private static UserDoesNotExistException userDoesNotExist(String id) {
+        return new UserDoesNotExistException(String.format("The user with id '%s' does not exist", id));
+    }
 }
@@ -0,0 +1,259 @@
+package com.users.management.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.users.management.configuration.CacheConfiguration;
+import com.users.management.configuration.WriteBehindProperties;
+import com.users.management.exception.DuplicateEmailException;
+import com.users.management.exception.WriteQueueFullException;
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.PendingUser;
+import com.users.management.model.User;
+import com.users.management.util.DuplicateKeys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+@Profile("!reactive")
+public class UserWriteBehindQueue {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private UserBulkService userBulkService;
+
+    private UserEmailRegistry userEmailRegistry;
+
+    private CacheManager cacheManager;
+
+    private WriteBehindProperties writeBehindProperties;
+
+    private BlockingQueue<PendingUser> queue;
+
+    // Finished writes are kept for a while so that clients can poll for the outcome.
+    private Map<String, PendingUser> pendingUsers;
+
+    private Timer flushTimer;
+
+    private DistributionSummary batchSizeSummary;
+
+    private Counter rejectedCounter;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    // Guards stopping and the offers to the queue, so that no user is accepted after the writer has drained it.
+    private Object enqueueLock = new Object();
+
+    private boolean stopping;
+
+    @Autowired
+    public UserWriteBehindQueue(UserBulkService userBulkService, UserEmailRegistry userEmailRegistry, CacheManager cacheManager,
+                                WriteBehindProperties writeBehindProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this(userBulkService, userEmailRegistry, cacheManager, writeBehindProperties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    public UserWriteBehindQueue(UserBulkService userBulkService, UserEmailRegistry userEmailRegistry, CacheManager cacheManager,
+                                WriteBehindProperties writeBehindProperties, MeterRegistry meterRegistry) {
+        this.userBulkService = userBulkService;
+        this.userEmailRegistry = userEmailRegistry;
+        this.cacheManager = cacheManager;
+        this.writeBehindProperties = writeBehindProperties;
+        this.queue = new ArrayBlockingQueue<>(writeBehindProperties.getQueueCapacity());
+        this.pendingUsers = Caffeine.newBuilder()
+                .expireAfterWrite(writeBehindProperties.getResultRetention().toNanos(), TimeUnit.NANOSECONDS)
+                .<String, PendingUser>build()
+                .asMap();
+
+        Gauge.builder("users.write-behind.queue.size", queue, BlockingQueue::size)
+                .description("Users waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("users.write-behind.flush")
+                .description("Time to write one batch of queued users")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("users.write-behind.batch.size")
+                .description("Users written per batch")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("users.write-behind.rejected")
+                .description("Users rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!writeBehindProperties.isEnabled()) {
+            return;
+        }
+
+        running = true;
+        writer = new Thread(this::writeQueuedUsers, "user-write-behind");
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // The server keeps taking requests while beans are destroyed, those are turned away from here on.
+        synchronized (enqueueLock) {
+            stopping = true;
+            running = false;
+        }
+
+        // The writer drains the queue before it exits, so accepted users are not lost on a clean shutdown.
+        if (writer != null) {
+            writer.join();
+        }
+    }
+
+    public boolean isEnabled() {
+        return writeBehindProperties.isEnabled();
+    }
+
+    public PendingUser enqueue(User user) throws DuplicateEmailException, WriteQueueFullException {
+        if (userEmailRegistry.isTaken(user.getEmailAddress())) {
+            throw new DuplicateEmailException(DuplicateKeys.uniqueViolationMessage(DuplicateKeys.EMAIL_ADDRESS_INDEX));
+        }
+
+        // The id is assigned up front so that the caller can be told where to look for the user.
+        user.setId(ObjectId.get().toHexString());
+
+        PendingUser pendingUser = new PendingUser(user);
+
+        synchronized (enqueueLock) {
+            if (stopping) {
+                throw new WriteQueueFullException("The write queue is shutting down");
+            }
+
+            if (!queue.offer(pendingUser)) {
+                rejectedCounter.increment();
+                throw new WriteQueueFullException(String.format("The write queue is full with %d users", writeBehindProperties.getQueueCapacity()));
+            }
+
+            pendingUsers.put(user.getId(), pendingUser);
+        }
+
+        return pendingUser;
+    }
+
+    public Optional<PendingUser> findPendingUser(String id) {
+        return Optional.ofNullable(pendingUsers.get(id));
+    }
+
+    public Optional<BulkItemResult> awaitResult(PendingUser pendingUser) {
+        try {
+            return Optional.of(pendingUser.getResult().get(writeBehindProperties.getAckTimeout().toNanos(), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            return Optional.of(new BulkItemResult(pendingUser.getUser().getId(), BulkItemResult.Status.FAILED, e.getCause().getMessage()));
+        }
+    }
+
+    private void writeQueuedUsers() {
+        List<PendingUser> batch = new ArrayList<>(writeBehindProperties.getBatchSize());
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingUser first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                fillBatch(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void fillBatch(List<PendingUser> batch) throws InterruptedException {
+        int batchSize = writeBehindProperties.getBatchSize();
+        long deadline = System.nanoTime() + writeBehindProperties.getMaxBatchDelay().toNanos();
+
+        // Waiting a few milliseconds for more users trades a little latency for much larger inserts during bursts.
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+
+            long remainingNanos = deadline - System.nanoTime();
+
+            if (batch.size() >= batchSize || remainingNanos <= 0) {
+                return;
+            }
+
+            PendingUser next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+
+            if (next == null) {
+                return;
+            }
+
+            batch.add(next);
+        }
+    }
+
+    void flush(List<PendingUser> batch) {
+        List<User> users = new ArrayList<>(batch.size());
+
+        for (PendingUser pendingUser : batch) {
+            users.add(pendingUser.getUser());
+        }
+
+        long start = System.nanoTime();
+        List<BulkItemResult> results;
+
+        try {
+            results = userBulkService.createUsers(users);
+        } catch (RuntimeException e) {
+            results = new ArrayList<>(batch.size());
+
+            for (User user : users) {
+                results.add(new BulkItemResult(user.getId(), BulkItemResult.Status.FAILED, e.getMessage()));
+            }
+        }
+
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizeSummary.record(batch.size());
+
+        Cache cache = cacheManager.getCache(CacheConfiguration.USERS_CACHE);
+
+        for (int i = 0; i < batch.size(); i++) {
+            User user = batch.get(i).getUser();
+            BulkItemResult result = results.get(i);
+
+            if (result.getStatus() == BulkItemResult.Status.CREATED && cache != null) {
+                cache.put(user.getId(), user);
+            }
+
+            batch.get(i).getResult().complete(new BulkItemResult(user.getId(), result.getStatus(), result.getMessage()));
+        }
+    }
+}
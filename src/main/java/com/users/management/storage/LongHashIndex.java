@@ -0,0 +1,178 @@
+package com.users.management.storage;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+// Open addressing table from 64-bit key hashes to record addresses, 16 bytes per slot and no object per entry.
+// Different keys can share a hash, so every lookup takes a predicate that checks the key stored at a candidate address.
+// Not thread-safe, OffHeapUserStore guards it with its lock.
+public class LongHashIndex {
+
+    public static final long NOT_FOUND = -1;
+
+    private static final long REMOVED = -2;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] hashes;
+
+    private long[] addresses;
+
+    private int size;
+
+    // Live and removed slots, removed ones still lengthen probe sequences until the next rehash.
+    private int occupied;
+
+    public LongHashIndex(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long get(long hash, LongPredicate isKey) {
+        int mask = addresses.length - 1;
+
+        for (int slot = slotOf(hash, mask); ; slot = (slot + 1) & mask) {
+            long address = addresses[slot];
+
+            if (address == NOT_FOUND) {
+                return NOT_FOUND;
+            }
+
+            if (address != REMOVED && hashes[slot] == hash && isKey.test(address)) {
+                return address;
+            }
+        }
+    }
+
+    // Returns the address that was replaced, or NOT_FOUND when the key is new.
+    public long put(long hash, long address, LongPredicate isKey) {
+        if (address < 0) {
+            throw new IllegalArgumentException(String.format("Invalid record address %d", address));
+        }
+
+        int mask = addresses.length - 1;
+        int firstRemoved = -1;
+
+        for (int slot = slotOf(hash, mask); ; slot = (slot + 1) & mask) {
+            long current = addresses[slot];
+
+            if (current == NOT_FOUND) {
+                if (firstRemoved < 0) {
+                    occupied++;
+                } else {
+                    slot = firstRemoved;
+                }
+
+                hashes[slot] = hash;
+                addresses[slot] = address;
+                size++;
+
+                if (occupied > addresses.length / 4 * 3) {
+                    rehash(capacityFor(size));
+                }
+
+                return NOT_FOUND;
+            }
+
+            if (current == REMOVED) {
+                if (firstRemoved < 0) {
+                    firstRemoved = slot;
+                }
+            } else if (hashes[slot] == hash && isKey.test(current)) {
+                addresses[slot] = address;
+
+                return current;
+            }
+        }
+    }
+
+    public long remove(long hash, LongPredicate isKey) {
+        int mask = addresses.length - 1;
+
+        for (int slot = slotOf(hash, mask); ; slot = (slot + 1) & mask) {
+            long current = addresses[slot];
+
+            if (current == NOT_FOUND) {
+                return NOT_FOUND;
+            }
+
+            if (current != REMOVED && hashes[slot] == hash && isKey.test(current)) {
+                addresses[slot] = REMOVED;
+                size--;
+
+                return current;
+            }
+        }
+    }
+
+    public long[] addresses() {
+        long[] live = new long[size];
+        int count = 0;
+
+        for (long address : addresses) {
+            if (address >= 0) {
+                live[count++] = address;
+            }
+        }
+
+        return live;
+    }
+
+    public void clear() {
+        Arrays.fill(addresses, NOT_FOUND);
+        size = 0;
+        occupied = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldHashes = hashes;
+        long[] oldAddresses = addresses;
+
+        allocate(capacity);
+
+        int mask = capacity - 1;
+
+        // Every key is already unique, so entries go into the first free slot without comparing keys.
+        for (int i = 0; i < oldAddresses.length; i++) {
+            if (oldAddresses[i] >= 0) {
+                int slot = slotOf(oldHashes[i], mask);
+
+                while (addresses[slot] != NOT_FOUND) {
+                    slot = (slot + 1) & mask;
+                }
+
+                hashes[slot] = oldHashes[i];
+                addresses[slot] = oldAddresses[i];
+                size++;
+                occupied++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        hashes = new long[capacity];
+        addresses = new long[capacity];
+        size = 0;
+        occupied = 0;
+
+        Arrays.fill(addresses, NOT_FOUND);
+    }
+
+    private static int capacityFor(int entries) {
+        // Half full after a rehash, so that a burst of inserts does not trigger another one right away.
+        long wanted = Math.max(16L, (long) entries * 2);
+
+        if (wanted > MAX_CAPACITY) {
+            throw new IllegalStateException(String.format("Cannot index more than %d records", MAX_CAPACITY / 4 * 3));
+        }
+
+        return Integer.highestOneBit((int) wanted - 1) << 1;
+    }
+
+    private static int slotOf(long hash, int mask) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,556 @@
+package com.users.management.storage;
+
+import com.users.management.model.User;
+import com.users.management.util.DuplicateKeys;
+import com.users.management.util.EmailAddresses;
+import com.users.management.util.Hashing;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Users live as binary records in direct memory slabs, outside the Java heap. Two primitive hash indexes map ids and
+// normalized email addresses to record addresses. Every change is appended to a memory-mapped log before it is applied, and the
+// log is folded into a snapshot once it grows past snapshotThreshold.
+//
+// Records are never changed in place. An edit appends a new record and the old one becomes garbage, which compaction
+// copies away once it outweighs the live records. Streams therefore read a consistent set of records without holding the lock.
+public class OffHeapUserStore implements Closeable {
+
+    private static final String SNAPSHOT_FILE = "users.snapshot";
+
+    private static final String SNAPSHOT_TEMP_FILE = "users.snapshot.tmp";
+
+    private static final String LOG_PREFIX = "users-";
+
+    private static final String LOG_SUFFIX = ".log";
+
+    private Path directory;
+
+    private int slabSize;
+
+    private long logSegmentSize;
+
+    private long snapshotThreshold;
+
+    private boolean syncWrites;
+
+    private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Replaced, never mutated, when a slab is added, so that a stream keeps the array it started with.
+    private ByteBuffer[] slabs = new ByteBuffer[0];
+
+    private int writeOffset;
+
+    private LongHashIndex idIndex = new LongHashIndex(1024);
+
+    private LongHashIndex emailAddressIndex = new LongHashIndex(1024);
+
+    private long liveBytes;
+
+    private long garbageBytes;
+
+    private long generation;
+
+    private UserStoreLog log;
+
+    public OffHeapUserStore(Path directory, int slabSize, long logSegmentSize, long snapshotThreshold, boolean syncWrites) throws IOException {
+        if (slabSize < 1024 || logSegmentSize < 1024 || logSegmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("Invalid slab size %d or log segment size %d", slabSize, logSegmentSize));
+        }
+
+        this.directory = directory;
+        this.slabSize = slabSize;
+        this.logSegmentSize = logSegmentSize;
+        this.snapshotThreshold = snapshotThreshold;
+        this.syncWrites = syncWrites;
+
+        recover();
+    }
+
+    public Optional<User> findById(String id) {
+        byte[] idBytes = UserRecords.utf8(id);
+        long hash = Hashing.hash64(id);
+
+        lock.readLock().lock();
+
+        try {
+            long address = idIndex.get(hash, candidate -> idAt(candidate, idBytes));
+
+            return address == LongHashIndex.NOT_FOUND ? Optional.empty() : Optional.of(decode(slabs, address));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean existsById(String id) {
+        byte[] idBytes = UserRecords.utf8(id);
+        long hash = Hashing.hash64(id);
+
+        lock.readLock().lock();
+
+        try {
+            return idIndex.get(hash, candidate -> idAt(candidate, idBytes)) != LongHashIndex.NOT_FOUND;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<User> findByEmailAddress(String emailAddress) {
+        lock.readLock().lock();
+
+        try {
+            long address = findEmailAddress(emailAddress);
+
+            return address == LongHashIndex.NOT_FOUND ? Optional.empty() : Optional.of(decode(slabs, address));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean containsEmailAddress(String emailAddress) {
+        lock.readLock().lock();
+
+        try {
+            return findEmailAddress(emailAddress) != LongHashIndex.NOT_FOUND;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+
+        try {
+            return idIndex.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Atomically replaces the user with the given id by whatever update returns for the current user, or for null when
+    // there is none. Returning null leaves the store unchanged. Throws DuplicateKeyException when the new email address
+    // belongs to another user.
+    public User compute(String id, UnaryOperator<User> update) {
+        byte[] idBytes = UserRecords.utf8(id);
+        long hash = Hashing.hash64(id);
+
+        lock.writeLock().lock();
+
+        try {
+            long address = idIndex.get(hash, candidate -> idAt(candidate, idBytes));
+            User updated = update.apply(address == LongHashIndex.NOT_FOUND ? null : decode(slabs, address));
+
+            if (updated == null) {
+                return null;
+            }
+
+            if (!id.equals(updated.getId())) {
+                throw new IllegalArgumentException(String.format("Cannot store user '%s' under id '%s'", updated.getId(), id));
+            }
+
+            long emailAddressOwner = findEmailAddress(updated.getEmailAddress());
+
+            if (emailAddressOwner != LongHashIndex.NOT_FOUND && emailAddressOwner != address) {
+                throw new DuplicateKeyException(DuplicateKeys.duplicateKeyMessage(DuplicateKeys.EMAIL_ADDRESS_INDEX));
+            }
+
+            ByteBuffer record = ByteBuffer.wrap(UserRecords.encode(updated));
+
+            if (Integer.BYTES + record.capacity() > slabSize) {
+                throw new IllegalArgumentException(String.format("User '%s' does not fit into a slab of %d bytes", id, slabSize));
+            }
+
+            appendToLog(UserStoreLog.PUT, record);
+            index(allocate(record, 0, record.capacity()));
+            maintain();
+
+            return updated;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(String id) {
+        return remove(id, null);
+    }
+
+    // Removes the user with the given id only if condition holds for it.
+    public boolean remove(String id, Predicate<User> condition) {
+        byte[] idBytes = UserRecords.utf8(id);
+        long hash = Hashing.hash64(id);
+
+        lock.writeLock().lock();
+
+        try {
+            long address = idIndex.get(hash, candidate -> idAt(candidate, idBytes));
+
+            if (address == LongHashIndex.NOT_FOUND || (condition != null && !condition.test(decode(slabs, address)))) {
+                return false;
+            }
+
+            appendToLog(UserStoreLog.DELETE, ByteBuffer.wrap(idBytes));
+            retire(idIndex.remove(hash, candidate -> idAt(candidate, idBytes)));
+            maintain();
+
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // In no particular order.
+    public Stream<User> stream() {
+        long[] addresses;
+        ByteBuffer[] records;
+
+        lock.readLock().lock();
+
+        try {
+            addresses = idIndex.addresses();
+            records = slabs;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return Arrays.stream(addresses).mapToObj(address -> decode(records, address));
+    }
+
+    public Stream<User> streamOrderedById() {
+        return streamOrderedById(null, true);
+    }
+
+    // Users with ids after afterId (all when null) in id order. Ids are compared as raw bytes and kept in a heap that is
+    // drained as the stream is consumed, so a page of n users decodes n users and orders only what it takes.
+    public Stream<User> streamOrderedById(String afterId, boolean ascending) {
+        long[] addresses;
+        ByteBuffer[] records;
+
+        lock.readLock().lock();
+
+        try {
+            addresses = idIndex.addresses();
+            records = slabs;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        byte[] after = UserRecords.utf8(afterId);
+        List<RecordId> ids = new ArrayList<>(addresses.length);
+
+        for (long address : addresses) {
+            byte[] id = UserRecords.idBytes(slabOf(records, address), recordStart(address));
+            int comparison = after == null ? 1 : UserRecords.compareUtf8(id, after);
+
+            if (ascending ? comparison > 0 : comparison < 0) {
+                ids.add(new RecordId(id, address, ascending));
+            }
+        }
+
+        // Built from a list the queue is heapified in linear time, adding ids one by one would sift each of them up.
+        PriorityQueue<RecordId> pending = new PriorityQueue<>(ids);
+
+        Iterator<User> users = new Iterator<User>() {
+
+            @Override
+            public boolean hasNext() {
+                return !pending.isEmpty();
+            }
+
+            @Override
+            public User next() {
+                return decode(records, pending.poll().address);
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliterator(users, pending.size(), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    public void snapshot() throws IOException {
+        lock.writeLock().lock();
+
+        try {
+            long nextGeneration = generation + 1;
+            Path temp = directory.resolve(SNAPSHOT_TEMP_FILE);
+
+            UserStoreLog.deleteQuietly(temp);
+
+            try (UserStoreLog snapshot = UserStoreLog.create(temp, nextGeneration, logSegmentSize, false)) {
+                for (long address : idIndex.addresses()) {
+                    ByteBuffer slab = slabOf(slabs, address);
+
+                    snapshot.append(UserStoreLog.PUT, slab, recordStart(address), slab.getInt(offsetOf(address)));
+                }
+            }
+
+            UserStoreLog nextLog = UserStoreLog.create(logFile(nextGeneration), nextGeneration, logSegmentSize, syncWrites);
+
+            // The rename is the commit point, before it a restart replays the old snapshot and log, after it the new ones.
+            Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            UserStoreLog previousLog = log;
+
+            log = nextLog;
+            generation = nextGeneration;
+            previousLog.close();
+            UserStoreLog.deleteQuietly(previousLog.file());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long liveBytes() {
+        return liveBytes;
+    }
+
+    public long garbageBytes() {
+        return garbageBytes;
+    }
+
+    public long logBytes() {
+        return log.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+
+        try {
+            // A snapshot makes the next start read only live records instead of replaying every change.
+            if (log.size() > UserStoreLog.HEADER_SIZE) {
+                snapshot();
+            }
+
+            log.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        UserStoreLog.deleteQuietly(directory.resolve(SNAPSHOT_TEMP_FILE));
+
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+
+        if (Files.exists(snapshot)) {
+            generation = UserStoreLog.generation(snapshot);
+            UserStoreLog.replay(snapshot, this::apply);
+        }
+
+        deleteStaleLogs();
+
+        Path logFile = logFile(generation);
+
+        if (Files.exists(logFile)) {
+            log = UserStoreLog.append(logFile, UserStoreLog.replay(logFile, this::apply), logSegmentSize, syncWrites);
+        } else {
+            log = UserStoreLog.create(logFile, generation, logSegmentSize, syncWrites);
+        }
+
+        compactIfWasteful();
+    }
+
+    private void apply(byte type, ByteBuffer buffer, int start, int length) {
+        if (type == UserStoreLog.PUT) {
+            index(allocate(buffer, start, length));
+        } else if (type == UserStoreLog.DELETE) {
+            ByteBuffer id = buffer.duplicate();
+            id.limit(start + length).position(start);
+
+            String deletedId = StandardCharsets.UTF_8.decode(id).toString();
+            byte[] idBytes = UserRecords.utf8(deletedId);
+
+            retire(idIndex.remove(Hashing.hash64(deletedId), candidate -> idAt(candidate, idBytes)));
+        }
+    }
+
+    private void deleteStaleLogs() throws IOException {
+        try (DirectoryStream<Path> logs = Files.newDirectoryStream(directory, LOG_PREFIX + "*" + LOG_SUFFIX)) {
+            for (Path file : logs) {
+                if (!file.equals(logFile(generation))) {
+                    UserStoreLog.deleteQuietly(file);
+                }
+            }
+        }
+    }
+
+    private void appendToLog(byte type, ByteBuffer payload) {
+        try {
+            log.append(type, payload, 0, payload.capacity());
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Could not append to %s", log.file()), e);
+        }
+    }
+
+    private void maintain() {
+        compactIfWasteful();
+
+        if (log.size() > snapshotThreshold) {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format("Could not snapshot %s", directory), e);
+            }
+        }
+    }
+
+    private long allocate(ByteBuffer source, int start, int length) {
+        int size = Integer.BYTES + length;
+
+        if (slabs.length == 0 || writeOffset + size > slabSize) {
+            ByteBuffer[] grown = Arrays.copyOf(slabs, slabs.length + 1);
+            grown[slabs.length] = ByteBuffer.allocateDirect(slabSize);
+            slabs = grown;
+            writeOffset = 0;
+        }
+
+        ByteBuffer slab = slabs[slabs.length - 1].duplicate();
+        ByteBuffer record = source.duplicate();
+        record.limit(start + length).position(start);
+
+        slab.position(writeOffset);
+        slab.putInt(length);
+        slab.put(record);
+
+        long address = ((long) (slabs.length - 1) << 32) | writeOffset;
+
+        writeOffset += size;
+        liveBytes += size;
+
+        return address;
+    }
+
+    // Points the indexes at a freshly allocated record, retiring the record it replaces.
+    private void index(long address) {
+        ByteBuffer slab = slabOf(slabs, address);
+        String id = UserRecords.id(slab, recordStart(address));
+        byte[] idBytes = UserRecords.utf8(id);
+
+        retire(idIndex.put(Hashing.hash64(id), address, candidate -> idAt(candidate, idBytes)));
+
+        String emailAddress = UserRecords.emailAddress(slab, recordStart(address));
+
+        if (emailAddress != null) {
+            emailAddressIndex.put(Hashing.hash64(EmailAddresses.normalize(emailAddress)), address, candidate -> false);
+        }
+    }
+
+    // Drops the email address entry of a replaced or removed record and counts it as garbage.
+    private void retire(long address) {
+        if (address == LongHashIndex.NOT_FOUND) {
+            return;
+        }
+
+        String emailAddress = UserRecords.emailAddress(slabOf(slabs, address), recordStart(address));
+
+        if (emailAddress != null) {
+            emailAddressIndex.remove(Hashing.hash64(EmailAddresses.normalize(emailAddress)), candidate -> candidate == address);
+        }
+
+        int size = Integer.BYTES + slabOf(slabs, address).getInt(offsetOf(address));
+
+        liveBytes -= size;
+        garbageBytes += size;
+    }
+
+    private void compactIfWasteful() {
+        if (garbageBytes <= liveBytes || garbageBytes < slabSize) {
+            return;
+        }
+
+        long[] addresses = idIndex.addresses();
+        ByteBuffer[] oldSlabs = slabs;
+
+        slabs = new ByteBuffer[0];
+        writeOffset = 0;
+        liveBytes = 0;
+        garbageBytes = 0;
+        idIndex = new LongHashIndex(addresses.length);
+        emailAddressIndex = new LongHashIndex(addresses.length);
+
+        // Old slabs stay reachable from running streams and are freed by the garbage collector once those finish.
+        for (long address : addresses) {
+            ByteBuffer slab = slabOf(oldSlabs, address);
+
+            index(allocate(slab, recordStart(address), slab.getInt(offsetOf(address))));
+        }
+    }
+
+    private long findEmailAddress(String emailAddress) {
+        if (emailAddress == null) {
+            return LongHashIndex.NOT_FOUND;
+        }
+
+        String normalizedEmailAddress = EmailAddresses.normalize(emailAddress);
+
+        return emailAddressIndex.get(Hashing.hash64(normalizedEmailAddress), candidate ->
+                normalizedEmailAddress.equals(EmailAddresses.normalize(UserRecords.emailAddress(slabOf(slabs, candidate), recordStart(candidate)))));
+    }
+
+    private boolean idAt(long address, byte[] id) {
+        return UserRecords.idEquals(slabOf(slabs, address), recordStart(address), id);
+    }
+
+    private Path logFile(long logGeneration) {
+        return directory.resolve(LOG_PREFIX + logGeneration + LOG_SUFFIX);
+    }
+
+    private static User decode(ByteBuffer[] records, long address) {
+        return UserRecords.decode(slabOf(records, address), recordStart(address));
+    }
+
+    private static ByteBuffer slabOf(ByteBuffer[] records, long address) {
+        return records[(int) (address >>> 32)];
+    }
+
+    private static int offsetOf(long address) {
+        return (int) address;
+    }
+
+    private static int recordStart(long address) {
+        return offsetOf(address) + Integer.BYTES;
+    }
+
+    private static final class RecordId implements Comparable<RecordId> {
+
+        private byte[] id;
+
+        private long address;
+
+        private boolean ascending;
+
+        private RecordId(byte[] id, long address, boolean ascending) {
+            this.id = id;
+            this.address = address;
+            this.ascending = ascending;
+        }
+
+        @Override
+        public int compareTo(RecordId other) {
+            int comparison = UserRecords.compareUtf8(id, other.id);
+
+            return ascending ? comparison : -comparison;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.users.management.storage;
+
+import com.users.management.model.User;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+// Binary layout of a user, shared by the memory slabs, the log and the snapshot:
+// version (long), dateOfBirth as epoch day (long), then id, emailAddress, firstName and lastName,
+// each as a byte length (int, -1 for null) followed by UTF-8. id and emailAddress come first so index checks stop early.
+final class UserRecords {
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private static final int NULL_LENGTH = -1;
+
+    static final int ID_OFFSET = 2 * Long.BYTES;
+
+    private UserRecords() {
+    }
+
+    static byte[] encode(User user) {
+        byte[] id = utf8(user.getId());
+        byte[] emailAddress = utf8(user.getEmailAddress());
+        byte[] firstName = utf8(user.getFirstName());
+        byte[] lastName = utf8(user.getLastName());
+
+        ByteBuffer buffer = ByteBuffer.allocate(ID_OFFSET + encodedLength(id) + encodedLength(emailAddress)
+                + encodedLength(firstName) + encodedLength(lastName));
+
+        buffer.putLong(user.getVersion() == null ? NULL_LONG : user.getVersion());
+        buffer.putLong(user.getDateOfBirth() == null ? NULL_LONG : user.getDateOfBirth().toEpochDay());
+        putString(buffer, id);
+        putString(buffer, emailAddress);
+        putString(buffer, firstName);
+        putString(buffer, lastName);
+
+        return buffer.array();
+    }
+
+    // Records are read with absolute offsets, the buffer's position and limit are left alone.
+    static User decode(ByteBuffer buffer, int start) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(start);
+
+        User user = new User();
+        long version = record.getLong();
+        long epochDay = record.getLong();
+
+        user.setVersion(version == NULL_LONG ? null : version);
+        user.setDateOfBirth(epochDay == NULL_LONG ? null : LocalDate.ofEpochDay(epochDay));
+        user.setId(getString(record));
+        user.setEmailAddress(getString(record));
+        user.setFirstName(getString(record));
+        user.setLastName(getString(record));
+
+        return user;
+    }
+
+    static boolean idEquals(ByteBuffer buffer, int start, byte[] id) {
+        return stringEquals(buffer, start + ID_OFFSET, id);
+    }
+
+    static String id(ByteBuffer buffer, int start) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(start + ID_OFFSET);
+
+        return getString(record);
+    }
+
+    static byte[] idBytes(ByteBuffer buffer, int start) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(start + ID_OFFSET);
+
+        byte[] id = new byte[Math.max(0, record.getInt())];
+        record.get(id);
+
+        return id;
+    }
+
+    // Orders UTF-8 strings by their bytes, which is code point order and how Mongo compares strings.
+    static int compareUtf8(byte[] left, byte[] right) {
+        int length = Math.min(left.length, right.length);
+
+        for (int i = 0; i < length; i++) {
+            int comparison = Integer.compare(left[i] & 0xff, right[i] & 0xff);
+
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+
+        return Integer.compare(left.length, right.length);
+    }
+
+    static String emailAddress(ByteBuffer buffer, int start) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(start + ID_OFFSET);
+        record.position(record.position() + Integer.BYTES + Math.max(0, record.getInt(record.position())));
+
+        return getString(record);
+    }
+
+    static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean stringEquals(ByteBuffer buffer, int position, byte[] expected) {
+        int length = buffer.getInt(position);
+
+        if (expected == null || length != expected.length) {
+            return expected == null && length == NULL_LENGTH;
+        }
+
+        int start = position + Integer.BYTES;
+
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != expected[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int encodedLength(byte[] value) {
+        return Integer.BYTES + (value == null ? 0 : value.length);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(NULL_LENGTH);
+        } else {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+
+        byte[] value = new byte[length];
+        buffer.get(value);
+
+        // new String(value, UTF_8) sets up a decoder on every call on Java 8, and most fields are plain ASCII.
+        char[] ascii = new char[length];
+
+        for (int i = 0; i < length; i++) {
+            if (value[i] < 0) {
+                return new String(value, StandardCharsets.UTF_8);
+            }
+
+            ascii[i] = (char) value[i];
+        }
+
+        return new String(ascii);
+    }
+}
@@ -0,0 +1,207 @@
+package com.users.management.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// An append-only file of entries written through a memory mapping. Each entry is
+// payload length (int), type (byte), CRC32 of type and payload (int), payload.
+// The file starts with a magic number and a generation. Snapshots use the same format with only PUT entries.
+class UserStoreLog implements Closeable {
+
+    static final byte PUT = 1;
+
+    static final byte DELETE = 2;
+
+    private static final int MAGIC = 0x55534552;
+
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    private static final int ENTRY_HEADER_SIZE = Integer.BYTES + 1 + Integer.BYTES;
+
+    private static final long READ_CHUNK_SIZE = 256L * 1024 * 1024;
+
+    interface EntryVisitor {
+
+        void visit(byte type, ByteBuffer buffer, int start, int length);
+    }
+
+    private Path file;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer mapped;
+
+    private long mappedStart;
+
+    private long position;
+
+    private long segmentSize;
+
+    private boolean syncWrites;
+
+    private CRC32 crc = new CRC32();
+
+    private UserStoreLog(Path file, FileChannel channel, long position, long segmentSize, boolean syncWrites) {
+        this.file = file;
+        this.channel = channel;
+        this.position = position;
+        this.segmentSize = segmentSize;
+        this.syncWrites = syncWrites;
+    }
+
+    static UserStoreLog create(Path file, long generation, long segmentSize, boolean syncWrites) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putLong(generation);
+
+        header.flip();
+        channel.write(header, 0);
+
+        return new UserStoreLog(file, channel, HEADER_SIZE, segmentSize, syncWrites);
+    }
+
+    // Continues a log after its last valid entry, dropping whatever a crash left behind it.
+    static UserStoreLog append(Path file, long validLength, long segmentSize, boolean syncWrites) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        channel.truncate(validLength);
+
+        return new UserStoreLog(file, channel, validLength, segmentSize, syncWrites);
+    }
+
+    static long generation(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException(String.format("%s is not a user store file", file));
+            }
+
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+
+            if (header.getInt() != MAGIC) {
+                throw new IOException(String.format("%s is not a user store file", file));
+            }
+
+            return header.getLong();
+        }
+    }
+
+    // Visits every complete entry and returns the length of the file up to the last one.
+    // Reading stops at the first zero length, truncated entry or checksum mismatch, which is where a crash cut the file.
+    static long replay(Path file, EntryVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = HEADER_SIZE;
+            CRC32 crc = new CRC32();
+
+            while (position + ENTRY_HEADER_SIZE <= size) {
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(READ_CHUNK_SIZE, size - position));
+                int offset = 0;
+
+                while (offset + ENTRY_HEADER_SIZE <= chunk.limit()) {
+                    int length = chunk.getInt(offset);
+                    int start = offset + ENTRY_HEADER_SIZE;
+
+                    if (length <= 0 || position + start + length > size) {
+                        return position + offset;
+                    }
+
+                    if (start + length > chunk.limit()) {
+                        // The entry continues past this chunk, map the next one from its start.
+                        break;
+                    }
+
+                    byte type = chunk.get(offset + Integer.BYTES);
+
+                    if (checksum(crc, type, chunk, start, length) != chunk.getInt(offset + Integer.BYTES + 1)) {
+                        return position + offset;
+                    }
+
+                    visitor.visit(type, chunk, start, length);
+                    offset = start + length;
+                }
+
+                if (offset == 0) {
+                    return position;
+                }
+
+                position += offset;
+            }
+
+            return position;
+        }
+    }
+
+    long size() {
+        return position;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    void append(byte type, ByteBuffer buffer, int start, int length) throws IOException {
+        int entrySize = ENTRY_HEADER_SIZE + length;
+
+        if (mapped == null || position + entrySize > mappedStart + mapped.capacity()) {
+            // Mapping past the end of the file grows it, entries never span two mappings.
+            mappedStart = position;
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(segmentSize, entrySize));
+        }
+
+        int offset = (int) (position - mappedStart);
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(start + length).position(start);
+
+        mapped.position(offset + ENTRY_HEADER_SIZE);
+        mapped.put(payload);
+        mapped.put(offset + Integer.BYTES, type);
+        mapped.putInt(offset + Integer.BYTES + 1, checksum(crc, type, buffer, start, length));
+        // The length goes in last, so a reader never sees a length in front of a half-written entry.
+        mapped.putInt(offset, length);
+
+        position += entrySize;
+
+        if (syncWrites) {
+            mapped.force();
+        }
+    }
+
+    void force() {
+        if (mapped != null) {
+            mapped.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        // Mapping a segment grew the file past its last entry, a closed file needs no room to grow.
+        channel.truncate(position);
+        channel.close();
+    }
+
+    static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // A stale file is ignored at the next start, it only costs disk space.
+        }
+    }
+
+    private static int checksum(CRC32 crc, byte type, ByteBuffer buffer, int start, int length) {
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(start + length).position(start);
+
+        crc.reset();
+        crc.update(type);
+        crc.update(payload);
+
+        return (int) crc.getValue();
+    }
+}
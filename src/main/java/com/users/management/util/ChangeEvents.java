@@ -0,0 +1,74 @@
+package com.users.management.util;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.users.management.exception.InvalidQueryParameterException;
+import com.users.management.model.User;
+import com.users.management.model.UserChangeEvent;
+import org.bson.BSONException;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.json.JsonParseException;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public final class ChangeEvents {
+
+    public static final Aggregation USER_MUTATIONS = newAggregation(
+            match(where("operationType").in("insert", "update", "replace", "delete")));
+
+    private ChangeEvents() {
+    }
+
+    public static UserChangeEvent toEvent(ChangeStreamDocument<Document> change, User user) {
+        UserChangeEvent.Operation operation = operationOf(change);
+
+        if (operation == null) {
+            return null;
+        }
+
+        return new UserChangeEvent(operation, idOf(change.getDocumentKey().get("_id")), operation == UserChangeEvent.Operation.DELETE ? null : user,
+                encodeToken(change.getResumeToken()));
+    }
+
+    public static String encodeToken(BsonDocument resumeToken) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(resumeToken.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BsonValue decodeToken(String token) throws InvalidQueryParameterException {
+        if (token == null) {
+            return null;
+        }
+
+        try {
+            return BsonDocument.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | JsonParseException | BSONException e) {
+            throw new InvalidQueryParameterException(String.format("The resume token '%s' is not valid", token));
+        }
+    }
+
+    private static String idOf(BsonValue id) {
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    private static UserChangeEvent.Operation operationOf(ChangeStreamDocument<Document> change) {
+        switch (change.getOperationType()) {
+            case INSERT:
+                return UserChangeEvent.Operation.CREATE;
+            case UPDATE:
+            case REPLACE:
+                return UserChangeEvent.Operation.UPDATE;
+            case DELETE:
+                return UserChangeEvent.Operation.DELETE;
+            default:
+                return null;
+        }
+    }
+}
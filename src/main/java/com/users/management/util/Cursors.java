@@ -0,0 +1,85 @@
+package com.users.management.util;
+
+import com.users.management.exception.InvalidQueryParameterException;
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public final class Cursors {
+
+    private static final char SEPARATOR = '\n';
+
+    private Cursors() {
+    }
+
+    public static String encode(UserQuery query, User last) {
+        if (isDefaultOrder(query)) {
+            return encode(last.getId());
+        }
+
+        return encode(sortOf(query) + SEPARATOR + query.getSortField().format(last) + SEPARATOR + last.getId());
+    }
+
+    public static void decodeInto(String cursor, UserQuery query) throws InvalidQueryParameterException {
+        String payload = decode(cursor);
+
+        if (isDefaultOrder(query)) {
+            query.setAfterId(requireObjectId(payload, cursor));
+            return;
+        }
+
+        int valueStart = payload.indexOf(SEPARATOR);
+        int idStart = payload.lastIndexOf(SEPARATOR);
+
+        if (valueStart < 0 || valueStart == idStart || !payload.substring(0, valueStart).equals(sortOf(query))) {
+            throw invalidCursor(cursor);
+        }
+
+        try {
+            query.setAfterValue(query.getSortField().parse(payload.substring(valueStart + 1, idStart)));
+        } catch (DateTimeParseException e) {
+            throw invalidCursor(cursor);
+        }
+
+        query.setAfterId(requireObjectId(payload.substring(idStart + 1), cursor));
+    }
+
+    public static String sortOf(UserQuery query) {
+        String property = query.getSortField().getProperty();
+
+        return query.getDirection() == Sort.Direction.DESC ? "-" + property : property;
+    }
+
+    private static boolean isDefaultOrder(UserQuery query) {
+        return query.getSortField() == UserQuery.SortField.ID && query.getDirection() == Sort.Direction.ASC;
+    }
+
+    private static String encode(String payload) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) throws InvalidQueryParameterException {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalidCursor(cursor);
+        }
+    }
+
+    private static String requireObjectId(String id, String cursor) throws InvalidQueryParameterException {
+        if (!ObjectId.isValid(id)) {
+            throw invalidCursor(cursor);
+        }
+
+        return id;
+    }
+
+    private static InvalidQueryParameterException invalidCursor(String cursor) {
+        return new InvalidQueryParameterException(String.format("The cursor '%s' is not valid", cursor));
+    }
+}
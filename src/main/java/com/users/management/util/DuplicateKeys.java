@@ -0,0 +1,43 @@
+package com.users.management.util;
+
+public final class DuplicateKeys {
+
+    public static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
+    public static final String EMAIL_ADDRESS_INDEX = "emailAddress";
+
+    public static final String NORMALIZED_EMAIL_ADDRESS_INDEX = "normalizedEmailAddress";
+
+    public static final String DUPLICATE_EMAIL_CODE = "DUPLICATE_EMAIL";
+
+    public static final String DUPLICATE_KEY_CODE = "DUPLICATE_KEY";
+
+    private static final String INDEX_PREFIX = "index: ";
+
+    private static final String INDEX_SUFFIX = " dup";
+
+    private DuplicateKeys() {
+    }
+
+    public static String indexName(String mongoMessage) {
+        int start = mongoMessage.indexOf(INDEX_PREFIX);
+        int end = start < 0 ? -1 : mongoMessage.indexOf(INDEX_SUFFIX, start + INDEX_PREFIX.length());
+        String indexName = end < 0 ? "key" : mongoMessage.substring(start + INDEX_PREFIX.length(), end);
+
+        // A case variant of a taken address trips the normalized index, clients see it as a duplicate emailAddress.
+        return NORMALIZED_EMAIL_ADDRESS_INDEX.equals(indexName) ? EMAIL_ADDRESS_INDEX : indexName;
+    }
+
+    // Same shape as the Mongo server message, so that indexName() reads it back.
+    public static String duplicateKeyMessage(String indexName) {
+        return String.format("E%d duplicate key error index: %s dup key", DUPLICATE_KEY_ERROR_CODE, indexName);
+    }
+
+    public static String uniqueViolationMessage(String indexName) {
+        return String.format("%s must be unique", indexName);
+    }
+
+    public static String errorCode(String indexName) {
+        return EMAIL_ADDRESS_INDEX.equals(indexName) ? DUPLICATE_EMAIL_CODE : DUPLICATE_KEY_CODE;
+    }
+}
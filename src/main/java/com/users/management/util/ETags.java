@@ -0,0 +1,59 @@
+package com.users.management.util;
+
+import com.users.management.model.User;
+
+import java.util.List;
+
+public final class ETags {
+
+    public static final long UNMATCHABLE_VERSION = -1L;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ETags() {
+    }
+
+    public static String of(User user) {
+        return "\"" + versionOf(user) + "\"";
+    }
+
+    public static String of(List<User> users) {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (User user : users) {
+            String id = user.getId();
+
+            for (int i = 0; i < id.length(); i++) {
+                hash = (hash ^ id.charAt(i)) * FNV_PRIME;
+            }
+
+            hash = (hash ^ versionOf(user)) * FNV_PRIME;
+        }
+
+        return "\"" + Long.toHexString(hash) + "\"";
+    }
+
+    public static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+
+        String etag = ifMatch.trim();
+
+        if (etag.length() < 3 || etag.charAt(0) != '"' || etag.charAt(etag.length() - 1) != '"') {
+            return UNMATCHABLE_VERSION;
+        }
+
+        try {
+            return Long.parseLong(etag.substring(1, etag.length() - 1));
+        } catch (NumberFormatException e) {
+            return UNMATCHABLE_VERSION;
+        }
+    }
+
+    private static long versionOf(User user) {
+        return user.getVersion() == null ? 0L : user.getVersion();
+    }
+}
@@ -0,0 +1,14 @@
+package com.users.management.util;
+
+import java.util.Locale;
+
+public final class EmailAddresses {
+
+    private EmailAddresses() {
+    }
+
+    // The form email addresses are compared and indexed in, so that " Jane@Example.com" and "jane@example.com" are one address.
+    public static String normalize(String emailAddress) {
+        return emailAddress == null ? null : emailAddress.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,62 @@
+package com.users.management.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class EmailBloomFilter {
+
+    private AtomicLongArray bits;
+
+    private long bitCount;
+
+    private int hashCount;
+
+    public EmailBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException(String.format("Cannot size a bloom filter for %d emails at a false positive rate of %s",
+                    expectedInsertions, falsePositiveRate));
+        }
+
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) >>> 6);
+
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String email) {
+        long hash = Hashing.hash64(email);
+        int low = (int) hash;
+        int high = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = bitIndex(low + i * high);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (current, update) -> current | update);
+            }
+        }
+    }
+
+    public boolean mightContain(String email) {
+        long hash = Hashing.hash64(email);
+        int low = (int) hash;
+        int high = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = bitIndex(low + i * high);
+
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private long bitIndex(int combinedHash) {
+        return (combinedHash & 0xffffffffL) % bitCount;
+    }
+}
@@ -1,13 +1,24 @@
 package com.users.management.util;
 
 import com.users.management.dto.ErrorDTO;
+import com.users.management.exception.DuplicateEmailException;
+import com.users.management.exception.InvalidQueryParameterException;
+import com.users.management.exception.TooManySubscriptionsException;
 import com.users.management.exception.UserDoesNotExistException;
+import com.users.management.exception.UserVersionMismatchException;
+import com.users.management.exception.WriteQueueFullException;
+import com.users.management.validation.ValidationErrors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.validation.FieldError;
-import org.springframework.validation.ObjectError;
+import org.springframework.validation.BindException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -16,16 +27,57 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @RestControllerAdvice
+@Profile("!reactive")
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
+    public static final String WRITE_QUEUE_FULL_CODE = "WRITE_QUEUE_FULL";
+
+    public static final String TOO_MANY_SUBSCRIPTIONS_CODE = "TOO_MANY_SUBSCRIPTIONS";
+
+    private Counter userDoesNotExistCounter;
+
+    private Counter duplicateKeyCounter;
+
+    private Counter duplicateEmailCounter;
+
+    private Counter writeQueueFullCounter;
+
+    private Counter tooManySubscriptionsCounter;
+
+    @Autowired
+    public GlobalExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.userDoesNotExistCounter = errorCounter(meterRegistry, UserDoesNotExistException.class);
+        this.duplicateKeyCounter = errorCounter(meterRegistry, DuplicateKeyException.class);
+        this.duplicateEmailCounter = errorCounter(meterRegistry, DuplicateEmailException.class);
+        this.writeQueueFullCounter = errorCounter(meterRegistry, WriteQueueFullException.class);
+        this.tooManySubscriptionsCounter = errorCounter(meterRegistry, TooManySubscriptionsException.class);
+    }
+
     @ExceptionHandler(UserDoesNotExistException.class)
     @ResponseBody
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorDTO userDoesNotExist(UserDoesNotExistException exception) {
+        userDoesNotExistCounter.increment();
+
+        return new ErrorDTO(exception.getMessage());
+    }
+
+    @ExceptionHandler(InvalidQueryParameterException.class)
+    @ResponseBody
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorDTO invalidQueryParameter(InvalidQueryParameterException exception) {
+        return new ErrorDTO(exception.getMessage());
+    }
+
+    @ExceptionHandler(UserVersionMismatchException.class)
+    @ResponseBody
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ErrorDTO userVersionMismatch(UserVersionMismatchException exception) {
         return new ErrorDTO(exception.getMessage());
     }
 
@@ -33,9 +85,38 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     @ResponseBody
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorDTO duplicateKey(DuplicateKeyException exception) {
-        String indexName = exception.getMessage().split("(.*index: )|( dup.*)")[1];
+        duplicateKeyCounter.increment();
+
+        String indexName = DuplicateKeys.indexName(exception.getMessage());
+
+        return new ErrorDTO(DuplicateKeys.errorCode(indexName), DuplicateKeys.uniqueViolationMessage(indexName));
+    }
+
+    @ExceptionHandler(DuplicateEmailException.class)
+    @ResponseBody
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorDTO duplicateEmail(DuplicateEmailException exception) {
+        duplicateEmailCounter.increment();
+
+        return new ErrorDTO(DuplicateKeys.DUPLICATE_EMAIL_CODE, exception.getMessage());
+    }
+
+    @ExceptionHandler(WriteQueueFullException.class)
+    public ResponseEntity<ErrorDTO> writeQueueFull(WriteQueueFullException exception) {
+        writeQueueFullCounter.increment();
 
-        return new ErrorDTO(String.format("%s must be unique", indexName));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorDTO(WRITE_QUEUE_FULL_CODE, exception.getMessage()));
+    }
+
+    @ExceptionHandler(TooManySubscriptionsException.class)
+    public ResponseEntity<ErrorDTO> tooManySubscriptions(TooManySubscriptionsException exception) {
+        tooManySubscriptionsCounter.increment();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorDTO(TOO_MANY_SUBSCRIPTIONS_CODE, exception.getMessage()));
     }
 
     @Override
@@ -44,16 +125,22 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             HttpHeaders headers,
             HttpStatus status,
             WebRequest request) {
-        List<ErrorDTO> errors = new ArrayList<>();
-
-        for (FieldError error : ex.getBindingResult().getFieldErrors()) {
-            errors.add(new ErrorDTO(String.format("%s, %s", error.getField(), error.getDefaultMessage())));
-        }
+        return new ResponseEntity<>(ValidationErrors.toErrors(ex.getBindingResult()), HttpStatus.BAD_REQUEST);
+    }
 
-        for (ObjectError error : ex.getBindingResult().getGlobalErrors()) {
-            errors.add(new ErrorDTO(String.format("%s, %s", error.getObjectName(), error.getDefaultMessage())));
-        }
+    @Override
+    protected ResponseEntity<Object> handleBindException(
+            BindException ex,
+            HttpHeaders headers,
+            HttpStatus status,
+            WebRequest request) {
+        return new ResponseEntity<>(ValidationErrors.toErrors(ex.getBindingResult()), HttpStatus.BAD_REQUEST);
+    }
 
-        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+    private static Counter errorCounter(MeterRegistry meterRegistry, Class<? extends Exception> exception) {
+        return Counter.builder("users.errors")
+                .description("Requests rejected by the exception handler")
+                .tag("exception", exception.getSimpleName())
+                .register(meterRegistry);
     }
 }
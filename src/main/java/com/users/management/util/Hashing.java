@@ -0,0 +1,43 @@
+package com.users.management.util;
+
+public final class Hashing {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Hashing() {
+    }
+
+    public static long hash64(String value) {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+
+        // FNV alone leaves the high bits poorly mixed for short keys, so finish with the murmur3 avalanche step.
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    // Lamping and Veach's jump consistent hash. Keys spread evenly over the buckets and when buckets are added at the end,
+    // the only keys that change their bucket are those that move into the new ones.
+    public static int jumpConsistentHash(long key, int buckets) {
+        long bucket = -1;
+        long next = 0;
+
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+
+        return (int) bucket;
+    }
+}
@@ -0,0 +1,63 @@
+package com.users.management.util;
+
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public final class MongoSettings {
+
+    private MongoSettings() {
+    }
+
+    public static WriteConcern writeConcern(String name, Duration timeout) {
+        WriteConcern writeConcern = WriteConcern.valueOf(name);
+
+        if (writeConcern == null) {
+            throw new IllegalArgumentException(String.format("Unknown write concern '%s'", name));
+        }
+
+        // A timeout only makes sense while waiting for acknowledgements.
+        if (timeout != null && writeConcern.isAcknowledged()) {
+            writeConcern = writeConcern.withWTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        return writeConcern;
+    }
+
+    public static ReadPreference readPreference(String name, Duration maxStaleness) {
+        if (maxStaleness == null) {
+            return ReadPreference.valueOf(name);
+        }
+
+        return ReadPreference.valueOf(name, Collections.emptyList(), maxStaleness.getSeconds(), TimeUnit.SECONDS);
+    }
+
+    public static List<MongoCompressor> compressors(List<String> names) {
+        List<MongoCompressor> compressors = new ArrayList<>(names.size());
+
+        for (String name : names) {
+            switch (name.toLowerCase()) {
+                case "zlib":
+                    compressors.add(MongoCompressor.createZlibCompressor());
+                    break;
+                case "snappy":
+                    compressors.add(MongoCompressor.createSnappyCompressor());
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("Unknown compressor '%s', expected zlib or snappy", name));
+            }
+        }
+
+        return compressors;
+    }
+
+    public static int millis(Duration duration) {
+        return (int) Math.min(Integer.MAX_VALUE, duration.toMillis());
+    }
+}
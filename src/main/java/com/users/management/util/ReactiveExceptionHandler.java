@@ -0,0 +1,102 @@
+package com.users.management.util;
+
+import com.users.management.dto.ErrorDTO;
+import com.users.management.exception.DuplicateEmailException;
+import com.users.management.exception.InvalidQueryParameterException;
+import com.users.management.exception.UserDoesNotExistException;
+import com.users.management.exception.UserVersionMismatchException;
+import com.users.management.validation.ValidationErrors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.List;
+
+@RestControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+
+    private Counter userDoesNotExistCounter;
+
+    private Counter duplicateKeyCounter;
+
+    private Counter duplicateEmailCounter;
+
+    @Autowired
+    public ReactiveExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    public ReactiveExceptionHandler(MeterRegistry meterRegistry) {
+        this.userDoesNotExistCounter = errorCounter(meterRegistry, UserDoesNotExistException.class);
+        this.duplicateKeyCounter = errorCounter(meterRegistry, DuplicateKeyException.class);
+        this.duplicateEmailCounter = errorCounter(meterRegistry, DuplicateEmailException.class);
+    }
+
+    @ExceptionHandler(UserDoesNotExistException.class)
+    @ResponseBody
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorDTO userDoesNotExist(UserDoesNotExistException exception) {
+        userDoesNotExistCounter.increment();
+
+        return new ErrorDTO(exception.getMessage());
+    }
+
+    @ExceptionHandler(InvalidQueryParameterException.class)
+    @ResponseBody
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorDTO invalidQueryParameter(InvalidQueryParameterException exception) {
+        return new ErrorDTO(exception.getMessage());
+    }
+
+    @ExceptionHandler(UserVersionMismatchException.class)
+    @ResponseBody
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ErrorDTO userVersionMismatch(UserVersionMismatchException exception) {
+        return new ErrorDTO(exception.getMessage());
+    }
+
+    @ExceptionHandler(DuplicateKeyException.class)
+    @ResponseBody
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorDTO duplicateKey(DuplicateKeyException exception) {
+        duplicateKeyCounter.increment();
+
+        String indexName = DuplicateKeys.indexName(exception.getMessage());
+
+        return new ErrorDTO(DuplicateKeys.errorCode(indexName), DuplicateKeys.uniqueViolationMessage(indexName));
+    }
+
+    @ExceptionHandler(DuplicateEmailException.class)
+    @ResponseBody
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorDTO duplicateEmail(DuplicateEmailException exception) {
+        duplicateEmailCounter.increment();
+
+        return new ErrorDTO(DuplicateKeys.DUPLICATE_EMAIL_CODE, exception.getMessage());
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseBody
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public List<ErrorDTO> bindingFailed(WebExchangeBindException exception) {
+        return ValidationErrors.toErrors(exception.getBindingResult());
+    }
+
+    private static Counter errorCounter(MeterRegistry meterRegistry, Class<? extends Exception> exception) {
+        return Counter.builder("users.errors")
+                .description("Requests rejected by the exception handler")
+                .tag("exception", exception.getSimpleName())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,75 @@
+package com.users.management.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class RequestExecutors {
+
+    // Looked up reflectively so that the build can stay on Java 8 and still use virtual threads on Java 21.
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutorFactory();
+
+    private RequestExecutors() {
+    }
+
+    public static boolean virtualThreadsAvailable() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    public static ExecutorService virtual() {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR == null) {
+            throw new IllegalStateException(String.format("Virtual threads need Java 21 or later, running on %s",
+                    System.getProperty("java.version")));
+        }
+
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+
+    public static ExecutorService bounded(int maxThreads, int queueCapacity, Duration keepAlive) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, keepAlive.toNanos(), TimeUnit.NANOSECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new NamedThreadFactory("user-request-"));
+
+        // Idle threads are released, a burst starts new ones up to maxThreads before anything is queued.
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    private static Method findVirtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        private NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
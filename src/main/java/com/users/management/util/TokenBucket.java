@@ -0,0 +1,41 @@
+package com.users.management.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenBucket {
+
+    private long nanosPerToken;
+
+    private long burstNanos;
+
+    // The time at which the bucket is full again, so a single CAS is enough to take a token.
+    private AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(long capacity, double refillPerSecond) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException(String.format("Cannot create a token bucket of %d tokens refilled at %s per second",
+                    capacity, refillPerSecond));
+        }
+
+        this.nanosPerToken = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+        this.burstNanos = capacity * nanosPerToken;
+    }
+
+    // Returns 0 when a token was taken, otherwise how many nanoseconds until one is available.
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + nanosPerToken;
+            long overdraft = next - nowNanos - burstNanos;
+
+            if (overdraft > 0) {
+                return overdraft;
+            }
+
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
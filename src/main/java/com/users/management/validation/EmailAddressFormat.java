@@ -0,0 +1,83 @@
+package com.users.management.validation;
+
+import java.net.IDN;
+import java.util.regex.Pattern;
+
+// The rules of Hibernate Validator's @Email check (6.0), compiled once: the address is split at its last '@', the local
+// part may have at most 64 characters and the domain at most 255 once converted to ASCII.
+final class EmailAddressFormat {
+
+    private static final int MAX_LOCAL_PART_LENGTH = 64;
+
+    private static final int MAX_DOMAIN_PART_LENGTH = 255;
+
+    private static final String LOCAL_PART_ATOM = "[a-z0-9!#$%&'*+/=?^_`{|}~\u0080-\uffff-]";
+
+    private static final String LOCAL_PART_INSIDE_QUOTES_ATOM =
+            "([a-z0-9!#$%&'*.(),<>\\[\\]:;  @+/=?^_`{|}~\u0080-\uffff-]|\\\\\\\\|\\\\\\\")";
+
+    private static final String LOCAL_PART_WORD =
+            "(" + LOCAL_PART_ATOM + "+|\"" + LOCAL_PART_INSIDE_QUOTES_ATOM + "+\")";
+
+    private static final Pattern LOCAL_PART_PATTERN =
+            Pattern.compile(LOCAL_PART_WORD + "(\\." + LOCAL_PART_WORD + ")*", Pattern.CASE_INSENSITIVE);
+
+    private static final String DOMAIN_CHARS_WITHOUT_DASH = "[a-z\u0080-\uffff0-9!#$%&'*+/=?^_`{|}~]";
+
+    private static final String DOMAIN_LABEL = "(" + DOMAIN_CHARS_WITHOUT_DASH + "-*)*" + DOMAIN_CHARS_WITHOUT_DASH + "+";
+
+    private static final String DOMAIN = DOMAIN_LABEL + "+(\\." + DOMAIN_LABEL + "+)*";
+
+    private static final String IP_DOMAIN = "[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}";
+
+    private static final String IP_V6_DOMAIN = "(([0-9a-fA-F]{1,4}:){7,7}[0-9a-fA-F]{1,4}"
+            + "|([0-9a-fA-F]{1,4}:){1,7}:"
+            + "|([0-9a-fA-F]{1,4}:){1,6}:[0-9a-fA-F]{1,4}"
+            + "|([0-9a-fA-F]{1,4}:){1,5}(:[0-9a-fA-F]{1,4}){1,2}"
+            + "|([0-9a-fA-F]{1,4}:){1,4}(:[0-9a-fA-F]{1,4}){1,3}"
+            + "|([0-9a-fA-F]{1,4}:){1,3}(:[0-9a-fA-F]{1,4}){1,4}"
+            + "|([0-9a-fA-F]{1,4}:){1,2}(:[0-9a-fA-F]{1,4}){1,5}"
+            + "|[0-9a-fA-F]{1,4}:((:[0-9a-fA-F]{1,4}){1,6})"
+            + "|:((:[0-9a-fA-F]{1,4}){1,7}|:)"
+            + "|fe80:(:[0-9a-fA-F]{0,4}){0,4}%[0-9a-zA-Z]{1,}"
+            + "|::(ffff(:0{1,4}){0,1}:){0,1}((25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9])\\.){3,3}(25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9])"
+            + "|([0-9a-fA-F]{1,4}:){1,4}:((25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9])\\.){3,3}(25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9]))";
+
+    private static final Pattern DOMAIN_PATTERN = Pattern.compile(
+            DOMAIN + "|\\[" + IP_DOMAIN + "\\]|\\[IPv6:" + IP_V6_DOMAIN + "\\]", Pattern.CASE_INSENSITIVE);
+
+    private EmailAddressFormat() {
+    }
+
+    // Like @Email, an empty address is left to @NotBlank.
+    static boolean isWellFormed(String emailAddress) {
+        if (emailAddress.isEmpty()) {
+            return true;
+        }
+
+        int at = emailAddress.lastIndexOf('@');
+
+        if (at < 0) {
+            return false;
+        }
+
+        String localPart = emailAddress.substring(0, at);
+        String domainPart = emailAddress.substring(at + 1);
+
+        return localPart.length() <= MAX_LOCAL_PART_LENGTH
+                && LOCAL_PART_PATTERN.matcher(localPart).matches()
+                && isWellFormedDomain(domainPart);
+    }
+
+    private static boolean isWellFormedDomain(String domainPart) {
+        if (domainPart.endsWith(".") || !DOMAIN_PATTERN.matcher(domainPart).matches()) {
+            return false;
+        }
+
+        try {
+            return IDN.toASCII(domainPart).length() <= MAX_DOMAIN_PART_LENGTH;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
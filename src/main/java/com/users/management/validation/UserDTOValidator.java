@@ -0,0 +1,144 @@
+package com.users.management.validation;
+
+import com.users.management.dto.ErrorDTO;
+import com.users.management.dto.UserDTO;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class UserDTOValidator implements Validator {
+
+    enum Violation {
+        FIRST_NAME_BLANK("firstName", "NotBlank", "must not be blank"),
+        LAST_NAME_BLANK("lastName", "NotBlank", "must not be blank"),
+        EMAIL_ADDRESS_BLANK("emailAddress", "NotBlank", "must not be blank"),
+        EMAIL_ADDRESS_MALFORMED("emailAddress", "Email", "must be a well-formed email address"),
+        DATE_OF_BIRTH_NULL("dateOfBirth", "NotNull", "must not be null"),
+        DATE_OF_BIRTH_NOT_PAST("dateOfBirth", "Past", "must be a past date");
+
+        private static final Violation[] VIOLATIONS = values();
+
+        private String field;
+
+        private String code;
+
+        private String message;
+
+        private String error;
+
+        Violation(String field, String code, String message) {
+            this.field = field;
+            this.code = code;
+            this.message = message;
+            this.error = field + ", " + message;
+        }
+
+        String getError() {
+            return error;
+        }
+
+        // Returns null for errors that were not raised by this validator.
+        static Violation of(String field, String code) {
+            for (Violation violation : VIOLATIONS) {
+                if (violation.field.equals(field) && violation.code.equals(code)) {
+                    return violation;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    private Clock clock;
+
+    public UserDTOValidator() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public UserDTOValidator(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return UserDTO.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        for (Violation violation : violationsOf((UserDTO) target)) {
+            errors.rejectValue(violation.field, violation.code, violation.message);
+        }
+    }
+
+    public List<ErrorDTO> validate(UserDTO userDTO) {
+        List<Violation> violations = violationsOf(userDTO);
+
+        if (violations.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<ErrorDTO> errors = new ArrayList<>(violations.size());
+
+        for (Violation violation : violations) {
+            errors.add(new ErrorDTO(violation.error));
+        }
+
+        return errors;
+    }
+
+    List<Violation> violationsOf(UserDTO userDTO) {
+        List<Violation> violations = Collections.emptyList();
+
+        if (isBlank(userDTO.getFirstName())) {
+            violations = add(violations, Violation.FIRST_NAME_BLANK);
+        }
+
+        if (isBlank(userDTO.getLastName())) {
+            violations = add(violations, Violation.LAST_NAME_BLANK);
+        }
+
+        if (isBlank(userDTO.getEmailAddress())) {
+            violations = add(violations, Violation.EMAIL_ADDRESS_BLANK);
+        }
+
+        if (userDTO.getEmailAddress() != null && !EmailAddressFormat.isWellFormed(userDTO.getEmailAddress())) {
+            violations = add(violations, Violation.EMAIL_ADDRESS_MALFORMED);
+        }
+
+        if (userDTO.getDateOfBirth() == null) {
+            violations = add(violations, Violation.DATE_OF_BIRTH_NULL);
+        } else if (!userDTO.getDateOfBirth().isBefore(LocalDate.now(clock))) {
+            violations = add(violations, Violation.DATE_OF_BIRTH_NOT_PAST);
+        }
+
+        return violations;
+    }
+
+    private static List<Violation> add(List<Violation> violations, Violation violation) {
+        List<Violation> added = violations.isEmpty() ? new ArrayList<>(4) : violations;
+
+        added.add(violation);
+
+        return added;
+    }
+
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+package com.users.management.validation;
+
+import com.users.management.dto.ErrorDTO;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Error bodies of rejected request bodies, for both the servlet and the reactive exception handler. Violations found by
+// UserDTOValidator reuse its preformatted messages, only binding failures and other errors are formatted here.
+public final class ValidationErrors {
+
+    private ValidationErrors() {
+    }
+
+    public static List<ErrorDTO> toErrors(BindingResult bindingResult) {
+        List<ErrorDTO> errors = new ArrayList<>(bindingResult.getErrorCount());
+
+        for (FieldError error : bindingResult.getFieldErrors()) {
+            errors.add(toError(error));
+        }
+
+        for (ObjectError error : bindingResult.getGlobalErrors()) {
+            errors.add(new ErrorDTO(String.format("%s, %s", error.getObjectName(), error.getDefaultMessage())));
+        }
+
+        return errors;
+    }
+
+    private static ErrorDTO toError(FieldError error) {
+        if (error.isBindingFailure()) {
+            return new ErrorDTO(String.format("%s, invalid value '%s'", error.getField(), error.getRejectedValue()));
+        }
+
+        UserDTOValidator.Violation violation = UserDTOValidator.Violation.of(error.getField(), error.getCode());
+
+        return violation != null
+                ? new ErrorDTO(violation.getError())
+                : new ErrorDTO(String.format("%s, %s", error.getField(), error.getDefaultMessage()));
+    }
+}
@@ -0,0 +1,234 @@
+package com.users.management.controller;
+
+import com.users.management.dto.UserDTO;
+import com.users.management.exception.DuplicateEmailException;
+import com.users.management.exception.UserDoesNotExistException;
+import com.users.management.exception.UserVersionMismatchException;
+import com.users.management.mapper.UserMapper;
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import com.users.management.service.ReactiveUserService;
+import com.users.management.validation.UserDTOValidator;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+
+@RunWith(SpringRunner.class)
+@WebFluxTest(ReactiveUserController.class)
+@ActiveProfiles("reactive")
+public class ReactiveUserControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveUserService reactiveUserServiceMock;
+
+    @SpyBean
+    private UserMapper userMapperMock;
+
+    @SpyBean
+    private UserDTOValidator userDTOValidatorMock;
+
+    private User user;
+
+    private UserDTO userDTO;
+
+    @Before
+    public void setup() {
+        user = new User();
+        userDTO = new UserDTO();
+
+        user.setId("userId");
+        user.setFirstName("firstName");
+        user.setLastName("lastName");
+        user.setEmailAddress("valid@email.address");
+        user.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        userDTO.setFirstName("firstName");
+        userDTO.setLastName("lastName");
+        userDTO.setEmailAddress("valid@email.address");
+        userDTO.setDateOfBirth(LocalDate.of(2000, 1, 1));
+    }
+
+    @Test
+    public void givenValidUser_whenCreateUser_thenReturnCreatedUser() {
+        given(reactiveUserServiceMock.createUser(any(User.class))).willReturn(Mono.just(user));
+
+        webTestClient.post().uri("/user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .syncBody(userDTO)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueMatches("Location", ".*/user/userId");
+    }
+
+    @Test
+    public void givenUserWithDuplicateEmail_whenCreateUser_thenReturnBadRequest() {
+        given(reactiveUserServiceMock.createUser(any(User.class)))
+                .willReturn(Mono.error(new DuplicateKeyException("index: emailAddress dup")));
+
+        webTestClient.post().uri("/user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .syncBody(userDTO)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("emailAddress must be unique");
+    }
+
+    @Test
+    public void givenUserWithTakenEmail_whenCreateUser_thenReturnDuplicateEmailCode() {
+        given(reactiveUserServiceMock.createUser(any(User.class)))
+                .willReturn(Mono.error(new DuplicateEmailException("emailAddress must be unique")));
+
+        webTestClient.post().uri("/user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .syncBody(userDTO)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("DUPLICATE_EMAIL")
+                .jsonPath("$.message").isEqualTo("emailAddress must be unique");
+    }
+
+    @Test
+    public void givenUserWithInvalidEmailFormat_whenCreateUser_thenReturnBadRequest() {
+        userDTO.setEmailAddress("invalidemailaddress");
+
+        webTestClient.post().uri("/user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .syncBody(userDTO)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$[0].message").isEqualTo("emailAddress, must be a well-formed email address");
+    }
+
+    @Test
+    public void givenExistingUserId_whenFetchUser_thenReturnUser() {
+        given(reactiveUserServiceMock.fetchUserById("userId")).willReturn(Mono.just(user));
+
+        webTestClient.get().uri("/user/userId")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("userId")
+                .jsonPath("$.dateOfBirth").isEqualTo("01-01-2000");
+    }
+
+    @Test
+    public void givenMatchingIfNoneMatch_whenFetchUser_thenReturnNotModified() {
+        user.setVersion(3L);
+
+        given(reactiveUserServiceMock.fetchUserById("userId")).willReturn(Mono.just(user));
+
+        webTestClient.get().uri("/user/userId")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    public void givenStaleIfMatch_whenEditUser_thenReturnPreconditionFailed() {
+        given(reactiveUserServiceMock.editUser(eq("userId"), eq(2L), any(User.class)))
+                .willReturn(Mono.error(new UserVersionMismatchException("")));
+
+        webTestClient.put().uri("/user/userId")
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .syncBody(userDTO)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    public void givenNonExistingUserId_whenFetchUser_thenReturnNotFound() {
+        given(reactiveUserServiceMock.fetchUserById(anyString()))
+                .willReturn(Mono.error(new UserDoesNotExistException("")));
+
+        webTestClient.get().uri("/user/userId")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void whenFetchAllUsers_thenStreamJsonArray() {
+        given(reactiveUserServiceMock.fetchUsers(new UserQuery())).willReturn(Flux.just(user, user));
+
+        webTestClient.get().uri("/user")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].emailAddress").isEqualTo("valid@email.address");
+    }
+
+    @Test
+    public void givenLimit_whenFetchUsersPage_thenReturnPageWithNextCursor() {
+        user.setId("5cb4a8a1e4b0f1a2b3c4d5e6");
+
+        UserQuery query = new UserQuery();
+        query.setLimit(1);
+
+        given(reactiveUserServiceMock.fetchUsers(query)).willReturn(Flux.just(user));
+
+        webTestClient.get().uri("/user?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Next-Cursor", "NWNiNGE4YTFlNGIwZjFhMmIzYzRkNWU2")
+                .expectBody().jsonPath("$[0].id").isEqualTo("5cb4a8a1e4b0f1a2b3c4d5e6");
+    }
+
+    @Test
+    public void givenValidUserAndUserId_whenEditUser_thenReturnUpdatedUser() {
+        given(reactiveUserServiceMock.editUser(anyString(), isNull(), any(User.class))).willReturn(Mono.just(user));
+
+        webTestClient.put().uri("/user/userId")
+                .contentType(MediaType.APPLICATION_JSON)
+                .syncBody(userDTO)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.id").isEqualTo("userId");
+    }
+
+    @Test
+    public void givenNonExistingUserId_whenDeleteUser_thenReturnNotFound() {
+        given(reactiveUserServiceMock.deleteUser("userId")).willReturn(Mono.error(new UserDoesNotExistException("")));
+
+        webTestClient.delete().uri("/user/userId")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void givenExistingUserId_whenDeleteUser_thenReturnNoContent() {
+        given(reactiveUserServiceMock.deleteUser("userId")).willReturn(Mono.empty());
+
+        webTestClient.delete().uri("/user/userId")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+}
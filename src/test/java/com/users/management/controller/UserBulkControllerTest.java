@@ -0,0 +1,145 @@
+package com.users.management.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.users.management.dto.UserDTO;
+import com.users.management.mapper.UserMapper;
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.User;
+import com.users.management.service.UserBulkService;
+import com.users.management.validation.UserDTOValidator;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(UserBulkController.class)
+public class UserBulkControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserBulkService userBulkServiceMock;
+
+    @SpyBean
+    private UserMapper userMapperMock;
+
+    @SpyBean
+    private UserDTOValidator userDTOValidatorMock;
+
+    private ObjectMapper objectMapper;
+
+    private UserDTO userDTO;
+
+    @Before
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        userDTO = new UserDTO();
+
+        userDTO.setFirstName("firstName");
+        userDTO.setLastName("lastName");
+        userDTO.setEmailAddress("valid@email.address");
+        userDTO.setDateOfBirth(LocalDate.of(2000, 1, 1));
+    }
+
+    @Test
+    public void givenEmailAddresses_whenFetchUsersByEmailAddresses_thenReturnFoundUsersByAddress() throws Exception {
+        User user = new User();
+        user.setId("userId");
+        user.setFirstName("firstName");
+        user.setLastName("lastName");
+        user.setEmailAddress("valid@email.address");
+        user.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        given(userBulkServiceMock.fetchUsersByEmailAddresses(Arrays.asList("Valid@Email.Address", "unknown@email.address")))
+                .willReturn(Collections.singletonMap("Valid@Email.Address", user));
+
+        mockMvc.perform(post("/user/by-email")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList("Valid@Email.Address", "unknown@email.address"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['Valid@Email.Address'].id").value("userId"))
+                .andExpect(jsonPath("$['Valid@Email.Address'].emailAddress").value("valid@email.address"))
+                .andExpect(jsonPath("$['unknown@email.address']").doesNotExist());
+    }
+
+    @Test
+    public void givenValidAndInvalidUsers_whenCreateUsers_thenReturnPerItemResults() throws Exception {
+        UserDTO invalidUserDTO = new UserDTO();
+        invalidUserDTO.setFirstName("firstName");
+        invalidUserDTO.setLastName("lastName");
+        invalidUserDTO.setEmailAddress("invalidemailaddress");
+        invalidUserDTO.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        List<BulkItemResult> results = Arrays.asList(
+                new BulkItemResult("userId", BulkItemResult.Status.CREATED, null),
+                new BulkItemResult(null, BulkItemResult.Status.DUPLICATE, "emailAddress must be unique"));
+
+        given(userBulkServiceMock.createUsers(anyList())).willReturn(results);
+
+        mockMvc.perform(post("/user/_bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(userDTO, invalidUserDTO, userDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].id").value("userId"))
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value(400))
+                .andExpect(jsonPath("$[1].errors[0].message").value("emailAddress, must be a well-formed email address"))
+                .andExpect(jsonPath("$[2].index").value(2))
+                .andExpect(jsonPath("$[2].status").value(400))
+                .andExpect(jsonPath("$[2].errors[0].message").value("emailAddress must be unique"));
+    }
+
+    @Test
+    public void givenUsersById_whenEditUsers_thenReturnPerItemResults() throws Exception {
+        User user = new User();
+        user.setId("userId");
+        user.setFirstName("firstName");
+        user.setLastName("lastName");
+        user.setEmailAddress("valid@email.address");
+        user.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        given(userBulkServiceMock.editUsers(Collections.singletonList(user)))
+                .willReturn(Collections.singletonList(new BulkItemResult("userId", BulkItemResult.Status.NOT_FOUND, null)));
+
+        mockMvc.perform(put("/user/_bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Collections.singletonMap("userId", userDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("userId"))
+                .andExpect(jsonPath("$[0].status").value(404));
+    }
+
+    @Test
+    public void givenIds_whenDeleteUsers_thenReturnPerItemResults() throws Exception {
+        given(userBulkServiceMock.deleteUsers(Arrays.asList("id1", "id2"))).willReturn(Arrays.asList(
+                new BulkItemResult("id1", BulkItemResult.Status.DELETED, null),
+                new BulkItemResult("id2", BulkItemResult.Status.NOT_FOUND, null)));
+
+        mockMvc.perform(delete("/user/_bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList("id1", "id2"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(204))
+                .andExpect(jsonPath("$[1].status").value(404));
+    }
+}
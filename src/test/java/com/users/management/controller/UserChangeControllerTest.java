@@ -0,0 +1,135 @@
+package com.users.management.controller;
+
+import com.users.management.configuration.ChangeFeedProperties;
+import com.users.management.exception.InvalidQueryParameterException;
+import com.users.management.mapper.UserMapper;
+import com.users.management.model.User;
+import com.users.management.model.UserChangeEvent;
+import com.users.management.service.UserChangeFeed;
+import com.users.management.service.UserChangeListener;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.servlet.AsyncListener;
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(value = UserChangeController.class, properties = "users.changes.enabled=true")
+@EnableConfigurationProperties(ChangeFeedProperties.class)
+public class UserChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserChangeFeed userChangeFeedMock;
+
+    @SpyBean
+    private UserMapper userMapperMock;
+
+    @Autowired
+    private UserChangeController userChangeController;
+
+    @Autowired
+    private ChangeFeedProperties changeFeedProperties;
+
+    @Test
+    public void givenUserChanges_whenStreamChanges_thenSendServerSentEvents() throws Exception {
+        User user = new User();
+        user.setId("userId");
+        user.setFirstName("firstName");
+        user.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        ArgumentCaptor<UserChangeListener> listener = ArgumentCaptor.forClass(UserChangeListener.class);
+        given(userChangeFeedMock.subscribe(isNull(), listener.capture())).willReturn(mock(Subscription.class));
+
+        MvcResult result = mockMvc.perform(get("/user/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        listener.getValue().onChange(new UserChangeEvent(UserChangeEvent.Operation.UPDATE, "userId", user, "token1"));
+        listener.getValue().onChange(new UserChangeEvent(UserChangeEvent.Operation.DELETE, "userId", null, "token2"));
+
+        assertEquals("id:token1\nevent:update\ndata:{\"id\":\"userId\",\"firstName\":\"firstName\",\"dateOfBirth\":\"01-01-2000\"}\n\n"
+                        + "id:token2\nevent:delete\ndata:{\"id\":\"userId\"}\n\n",
+                result.getResponse().getContentAsString());
+    }
+
+    @Test
+    public void givenLastEventId_whenStreamChanges_thenResumeAfterIt() throws Exception {
+        given(userChangeFeedMock.subscribe(eq("token2"), any(UserChangeListener.class))).willReturn(mock(Subscription.class));
+
+        mockMvc.perform(get("/user/changes?after=token1").header("Last-Event-ID", "token2"))
+                .andExpect(request().asyncStarted());
+
+        verify(userChangeFeedMock).subscribe(eq("token2"), any(UserChangeListener.class));
+    }
+
+    @Test
+    public void givenInvalidResumeToken_whenStreamChanges_thenReturnBadRequest() throws Exception {
+        given(userChangeFeedMock.subscribe(eq("bad"), any(UserChangeListener.class)))
+                .willThrow(new InvalidQueryParameterException("The resume token 'bad' is not valid"));
+
+        mockMvc.perform(get("/user/changes?after=bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("The resume token 'bad' is not valid"));
+    }
+
+    @Test
+    public void givenSubscriptionLimitReached_whenStreamChanges_thenReturnServiceUnavailable() throws Exception {
+        given(userChangeFeedMock.subscribe(isNull(), any(UserChangeListener.class))).willReturn(mock(Subscription.class));
+        changeFeedProperties.setMaxSubscriptions(userChangeController.getSubscriptions() + 1);
+
+        try {
+            mockMvc.perform(get("/user/changes"))
+                    .andExpect(request().asyncStarted());
+
+            mockMvc.perform(get("/user/changes"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.code").value("TOO_MANY_SUBSCRIPTIONS"));
+        } finally {
+            changeFeedProperties.setMaxSubscriptions(100);
+        }
+    }
+
+    @Test
+    public void givenTimedOutStream_whenStreamChanges_thenCancelSubscriptionAndFreeItsSlot() throws Exception {
+        Subscription subscription = mock(Subscription.class);
+        given(userChangeFeedMock.subscribe(isNull(), any(UserChangeListener.class))).willReturn(subscription);
+
+        MvcResult result = mockMvc.perform(get("/user/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        int subscriptions = userChangeController.getSubscriptions();
+
+        for (AsyncListener listener : ((MockAsyncContext) result.getRequest().getAsyncContext()).getListeners()) {
+            listener.onTimeout(null);
+        }
+
+        verify(subscription).cancel();
+        assertEquals(subscriptions - 1, userChangeController.getSubscriptions());
+    }
+}
@@ -1,30 +1,53 @@
 package com.users.management.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.users.management.dto.UserDTO;
+import com.users.management.exception.DuplicateEmailException;
 import com.users.management.exception.UserDoesNotExistException;
+import com.users.management.exception.UserVersionMismatchException;
+import com.users.management.exception.WriteQueueFullException;
+import com.users.management.mapper.UserMapper;
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.PendingUser;
 import com.users.management.model.User;
+import com.users.management.model.UserQuery;
 import com.users.management.service.UserService;
+import com.users.management.service.UserWriteBehindQueue;
+import com.users.management.util.Cursors;
+import com.users.management.validation.UserDTOValidator;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.validation.Errors;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -39,7 +62,13 @@ public class UserControllerTest {
     private UserService userServiceMock;
 
     @SpyBean
-    private ModelMapper modelMapperMock;
+    private UserMapper userMapperMock;
+
+    @SpyBean
+    private UserDTOValidator userDTOValidatorMock;
+
+    @MockBean
+    private UserWriteBehindQueue userWriteBehindQueueMock;
 
     private ObjectMapper objectMapper;
 
@@ -73,8 +102,75 @@ public class UserControllerTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(userDTO)))
                 .andExpect(status().isCreated())
-                .andExpect(header().exists("Location"));
+                .andExpect(header().string("Location", "http://localhost/user/userId"));
+
+    }
+
+    @Test
+    public void givenWriteBehind_whenCreateUser_thenReturnAcceptedWithWriteLocation() throws Exception {
+        given(userWriteBehindQueueMock.isEnabled()).willReturn(true);
+        given(userWriteBehindQueueMock.enqueue(any(User.class))).willReturn(new PendingUser(user));
 
+        mockMvc.perform(post("/user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userDTO)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/user/_writes/userId"));
+
+        verify(userServiceMock, never()).createUser(any(User.class));
+    }
+
+    @Test
+    public void givenWriteBehindAndCommitAck_whenCreateUser_thenReturnCreatedUser() throws Exception {
+        PendingUser pendingUser = new PendingUser(user);
+
+        given(userWriteBehindQueueMock.isEnabled()).willReturn(true);
+        given(userWriteBehindQueueMock.enqueue(any(User.class))).willReturn(pendingUser);
+        given(userWriteBehindQueueMock.awaitResult(pendingUser))
+                .willReturn(Optional.of(new BulkItemResult("userId", BulkItemResult.Status.CREATED, null)));
+
+        mockMvc.perform(post("/user")
+                .header("X-Write-Ack", "commit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/user/userId"));
+    }
+
+    @Test
+    public void givenFullWriteQueue_whenCreateUser_thenReturnServiceUnavailable() throws Exception {
+        given(userWriteBehindQueueMock.isEnabled()).willReturn(true);
+        given(userWriteBehindQueueMock.enqueue(any(User.class))).willThrow(new WriteQueueFullException("The write queue is full with 1 users"));
+
+        mockMvc.perform(post("/user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userDTO)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.code").value("WRITE_QUEUE_FULL"));
+    }
+
+    @Test
+    public void givenPendingWrite_whenFetchUserWrite_thenReturnAcceptedStatus() throws Exception {
+        given(userWriteBehindQueueMock.findPendingUser("userId")).willReturn(Optional.of(new PendingUser(user)));
+
+        mockMvc.perform(get("/user/_writes/userId"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("userId"))
+                .andExpect(jsonPath("$.status").value(202));
+    }
+
+    @Test
+    public void givenWrittenUser_whenFetchUserWrite_thenReturnCreatedStatusAndUserLocation() throws Exception {
+        PendingUser pendingUser = new PendingUser(user);
+        pendingUser.getResult().complete(new BulkItemResult("userId", BulkItemResult.Status.CREATED, null));
+
+        given(userWriteBehindQueueMock.findPendingUser("userId")).willReturn(Optional.of(pendingUser));
+
+        mockMvc.perform(get("/user/_writes/userId"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Location", "http://localhost/user/userId"))
+                .andExpect(jsonPath("$.status").value(201));
     }
 
     @Test
@@ -84,7 +180,21 @@ public class UserControllerTest {
         mockMvc.perform(post("/user")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(userDTO)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("DUPLICATE_EMAIL"))
+                .andExpect(jsonPath("$.message").value("emailAddress must be unique"));
+    }
+
+    @Test
+    public void givenUserWithTakenEmail_whenCreateUser_thenReturnDuplicateEmailCode() throws Exception {
+        given(userServiceMock.createUser(any(User.class))).willThrow(new DuplicateEmailException("emailAddress must be unique"));
+
+        mockMvc.perform(post("/user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userDTO)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("DUPLICATE_EMAIL"))
+                .andExpect(jsonPath("$.message").value("emailAddress must be unique"));
     }
 
     @Test
@@ -97,7 +207,10 @@ public class UserControllerTest {
         mockMvc.perform(post("/user")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(userDTO)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[0].message").value("emailAddress, must be a well-formed email address"));
+
+        verify(userDTOValidatorMock).validate(any(UserDTO.class), any(Errors.class));
     }
 
     @Test
@@ -122,6 +235,94 @@ public class UserControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(userDTO)));
     }
 
+    @Test
+    public void givenExistingUserId_whenFetchUser_thenReturnVersionAsETag() throws Exception {
+        user.setVersion(3L);
+
+        given(userServiceMock.fetchUserById("userId")).willReturn(user);
+
+        mockMvc.perform(get("/user/userId")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    public void givenMatchingIfNoneMatch_whenFetchUser_thenReturnNotModifiedWithoutBody() throws Exception {
+        user.setVersion(3L);
+
+        given(userServiceMock.fetchUserById("userId")).willReturn(user);
+
+        mockMvc.perform(get("/user/userId")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(userMapperMock, never()).toDTO(any(User.class), any());
+    }
+
+    @Test
+    public void givenUnchangedPage_whenFetchUsersPage_thenReturnNotModified() throws Exception {
+        UserQuery query = new UserQuery();
+        query.setLimit(10);
+
+        given(userServiceMock.fetchUsers(query)).willReturn(Collections.singletonList(user));
+
+        String eTag = mockMvc.perform(get("/user?limit=10")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/user?limit=10")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        user.setVersion(1L);
+
+        mockMvc.perform(get("/user?limit=10")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void givenFields_whenFetchUser_thenReturnOnlyRequestedFields() throws Exception {
+        given(userServiceMock.fetchUserById("userId", new HashSet<>(Arrays.asList("emailAddress", "dateOfBirth")))).willReturn(user);
+
+        mockMvc.perform(get("/user/userId?fields=emailAddress,dateOfBirth")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("userId"))
+                .andExpect(jsonPath("$.emailAddress").value("valid@email.address"))
+                .andExpect(jsonPath("$.dateOfBirth").value("01-01-2000"))
+                .andExpect(jsonPath("$.firstName").doesNotExist())
+                .andExpect(jsonPath("$.lastName").doesNotExist());
+
+        verify(userServiceMock, never()).fetchUserById("userId");
+    }
+
+    @Test
+    public void givenUnknownField_whenFetchUser_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/user/userId?fields=password")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void givenFields_whenFetchAllUsers_thenStreamOnlyRequestedFields() throws Exception {
+        UserQuery query = new UserQuery();
+        query.setFields(Collections.singleton("emailAddress"));
+
+        given(userServiceMock.streamUsers(query)).willReturn(Stream.of(user));
+
+        mockMvc.perform(get("/user?fields=emailAddress")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\":\"userId\",\"emailAddress\":\"valid@email.address\"}]", true));
+    }
+
     @Test
     public void givenNonExistingUserId_whenFetchUser_thenReturnNotFound() throws Exception {
         given(userServiceMock.fetchUserById(anyString())).willThrow(new UserDoesNotExistException(""));
@@ -131,11 +332,33 @@ public class UserControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void givenEmailAddress_whenFetchUserByEmailAddress_thenReturnUser() throws Exception {
+        userDTO.setId("userId");
+
+        given(userServiceMock.fetchUserByEmailAddress("Valid@Email.Address")).willReturn(user);
+
+        mockMvc.perform(get("/user/by-email/Valid@Email.Address")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(content().json(objectMapper.writeValueAsString(userDTO)));
+    }
+
+    @Test
+    public void givenUnknownEmailAddress_whenFetchUserByEmailAddress_thenReturnNotFound() throws Exception {
+        given(userServiceMock.fetchUserByEmailAddress(anyString())).willThrow(new UserDoesNotExistException(""));
+
+        mockMvc.perform(get("/user/by-email/unknown@email.address")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void whenFetchAllUsers_thenReturnListOfUsers() throws Exception {
         userDTO.setId("userId");
 
-        given(userServiceMock.fetchAllUsers()).willReturn(Collections.singletonList(user));
+        given(userServiceMock.streamUsers(new UserQuery())).willReturn(Stream.of(user));
 
         mockMvc.perform(get("/user")
                 .contentType(MediaType.APPLICATION_JSON))
@@ -143,11 +366,163 @@ public class UserControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(Collections.singleton(userDTO))));
     }
 
+    @Test
+    public void givenSmileAccept_whenFetchAllUsers_thenStreamSmileList() throws Exception {
+        userDTO.setId("userId");
+
+        given(userServiceMock.streamUsers(new UserQuery())).willReturn(Stream.of(user));
+
+        byte[] body = mockMvc.perform(get("/user")
+                .accept(UserController.SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(UserController.SMILE))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(objectMapper.valueToTree(Collections.singleton(userDTO)), new ObjectMapper(new SmileFactory()).readTree(body));
+    }
+
+    @Test
+    public void givenCborAccept_whenFetchUsersPage_thenReturnCborPage() throws Exception {
+        userDTO.setId("userId");
+
+        UserQuery query = new UserQuery();
+        query.setLimit(10);
+
+        given(userServiceMock.fetchUsers(query)).willReturn(Collections.singletonList(user));
+
+        byte[] body = mockMvc.perform(get("/user?limit=10")
+                .accept(UserController.CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(UserController.CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(objectMapper.valueToTree(Collections.singleton(userDTO)), new ObjectMapper(new CBORFactory()).readTree(body));
+    }
+
+    @Test
+    public void givenLimit_whenFetchUsersPage_thenReturnPageWithNextCursor() throws Exception {
+        user.setId("5cb4a8a1e4b0f1a2b3c4d5e6");
+        userDTO.setId("5cb4a8a1e4b0f1a2b3c4d5e6");
+
+        UserQuery query = new UserQuery();
+        query.setLimit(1);
+
+        given(userServiceMock.fetchUsers(query)).willReturn(Collections.singletonList(user));
+
+        mockMvc.perform(get("/user?limit=1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "NWNiNGE4YTFlNGIwZjFhMmIzYzRkNWU2"))
+                .andExpect(content().json(objectMapper.writeValueAsString(Collections.singleton(userDTO))));
+    }
+
+    @Test
+    public void givenLastPage_whenFetchUsersPage_thenReturnPageWithoutNextCursor() throws Exception {
+        UserQuery query = new UserQuery();
+        query.setAfterId("5cb4a8a1e4b0f1a2b3c4d5e6");
+        query.setLimit(10);
+
+        given(userServiceMock.fetchUsers(query)).willReturn(Collections.singletonList(user));
+
+        mockMvc.perform(get("/user?limit=10&after=NWNiNGE4YTFlNGIwZjFhMmIzYzRkNWU2")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    public void givenFiltersAndSort_whenFetchUsersPage_thenReturnPageWithSortCursor() throws Exception {
+        user.setId("5cb4a8a1e4b0f1a2b3c4d5e6");
+        user.setDateOfBirth(LocalDate.of(1995, 6, 15));
+
+        UserQuery query = new UserQuery();
+        query.setLastName("lastName");
+        query.setBornFrom(LocalDate.of(1990, 1, 1));
+        query.setSortField(UserQuery.SortField.DATE_OF_BIRTH);
+        query.setDirection(Sort.Direction.DESC);
+        query.setLimit(1);
+
+        given(userServiceMock.fetchUsers(query)).willReturn(Collections.singletonList(user));
+
+        mockMvc.perform(get("/user?limit=1&lastName=lastName&bornFrom=01-01-1990&sort=-dateOfBirth")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", Cursors.encode(query, user)));
+    }
+
+    @Test
+    public void givenSortCursor_whenFetchUsersPage_thenContinueAfterSortValue() throws Exception {
+        user.setId("5cb4a8a1e4b0f1a2b3c4d5e6");
+        user.setLastName("lastName");
+
+        UserQuery query = new UserQuery();
+        query.setSortField(UserQuery.SortField.LAST_NAME);
+        query.setLimit(10);
+
+        String cursor = Cursors.encode(query, user);
+
+        query.setAfterValue("lastName");
+        query.setAfterId("5cb4a8a1e4b0f1a2b3c4d5e6");
+
+        given(userServiceMock.fetchUsers(query)).willReturn(Collections.singletonList(user));
+
+        mockMvc.perform(get("/user?limit=10&sort=lastName&after=" + cursor)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    public void givenCursorFromAnotherSort_whenFetchUsersPage_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/user?limit=10&sort=lastName&after=NWNiNGE4YTFlNGIwZjFhMmIzYzRkNWU2")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void givenUnknownSort_whenFetchUsersPage_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/user?limit=10&sort=password")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(
+                        "The sort 'password' is not valid, expected one of id, firstName, lastName, emailAddress, dateOfBirth"));
+    }
+
+    @Test
+    public void givenMalformedDate_whenFetchAllUsers_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/user?bornFrom=1990-01-01")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[0].message").value("bornFrom, invalid value '1990-01-01'"));
+    }
+
+    @Test
+    public void givenEmptyDateRange_whenFetchAllUsers_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/user?bornFrom=02-01-1990&bornTo=01-01-1990")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void givenInvalidCursor_whenFetchUsersPage_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/user?limit=10&after=invalid")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void givenLimitOutOfRange_whenFetchUsersPage_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/user?limit=0")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void givenValidUserAndUserId_whenEditUser_thenReturnUpdatedUser() throws Exception {
         userDTO.setId("userId");
 
-        given(userServiceMock.editUser(anyString(), any(User.class))).willReturn(user);
+        given(userServiceMock.editUser(anyString(), isNull(), any(User.class))).willReturn(user);
 
         mockMvc.perform(put("/user/userId")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -156,9 +531,34 @@ public class UserControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(userDTO)));
     }
 
+    @Test
+    public void givenIfMatch_whenEditUser_thenEditExpectedVersionAndReturnNewETag() throws Exception {
+        user.setVersion(3L);
+
+        given(userServiceMock.editUser(eq("userId"), eq(2L), any(User.class))).willReturn(user);
+
+        mockMvc.perform(put("/user/userId")
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    public void givenStaleIfMatch_whenEditUser_thenReturnPreconditionFailed() throws Exception {
+        given(userServiceMock.editUser(eq("userId"), eq(2L), any(User.class))).willThrow(new UserVersionMismatchException(""));
+
+        mockMvc.perform(put("/user/userId")
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userDTO)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     public void givenValidUserAndInvalidUserId_whenEditUser_thenReturnBadRequest() throws Exception {
-        given(userServiceMock.editUser(anyString(), any(User.class))).willThrow(new UserDoesNotExistException(""));
+        given(userServiceMock.editUser(anyString(), isNull(), any(User.class))).willThrow(new UserDoesNotExistException(""));
 
         mockMvc.perform(put("/user/userId")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -188,7 +588,7 @@ public class UserControllerTest {
 
     @Test
     public void givenExistingEmailUserAndValidUserId_whenEditUser_thenReturnBadRequest() throws Exception {
-        given(userServiceMock.editUser(anyString(), any(User.class))).willThrow(new DuplicateKeyException("index: emailAddress dup"));
+        given(userServiceMock.editUser(anyString(), isNull(), any(User.class))).willThrow(new DuplicateKeyException("index: emailAddress dup"));
 
         mockMvc.perform(put("/user/userId")
                 .contentType(MediaType.APPLICATION_JSON)
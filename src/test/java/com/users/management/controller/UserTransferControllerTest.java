@@ -0,0 +1,148 @@
+package com.users.management.controller;
+
+import com.users.management.configuration.BulkConfiguration;
+import com.users.management.mapper.UserMapper;
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.User;
+import com.users.management.service.UserBulkService;
+import com.users.management.service.UserService;
+import com.users.management.validation.UserDTOValidator;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(UserTransferController.class)
+@Import(BulkConfiguration.class)
+public class UserTransferControllerTest {
+
+    private static final String USER_JSON = "{\"id\":\"userId\",\"firstName\":\"firstName\",\"lastName\":\"lastName\","
+            + "\"emailAddress\":\"valid@email.address\",\"dateOfBirth\":\"01-01-2000\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserService userServiceMock;
+
+    @MockBean
+    private UserBulkService userBulkServiceMock;
+
+    @SpyBean
+    private UserMapper userMapperMock;
+
+    @SpyBean
+    private UserDTOValidator userDTOValidatorMock;
+
+    private User user;
+
+    @Before
+    public void setup() {
+        user = new User();
+
+        user.setId("userId");
+        user.setFirstName("firstName");
+        user.setLastName("lastName");
+        user.setEmailAddress("valid@email.address");
+        user.setDateOfBirth(LocalDate.of(2000, 1, 1));
+    }
+
+    @Test
+    public void whenExportUsersAsNdjson_thenWriteOneUserPerLine() throws Exception {
+        given(userServiceMock.streamAllUsers()).willReturn(Stream.of(user, user));
+
+        mockMvc.perform(get("/user/export"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", UserTransferController.NDJSON))
+                .andExpect(content().string(USER_JSON + "\n" + USER_JSON + "\n"));
+    }
+
+    @Test
+    public void whenExportUsersAsCsv_thenWriteHeaderAndRows() throws Exception {
+        given(userServiceMock.streamAllUsers()).willReturn(Stream.of(user));
+
+        mockMvc.perform(get("/user/export?format=csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("id,firstName,lastName,emailAddress,dateOfBirth\n"
+                        + "userId,firstName,lastName,valid@email.address,01-01-2000\n"));
+    }
+
+    @Test
+    public void givenUnsupportedFormat_whenExportUsers_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/user/export?format=xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void givenNdjsonWithInvalidRecord_whenImportUsers_thenImportValidRecordsAndReportFailures() throws Exception {
+        String invalidUserJson = USER_JSON.replace("valid@email.address", "invalidemailaddress");
+
+        given(userBulkServiceMock.createUsers(anyList())).willReturn(Arrays.asList(
+                new BulkItemResult("id1", BulkItemResult.Status.CREATED, null),
+                new BulkItemResult(null, BulkItemResult.Status.DUPLICATE, "emailAddress must be unique")));
+
+        mockMvc.perform(post("/user/import")
+                .contentType(UserTransferController.NDJSON)
+                .content(USER_JSON + "\n" + invalidUserJson + "\n" + USER_JSON + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].errors[0].message").value("emailAddress, must be a well-formed email address"))
+                .andExpect(jsonPath("$.errors[1].index").value(2))
+                .andExpect(jsonPath("$.errors[1].errors[0].message").value("emailAddress must be unique"));
+    }
+
+    @Test
+    public void givenCsv_whenImportUsers_thenImportRecords() throws Exception {
+        User importedUser = new User();
+        importedUser.setFirstName("firstName");
+        importedUser.setLastName("lastName");
+        importedUser.setEmailAddress("valid@email.address");
+        importedUser.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        given(userBulkServiceMock.createUsers(Collections.singletonList(importedUser)))
+                .willReturn(Collections.singletonList(new BulkItemResult("id1", BulkItemResult.Status.CREATED, null)));
+
+        mockMvc.perform(post("/user/import")
+                .contentType(UserTransferController.CSV)
+                .content("id,firstName,lastName,emailAddress,dateOfBirth\n"
+                        + ",firstName,lastName,valid@email.address,01-01-2000\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(0));
+    }
+
+    @Test
+    public void givenMalformedNdjson_whenImportUsers_thenStopAndReportMalformedRecord() throws Exception {
+        mockMvc.perform(post("/user/import")
+                .contentType(UserTransferController.NDJSON)
+                .content("{\"firstName\":"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(0))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(0));
+
+        verify(userBulkServiceMock, never()).createUsers(anyList());
+    }
+}
@@ -0,0 +1,113 @@
+package com.users.management.filter;
+
+import com.users.management.configuration.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RateLimitFilterTest {
+
+    private RateLimitProperties rateLimitProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @Before
+    public void setup() {
+        rateLimitProperties = new RateLimitProperties();
+        rateLimitProperties.setTrustedClientHeader("X-Client-Id");
+        rateLimitProperties.setCheap(new RateLimitProperties.Budget(2, 1, 10));
+        rateLimitProperties.setExpensive(new RateLimitProperties.Budget(10, 1, 1));
+
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void givenRequests_whenCost_thenFullScansBulkAndTransfersAreExpensive() {
+        assertEquals(RateLimitFilter.Cost.EXPENSIVE, RateLimitFilter.cost(new MockHttpServletRequest("GET", "/user")));
+        assertEquals(RateLimitFilter.Cost.EXPENSIVE, RateLimitFilter.cost(new MockHttpServletRequest("POST", "/user/_bulk")));
+        assertEquals(RateLimitFilter.Cost.EXPENSIVE, RateLimitFilter.cost(new MockHttpServletRequest("GET", "/user/export")));
+        assertEquals(RateLimitFilter.Cost.EXPENSIVE, RateLimitFilter.cost(new MockHttpServletRequest("GET", "/user/changes")));
+        assertEquals(RateLimitFilter.Cost.CHEAP, RateLimitFilter.cost(new MockHttpServletRequest("GET", "/user/userId")));
+        assertEquals(RateLimitFilter.Cost.CHEAP, RateLimitFilter.cost(new MockHttpServletRequest("POST", "/user")));
+
+        MockHttpServletRequest pagedRequest = new MockHttpServletRequest("GET", "/user");
+        pagedRequest.setParameter("limit", "10");
+
+        assertEquals(RateLimitFilter.Cost.CHEAP, RateLimitFilter.cost(pagedRequest));
+    }
+
+    @Test
+    public void givenExhaustedBudget_whenDoFilter_thenRejectOnlyThatClient() {
+        RateLimitFilter filter = new RateLimitFilter(rateLimitProperties, meterRegistry, () -> 0L);
+
+        assertEquals(200, doFilter(filter, "first", "/user/userId", new MockFilterChain()).getStatus());
+        assertEquals(200, doFilter(filter, "first", "/user/userId", new MockFilterChain()).getStatus());
+
+        MockHttpServletResponse rejected = doFilter(filter, "first", "/user/userId", new MockFilterChain());
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertTrue(content(rejected).contains("\"code\":\"RATE_LIMITED\""));
+        assertEquals(200, doFilter(filter, "second", "/user/userId", new MockFilterChain()).getStatus());
+        assertEquals(1.0, meterRegistry.get("users.rate-limit.rejected").tag("cost", "cheap").tag("reason", "rate").counter().count(), 0);
+    }
+
+    @Test
+    public void givenUntrustedClientHeader_whenDoFilter_thenKeepLimitingByRemoteAddress() {
+        rateLimitProperties.setTrustedClientHeader(null);
+
+        RateLimitFilter filter = new RateLimitFilter(rateLimitProperties, meterRegistry, () -> 0L);
+
+        assertEquals(200, doFilter(filter, "first", "/user/userId", new MockFilterChain()).getStatus());
+        assertEquals(200, doFilter(filter, "second", "/user/userId", new MockFilterChain()).getStatus());
+        assertEquals(429, doFilter(filter, "third", "/user/userId", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    public void givenExpensiveRequestInFlight_whenDoFilter_thenRejectConcurrentOne() {
+        RateLimitFilter filter = new RateLimitFilter(rateLimitProperties, meterRegistry, () -> 0L);
+        AtomicReference<MockHttpServletResponse> concurrentResponse = new AtomicReference<>();
+
+        FilterChain chain = (request, response) -> concurrentResponse.set(doFilter(filter, "first", "/user", new MockFilterChain()));
+
+        assertEquals(200, doFilter(filter, "first", "/user", chain).getStatus());
+        assertEquals(429, concurrentResponse.get().getStatus());
+        assertTrue(content(concurrentResponse.get()).contains("\"code\":\"CONCURRENCY_LIMITED\""));
+        assertEquals(200, doFilter(filter, "first", "/user", new MockFilterChain()).getStatus());
+    }
+
+    private static MockHttpServletResponse doFilter(RateLimitFilter filter, String clientId, String uri, FilterChain chain) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader("X-Client-Id", clientId);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (IOException | ServletException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return response;
+    }
+
+    private static String content(MockHttpServletResponse response) {
+        try {
+            return response.getContentAsString();
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.users.management.metrics;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ConnectionPoolSettings;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionAddedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolOpenedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MongoMetricsListenerTest {
+
+    private MeterRegistry meterRegistry;
+
+    private MongoMetricsListener mongoMetricsListener;
+
+    private ServerId serverId;
+
+    @Before
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        mongoMetricsListener = new MongoMetricsListener(meterRegistry);
+        serverId = new ServerId(new ClusterId(), new ServerAddress("localhost", 27017));
+    }
+
+    @Test
+    public void givenOpenPool_whenConnectionsCheckedOut_thenReportPoolGauges() {
+        ConnectionId connectionId = new ConnectionId(serverId);
+
+        mongoMetricsListener.connectionPoolOpened(new ConnectionPoolOpenedEvent(serverId, ConnectionPoolSettings.builder().build()));
+        mongoMetricsListener.connectionAdded(new ConnectionAddedEvent(connectionId));
+        mongoMetricsListener.connectionAdded(new ConnectionAddedEvent(connectionId));
+        mongoMetricsListener.connectionCheckedOut(new ConnectionCheckedOutEvent(connectionId));
+        mongoMetricsListener.connectionCheckedOut(new ConnectionCheckedOutEvent(connectionId));
+        mongoMetricsListener.connectionCheckedIn(new ConnectionCheckedInEvent(connectionId));
+
+        assertEquals(2, gauge("mongodb.driver.pool.size"), 0);
+        assertEquals(1, gauge("mongodb.driver.pool.checkedout"), 0);
+        assertEquals(0, gauge("mongodb.driver.pool.waitqueuesize"), 0);
+    }
+
+    @Test
+    public void givenClosedPool_whenScrape_thenPoolGaugesAreRemoved() {
+        mongoMetricsListener.connectionPoolOpened(new ConnectionPoolOpenedEvent(serverId, ConnectionPoolSettings.builder().build()));
+        mongoMetricsListener.connectionPoolClosed(new ConnectionPoolClosedEvent(serverId));
+
+        assertNull(meterRegistry.find("mongodb.driver.pool.size").gauge());
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("server", "localhost:27017").gauge().value();
+    }
+}
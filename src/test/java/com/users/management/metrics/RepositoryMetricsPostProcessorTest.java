@@ -0,0 +1,103 @@
+package com.users.management.metrics;
+
+import com.users.management.model.User;
+import com.users.management.repository.ReactiveUserRepository;
+import com.users.management.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class RepositoryMetricsPostProcessorTest {
+
+    private MeterRegistry meterRegistry;
+
+    private RepositoryMetricsPostProcessor postProcessor;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+
+        meterRegistry = new SimpleMeterRegistry();
+        postProcessor = new RepositoryMetricsPostProcessor(meterRegistryProvider);
+
+        given(meterRegistryProvider.getIfAvailable()).willReturn(meterRegistry);
+    }
+
+    @Test
+    public void givenRepository_whenCallMethod_thenRecordTimerPerMethod() {
+        UserRepository userRepositoryMock = mock(UserRepository.class);
+        User user = new User();
+
+        given(userRepositoryMock.findById("userId")).willReturn(Optional.of(user));
+
+        UserRepository userRepository = (UserRepository) postProcessor.postProcessAfterInitialization(userRepositoryMock, "userRepository");
+
+        assertEquals(Optional.of(user), userRepository.findById("userId"));
+        assertEquals(Optional.of(user), userRepository.findById("userId"));
+        assertEquals(2, timer("userRepository", "findById", "none").count());
+    }
+
+    @Test
+    public void givenFailingRepositoryCall_whenCallMethod_thenRecordTimerWithException() {
+        UserRepository userRepositoryMock = mock(UserRepository.class);
+
+        given(userRepositoryMock.removeById("userId")).willThrow(new DataAccessResourceFailureException("down"));
+
+        UserRepository userRepository = (UserRepository) postProcessor.postProcessAfterInitialization(userRepositoryMock, "userRepository");
+
+        try {
+            userRepository.removeById("userId");
+        } catch (DataAccessResourceFailureException expected) {
+            // recorded below
+        }
+
+        assertEquals(1, timer("userRepository", "removeById", "DataAccessResourceFailureException").count());
+    }
+
+    @Test
+    public void givenReactiveRepository_whenSubscribe_thenRecordTimerOnCompletion() {
+        ReactiveUserRepository reactiveUserRepositoryMock = mock(ReactiveUserRepository.class);
+
+        given(reactiveUserRepositoryMock.removeById("userId")).willReturn(Mono.just(1L));
+
+        ReactiveUserRepository reactiveUserRepository = (ReactiveUserRepository) postProcessor
+                .postProcessAfterInitialization(reactiveUserRepositoryMock, "reactiveUserRepository");
+        Mono<Long> deletedCount = reactiveUserRepository.removeById("userId");
+
+        assertNull(meterRegistry.find(RepositoryMetricsInterceptor.METRIC_NAME).timer());
+
+        StepVerifier.create(deletedCount)
+                .expectNext(1L)
+                .verifyComplete();
+
+        assertEquals(1, timer("reactiveUserRepository", "removeById", "none").count());
+    }
+
+    @Test
+    public void givenOtherBean_whenPostProcess_thenReturnSameBean() {
+        Object bean = new Object();
+
+        assertSame(bean, postProcessor.postProcessAfterInitialization(bean, "bean"));
+    }
+
+    private Timer timer(String repository, String method, String exception) {
+        return meterRegistry.get(RepositoryMetricsInterceptor.METRIC_NAME)
+                .tags("repository", repository, "method", method, "exception", exception)
+                .timer();
+    }
+}
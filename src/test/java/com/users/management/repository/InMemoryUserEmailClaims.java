@@ -0,0 +1,57 @@
+package com.users.management.repository;
+
+import com.users.management.model.EmailClaim;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+// Stands in for the userEmails collection of a shard.
+class InMemoryUserEmailClaims implements UserEmailClaims {
+
+    private ConcurrentMap<String, EmailClaim> claims = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<EmailClaim> claim(EmailClaim claim) {
+        return Optional.ofNullable(claims.putIfAbsent(claim.getEmailAddress(), claim));
+    }
+
+    @Override
+    public Set<Integer> claimAll(List<EmailClaim> claims) {
+        Set<Integer> taken = new HashSet<>();
+
+        for (int i = 0; i < claims.size(); i++) {
+            if (claim(claims.get(i)).isPresent()) {
+                taken.add(i);
+            }
+        }
+
+        return taken;
+    }
+
+    @Override
+    public Optional<EmailClaim> findClaim(String normalizedEmailAddress) {
+        return Optional.ofNullable(claims.get(normalizedEmailAddress));
+    }
+
+    @Override
+    public boolean takeOver(EmailClaim current, EmailClaim claim) {
+        return claims.replace(current.getEmailAddress(), current, claim);
+    }
+
+    @Override
+    public boolean release(String normalizedEmailAddress, String userId) {
+        EmailClaim claim = claims.get(normalizedEmailAddress);
+
+        return claim != null && claim.getUserId().equals(userId) && claims.remove(normalizedEmailAddress, claim);
+    }
+
+    @Override
+    public Stream<EmailClaim> streamClaims() {
+        return claims.values().stream();
+    }
+}
@@ -0,0 +1,241 @@
+package com.users.management.repository;
+
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import com.users.management.storage.OffHeapUserStore;
+import com.users.management.util.DuplicateKeys;
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+// Three off-heap stores stand in for the shard databases.
+public class ShardedUserRepositoryTest {
+
+    private static final int SHARDS = 3;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private List<OffHeapUserStore> stores = new ArrayList<>();
+
+    private List<UserShard> shards = new ArrayList<>();
+
+    private List<UserShards> userShardsToClose = new ArrayList<>();
+
+    private UserShards userShards;
+
+    private ShardedUserRepository shardedUserRepository;
+
+    @Before
+    public void setup() throws IOException {
+        for (int i = 0; i < SHARDS; i++) {
+            OffHeapUserStore store = new OffHeapUserStore(temporaryFolder.newFolder().toPath(), 64 * 1024, 64 * 1024, 1024 * 1024, false);
+
+            stores.add(store);
+            shards.add(new UserShard("shard" + i, new OffHeapUserRepository(store), new InMemoryUserEmailClaims()));
+        }
+
+        userShards = userShards(shards, SHARDS);
+        shardedUserRepository = new ShardedUserRepository(userShards, Duration.ofMinutes(1));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (UserShards shards : userShardsToClose) {
+            shards.close();
+        }
+
+        for (OffHeapUserStore store : stores) {
+            store.close();
+        }
+    }
+
+    @Test
+    public void givenUsers_whenSave_thenStoreEachOnTheShardItsIdHashesTo() {
+        List<User> users = saveUsers(shardedUserRepository, 30);
+
+        for (User user : users) {
+            for (UserShard shard : shards) {
+                assertEquals(shard == userShards.ownerOf(user.getId()), shard.getUserRepository().existsById(user.getId()));
+            }
+
+            assertEquals(user, shardedUserRepository.findById(user.getId()).get());
+        }
+
+        assertTrue(stores.stream().allMatch(store -> store.size() > 0));
+    }
+
+    @Test
+    public void givenUsersOnEveryShard_whenFindAll_thenMergeThemInIdOrder() {
+        List<String> ids = saveUsers(shardedUserRepository, 30).stream().map(User::getId).sorted().collect(Collectors.toList());
+
+        assertEquals(ids, shardedUserRepository.findAll().stream().map(User::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void givenSortedPages_whenFindUsers_thenReturnTheFirstUsersAcrossShards() {
+        List<User> users = saveUsers(shardedUserRepository, 30);
+
+        UserQuery query = new UserQuery();
+        query.setSortField(UserQuery.SortField.FIRST_NAME);
+        query.setLimit(7);
+
+        users.sort(UserQueries.comparatorOf(query));
+
+        List<User> firstPage = shardedUserRepository.findUsers(query);
+
+        User last = firstPage.get(firstPage.size() - 1);
+        query.setAfterValue(last.getFirstName());
+        query.setAfterId(last.getId());
+
+        assertEquals(users.subList(0, 7), firstPage);
+        assertEquals(users.subList(7, 14), shardedUserRepository.findUsers(query));
+    }
+
+    @Test
+    public void givenEmailTakenOnAnotherShard_whenSave_thenThrowDuplicateKeyException() {
+        shardedUserRepository.save(user(idOnShard(0), "first@email.address", "firstName"));
+
+        try {
+            shardedUserRepository.save(user(idOnShard(1), " First@Email.Address", "otherName"));
+            fail("Expected a duplicate email address");
+        } catch (DuplicateKeyException e) {
+            assertEquals(DuplicateKeys.EMAIL_ADDRESS_INDEX, DuplicateKeys.indexName(e.getMessage()));
+        }
+
+        assertEquals(1, shardedUserRepository.findAll().size());
+    }
+
+    @Test
+    public void givenAddressOfDeletedUser_whenSave_thenTakeOverItsClaim() {
+        ShardedUserRepository repository = new ShardedUserRepository(userShards, Duration.ZERO);
+        User deletedUser = repository.save(user(idOnShard(0), "first@email.address", "firstName"));
+
+        repository.removeById(deletedUser.getId());
+
+        User createdUser = repository.save(user(idOnShard(1), "first@email.address", "otherName"));
+
+        assertEquals(createdUser, repository.findOneByNormalizedEmailAddress("first@email.address").get());
+    }
+
+    @Test(expected = DuplicateKeyException.class)
+    public void givenRecentClaimOfUserBeingWritten_whenSave_thenThrowDuplicateKeyException() {
+        userShards.claimsOwnerOf("first@email.address").getUserEmailClaims()
+                .claim(userShards.newClaim("first@email.address", idOnShard(0)));
+
+        shardedUserRepository.save(user(idOnShard(1), "first@email.address", "otherName"));
+    }
+
+    @Test
+    public void givenAddressTakenOnAnotherShard_whenUpdateById_thenThrowAndKeepUser() {
+        shardedUserRepository.save(user(idOnShard(0), "first@email.address", "firstName"));
+        User secondUser = shardedUserRepository.save(user(idOnShard(1), "second@email.address", "secondName"));
+
+        try {
+            shardedUserRepository.updateById(secondUser.getId(), null, user(null, "first@email.address", "secondName"));
+            fail("Expected a duplicate email address");
+        } catch (DuplicateKeyException e) {
+            assertEquals(secondUser, shardedUserRepository.findById(secondUser.getId()).get());
+        }
+
+        User updatedUser = shardedUserRepository.updateById(secondUser.getId(), 0L, user(null, "third@email.address", "secondName")).get();
+
+        assertEquals(Long.valueOf(1L), updatedUser.getVersion());
+        assertEquals(updatedUser, shardedUserRepository.findOneByNormalizedEmailAddress("third@email.address").get());
+    }
+
+    @Test
+    public void givenTakenAddresses_whenBulkInsert_thenMarkThemDuplicateAndInsertTheRest() {
+        shardedUserRepository.save(user(idOnShard(0), "first@email.address", "firstName"));
+
+        List<BulkItemResult> results = shardedUserRepository.bulkInsert(Arrays.asList(
+                user(idOnShard(1), "First@email.address", "secondName"),
+                user(idOnShard(2), "second@email.address", "thirdName"),
+                user(idOnShard(1), "second@email.address", "fourthName")));
+
+        assertEquals(Arrays.asList(BulkItemResult.Status.DUPLICATE, BulkItemResult.Status.CREATED, BulkItemResult.Status.DUPLICATE),
+                results.stream().map(BulkItemResult::getStatus).collect(Collectors.toList()));
+        assertEquals(2, shardedUserRepository.findAll().size());
+        assertTrue(shardedUserRepository.findById(results.get(1).getId()).isPresent());
+    }
+
+    @Test
+    public void givenAddedShard_whenUsedBeforeRebalancing_thenFindUsersOnTheirPreviousShard() {
+        List<User> users = saveUsers(new ShardedUserRepository(userShards(shards.subList(0, 2), 2), Duration.ofMinutes(1)), 30);
+        UserShards grownShards = userShards(shards, 2);
+        ShardedUserRepository repository = new ShardedUserRepository(grownShards, Duration.ofMinutes(1));
+
+        User moving = users.stream().filter(user -> grownShards.candidatesOf(user.getId()).size() > 1).findFirst().get();
+        User updatedUser = repository.updateById(moving.getId(), 0L, user(null, moving.getEmailAddress(), "updatedName")).get();
+
+        assertTrue(grownShards.isRebalancing());
+        assertEquals(users.size(), repository.findAll().size());
+        assertTrue(users.stream().allMatch(user -> repository.findById(user.getId()).isPresent()));
+        assertEquals(updatedUser, grownShards.candidatesOf(moving.getId()).get(0).getUserRepository().findById(moving.getId()).get());
+
+        try {
+            repository.save(user(idOnShard(2), moving.getEmailAddress(), "otherName"));
+            fail("Expected a duplicate email address");
+        } catch (DuplicateKeyException e) {
+            assertFalse(stores.get(2).size() > 0);
+        }
+    }
+
+    private UserShards userShards(List<UserShard> shards, int previousShardCount) {
+        UserShards userShards = new UserShards(shards, previousShardCount, 4);
+
+        userShardsToClose.add(userShards);
+
+        return userShards;
+    }
+
+    private String idOnShard(int index) {
+        while (true) {
+            String id = ObjectId.get().toHexString();
+
+            if (userShards.ownerOf(id) == shards.get(index)) {
+                return id;
+            }
+        }
+    }
+
+    private static List<User> saveUsers(ShardedUserRepository repository, int count) {
+        List<User> users = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            users.add(repository.save(user(null, String.format("user%d@email.address", i), String.format("name%d", (i * 7) % 10))));
+        }
+
+        return users;
+    }
+
+    private static User user(String id, String emailAddress, String firstName) {
+        User user = new User();
+
+        user.setId(id);
+        user.setFirstName(firstName);
+        user.setLastName("lastName");
+        user.setEmailAddress(emailAddress);
+        user.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        return user;
+    }
+}
@@ -0,0 +1,133 @@
+package com.users.management.repository;
+
+import com.users.management.configuration.IndexProperties;
+import com.users.management.model.User;
+import org.bson.Document;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserIndexManagerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplateMock;
+
+    @Mock
+    private IndexOperations indexOperationsMock;
+
+    private IndexProperties indexProperties;
+
+    private UserIndexManager userIndexManager;
+
+    @Before
+    public void setup() {
+        indexProperties = new IndexProperties();
+        indexProperties.setRetryInterval(Duration.ofMillis(1));
+
+        given(mongoTemplateMock.indexOps(User.class)).willReturn(indexOperationsMock);
+
+        userIndexManager = new UserIndexManager(mongoTemplateMock, indexProperties);
+    }
+
+    @Test
+    public void givenNoIndexes_whenEnsureIndexes_thenBuildEveryIndexInTheBackground() {
+        given(indexOperationsMock.getIndexInfo()).willReturn(Collections.emptyList());
+
+        userIndexManager.ensureIndexes();
+
+        ArgumentCaptor<IndexDefinition> indexes = ArgumentCaptor.forClass(IndexDefinition.class);
+
+        verify(indexOperationsMock, times(UserIndexManager.userIndexes().size())).ensureIndex(indexes.capture());
+        assertTrue(indexes.getAllValues().stream().allMatch(index -> index.getIndexOptions().getBoolean("background", false)));
+        assertEquals(UserIndexManager.State.READY, userIndexManager.getState());
+        assertEquals("created", userIndexManager.getOutcomes().get("normalizedEmailAddress"));
+    }
+
+    @Test
+    public void givenExistingIndexes_whenEnsureIndexes_thenBuildNothing() {
+        given(indexOperationsMock.getIndexInfo()).willReturn(existingIndexes());
+
+        userIndexManager.ensureIndexes();
+
+        verify(indexOperationsMock, never()).ensureIndex(any());
+        assertEquals(UserIndexManager.State.READY, userIndexManager.getState());
+    }
+
+    @Test
+    public void givenIndexWithDifferentOptions_whenEnsureIndexes_thenFail() {
+        List<IndexInfo> existingIndexes = existingIndexes();
+        existingIndexes.removeIf(info -> info.getName().equals("emailAddress"));
+        existingIndexes.add(new IndexInfo(Collections.singletonList(IndexField.create("emailAddress", Sort.Direction.ASC)),
+                "emailAddress", false, false, null));
+
+        given(indexOperationsMock.getIndexInfo()).willReturn(existingIndexes);
+
+        userIndexManager.ensureIndexes();
+
+        verify(indexOperationsMock, never()).ensureIndex(any());
+        assertEquals(UserIndexManager.State.FAILED, userIndexManager.getState());
+    }
+
+    @Test
+    public void givenVerifyOnlyMode_whenIndexIsMissing_thenFailWithoutBuildingIt() {
+        indexProperties.setMode(IndexProperties.Mode.VERIFY_ONLY);
+
+        given(indexOperationsMock.getIndexInfo()).willReturn(Collections.emptyList());
+
+        userIndexManager.ensureIndexes();
+
+        verify(indexOperationsMock, never()).ensureIndex(any());
+        assertEquals(UserIndexManager.State.FAILED, userIndexManager.getState());
+        assertEquals("missing", userIndexManager.getOutcomes().get("emailAddress"));
+    }
+
+    @Test
+    public void givenUnreachableMongo_whenEnsureIndexes_thenRetryUntilItAnswers() {
+        given(indexOperationsMock.getIndexInfo())
+                .willThrow(new DataAccessResourceFailureException("Timed out"))
+                .willReturn(existingIndexes());
+
+        userIndexManager.ensureIndexes();
+
+        verify(indexOperationsMock, times(2)).getIndexInfo();
+        assertEquals(UserIndexManager.State.READY, userIndexManager.getState());
+    }
+
+    private static List<IndexInfo> existingIndexes() {
+        List<IndexInfo> existingIndexes = new ArrayList<>();
+
+        for (Index index : UserIndexManager.userIndexes()) {
+            Document options = index.getIndexOptions();
+            List<IndexField> fields = new ArrayList<>();
+
+            index.getIndexKeys().forEach((key, direction) -> fields.add(IndexField.create(key, Sort.Direction.ASC)));
+            existingIndexes.add(new IndexInfo(fields, options.getString("name"),
+                    options.getBoolean("unique", false), options.getBoolean("sparse", false), null));
+        }
+
+        return existingIndexes;
+    }
+}
@@ -0,0 +1,105 @@
+package com.users.management.repository;
+
+import com.users.management.model.UserQuery;
+import org.bson.Document;
+import org.junit.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class UserQueriesTest {
+
+    @Test
+    public void givenEmptyQuery_whenToMongoQuery_thenSortById() {
+        Query query = UserQueries.toMongoQuery(new UserQuery());
+
+        assertEquals(new Document(), query.getQueryObject());
+        assertEquals(new Document("id", 1), query.getSortObject());
+        assertEquals(0, query.getLimit());
+    }
+
+    @Test
+    public void givenFilters_whenToMongoQuery_thenCombineCriteria() {
+        UserQuery userQuery = new UserQuery();
+        userQuery.setLastName("lastName");
+        userQuery.setBornFrom(LocalDate.of(1990, 1, 1));
+        userQuery.setBornTo(LocalDate.of(1999, 12, 31));
+        userQuery.setLimit(20);
+
+        Query query = UserQueries.toMongoQuery(userQuery);
+        Document expected = new Document("$and", Arrays.asList(
+                new Document("lastName", "lastName"),
+                new Document("dateOfBirth", new Document("$gte", LocalDate.of(1990, 1, 1)).append("$lte", LocalDate.of(1999, 12, 31)))));
+
+        assertEquals(expected, query.getQueryObject());
+        assertEquals(20, query.getLimit());
+    }
+
+    @Test
+    public void givenEmailPrefix_whenToMongoQuery_thenMatchEscapedAnchoredNormalizedPrefix() {
+        UserQuery userQuery = new UserQuery();
+        userQuery.setEmailPrefix(" First.Last+");
+
+        Document emailCriteria = (Document) ((List<?>) UserQueries.toMongoQuery(userQuery).getQueryObject().get("$and")).get(0);
+        Pattern pattern = (Pattern) emailCriteria.get("normalizedEmailAddress");
+
+        assertEquals("^first\\.last\\+", pattern.pattern());
+        assertTrue(pattern.matcher("first.last+tag@email.address").find());
+        assertFalse(pattern.matcher("firstXlast+@email.address").find());
+    }
+
+    @Test
+    public void givenDescendingSortAndCursor_whenToMongoQuery_thenSeekPastSortValueAndId() {
+        UserQuery userQuery = new UserQuery();
+        userQuery.setSortField(UserQuery.SortField.LAST_NAME);
+        userQuery.setDirection(Sort.Direction.DESC);
+        userQuery.setAfterValue("lastName");
+        userQuery.setAfterId("5cb4a8a1e4b0f1a2b3c4d5e6");
+
+        Query query = UserQueries.toMongoQuery(userQuery);
+        Document expected = new Document("$and", Arrays.asList(
+                new Document("$or", Arrays.asList(
+                        new Document("lastName", new Document("$lt", "lastName")),
+                        new Document("$and", Arrays.asList(
+                                new Document("lastName", "lastName"),
+                                new Document("id", new Document("$lt", "5cb4a8a1e4b0f1a2b3c4d5e6"))))))));
+
+        assertEquals(expected, query.getQueryObject());
+        assertEquals(new Document("lastName", -1).append("id", -1), query.getSortObject());
+    }
+
+    @Test
+    public void givenEmailAddressSortAndCursor_whenToMongoQuery_thenSeekPastEmailAddressOnly() {
+        UserQuery userQuery = new UserQuery();
+        userQuery.setSortField(UserQuery.SortField.EMAIL_ADDRESS);
+        userQuery.setAfterValue("first@email.address");
+        userQuery.setAfterId("5cb4a8a1e4b0f1a2b3c4d5e6");
+
+        Query query = UserQueries.toMongoQuery(userQuery);
+        Document expected = new Document("$and", Collections.singletonList(
+                new Document("emailAddress", new Document("$gt", "first@email.address"))));
+
+        assertEquals(expected, query.getQueryObject());
+        assertEquals(new Document("emailAddress", 1), query.getSortObject());
+    }
+
+    @Test
+    public void givenFields_whenToMongoQuery_thenProjectFieldsVersionAndSortKey() {
+        UserQuery userQuery = new UserQuery();
+        userQuery.setFields(Collections.singleton("emailAddress"));
+        userQuery.setSortField(UserQuery.SortField.LAST_NAME);
+
+        Query query = UserQueries.toMongoQuery(userQuery);
+
+        assertEquals(new Document("emailAddress", 1).append("version", 1).append("lastName", 1), query.getFieldsObject());
+    }
+}
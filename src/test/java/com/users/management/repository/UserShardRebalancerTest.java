@@ -0,0 +1,166 @@
+package com.users.management.repository;
+
+import com.users.management.model.User;
+import com.users.management.storage.OffHeapUserStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+public class UserShardRebalancerTest {
+
+    private static final int SHARDS = 3;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private List<OffHeapUserStore> stores = new ArrayList<>();
+
+    private List<UserShard> shards = new ArrayList<>();
+
+    private List<UserShards> userShardsToClose = new ArrayList<>();
+
+    @Before
+    public void setup() throws IOException {
+        for (int i = 0; i < SHARDS; i++) {
+            OffHeapUserStore store = new OffHeapUserStore(temporaryFolder.newFolder().toPath(), 64 * 1024, 64 * 1024, 1024 * 1024, false);
+
+            stores.add(store);
+            shards.add(new UserShard("shard" + i, spy(new OffHeapUserRepository(store)), new InMemoryUserEmailClaims()));
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (UserShards shards : userShardsToClose) {
+            shards.close();
+        }
+
+        for (OffHeapUserStore store : stores) {
+            store.close();
+        }
+    }
+
+    @Test
+    public void givenAddedShard_whenRebalance_thenMoveUsersOnlyToTheAddedShard() {
+        UserShards previousShards = userShards(shards.subList(0, 2), 2);
+        List<User> users = saveUsers(new ShardedUserRepository(previousShards, Duration.ofMinutes(1)), 40);
+        UserShards userShards = userShards(shards, 2);
+        UserShardRebalancer rebalancer = new UserShardRebalancer(userShards);
+
+        rebalancer.rebalance();
+
+        assertEquals(UserShardRebalancer.State.DONE, rebalancer.getState());
+        assertFalse(userShards.isRebalancing());
+        assertEquals((long) stores.get(2).size(), rebalancer.report().get("movedUsers"));
+        assertEquals(0L, rebalancer.report().get("skippedUsers"));
+        assertTrue(stores.get(2).size() > 0);
+
+        for (User user : users) {
+            UserShard owner = userShards.ownerOf(user.getId());
+
+            assertTrue(owner == previousShards.ownerOf(user.getId()) || owner == shards.get(2));
+            assertEquals(user, owner.getUserRepository().findById(user.getId()).get());
+        }
+
+        ShardedUserRepository repository = new ShardedUserRepository(userShards, Duration.ofMinutes(1));
+
+        assertEquals(users.stream().map(User::getId).sorted().collect(Collectors.toList()),
+                repository.findAll().stream().map(User::getId).collect(Collectors.toList()));
+        assertTrue(users.stream().allMatch(user -> repository.findOneByNormalizedEmailAddress(user.getNormalizedEmailAddress()).isPresent()));
+    }
+
+    @Test
+    public void givenUsersWithoutClaims_whenRebalance_thenClaimTheirAddresses() {
+        for (int i = 0; i < 10; i++) {
+            shards.get(i % SHARDS).getUserRepository().save(user(String.format("user%d@email.address", i)));
+        }
+
+        UserShards userShards = userShards(shards, SHARDS);
+        UserShardRebalancer rebalancer = new UserShardRebalancer(userShards);
+
+        rebalancer.rebalance();
+
+        assertEquals(10L, rebalancer.report().get("createdClaims"));
+
+        for (int i = 0; i < 10; i++) {
+            String emailAddress = String.format("user%d@email.address", i);
+
+            assertTrue(userShards.claimsOwnerOf(emailAddress).getUserEmailClaims().findClaim(emailAddress).isPresent());
+        }
+    }
+
+    @Test
+    public void givenUserUpdatedWhileMoved_whenRebalance_thenMoveTheUpdatedVersion() {
+        UserShards previousShards = userShards(shards.subList(0, 2), 2);
+        List<User> users = saveUsers(new ShardedUserRepository(previousShards, Duration.ofMinutes(1)), 40);
+        UserShards userShards = userShards(shards, 2);
+        User moving = users.stream().filter(user -> userShards.ownerOf(user.getId()) == shards.get(2)).findFirst().get();
+        UserRepository previousRepository = previousShards.ownerOf(moving.getId()).getUserRepository();
+
+        User update = user(moving.getEmailAddress());
+        update.setFirstName("updatedName");
+
+        // Another instance updates the user on its previous shard right after it is copied.
+        doAnswer(invocation -> {
+            if (moving.getId().equals(invocation.getArgument(0)) && previousRepository.findById(moving.getId()).get().getVersion() == 0L) {
+                previousRepository.updateById(moving.getId(), 0L, update);
+            }
+
+            return invocation.callRealMethod();
+        }).when(previousRepository).removeByIdAndVersion(anyString(), any());
+
+        new UserShardRebalancer(userShards).rebalance();
+
+        User movedUser = shards.get(2).getUserRepository().findById(moving.getId()).get();
+
+        assertEquals("updatedName", movedUser.getFirstName());
+        assertEquals(Long.valueOf(1L), movedUser.getVersion());
+        assertFalse(previousRepository.existsById(moving.getId()));
+    }
+
+    private UserShards userShards(List<UserShard> shards, int previousShardCount) {
+        UserShards userShards = new UserShards(shards, previousShardCount, 4);
+
+        userShardsToClose.add(userShards);
+
+        return userShards;
+    }
+
+    private static List<User> saveUsers(ShardedUserRepository repository, int count) {
+        List<User> users = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            users.add(repository.save(user(String.format("user%d@email.address", i))));
+        }
+
+        return users;
+    }
+
+    private static User user(String emailAddress) {
+        User user = new User();
+
+        user.setFirstName("firstName");
+        user.setLastName("lastName");
+        user.setEmailAddress(emailAddress);
+        user.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        return user;
+    }
+}
@@ -0,0 +1,188 @@
+package com.users.management.service;
+
+import com.users.management.exception.DuplicateEmailException;
+import com.users.management.exception.UserDoesNotExistException;
+import com.users.management.exception.UserVersionMismatchException;
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import com.users.management.repository.OffHeapUserRepository;
+import com.users.management.storage.OffHeapUserStore;
+import com.users.management.util.EmailBloomFilter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+// The UserServiceTest scenarios against the real off-heap storage instead of a mocked repository.
+public class OffHeapUserServiceTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private OffHeapUserStore offHeapUserStore;
+
+    private UserService userService;
+
+    @Before
+    public void setup() throws IOException {
+        offHeapUserStore = new OffHeapUserStore(temporaryFolder.getRoot().toPath(), 64 * 1024, 64 * 1024, 1024 * 1024, false);
+
+        OffHeapUserRepository userRepository = new OffHeapUserRepository(offHeapUserStore);
+
+        userService = new UserService(userRepository, new UserEmailRegistry(userRepository, new EmailBloomFilter(1000, 0.01)));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        offHeapUserStore.close();
+    }
+
+    @Test
+    public void givenUser_whenCreateUser_thenReturnStoredUser() throws Exception {
+        User createdUser = userService.createUser(user("first@email.address", "firstName"));
+
+        assertNotNull(createdUser.getId());
+        assertEquals(Long.valueOf(0L), createdUser.getVersion());
+        assertEquals(createdUser, userService.fetchUserById(createdUser.getId()));
+    }
+
+    @Test(expected = DuplicateEmailException.class)
+    public void givenTakenEmail_whenCreateUser_thenThrowDuplicateEmailException() throws DuplicateEmailException {
+        userService.createUser(user("first@email.address", "firstName"));
+        userService.createUser(user("first@email.address", "otherName"));
+    }
+
+    @Test(expected = DuplicateEmailException.class)
+    public void givenCaseVariantOfTakenEmail_whenCreateUser_thenThrowDuplicateEmailException() throws DuplicateEmailException {
+        userService.createUser(user("first@email.address", "firstName"));
+        userService.createUser(user(" First@Email.Address", "otherName"));
+    }
+
+    @Test
+    public void givenCaseVariantOfEmail_whenFetchUserByEmailAddress_thenReturnUser() throws Exception {
+        User createdUser = userService.createUser(user("First@Email.Address", "firstName"));
+
+        assertEquals(createdUser, userService.fetchUserByEmailAddress("first@email.address "));
+    }
+
+    @Test(expected = UserDoesNotExistException.class)
+    public void givenNonExistingUserId_whenFetchUserById_thenThrowUserDoesNotExistException() throws UserDoesNotExistException {
+        userService.fetchUserById("userId");
+    }
+
+    @Test
+    public void givenFields_whenFetchUserById_thenReturnOnlyThoseFields() throws Exception {
+        User createdUser = userService.createUser(user("first@email.address", "firstName"));
+
+        User projectedUser = userService.fetchUserById(createdUser.getId(), Collections.singleton("firstName"));
+
+        assertEquals("firstName", projectedUser.getFirstName());
+        assertEquals(createdUser.getId(), projectedUser.getId());
+        assertNull(projectedUser.getEmailAddress());
+        assertNull(projectedUser.getDateOfBirth());
+    }
+
+    @Test
+    public void givenQuery_whenFetchUsers_thenReturnMatchingUsersInOrderFromCursor() throws Exception {
+        userService.createUser(user("c@email.address", "carol"));
+        userService.createUser(user("a@email.address", "alice"));
+        userService.createUser(user("b@email.address", "bob"));
+        userService.createUser(user("d@other.address", "dave"));
+
+        UserQuery query = new UserQuery();
+        query.setEmailPrefix("");
+        query.setSortField(UserQuery.SortField.FIRST_NAME);
+        query.setDirection(Sort.Direction.DESC);
+        query.setLimit(2);
+
+        List<User> firstPage = userService.fetchUsers(query);
+
+        assertEquals(Arrays.asList("dave", "carol"), firstNames(firstPage));
+
+        query.setAfterValue("carol");
+        query.setAfterId(firstPage.get(1).getId());
+        query.setEmailPrefix("A");
+
+        assertEquals(Collections.singletonList("alice"), firstNames(userService.fetchUsers(query)));
+    }
+
+    @Test
+    public void givenAfterId_whenFetchUsers_thenReturnNextUsersById() throws Exception {
+        List<String> ids = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            ids.add(userService.createUser(user(i + "@email.address", "user" + i)).getId());
+        }
+
+        Collections.sort(ids);
+
+        UserQuery query = new UserQuery();
+        query.setAfterId(ids.get(1));
+        query.setLimit(2);
+
+        assertEquals(ids.subList(2, 4), userService.fetchUsers(query).stream().map(User::getId).collect(Collectors.toList()));
+
+        query.setDirection(Sort.Direction.DESC);
+
+        assertEquals(Collections.singletonList(ids.get(0)), userService.fetchUsers(query).stream().map(User::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void givenMatchingVersion_whenEditUser_thenReturnUpdatedUser() throws Exception {
+        User createdUser = userService.createUser(user("first@email.address", "firstName"));
+
+        User editedUser = userService.editUser(createdUser.getId(), 0L, user("second@email.address", "newName"));
+
+        assertEquals(Long.valueOf(1L), editedUser.getVersion());
+        assertEquals("second@email.address", userService.fetchUserById(createdUser.getId()).getEmailAddress());
+    }
+
+    @Test(expected = UserVersionMismatchException.class)
+    public void givenStaleVersion_whenEditUser_thenThrowUserVersionMismatchException() throws Exception {
+        User createdUser = userService.createUser(user("first@email.address", "firstName"));
+
+        userService.editUser(createdUser.getId(), 3L, user("first@email.address", "newName"));
+    }
+
+    @Test(expected = UserDoesNotExistException.class)
+    public void givenDeletedUser_whenFetchUserById_thenThrowUserDoesNotExistException() throws Exception {
+        User createdUser = userService.createUser(user("first@email.address", "firstName"));
+
+        userService.deleteUser(createdUser.getId());
+        userService.fetchUserById(createdUser.getId());
+    }
+
+    @Test(expected = UserDoesNotExistException.class)
+    public void givenNonExistingUserId_whenDeleteUser_thenThrowUserDoesNotExistException() throws UserDoesNotExistException {
+        userService.deleteUser("userId");
+    }
+
+    private static User user(String emailAddress, String firstName) {
+        User user = new User();
+
+        user.setFirstName(firstName);
+        user.setLastName("lastName");
+        user.setEmailAddress(emailAddress);
+        user.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        return user;
+    }
+
+    private static List<String> firstNames(List<User> users) {
+        return users.stream().map(User::getFirstName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,126 @@
+package com.users.management.service;
+
+import com.users.management.exception.DuplicateEmailException;
+import com.users.management.exception.UserDoesNotExistException;
+import com.users.management.model.User;
+import com.users.management.model.UserQuery;
+import com.users.management.repository.ReactiveUserRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReactiveUserServiceTest {
+
+    @InjectMocks
+    private ReactiveUserService reactiveUserService;
+
+    @Mock
+    private ReactiveUserRepository reactiveUserRepositoryMock;
+
+    private User user;
+
+    @Before
+    public void setup() {
+        user = new User();
+
+        user.setId("userId");
+        user.setFirstName("firstName");
+        user.setLastName("lastName");
+        user.setEmailAddress("valid@email.address");
+        user.setDateOfBirth(LocalDate.of(2000, 1, 1));
+    }
+
+    @Test
+    public void givenFreeEmailAddress_whenCreateUser_thenSaveUser() {
+        given(reactiveUserRepositoryMock.findOneByNormalizedEmailAddress("valid@email.address")).willReturn(Mono.empty());
+        given(reactiveUserRepositoryMock.save(user)).willReturn(Mono.just(user));
+
+        StepVerifier.create(reactiveUserService.createUser(user))
+                .expectNext(user)
+                .verifyComplete();
+    }
+
+    @Test
+    public void givenTakenEmailAddress_whenCreateUser_thenEmitErrorWithoutSaving() {
+        user.setEmailAddress(" Valid@Email.Address");
+
+        given(reactiveUserRepositoryMock.findOneByNormalizedEmailAddress("valid@email.address")).willReturn(Mono.just(new User()));
+
+        StepVerifier.create(reactiveUserService.createUser(user))
+                .expectError(DuplicateEmailException.class)
+                .verify();
+
+        verify(reactiveUserRepositoryMock, never()).save(any(User.class));
+    }
+
+    @Test
+    public void givenExistingUserId_whenFetchUserById_thenReturnFoundUser() {
+        given(reactiveUserRepositoryMock.findById("userId")).willReturn(Mono.just(user));
+
+        StepVerifier.create(reactiveUserService.fetchUserById("userId"))
+                .expectNext(user)
+                .verifyComplete();
+    }
+
+    @Test
+    public void givenNonExistingUserId_whenFetchUserById_thenEmitError() {
+        given(reactiveUserRepositoryMock.findById("userId")).willReturn(Mono.empty());
+
+        StepVerifier.create(reactiveUserService.fetchUserById("userId"))
+                .expectError(UserDoesNotExistException.class)
+                .verify();
+    }
+
+    @Test
+    public void givenQuery_whenFetchUsers_thenReturnMatchingUsers() {
+        UserQuery query = new UserQuery();
+        query.setAfterId("userId");
+        query.setLimit(10);
+
+        given(reactiveUserRepositoryMock.findUsers(query)).willReturn(Flux.just(user));
+
+        StepVerifier.create(reactiveUserService.fetchUsers(query))
+                .expectNext(user)
+                .verifyComplete();
+    }
+
+    @Test
+    public void givenNonExistingUserId_whenEditUser_thenEmitError() {
+        given(reactiveUserRepositoryMock.updateById("userId", null, user)).willReturn(Mono.empty());
+
+        StepVerifier.create(reactiveUserService.editUser("userId", user))
+                .expectError(UserDoesNotExistException.class)
+                .verify();
+    }
+
+    @Test
+    public void givenExistingUserId_whenDeleteUser_thenComplete() {
+        given(reactiveUserRepositoryMock.removeById("userId")).willReturn(Mono.just(1L));
+
+        StepVerifier.create(reactiveUserService.deleteUser("userId"))
+                .verifyComplete();
+    }
+
+    @Test
+    public void givenNonExistingUserId_whenDeleteUser_thenEmitError() {
+        given(reactiveUserRepositoryMock.removeById("userId")).willReturn(Mono.just(0L));
+
+        StepVerifier.create(reactiveUserService.deleteUser("userId"))
+                .expectError(UserDoesNotExistException.class)
+                .verify();
+    }
+}
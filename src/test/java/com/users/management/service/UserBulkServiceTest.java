@@ -0,0 +1,157 @@
+package com.users.management.service;
+
+import com.users.management.configuration.BulkProperties;
+import com.users.management.configuration.CacheConfiguration;
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.User;
+import com.users.management.repository.UserRepository;
+import com.users.management.util.EmailBloomFilter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserBulkServiceTest {
+
+    private UserBulkService userBulkService;
+
+    @Mock
+    private UserRepository userRepositoryMock;
+
+    @Mock
+    private CacheManager cacheManagerMock;
+
+    @Mock
+    private Cache cacheMock;
+
+    private UserEmailRegistry userEmailRegistry;
+
+    @Before
+    public void setup() {
+        BulkProperties bulkProperties = new BulkProperties();
+        bulkProperties.setChunkSize(2);
+
+        userEmailRegistry = new UserEmailRegistry(userRepositoryMock, new EmailBloomFilter(1000, 0.01));
+        userBulkService = new UserBulkService(userRepositoryMock, cacheManagerMock, userEmailRegistry, bulkProperties);
+    }
+
+    @Test
+    public void givenMoreUsersThanChunkSize_whenCreateUsers_thenInsertInChunks() {
+        User first = newUser("first");
+        User second = newUser("second");
+        User third = newUser("third");
+        BulkItemResult firstResult = new BulkItemResult("id1", BulkItemResult.Status.CREATED, null);
+        BulkItemResult secondResult = new BulkItemResult(null, BulkItemResult.Status.DUPLICATE, "emailAddress must be unique");
+        BulkItemResult thirdResult = new BulkItemResult("id3", BulkItemResult.Status.CREATED, null);
+
+        given(userRepositoryMock.bulkInsert(Arrays.asList(first, second))).willReturn(Arrays.asList(firstResult, secondResult));
+        given(userRepositoryMock.bulkInsert(Collections.singletonList(third))).willReturn(Collections.singletonList(thirdResult));
+
+        List<BulkItemResult> actualOutput = userBulkService.createUsers(Arrays.asList(first, second, third));
+
+        verify(userRepositoryMock, times(2)).bulkInsert(any());
+        assertEquals(Arrays.asList(firstResult, secondResult, thirdResult), actualOutput);
+    }
+
+    @Test
+    public void givenTakenEmail_whenCreateUsers_thenRejectItWithoutInserting() {
+        User first = newUser("first");
+        User second = newUser("second");
+        BulkItemResult firstResult = new BulkItemResult("id1", BulkItemResult.Status.CREATED, null);
+
+        given(userRepositoryMock.streamEmailAddresses()).willReturn(Stream.of("second@email.address"));
+        given(userRepositoryMock.findExistingEmailAddresses(Collections.singletonList("second@email.address")))
+                .willReturn(Collections.singleton("second@email.address"));
+        given(userRepositoryMock.bulkInsert(Collections.singletonList(first))).willReturn(Collections.singletonList(firstResult));
+
+        userEmailRegistry.warmUp();
+        List<BulkItemResult> actualOutput = userBulkService.createUsers(Arrays.asList(first, second));
+
+        assertEquals(Arrays.asList(firstResult,
+                new BulkItemResult(null, BulkItemResult.Status.DUPLICATE, "emailAddress must be unique")), actualOutput);
+    }
+
+    @Test
+    public void givenCaseVariantOfTakenEmail_whenCreateUsers_thenRejectIt() {
+        User user = newUser("Second");
+
+        given(userRepositoryMock.streamEmailAddresses()).willReturn(Stream.of("second@email.address"));
+        given(userRepositoryMock.findExistingEmailAddresses(Collections.singletonList("Second@email.address")))
+                .willReturn(Collections.singleton("second@email.address"));
+
+        userEmailRegistry.warmUp();
+        List<BulkItemResult> actualOutput = userBulkService.createUsers(Collections.singletonList(user));
+
+        assertEquals(Collections.singletonList(
+                new BulkItemResult(null, BulkItemResult.Status.DUPLICATE, "emailAddress must be unique")), actualOutput);
+    }
+
+    @Test
+    public void givenEmailAddresses_whenFetchUsersByEmailAddresses_thenKeyFoundUsersByGivenAddress() {
+        User first = newUser("first");
+
+        given(userRepositoryMock.findByNormalizedEmailAddresses(Arrays.asList("first@email.address", "second@email.address")))
+                .willReturn(Collections.singletonList(first));
+
+        Map<String, User> actualOutput = userBulkService.fetchUsersByEmailAddresses(
+                Arrays.asList("First@Email.Address", "second@email.address"));
+
+        assertEquals(Collections.singletonMap("First@Email.Address", first), actualOutput);
+    }
+
+    @Test
+    public void givenUsers_whenEditUsers_thenEvictEditedUsersFromCache() {
+        User user = newUser("first");
+        user.setId("userId");
+        BulkItemResult result = new BulkItemResult("userId", BulkItemResult.Status.UPDATED, null);
+
+        given(cacheManagerMock.getCache(CacheConfiguration.USERS_CACHE)).willReturn(cacheMock);
+        given(userRepositoryMock.bulkUpdate(Collections.singletonList(user))).willReturn(Collections.singletonList(result));
+
+        List<BulkItemResult> actualOutput = userBulkService.editUsers(Collections.singletonList(user));
+
+        verify(cacheMock, times(1)).evict("userId");
+        assertEquals(Collections.singletonList(result), actualOutput);
+    }
+
+    @Test
+    public void givenIds_whenDeleteUsers_thenEvictDeletedUsersFromCache() {
+        List<BulkItemResult> results = Arrays.asList(
+                new BulkItemResult("id1", BulkItemResult.Status.DELETED, null),
+                new BulkItemResult("id2", BulkItemResult.Status.NOT_FOUND, null));
+
+        given(cacheManagerMock.getCache(CacheConfiguration.USERS_CACHE)).willReturn(cacheMock);
+        given(userRepositoryMock.bulkDelete(Arrays.asList("id1", "id2"))).willReturn(results);
+
+        List<BulkItemResult> actualOutput = userBulkService.deleteUsers(Arrays.asList("id1", "id2"));
+
+        verify(cacheMock, times(1)).evict("id1");
+        assertEquals(results, actualOutput);
+    }
+
+    private static User newUser(String firstName) {
+        User user = new User();
+
+        user.setFirstName(firstName);
+        user.setLastName("lastName");
+        user.setEmailAddress(firstName + "@email.address");
+        user.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        return user;
+    }
+}
@@ -0,0 +1,117 @@
+package com.users.management.service;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.users.management.exception.InvalidQueryParameterException;
+import com.users.management.model.User;
+import com.users.management.model.UserChangeEvent;
+import com.users.management.util.ChangeEvents;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListener;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.util.ErrorHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserChangeFeedTest {
+
+    private static final BsonDocument RESUME_TOKEN = new BsonDocument("_data", new BsonString("825CB5F2B2000000012B"));
+
+    @Mock
+    private MessageListenerContainer containerMock;
+
+    @Mock
+    private MongoTemplate mongoTemplateMock;
+
+    @Mock
+    private Subscription subscriptionMock;
+
+    private UserChangeFeed userChangeFeed;
+
+    @Before
+    public void setup() {
+        given(mongoTemplateMock.getCollectionName(User.class)).willReturn("user");
+        given(containerMock.register(any(ChangeStreamRequest.class), eq(User.class), any(ErrorHandler.class)))
+                .willReturn(subscriptionMock);
+
+        userChangeFeed = new UserChangeFeed(containerMock, mongoTemplateMock);
+    }
+
+    @Test
+    public void givenResumeToken_whenSubscribe_thenResumeChangeStreamAfterIt() throws InvalidQueryParameterException {
+        Subscription subscription = userChangeFeed.subscribe(ChangeEvents.encodeToken(RESUME_TOKEN), event -> {
+        });
+
+        ChangeStreamRequest.ChangeStreamRequestOptions options = registeredRequest().getRequestOptions();
+
+        assertSame(subscriptionMock, subscription);
+        assertEquals("user", options.getCollectionName());
+        assertEquals(Optional.of(RESUME_TOKEN), options.getChangeStreamOptions().getResumeToken());
+        assertEquals(Optional.of(FullDocument.UPDATE_LOOKUP), options.getChangeStreamOptions().getFullDocumentLookup());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void givenChangeMessages_whenSubscribe_thenPublishUserMutationsOnly() {
+        List<UserChangeEvent> events = new ArrayList<>();
+        User user = new User();
+        user.setId("5cb5f2b2e4b0a1a3c8f0b001");
+
+        userChangeFeed.subscribe(events::add);
+
+        MessageListener listener = registeredRequest().getMessageListener();
+        listener.onMessage(message(OperationType.UPDATE, user));
+        listener.onMessage(message(OperationType.DROP, null));
+
+        assertEquals(1, events.size());
+        assertEquals(UserChangeEvent.Operation.UPDATE, events.get(0).getOperation());
+        assertEquals(user, events.get(0).getUser());
+    }
+
+    @SuppressWarnings("unchecked")
+    private ChangeStreamRequest<User> registeredRequest() {
+        ArgumentCaptor<ChangeStreamRequest> request = ArgumentCaptor.forClass(ChangeStreamRequest.class);
+
+        verify(containerMock).register(request.capture(), eq(User.class), any(ErrorHandler.class));
+
+        return request.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Message<ChangeStreamDocument<Document>, User> message(OperationType operationType, User user) {
+        Message<ChangeStreamDocument<Document>, User> message = mock(Message.class);
+
+        given(message.getRaw()).willReturn(new ChangeStreamDocument<>(RESUME_TOKEN, new MongoNamespace("userManagement", "user"),
+                null, new BsonDocument("_id", new BsonObjectId(new ObjectId("5cb5f2b2e4b0a1a3c8f0b001"))), operationType, null));
+        given(message.getBody()).willReturn(user);
+
+        return message;
+    }
+}
@@ -0,0 +1,81 @@
+package com.users.management.service;
+
+import com.users.management.repository.UserRepository;
+import com.users.management.util.EmailBloomFilter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserEmailRegistryTest {
+
+    private UserEmailRegistry userEmailRegistry;
+
+    @Mock
+    private UserRepository userRepositoryMock;
+
+    @Before
+    public void setup() {
+        userEmailRegistry = new UserEmailRegistry(userRepositoryMock, new EmailBloomFilter(1000, 0.01));
+    }
+
+    @Test
+    public void givenBackfillConflicts_whenWarmUp_thenReportThem() {
+        given(userRepositoryMock.backfillNormalizedEmailAddresses()).willReturn(2L);
+        given(userRepositoryMock.streamEmailAddresses()).willReturn(Stream.of("first@email.address"));
+
+        userEmailRegistry.warmUp();
+
+        assertTrue(userEmailRegistry.isWarm());
+        assertEquals(Optional.of(2L), userEmailRegistry.getBackfillConflicts());
+        assertFalse(userEmailRegistry.getBackfillFailure().isPresent());
+    }
+
+    @Test
+    public void givenUnreachableMongo_whenWarmUp_thenReportTheFailures() {
+        given(userRepositoryMock.backfillNormalizedEmailAddresses()).willThrow(new DataAccessResourceFailureException("timed out"));
+        given(userRepositoryMock.streamEmailAddresses()).willThrow(new DataAccessResourceFailureException("timed out"));
+
+        userEmailRegistry.warmUp();
+
+        assertFalse(userEmailRegistry.isWarm());
+        assertFalse(userEmailRegistry.getBackfillConflicts().isPresent());
+        assertEquals(Optional.of("timed out"), userEmailRegistry.getBackfillFailure());
+        assertEquals(Optional.of("timed out"), userEmailRegistry.getWarmUpFailure());
+    }
+
+    @Test
+    public void givenSlowBackfill_whenStartWarmUp_thenReturnBeforeTheFilterIsWarm() throws InterruptedException {
+        CountDownLatch backfilled = new CountDownLatch(1);
+
+        given(userRepositoryMock.backfillNormalizedEmailAddresses()).willAnswer(invocation -> {
+            backfilled.await();
+            return 0L;
+        });
+        given(userRepositoryMock.streamEmailAddresses()).willReturn(Stream.of("first@email.address"));
+
+        userEmailRegistry.startWarmUp();
+
+        assertFalse(userEmailRegistry.isWarm());
+
+        backfilled.countDown();
+
+        for (int attempt = 0; attempt < 100 && !userEmailRegistry.isWarm(); attempt++) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(userEmailRegistry.isWarm());
+    }
+}
@@ -0,0 +1,93 @@
+package com.users.management.service;
+
+import com.users.management.configuration.CacheConfiguration;
+import com.users.management.exception.DuplicateEmailException;
+import com.users.management.exception.UserDoesNotExistException;
+import com.users.management.model.User;
+import com.users.management.repository.UserRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {UserService.class, CacheConfiguration.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+public class UserServiceCachingTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private UserRepository userRepositoryMock;
+
+    @MockBean
+    private UserEmailRegistry userEmailRegistryMock;
+
+    private User user;
+
+    @Before
+    public void setup() {
+        cacheManager.getCache(CacheConfiguration.USERS_CACHE).clear();
+
+        user = new User();
+
+        user.setId("userId");
+        user.setFirstName("firstName");
+        user.setLastName("lastName");
+        user.setEmailAddress("valid@email.address");
+        user.setDateOfBirth(LocalDate.of(2000, 1, 1));
+    }
+
+    @Test
+    public void givenCachedUser_whenFetchUserById_thenRepositoryIsQueriedOnce() throws UserDoesNotExistException {
+        given(userRepositoryMock.findById("userId")).willReturn(Optional.of(user));
+
+        userService.fetchUserById("userId");
+        User actualOutput = userService.fetchUserById("userId");
+
+        verify(userRepositoryMock, times(1)).findById("userId");
+        assertEquals(user, actualOutput);
+    }
+
+    @Test
+    public void givenCreatedUser_whenFetchUserById_thenReturnUserFromCache() throws UserDoesNotExistException, DuplicateEmailException {
+        given(userRepositoryMock.save(any(User.class))).willReturn(user);
+
+        userService.createUser(user);
+        User actualOutput = userService.fetchUserById("userId");
+
+        verify(userRepositoryMock, times(0)).findById("userId");
+        assertEquals(user, actualOutput);
+    }
+
+    @Test
+    public void givenDeletedUser_whenDeleteUser_thenUserIsEvicted() throws UserDoesNotExistException {
+        given(userRepositoryMock.findById("userId")).willReturn(Optional.of(user));
+        given(userRepositoryMock.removeById("userId")).willReturn(1L);
+
+        userService.fetchUserById("userId");
+        userService.deleteUser("userId");
+
+        assertNull(cacheManager.getCache(CacheConfiguration.USERS_CACHE).get("userId"));
+    }
+}
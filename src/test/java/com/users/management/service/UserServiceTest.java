@@ -1,7 +1,10 @@
 package com.users.management.service;
 
+import com.users.management.exception.DuplicateEmailException;
 import com.users.management.exception.UserDoesNotExistException;
+import com.users.management.exception.UserVersionMismatchException;
 import com.users.management.model.User;
+import com.users.management.model.UserQuery;
 import com.users.management.repository.UserRepository;
 import org.junit.Before;
 import org.junit.Test;
@@ -14,6 +17,9 @@ import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.BDDMockito.given;
@@ -28,6 +34,9 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepositoryMock;
 
+    @Mock
+    private UserEmailRegistry userEmailRegistryMock;
+
     private User user;
 
     @Before
@@ -42,7 +51,7 @@ public class UserServiceTest {
     }
 
     @Test
-    public void givenUser_whenCreateUser_thenReturnCreatedUser() {
+    public void givenUser_whenCreateUser_thenReturnCreatedUser() throws DuplicateEmailException {
         User userDomainObject = new User();
 
         userDomainObject.setFirstName("firstName");
@@ -55,9 +64,21 @@ public class UserServiceTest {
         User actualOutput = userService.createUser(userDomainObject);
 
         verify(userRepositoryMock, times(1)).save(any());
+        verify(userEmailRegistryMock, times(1)).register("valid@email.address");
         assertEquals(user, actualOutput);
     }
 
+    @Test(expected = DuplicateEmailException.class)
+    public void givenTakenEmail_whenCreateUser_thenThrowWithoutSaving() throws DuplicateEmailException {
+        given(userEmailRegistryMock.isTaken("valid@email.address")).willReturn(true);
+
+        try {
+            userService.createUser(user);
+        } finally {
+            verify(userRepositoryMock, never()).save(any());
+        }
+    }
+
     @Test
     public void givenExistingUserId_whenFetchUserById_thenReturnFoundUser() throws UserDoesNotExistException {
         given(userRepositoryMock.findById("userId")).willReturn(Optional.of(user));
@@ -68,6 +89,18 @@ public class UserServiceTest {
         assertEquals(user, actualOutput);
     }
 
+    @Test
+    public void givenFields_whenFetchUserById_thenReturnProjectedUser() throws UserDoesNotExistException {
+        Set<String> fields = Collections.singleton("emailAddress");
+
+        given(userRepositoryMock.findProjectedById("userId", fields)).willReturn(Optional.of(user));
+
+        User actualOutput = userService.fetchUserById("userId", fields);
+
+        verify(userRepositoryMock, never()).findById(anyString());
+        assertEquals(user, actualOutput);
+    }
+
     @Test(expected = UserDoesNotExistException.class)
     public void givenNonExistingUserId_whenFetchUserById_thenThrowException() throws UserDoesNotExistException {
         given(userRepositoryMock.findById("userId")).willReturn(Optional.empty());
@@ -78,15 +111,54 @@ public class UserServiceTest {
     }
 
     @Test
-    public void whenFetchAllUsers_thenReturnUsersList() {
-        List<User> expectedUserList = Collections.singletonList(user);
+    public void givenMixedCaseEmailAddress_whenFetchUserByEmailAddress_thenQueryNormalizedAddress() throws UserDoesNotExistException {
+        given(userRepositoryMock.findOneByNormalizedEmailAddress("valid@email.address")).willReturn(Optional.of(user));
+
+        User actualOutput = userService.fetchUserByEmailAddress(" Valid@Email.Address");
+
+        assertEquals(user, actualOutput);
+    }
+
+    @Test(expected = UserDoesNotExistException.class)
+    public void givenUnknownEmailAddress_whenFetchUserByEmailAddress_thenThrowException() throws UserDoesNotExistException {
+        given(userRepositoryMock.findOneByNormalizedEmailAddress("unknown@email.address")).willReturn(Optional.empty());
+
+        userService.fetchUserByEmailAddress("unknown@email.address");
+    }
+
+    @Test
+    public void givenQuery_whenFetchUsers_thenReturnMatchingUsers() {
+        UserQuery query = new UserQuery();
+        query.setLastName("lastName");
+        query.setLimit(10);
 
-        given(userRepositoryMock.findAll()).willReturn(Collections.singletonList(user));
+        given(userRepositoryMock.findUsers(query)).willReturn(Collections.singletonList(user));
 
-        List<User> actualUserList = userService.fetchAllUsers();
+        List<User> actualUserList = userService.fetchUsers(query);
 
-        verify(userRepositoryMock, times(1)).findAll();
-        assertEquals(expectedUserList, actualUserList);
+        verify(userRepositoryMock, times(1)).findUsers(query);
+        assertEquals(Collections.singletonList(user), actualUserList);
+    }
+
+    @Test
+    public void givenQuery_whenStreamUsers_thenReturnMatchingUsersStream() {
+        UserQuery query = new UserQuery();
+        query.setEmailPrefix("first");
+
+        given(userRepositoryMock.streamUsers(query)).willReturn(Stream.of(user));
+
+        List<User> actualUserList = userService.streamUsers(query).collect(Collectors.toList());
+
+        assertEquals(Collections.singletonList(user), actualUserList);
+    }
+
+    @Test
+    public void whenStreamAllUsers_thenReturnUsersStream() {
+        given(userRepositoryMock.streamAllByOrderByIdAsc()).willReturn(Stream.of(user));
+
+        List<User> actualUserList = userService.streamAllUsers().collect(Collectors.toList());
+
+        assertEquals(Collections.singletonList(user), actualUserList);
     }
 
     @Test
@@ -99,12 +171,12 @@ public class UserServiceTest {
         updatedUser.setEmailAddress("valid@email.address");
         updatedUser.setDateOfBirth(LocalDate.of(2000, 1, 1));
 
-        given(userRepositoryMock.findById("userId")).willReturn(Optional.of(user));
-        given(userRepositoryMock.save(updatedUser)).willReturn(updatedUser);
+        given(userRepositoryMock.updateById("userId", null, updatedUser)).willReturn(Optional.of(updatedUser));
 
         User actualOutput = userService.editUser("userId", updatedUser);
 
-        verify(userRepositoryMock, times(1)).findById("userId");
+        verify(userRepositoryMock, times(1)).updateById("userId", null, updatedUser);
+        verify(userRepositoryMock, never()).findById("userId");
         assertEquals(updatedUser, actualOutput);
     }
 
@@ -118,29 +190,56 @@ public class UserServiceTest {
         updatedUser.setEmailAddress("valid@email.address");
         updatedUser.setDateOfBirth(LocalDate.of(2000, 1, 1));
 
-        given(userRepositoryMock.findById("userId")).willReturn(Optional.empty());
+        given(userRepositoryMock.updateById("userId", null, updatedUser)).willReturn(Optional.empty());
 
         userService.editUser("userId", updatedUser);
 
         verify(userRepositoryMock, times(0)).save(user);
     }
 
+    @Test
+    public void givenMatchingVersion_whenEditUser_thenReturnUpdatedUser() throws UserDoesNotExistException, UserVersionMismatchException {
+        given(userRepositoryMock.updateById("userId", 3L, user)).willReturn(Optional.of(user));
+
+        User actualOutput = userService.editUser("userId", 3L, user);
+
+        verify(userRepositoryMock, never()).existsById(anyString());
+        assertEquals(user, actualOutput);
+    }
+
+    @Test(expected = UserVersionMismatchException.class)
+    public void givenStaleVersion_whenEditUser_thenThrowVersionMismatch() throws UserDoesNotExistException, UserVersionMismatchException {
+        given(userRepositoryMock.updateById("userId", 2L, user)).willReturn(Optional.empty());
+        given(userRepositoryMock.existsById("userId")).willReturn(true);
+
+        userService.editUser("userId", 2L, user);
+    }
+
+    @Test(expected = UserDoesNotExistException.class)
+    public void givenVersionAndNonExistingUserId_whenEditUser_thenThrowUserDoesNotExist() throws UserDoesNotExistException, UserVersionMismatchException {
+        given(userRepositoryMock.updateById("userId", 2L, user)).willReturn(Optional.empty());
+        given(userRepositoryMock.existsById("userId")).willReturn(false);
+
+        userService.editUser("userId", 2L, user);
+    }
+
     @Test
     public void givenExistingUserId_whenDeleteUser_thenReturnUpdatedUser() throws UserDoesNotExistException {
-        given(userRepositoryMock.findById("userId")).willReturn(Optional.of(user));
+        given(userRepositoryMock.removeById("userId")).willReturn(1L);
 
         userService.deleteUser("userId");
 
-        verify(userRepositoryMock, times(1)).delete(user);
+        verify(userRepositoryMock, times(1)).removeById("userId");
+        verify(userRepositoryMock, never()).findById("userId");
     }
 
     @Test(expected = UserDoesNotExistException.class)
     public void givenNonExistingUserId_whenDeleteUser_thenReturnUpdatedUser() throws UserDoesNotExistException {
-        given(userRepositoryMock.findById("userId")).willReturn(Optional.empty());
+        given(userRepositoryMock.removeById("userId")).willReturn(0L);
 
         userService.deleteUser("userId");
 
-        verify(userRepositoryMock, times(0)).delete(user);
+        verify(userRepositoryMock, times(1)).removeById("userId");
     }
 
 }
@@ -0,0 +1,110 @@
+package com.users.management.service;
+
+import com.users.management.configuration.CacheConfiguration;
+import com.users.management.configuration.WriteBehindProperties;
+import com.users.management.exception.WriteQueueFullException;
+import com.users.management.model.BulkItemResult;
+import com.users.management.model.PendingUser;
+import com.users.management.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserWriteBehindQueueTest {
+
+    private UserWriteBehindQueue userWriteBehindQueue;
+
+    @Mock
+    private UserBulkService userBulkServiceMock;
+
+    @Mock
+    private UserEmailRegistry userEmailRegistryMock;
+
+    @Mock
+    private CacheManager cacheManagerMock;
+
+    @Mock
+    private Cache cacheMock;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @Before
+    public void setup() {
+        WriteBehindProperties writeBehindProperties = new WriteBehindProperties();
+        writeBehindProperties.setQueueCapacity(2);
+
+        meterRegistry = new SimpleMeterRegistry();
+        userWriteBehindQueue = new UserWriteBehindQueue(userBulkServiceMock, userEmailRegistryMock, cacheManagerMock,
+                writeBehindProperties, meterRegistry);
+    }
+
+    @Test
+    public void givenQueuedUsers_whenFlush_thenCompleteResultsAndCacheCreatedUsers() throws Exception {
+        PendingUser first = userWriteBehindQueue.enqueue(newUser("first"));
+        PendingUser second = userWriteBehindQueue.enqueue(newUser("second"));
+        List<PendingUser> batch = Arrays.asList(first, second);
+
+        given(cacheManagerMock.getCache(CacheConfiguration.USERS_CACHE)).willReturn(cacheMock);
+        given(userBulkServiceMock.createUsers(Arrays.asList(first.getUser(), second.getUser()))).willReturn(Arrays.asList(
+                new BulkItemResult(first.getUser().getId(), BulkItemResult.Status.CREATED, null),
+                new BulkItemResult(null, BulkItemResult.Status.DUPLICATE, "emailAddress must be unique")));
+
+        userWriteBehindQueue.flush(batch);
+
+        assertEquals(BulkItemResult.Status.CREATED, first.getResult().get().getStatus());
+        assertEquals(BulkItemResult.Status.DUPLICATE, second.getResult().get().getStatus());
+        assertEquals(second.getUser().getId(), second.getResult().get().getId());
+        assertTrue(userWriteBehindQueue.findPendingUser(first.getUser().getId()).isPresent());
+        assertEquals(1, meterRegistry.get("users.write-behind.flush").timer().count());
+        verify(cacheMock).put(first.getUser().getId(), first.getUser());
+        verify(cacheMock, never()).put(second.getUser().getId(), second.getUser());
+    }
+
+    @Test(expected = WriteQueueFullException.class)
+    public void givenFullQueue_whenEnqueue_thenThrowWriteQueueFullException() throws Exception {
+        userWriteBehindQueue.enqueue(newUser("first"));
+        userWriteBehindQueue.enqueue(newUser("second"));
+
+        try {
+            userWriteBehindQueue.enqueue(newUser("third"));
+        } finally {
+            assertEquals(1.0, meterRegistry.get("users.write-behind.rejected").counter().count(), 0.0);
+            verify(userBulkServiceMock, never()).createUsers(any());
+        }
+    }
+
+    @Test(expected = WriteQueueFullException.class)
+    public void givenStoppedQueue_whenEnqueue_thenThrowWriteQueueFullException() throws Exception {
+        userWriteBehindQueue.stop();
+
+        try {
+            userWriteBehindQueue.enqueue(newUser("first"));
+        } finally {
+            verify(userBulkServiceMock, never()).createUsers(any());
+        }
+    }
+
+    private static User newUser(String name) {
+        User user = new User();
+        user.setFirstName(name);
+        user.setEmailAddress(name + "@email.address");
+
+        return user;
+    }
+}
@@ -0,0 +1,133 @@
+package com.users.management.storage;
+
+import com.users.management.model.User;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapUserStoreTest {
+
+    private static final int SLAB_SIZE = 4 * 1024;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void givenWrittenUsers_whenReopen_thenRecoverThemFromTheLog() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath();
+
+        OffHeapUserStore store = open(directory);
+        store.compute("1", existing -> user("1", "one@email.address"));
+        store.compute("2", existing -> user("2", "two@email.address"));
+        store.compute("1", existing -> user("1", "uno@email.address"));
+        store.remove("2");
+
+        // The first store is never closed, like after a crash, so nothing was snapshotted.
+        OffHeapUserStore reopened = open(directory);
+
+        assertEquals(1, reopened.size());
+        assertEquals("uno@email.address", reopened.findById("1").get().getEmailAddress());
+        assertFalse(reopened.containsEmailAddress("one@email.address"));
+        assertFalse(reopened.existsById("2"));
+
+        reopened.close();
+    }
+
+    @Test
+    public void givenTornLogTail_whenReopen_thenKeepEveryCompleteEntry() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath();
+
+        OffHeapUserStore store = open(directory);
+        store.compute("1", existing -> user("1", "one@email.address"));
+        store.compute("2", existing -> user("2", "two@email.address"));
+
+        long validLength = store.logBytes();
+
+        try (FileChannel log = FileChannel.open(directory.resolve("users-0.log"), StandardOpenOption.WRITE)) {
+            // Cuts the last entry in half.
+            log.truncate(validLength - 10);
+        }
+
+        OffHeapUserStore reopened = open(directory);
+
+        assertTrue(reopened.existsById("1"));
+        assertFalse(reopened.existsById("2"));
+
+        reopened.compute("3", existing -> user("3", "three@email.address"));
+        reopened.close();
+
+        OffHeapUserStore again = open(directory);
+
+        assertEquals(2, again.size());
+        assertTrue(again.existsById("3"));
+
+        again.close();
+    }
+
+    @Test
+    public void givenManyEdits_whenCompactedAndSnapshotted_thenKeepLatestUsers() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath();
+
+        OffHeapUserStore store = new OffHeapUserStore(directory, SLAB_SIZE, 1024, 16 * 1024, false);
+
+        for (int round = 0; round < 200; round++) {
+            for (int id = 0; id < 10; id++) {
+                String userId = String.valueOf(id);
+                String emailAddress = id + "-" + round + "@email.address";
+
+                store.compute(userId, existing -> user(userId, emailAddress));
+            }
+        }
+
+        assertTrue(store.garbageBytes() <= Math.max(store.liveBytes(), SLAB_SIZE));
+        store.close();
+
+        OffHeapUserStore reopened = open(directory);
+        List<String> emailAddresses = reopened.streamOrderedById().map(User::getEmailAddress).collect(Collectors.toList());
+
+        assertEquals(10, emailAddresses.size());
+        assertEquals("0-199@email.address", emailAddresses.get(0));
+        assertTrue(reopened.containsEmailAddress("9-199@email.address"));
+        assertFalse(reopened.containsEmailAddress("9-198@email.address"));
+
+        reopened.close();
+    }
+
+    @Test(expected = DuplicateKeyException.class)
+    public void givenTakenEmail_whenCompute_thenThrowDuplicateKeyException() throws IOException {
+        OffHeapUserStore store = open(temporaryFolder.getRoot().toPath());
+
+        store.compute("1", existing -> user("1", "one@email.address"));
+        store.compute("2", existing -> user("2", "one@email.address"));
+    }
+
+    private static OffHeapUserStore open(Path directory) throws IOException {
+        return new OffHeapUserStore(directory, SLAB_SIZE, 64 * 1024, 1024 * 1024, false);
+    }
+
+    private static User user(String id, String emailAddress) {
+        User user = new User();
+
+        user.setId(id);
+        user.setVersion(0L);
+        user.setFirstName("firstName");
+        user.setLastName("lastName");
+        user.setEmailAddress(emailAddress);
+        user.setDateOfBirth(LocalDate.of(2000, 1, 1));
+
+        return user;
+    }
+}
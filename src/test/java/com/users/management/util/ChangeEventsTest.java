@@ -0,0 +1,69 @@
+package com.users.management.util;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.users.management.exception.InvalidQueryParameterException;
+import com.users.management.model.User;
+import com.users.management.model.UserChangeEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ChangeEventsTest {
+
+    private static final ObjectId USER_ID = new ObjectId("5cb5f2b2e4b0a1a3c8f0b001");
+
+    private static final BsonDocument RESUME_TOKEN = new BsonDocument("_data", new BsonString("825CB5F2B2000000012B"));
+
+    @Test
+    public void givenResumeToken_whenEncodeAndDecode_thenReturnSameToken() throws InvalidQueryParameterException {
+        String token = ChangeEvents.encodeToken(RESUME_TOKEN);
+
+        assertEquals(RESUME_TOKEN, ChangeEvents.decodeToken(token));
+        assertNull(ChangeEvents.decodeToken(null));
+    }
+
+    @Test(expected = InvalidQueryParameterException.class)
+    public void givenMalformedToken_whenDecode_thenThrowException() throws InvalidQueryParameterException {
+        ChangeEvents.decodeToken("bm90IGpzb24");
+    }
+
+    @Test
+    public void givenInsertAndReplace_whenToEvent_thenMapToCreateAndUpdate() {
+        User user = new User();
+        user.setId(USER_ID.toHexString());
+
+        UserChangeEvent created = ChangeEvents.toEvent(change(OperationType.INSERT), user);
+        UserChangeEvent replaced = ChangeEvents.toEvent(change(OperationType.REPLACE), user);
+
+        assertEquals(new UserChangeEvent(UserChangeEvent.Operation.CREATE, USER_ID.toHexString(), user,
+                ChangeEvents.encodeToken(RESUME_TOKEN)), created);
+        assertEquals(UserChangeEvent.Operation.UPDATE, replaced.getOperation());
+    }
+
+    @Test
+    public void givenDelete_whenToEvent_thenCarryOnlyUserId() {
+        UserChangeEvent deleted = ChangeEvents.toEvent(change(OperationType.DELETE), null);
+
+        assertEquals(UserChangeEvent.Operation.DELETE, deleted.getOperation());
+        assertEquals(USER_ID.toHexString(), deleted.getUserId());
+        assertNull(deleted.getUser());
+    }
+
+    @Test
+    public void givenInvalidate_whenToEvent_thenSkip() {
+        assertNull(ChangeEvents.toEvent(change(OperationType.INVALIDATE), null));
+    }
+
+    private ChangeStreamDocument<Document> change(OperationType operationType) {
+        return new ChangeStreamDocument<>(RESUME_TOKEN, new MongoNamespace("userManagement", "user"), null,
+                new BsonDocument("_id", new BsonObjectId(USER_ID)), operationType, null);
+    }
+}
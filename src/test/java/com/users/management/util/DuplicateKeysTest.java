@@ -0,0 +1,29 @@
+package com.users.management.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DuplicateKeysTest {
+
+    @Test
+    public void givenMongoMessage_whenIndexName_thenReturnViolatedIndex() {
+        String message = "E11000 duplicate key error collection: userManagement.user index: emailAddress dup key: { : \"a@b.c\" }";
+
+        assertEquals("emailAddress", DuplicateKeys.indexName(message));
+        assertEquals(DuplicateKeys.DUPLICATE_EMAIL_CODE, DuplicateKeys.errorCode(DuplicateKeys.indexName(message)));
+    }
+
+    @Test
+    public void givenNormalizedEmailViolation_whenIndexName_thenReportEmailAddress() {
+        String message = "E11000 duplicate key error collection: userManagement.user index: normalizedEmailAddress dup key: { : \"a@b.c\" }";
+
+        assertEquals("emailAddress", DuplicateKeys.indexName(message));
+    }
+
+    @Test
+    public void givenUnexpectedMessage_whenIndexName_thenFallBackToKey() {
+        assertEquals("key", DuplicateKeys.indexName("E11000 duplicate key error"));
+        assertEquals(DuplicateKeys.DUPLICATE_KEY_CODE, DuplicateKeys.errorCode("key"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.users.management.util;
+
+import com.users.management.model.User;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+public class ETagsTest {
+
+    @Test
+    public void givenUnversionedUser_whenETag_thenUseVersionZero() {
+        assertEquals("\"0\"", ETags.of(user("userId", null)));
+        assertEquals("\"7\"", ETags.of(user("userId", 7L)));
+    }
+
+    @Test
+    public void givenChangedVersion_whenPageETag_thenETagChanges() {
+        String eTag = ETags.of(Arrays.asList(user("a", 1L), user("b", 1L)));
+
+        assertEquals(eTag, ETags.of(Arrays.asList(user("a", 1L), user("b", 1L))));
+        assertNotEquals(eTag, ETags.of(Arrays.asList(user("a", 1L), user("b", 2L))));
+        assertNotEquals(eTag, ETags.of(Arrays.asList(user("b", 1L), user("a", 1L))));
+    }
+
+    @Test
+    public void givenIfMatch_whenParseVersion_thenReturnExpectedVersion() {
+        assertNull(ETags.parseVersion(null));
+        assertNull(ETags.parseVersion("*"));
+        assertEquals(Long.valueOf(4L), ETags.parseVersion("\"4\""));
+        assertEquals(Long.valueOf(ETags.UNMATCHABLE_VERSION), ETags.parseVersion("W/\"4\""));
+        assertEquals(Long.valueOf(ETags.UNMATCHABLE_VERSION), ETags.parseVersion("\"abc\""));
+    }
+
+    private static User user(String id, Long version) {
+        User user = new User();
+
+        user.setId(id);
+        user.setVersion(version);
+
+        return user;
+    }
+}
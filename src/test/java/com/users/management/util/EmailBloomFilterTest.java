@@ -0,0 +1,39 @@
+package com.users.management.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class EmailBloomFilterTest {
+
+    @Test
+    public void givenAddedEmails_whenMightContain_thenNeverMissOne() {
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@email.address");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@email.address"));
+        }
+    }
+
+    @Test
+    public void givenFullFilter_whenMightContainUnknownEmails_thenStayNearFalsePositiveRate() {
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+        int falsePositives = 0;
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@email.address");
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i + "@email.address")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(String.format("%d false positives", falsePositives), falsePositives < 2_000);
+    }
+}
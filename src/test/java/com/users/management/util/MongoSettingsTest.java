@@ -0,0 +1,46 @@
+package com.users.management.util;
+
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class MongoSettingsTest {
+
+    @Test
+    public void givenNameAndTimeout_whenWriteConcern_thenReturnConcernWithTimeout() {
+        WriteConcern writeConcern = MongoSettings.writeConcern("majority", Duration.ofSeconds(5));
+
+        assertEquals(WriteConcern.MAJORITY.withWTimeout(5, TimeUnit.SECONDS), writeConcern);
+        assertEquals(WriteConcern.UNACKNOWLEDGED, MongoSettings.writeConcern("unacknowledged", Duration.ofSeconds(5)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenUnknownName_whenWriteConcern_thenThrowException() {
+        MongoSettings.writeConcern("most", null);
+    }
+
+    @Test
+    public void givenMaxStaleness_whenReadPreference_thenReturnPreferenceWithStaleness() {
+        ReadPreference readPreference = MongoSettings.readPreference("secondaryPreferred", Duration.ofSeconds(90));
+
+        assertEquals(ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS), readPreference);
+        assertEquals(ReadPreference.primary(), MongoSettings.readPreference("primary", null));
+    }
+
+    @Test
+    public void givenNames_whenCompressors_thenReturnCompressors() {
+        List<MongoCompressor> compressors = MongoSettings.compressors(Arrays.asList("snappy", "zlib"));
+
+        assertEquals(Arrays.asList("snappy", "zlib"), Arrays.asList(compressors.get(0).getName(), compressors.get(1).getName()));
+        assertEquals(Collections.emptyList(), MongoSettings.compressors(Collections.emptyList()));
+    }
+}
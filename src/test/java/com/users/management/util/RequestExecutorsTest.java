@@ -0,0 +1,73 @@
+package com.users.management.util;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+public class RequestExecutorsTest {
+
+    @Test
+    public void givenBusyBoundedExecutor_whenQueueIsFull_thenRejectRequest() throws Exception {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) RequestExecutors.bounded(1, 1, Duration.ofSeconds(1));
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            executor.execute(() -> await(release));
+            executor.execute(() -> await(release));
+
+            assertEquals(1, executor.getMaximumPoolSize());
+            assertEquals(1, executor.getQueue().size());
+
+            try {
+                executor.execute(() -> await(release));
+                fail("Expected the third request to be rejected");
+            } catch (RejectedExecutionException e) {
+                // expected
+            }
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void givenJava21_whenVirtual_thenRunRequestsOnVirtualThreads() throws Exception {
+        assumeTrue(RequestExecutors.virtualThreadsAvailable());
+
+        ExecutorService executor = RequestExecutors.virtual();
+
+        try {
+            Boolean virtual = executor.submit(() -> (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())).get();
+
+            assertTrue(virtual);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void givenOlderJava_whenVirtual_thenThrowIllegalStateException() {
+        assumeFalse(RequestExecutors.virtualThreadsAvailable());
+
+        RequestExecutors.virtual();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.users.management.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TokenBucketTest {
+
+    @Test
+    public void givenFullBucket_whenTryAcquire_thenAllowBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(5, 1);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+
+        assertEquals(TimeUnit.SECONDS.toNanos(1), bucket.tryAcquire(0));
+    }
+
+    @Test
+    public void givenEmptyBucket_whenTimePasses_thenRefillAtRate() {
+        TokenBucket bucket = new TokenBucket(2, 10);
+        long tenthOfASecond = TimeUnit.MILLISECONDS.toNanos(100);
+
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertTrue(bucket.tryAcquire(tenthOfASecond / 2) > 0);
+        assertEquals(0, bucket.tryAcquire(tenthOfASecond));
+        assertTrue(bucket.tryAcquire(tenthOfASecond) > 0);
+        assertEquals(0, bucket.tryAcquire(10 * tenthOfASecond));
+        assertEquals(0, bucket.tryAcquire(10 * tenthOfASecond));
+        assertTrue(bucket.tryAcquire(10 * tenthOfASecond) > 0);
+    }
+}
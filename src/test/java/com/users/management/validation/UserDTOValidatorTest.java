@@ -0,0 +1,113 @@
+package com.users.management.validation;
+
+import com.users.management.dto.ErrorDTO;
+import com.users.management.dto.UserDTO;
+import org.junit.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class UserDTOValidatorTest {
+
+    private UserDTOValidator userDTOValidator = new UserDTOValidator();
+
+    private Validator beanValidator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    public void givenValidUser_whenValidate_thenReturnNoErrors() {
+        assertTrue(userDTOValidator.validate(userDTO("firstName", "lastName", "valid@email.address", LocalDate.of(2000, 1, 1))).isEmpty());
+    }
+
+    @Test
+    public void givenInvalidUsers_whenValidate_thenReturnSameErrorsAsBeanValidation() {
+        List<UserDTO> userDTOs = Arrays.asList(
+                userDTO(null, "", " \t", null),
+                userDTO("firstName", "lastName", "invalidemailaddress", LocalDate.now()),
+                userDTO("firstName", "lastName", "a@b", LocalDate.now().plusDays(1)),
+                userDTO("firstName", "lastName", "two@@email.address", LocalDate.of(2000, 1, 1)),
+                userDTO("firstName", "lastName", "dots..in@email.address", LocalDate.of(2000, 1, 1)),
+                userDTO("firstName", "lastName", "user@-email.address", LocalDate.of(2000, 1, 1)),
+                userDTO("firstName", "lastName", "user@[127.0.0.1]", LocalDate.of(2000, 1, 1)),
+                userDTO("firstName", "lastName", "\"quoted user\"@email.address", LocalDate.of(2000, 1, 1)),
+                userDTO("firstName", "lastName", "\"quoted@user\"@Email.Address", LocalDate.now()),
+                userDTO("firstName", "lastName", "user@[IPv6:2001:db8::1]", LocalDate.now()),
+                userDTO("firstName", "lastName", "user@[IPv6:127.0.0.1]", LocalDate.of(2000, 1, 1)),
+                userDTO("firstName", "lastName", "user@email.address.", LocalDate.of(2000, 1, 1)),
+                userDTO("firstName", "lastName", "\u00fcser@\u00e9mail.address", LocalDate.now()),
+                userDTO("firstName", "lastName", String.join("", Collections.nCopies(65, "a")) + "@email.address", LocalDate.of(2000, 1, 1)),
+                userDTO("firstName", "lastName", "user@" + String.join(".", Collections.nCopies(65, "abc")), LocalDate.of(2000, 1, 1)),
+                userDTO("firstName", "lastName", "", LocalDate.of(2000, 1, 1)));
+
+        for (UserDTO userDTO : userDTOs) {
+            assertEquals(userDTO.getEmailAddress(), beanValidationErrors(userDTO), errors(userDTO));
+            assertEquals(userDTO.getEmailAddress(), beanValidationCodes(userDTO), codes(userDTO));
+        }
+    }
+
+    private Set<String> errors(UserDTO userDTO) {
+        Set<String> errors = new HashSet<>();
+
+        for (ErrorDTO error : userDTOValidator.validate(userDTO)) {
+            errors.add(error.getMessage());
+        }
+
+        return errors;
+    }
+
+    private Set<String> codes(UserDTO userDTO) {
+        Set<String> codes = new HashSet<>();
+        Errors errors = new BeanPropertyBindingResult(userDTO, "userDTO");
+
+        userDTOValidator.validate(userDTO, errors);
+
+        for (FieldError error : errors.getFieldErrors()) {
+            codes.add(error.getField() + ", " + error.getCode());
+        }
+
+        return codes;
+    }
+
+    private Set<String> beanValidationCodes(UserDTO userDTO) {
+        Set<String> codes = new HashSet<>();
+
+        for (ConstraintViolation<UserDTO> violation : beanValidator.validate(userDTO)) {
+            codes.add(violation.getPropertyPath() + ", " + violation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName());
+        }
+
+        return codes;
+    }
+
+    private Set<String> beanValidationErrors(UserDTO userDTO) {
+        Set<String> errors = new HashSet<>();
+
+        for (ConstraintViolation<UserDTO> violation : beanValidator.validate(userDTO)) {
+            errors.add(violation.getPropertyPath() + ", " + violation.getMessage());
+        }
+
+        return errors;
+    }
+
+    private static UserDTO userDTO(String firstName, String lastName, String emailAddress, LocalDate dateOfBirth) {
+        UserDTO userDTO = new UserDTO();
+
+        userDTO.setFirstName(firstName);
+        userDTO.setLastName(lastName);
+        userDTO.setEmailAddress(emailAddress);
+        userDTO.setDateOfBirth(dateOfBirth);
+
+        return userDTO;
+    }
+}